@@ -0,0 +1,302 @@
+package io.ajo.responscore.api;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limits the number of requests validating at once to an {@link AimdLimit} adapting to observed latency, so a spike
+ * queues briefly then is shed, rather than queueing without bound and raising the latency of every request.
+ * Requests over the limit wait in a bounded queue per {@link Priority}, and are admitted in priority order as others
+ * complete. A request is rejected immediately if its queue is full, or once it has waited longer than
+ * {@link LimiterOptions#getQueueTimeout()}.
+ * Bulk requests are admitted per form rather than per request, and hold at most
+ * {@link LimiterOptions#getBulkShare()} of the limit, so however many forms are streamed, interactive requests only
+ * ever wait behind a bounded share of bulk work.
+ */
+final class AdmissionController {
+
+    /**
+     * Reason a request was rejected
+     */
+    enum Rejection {
+        QUEUE_FULL,
+        QUEUE_TIMEOUT
+    }
+
+    /**
+     * Thrown when a request isn't admitted
+     */
+    static final class RejectedException extends Exception {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Rejection rejection;
+
+        RejectedException(Rejection rejection) {
+            super(rejection == Rejection.QUEUE_FULL ? "too many requests" : "timed out waiting for admission");
+            this.rejection = rejection;
+        }
+
+        Rejection getRejection() {
+            return rejection;
+        }
+
+    }
+
+    /**
+     * Outcome of an admitted request, determining how it adjusts the limit
+     */
+    enum Outcome {
+        /**
+         * Completed, its latency is a sample of the limit
+         */
+        SUCCESS,
+        /**
+         * Didn't complete its work, such as validation passing its deadline, so taken as overload
+         */
+        DROPPED,
+        /**
+         * Latency isn't representative, such as a failed or long running request, so the limit isn't adjusted
+         */
+        IGNORED
+    }
+
+    /**
+     * Admission of a request, which must be released once the request completes
+     * @param priority priority the request was admitted with
+     * @param startNanos time of admission, latency excludes time spent queued
+     */
+    record Permit(Priority priority, long startNanos) {}
+
+    /**
+     * Point in time metrics of admission
+     * @param limit current concurrency limit
+     * @param inFlight requests admitted and not yet released
+     * @param queued requests waiting for admission by priority
+     * @param admitted requests admitted in total
+     * @param rejected requests rejected in total by reason
+     * @param limitIncreases number of times the limit has grown
+     * @param limitDecreases number of times the limit has shrunk
+     */
+    record Metrics(
+            int limit,
+            int inFlight,
+            Map<Priority, Integer> queued,
+            long admitted,
+            Map<Rejection, Long> rejected,
+            long limitIncreases,
+            long limitDecreases
+    ) {}
+
+    private final LimiterOptions options;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final AimdLimit limit;
+    private final Map<Priority, Deque<CompletableFuture<Void>>> queues = new EnumMap<>(Priority.class);
+    private final Map<Rejection, Long> rejected = new EnumMap<>(Rejection.class);
+    private int inFlight;
+    private int bulkInFlight;
+    private long admitted;
+
+    AdmissionController(LimiterOptions options) {
+        this.options = options;
+        this.limit = new AimdLimit(options);
+        for (final Priority priority : Priority.values()) {
+            queues.put(priority, new ArrayDeque<>());
+        }
+        for (final Rejection rejection : Rejection.values()) {
+            rejected.put(rejection, 0L);
+        }
+    }
+
+    /**
+     * Admit a request, waiting in the queue of its priority if over the limit
+     * @param priority priority of the request
+     * @return permit of the admitted request
+     * @throws RejectedException if the request isn't admitted
+     */
+    Permit acquire(Priority priority) throws RejectedException {
+        final Deque<CompletableFuture<Void>> queue = queues.get(priority);
+        final CompletableFuture<Void> waiter;
+        lock.lock();
+        try {
+            // never overtake requests of the same or higher priority already waiting
+            if (canAdmit(priority) && isQueueEmpty(priority)) {
+                return admit(priority);
+            }
+            if (queue.size() >= options.queueSize(priority)) {
+                throw reject(Rejection.QUEUE_FULL);
+            }
+            waiter = new CompletableFuture<>();
+            queue.add(waiter);
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            waiter.get(options.getQueueTimeout().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException | InterruptedException e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            lock.lock();
+            try {
+                // may have been admitted since timing out, waiters are only completed while holding the lock
+                if (!waiter.isDone()) {
+                    queue.remove(waiter);
+                    throw reject(Rejection.QUEUE_TIMEOUT);
+                }
+            } finally {
+                lock.unlock();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e);
+        }
+        return new Permit(priority, System.nanoTime());
+    }
+
+    /**
+     * Admit further work of a request already admitted, such as the next form of a bulk request, waiting for as long
+     * as it takes rather than being rejected, as the request has already started responding
+     * @param priority priority of the work
+     * @return permit of the admitted work
+     * @throws InterruptedException if interrupted while waiting, the work isn't admitted
+     */
+    Permit acquireAdmitted(Priority priority) throws InterruptedException {
+        final Deque<CompletableFuture<Void>> queue = queues.get(priority);
+        final CompletableFuture<Void> waiter;
+        lock.lock();
+        try {
+            if (canAdmit(priority) && isQueueEmpty(priority)) {
+                return admit(priority);
+            }
+            waiter = new CompletableFuture<>();
+            queue.add(waiter);
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            waiter.get();
+        } catch (InterruptedException e) {
+            lock.lock();
+            try {
+                if (!waiter.isDone()) {
+                    queue.remove(waiter);
+                    throw e;
+                }
+            } finally {
+                lock.unlock();
+            }
+            // admitted while being interrupted, so keep the permit and leave the interrupt to the caller
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e);
+        }
+        return new Permit(priority, System.nanoTime());
+    }
+
+    /**
+     * Release an admitted request, admitting those waiting while under the limit
+     * @param permit permit of the request
+     * @param outcome outcome of the request
+     */
+    void release(Permit permit, Outcome outcome) {
+        final long latencyNanos = System.nanoTime() - permit.startNanos();
+        lock.lock();
+        try {
+            if (outcome != Outcome.IGNORED) {
+                limit.onSample(latencyNanos, inFlight, outcome == Outcome.DROPPED);
+            }
+            inFlight--;
+            if (permit.priority() == Priority.BULK) {
+                bulkInFlight--;
+            }
+            admitWaiting();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    Metrics getMetrics() {
+        lock.lock();
+        try {
+            final Map<Priority, Integer> queued = new EnumMap<>(Priority.class);
+            queues.forEach((priority, queue) -> queued.put(priority, queue.size()));
+            return new Metrics(
+                    limit.getLimit(),
+                    inFlight,
+                    queued,
+                    admitted,
+                    new EnumMap<>(rejected),
+                    limit.getIncreases(),
+                    limit.getDecreases()
+            );
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Admit waiting requests in priority order while under the limit, must hold the lock
+     */
+    private void admitWaiting() {
+        for (final Map.Entry<Priority, Deque<CompletableFuture<Void>>> entry : queues.entrySet()) {
+            final Deque<CompletableFuture<Void>> queue = entry.getValue();
+            while (canAdmit(entry.getKey()) && !queue.isEmpty()) {
+                admit(entry.getKey());
+                queue.poll().complete(null);
+            }
+        }
+    }
+
+    /**
+     * Whether a request of the priority is under the limit, and under the bulk share if bulk, must hold the lock
+     */
+    private boolean canAdmit(Priority priority) {
+        if (inFlight >= limit.getLimit()) {
+            return false;
+        }
+        return priority != Priority.BULK
+                || bulkInFlight < Math.max(1, (int) (limit.getLimit() * options.getBulkShare()));
+    }
+
+    /**
+     * Count an admission, must hold the lock
+     */
+    private Permit admit(Priority priority) {
+        inFlight++;
+        if (priority == Priority.BULK) {
+            bulkInFlight++;
+        }
+        admitted++;
+        return new Permit(priority, System.nanoTime());
+    }
+
+    /**
+     * Whether no request of the priority or higher is waiting, must hold the lock
+     */
+    private boolean isQueueEmpty(Priority priority) {
+        for (final Map.Entry<Priority, Deque<CompletableFuture<Void>>> entry : queues.entrySet()) {
+            if (entry.getKey().compareTo(priority) <= 0 && !entry.getValue().isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Count a rejection, must hold the lock
+     */
+    private RejectedException reject(Rejection rejection) {
+        rejected.merge(rejection, 1L, Long::sum);
+        return new RejectedException(rejection);
+    }
+
+}
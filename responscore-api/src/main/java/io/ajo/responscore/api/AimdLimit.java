@@ -0,0 +1,67 @@
+package io.ajo.responscore.api;
+
+/**
+ * Concurrency limit adjusted by additive increase, multiplicative decrease on observed latency. Each request completing
+ * within the target latency grows the limit by {@code 1 / limit}, so by about one per limit's worth of requests, but
+ * only while the limit is actually being used. A request over the target, or dropped, multiplies the limit by the
+ * backoff ratio. Not thread safe, see {@link AdmissionController}.
+ */
+final class AimdLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatencyNanos;
+    private final double backoffRatio;
+    private double limit;
+    private long increases;
+    private long decreases;
+
+    AimdLimit(LimiterOptions options) {
+        this.minLimit = options.getMinLimit();
+        this.maxLimit = options.getMaxLimit();
+        this.targetLatencyNanos = options.getTargetLatency().toNanos();
+        this.backoffRatio = options.getBackoffRatio();
+        this.limit = Math.max(minLimit, Math.min(maxLimit, options.getInitialLimit()));
+    }
+
+    int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * Number of times the limit has grown
+     */
+    long getIncreases() {
+        return increases;
+    }
+
+    /**
+     * Number of times the limit has shrunk
+     */
+    long getDecreases() {
+        return decreases;
+    }
+
+    /**
+     * Adjust the limit by the latency of a completed request
+     * @param latencyNanos latency of the request
+     * @param inFlight requests in flight when it completed, including itself
+     * @param dropped {@literal true} if the request didn't complete its work, such as validation passing its deadline
+     */
+    void onSample(long latencyNanos, int inFlight, boolean dropped) {
+        final int before = getLimit();
+        if (dropped || latencyNanos > targetLatencyNanos) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+        } else if (inFlight * 2 >= before) {
+            // only grow while at least half the limit is used, otherwise a quiet period would grow it unchecked
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+        final int after = getLimit();
+        if (after > before) {
+            increases++;
+        } else if (after < before) {
+            decreases++;
+        }
+    }
+
+}
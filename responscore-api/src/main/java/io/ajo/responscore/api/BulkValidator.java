@@ -0,0 +1,187 @@
+package io.ajo.responscore.api;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.ajo.responscore.compiled.CompiledConfig;
+import io.ajo.responscore.form.Form;
+import io.ajo.responscore.service.CancellationToken;
+import io.ajo.responscore.service.FormService;
+import io.ajo.responscore.service.ValidationResult;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Validates newline delimited JSON forms, writing one result line per form in the order the forms were read.
+ * Forms are parsed and validated in parallel on the bulk executor, while the request thread reads lines and
+ * writes results. Each form is admitted by the {@link AdmissionController} before it's submitted, so bulk load is
+ * counted per form in flight, and reading waits while bulk work holds its share of the limit. Results wait in a window of at most {@link ServerOptions#getBulkWindow()} lines to be written in
+ * order, each written as soon as it and every line before it are done. Once the window is full reading waits on the
+ * oldest line, so a slow client or slow validation pushes back on reading the request rather than buffering it.
+ */
+final class BulkValidator {
+
+    /**
+     * Line submitted for validation, with the permit it was admitted by, which is released once it's validated
+     */
+    private record Pending(Future<byte[]> future, AdmissionController.Permit permit) {}
+
+    private final ObjectMapper objectMapper;
+    private final FormService formService;
+    private final ExecutorService executor;
+    private final AdmissionController admissionController;
+    private final ServerOptions options;
+
+    BulkValidator(
+            ObjectMapper objectMapper,
+            FormService formService,
+            ExecutorService executor,
+            AdmissionController admissionController,
+            ServerOptions options
+    ) {
+        this.objectMapper = objectMapper;
+        this.formService = formService;
+        this.executor = executor;
+        this.admissionController = admissionController;
+        this.options = options;
+    }
+
+    /**
+     * Validate every form read from the input against the config, writing the results to the output
+     * @param admission permit the request was admitted by, used for its first form, and released by this
+     * @throws IOException if reading the input or writing the output fails, validation of lines still in progress is
+     *                     cancelled
+     */
+    void validate(CompiledConfig config, InputStream in, OutputStream out, AdmissionController.Permit admission) throws IOException {
+        final CancellationToken cancellationToken = new CancellationToken();
+        final Deque<Pending> window = new ArrayDeque<>();
+        final NdjsonReader reader = new NdjsonReader(in, options.getMaxBulkLineBytes());
+        AdmissionController.Permit permit = admission;
+        try {
+            NdjsonReader.Line line;
+            while ((line = reader.next()) != null) {
+                if (window.size() >= options.getBulkWindow()) {
+                    out.write(await(window.poll().future()));
+                }
+                if (permit == null) {
+                    permit = acquire();
+                }
+                window.add(submit(config, line, cancellationToken, permit));
+                permit = null;
+                if (writeDone(window, out)) {
+                    out.flush();
+                }
+            }
+            while (!window.isEmpty()) {
+                out.write(await(window.poll().future()));
+                writeDone(window, out);
+                out.flush();
+            }
+        } catch (IOException | RuntimeException e) {
+            cancellationToken.cancel();
+            for (final Pending pending : window) {
+                // lines not yet started never run, so never release their permits themselves
+                if (pending.future().cancel(false)) {
+                    release(pending.permit());
+                }
+            }
+            throw e;
+        } finally {
+            if (permit != null) {
+                release(permit);
+            }
+        }
+    }
+
+    private AdmissionController.Permit acquire() throws IOException {
+        try {
+            return admissionController.acquireAdmitted(Priority.BULK);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted waiting for admission");
+        }
+    }
+
+    /**
+     * The latency of a form of a bulk request includes waiting behind the others, so says nothing of the limit
+     */
+    private void release(AdmissionController.Permit permit) {
+        admissionController.release(permit, AdmissionController.Outcome.IGNORED);
+    }
+
+    private Pending submit(
+            CompiledConfig config,
+            NdjsonReader.Line line,
+            CancellationToken cancellationToken,
+            AdmissionController.Permit permit
+    ) throws IOException {
+        if (line.isTooLong()) {
+            final byte[] error = lineBytes(Json.toBytes(objectMapper, gen -> Json.writeError(gen,
+                    line.number(), "line is longer than " + options.getMaxBulkLineBytes() + " bytes")));
+            release(permit);
+            return new Pending(CompletableFuture.completedFuture(error), permit);
+        }
+        return new Pending(executor.submit(() -> {
+            try {
+                return validateLine(config, line, cancellationToken);
+            } finally {
+                release(permit);
+            }
+        }), permit);
+    }
+
+    private byte[] validateLine(CompiledConfig config, NdjsonReader.Line line, CancellationToken cancellationToken) throws IOException {
+        final Form form;
+        try {
+            form = objectMapper.readValue(line.bytes(), Form.class);
+        } catch (JsonProcessingException e) {
+            return lineBytes(Json.toBytes(objectMapper, gen -> Json.writeError(gen, line.number(), e.getOriginalMessage())));
+        }
+        // the deadline starts once the form is picked up rather than when it was read
+        final ValidationResult result = formService.validate(config, form, options.formValidationOptions(cancellationToken));
+        return lineBytes(Json.toBytes(objectMapper, gen -> Json.writeResult(gen, line.number(), result)));
+    }
+
+    /**
+     * Writes results from the head of the window for as long as they are done
+     * @return {@literal true} if any were written
+     */
+    private static boolean writeDone(Deque<Pending> window, OutputStream out) throws IOException {
+        boolean written = false;
+        while (!window.isEmpty() && window.peek().future().isDone()) {
+            out.write(await(window.poll().future()));
+            written = true;
+        }
+        return written;
+    }
+
+    private static byte[] await(Future<byte[]> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted waiting on validation");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IllegalStateException("validation failed", e.getCause());
+        }
+    }
+
+    private static byte[] lineBytes(byte[] json) {
+        final byte[] line = new byte[json.length + 1];
+        System.arraycopy(json, 0, line, 0, json.length);
+        line[json.length] = '\n';
+        return line;
+    }
+
+}
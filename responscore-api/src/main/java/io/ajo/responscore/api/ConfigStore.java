@@ -0,0 +1,155 @@
+package io.ajo.responscore.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.ajo.responscore.compiled.CompiledConfig;
+import io.ajo.responscore.compiled.ConfigSnapshot;
+import io.ajo.responscore.config.Config;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In memory store of configs by id, each held alongside its compilation so forms are validated without recompiling,
+ * and its serialised response so it is fetched without serialising. Configs can be restored from a
+ * {@link ConfigSnapshot}, each is only materialised from it on first use.
+ * Each id has a single state in the map of entries, so a snapshot sees every config as either put, removed, restored
+ * or materialised, never between two of them.
+ */
+public class ConfigStore {
+
+    /**
+     * @param config config as it was put
+     * @param compiled compilation of the config
+     * @param schema response of the config
+     */
+    record Entry(Config config, CompiledConfig compiled, SchemaResponse schema) {}
+
+    /**
+     * Entry of the configs of the snapshot not yet materialised, put or removed
+     */
+    private static final Entry UNLOADED = new Entry(null, null, null);
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ObjectMapper objectMapper;
+    private final ConfigSnapshot snapshot;
+    /**
+     * Held shared to put or remove a config, and exclusively to take the view of the entries a snapshot is written from
+     */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public ConfigStore() {
+        this(null, null);
+    }
+
+    /**
+     * @param objectMapper mapper to serialise configs materialised from the snapshot with
+     * @param snapshot snapshot to restore configs from, or {@literal null} to start empty
+     */
+    ConfigStore(ObjectMapper objectMapper, ConfigSnapshot snapshot) {
+        this.objectMapper = objectMapper;
+        this.snapshot = snapshot;
+        if (snapshot != null) {
+            for (final String id : snapshot.getIds()) {
+                entries.put(id, UNLOADED);
+            }
+        }
+    }
+
+    /**
+     * @return entry of the config, or {@literal null} if there is none with the id
+     */
+    Entry get(String id) {
+        final Entry entry = entries.get(id);
+        if (entry != UNLOADED) {
+            return entry;
+        }
+        // compiled outside the map, and only published if the config wasn't put or removed meanwhile. A snapshot written
+        // meanwhile copies the config from the snapshot instead, which is the same config
+        final Entry materialised = materialise(id);
+        if (materialised != null ? entries.replace(id, UNLOADED, materialised) : entries.remove(id, UNLOADED)) {
+            return materialised;
+        }
+        return entries.get(id);
+    }
+
+    /**
+     * @return compiled config, or {@literal null} if there is none with the id
+     */
+    public CompiledConfig getCompiled(String id) {
+        final Entry entry = get(id);
+        return entry != null ? entry.compiled() : null;
+    }
+
+    /**
+     * Put the config, replacing any with the same id
+     * @return {@literal true} if the config replaced an existing one
+     */
+    boolean put(String id, Config config, CompiledConfig compiled, SchemaResponse schema) {
+        lock.readLock().lock();
+        try {
+            return entries.put(id, new Entry(config, compiled, schema)) != null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return {@literal true} if there was a config with the id
+     */
+    public boolean remove(String id) {
+        lock.readLock().lock();
+        try {
+            return entries.remove(id) != null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Write every config to a snapshot, those not yet materialised from the snapshot restored from are copied as they
+     * are. The configs written are those of a single point in time, puts and removes wait only while the entries are
+     * copied, not while the snapshot is written
+     * @param path file to write
+     */
+    public void writeSnapshot(Path path) throws IOException {
+        final Map<String, Entry> view;
+        lock.writeLock().lock();
+        try {
+            view = new HashMap<>(entries);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        final ConfigSnapshot.Writer writer = new ConfigSnapshot.Writer();
+        for (final Map.Entry<String, Entry> entry : view.entrySet()) {
+            if (entry.getValue() == UNLOADED) {
+                writer.copy(entry.getKey(), snapshot);
+            } else {
+                writer.add(entry.getKey(), entry.getValue().compiled());
+            }
+        }
+        writer.write(path);
+    }
+
+    /**
+     * @return entry of the config from the snapshot, or {@literal null} if it has none with the id or it's stale
+     */
+    private Entry materialise(String id) {
+        final CompiledConfig compiled = snapshot.get(id);
+        if (compiled == null) {
+            return null;
+        }
+        try {
+            return new Entry(compiled.getConfig(), compiled, SchemaResponse.of(objectMapper, compiled.getConfig(), compiled));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
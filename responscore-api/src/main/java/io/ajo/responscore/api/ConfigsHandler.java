@@ -0,0 +1,373 @@
+package io.ajo.responscore.api;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import io.ajo.responscore.compiled.CompiledConfig;
+import io.ajo.responscore.compiled.CompiledLookup;
+import io.ajo.responscore.config.Config;
+import io.ajo.responscore.config.ConfigCompactor;
+import io.ajo.responscore.config.ConfigReader;
+import io.ajo.responscore.config.LookupItem;
+import io.ajo.responscore.form.Form;
+import io.ajo.responscore.service.FormService;
+import io.ajo.responscore.service.ValidationResult;
+
+import javax.validation.ConstraintViolationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Handles the routes under {@code /configs/}:
+ *  - {@code PUT /configs/{id}} validates, compiles and stores the config in the body
+ *  - {@code GET /configs/{id}} returns the stored config, see {@link SchemaResponse}
+ *  - {@code DELETE /configs/{id}} removes the stored config
+ *  - {@code POST /configs/{id}/validate} validates the form in the body against the stored config
+ *  - {@code POST /configs/{id}/validate:bulk} validates newline delimited forms in the body against the stored config,
+ *    streaming back a result line per form, see {@link BulkValidator}
+ *  - {@code GET /configs/{id}/lookups/{code}/search?q=..&limit=..} searches the items of a lookup of the stored config
+ *    by code and label, see {@link CompiledLookup#search(String, int)}
+ * Request bodies are parsed straight from the request stream, and apart from bulk requests rejected with 413 once
+ * larger than {@link ServerOptions#getMaxRequestBytes()}. Validation is admitted by the {@link AdmissionController},
+ * requests it rejects are answered with 429 if their queue is full, or 503 if they timed out waiting.
+ */
+final class ConfigsHandler implements HttpHandler {
+
+    static final String PREFIX = "/configs/";
+
+    private static final int DEFAULT_SEARCH_LIMIT = 10;
+    private static final int MAX_SEARCH_LIMIT = 100;
+
+    private final ObjectMapper objectMapper;
+    private final ConfigStore configStore;
+    private final CompletableFuture<FormService> formService;
+    private final ExecutorService validationExecutor;
+    private final ExecutorService bulkExecutor;
+    private final AdmissionController admissionController;
+    private final ServerOptions options;
+    private final ConfigReader configReader = new ConfigReader();
+    private final ConfigCompactor configCompactor = new ConfigCompactor();
+
+    /**
+     * @param formService form service, which may still be starting
+     * @param validationExecutor executor validating forms, bounding CPU bound work to its threads while request
+     *                           threads only wait on it
+     * @param bulkExecutor executor validating the forms of bulk requests
+     * @param admissionController admission of validation requests
+     */
+    ConfigsHandler(
+            ObjectMapper objectMapper,
+            ConfigStore configStore,
+            CompletableFuture<FormService> formService,
+            ExecutorService validationExecutor,
+            ExecutorService bulkExecutor,
+            AdmissionController admissionController,
+            ServerOptions options
+    ) {
+        this.objectMapper = objectMapper;
+        this.configStore = configStore;
+        this.formService = formService;
+        this.validationExecutor = validationExecutor;
+        this.bulkExecutor = bulkExecutor;
+        this.admissionController = admissionController;
+        this.options = options;
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        try {
+            route(exchange);
+        } catch (LimitedInputStream.TooLargeException e) {
+            sendJson(exchange, 413, gen -> Json.writeError(gen, e.getMessage()));
+        } catch (JsonProcessingException e) {
+            sendJson(exchange, 400, gen -> Json.writeError(gen, e.getLocation() != null
+                    ? e.getOriginalMessage() + " (line " + e.getLocation().getLineNr() + ", column " + e.getLocation().getColumnNr() + ")"
+                    : e.getOriginalMessage()));
+        } catch (AdmissionController.RejectedException e) {
+            // rejected before the body is read, so rejection costs next to nothing
+            exchange.getResponseHeaders().set("Retry-After", "1");
+            final int status = e.getRejection() == AdmissionController.Rejection.QUEUE_FULL ? 429 : 503;
+            sendJson(exchange, status, gen -> Json.writeError(gen, e.getMessage()));
+        } catch (RuntimeException e) {
+            // otherwise the exchange is closed without a response
+            sendJson(exchange, 500, gen -> Json.writeError(gen, "internal error"));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void route(HttpExchange exchange) throws IOException, AdmissionController.RejectedException {
+        final String[] parts = exchange.getRequestURI().getPath().substring(PREFIX.length()).split("/", -1);
+        if (parts[0].isEmpty()) {
+            sendJson(exchange, 404, gen -> Json.writeError(gen, "not found"));
+        } else if (parts.length == 4 && parts[1].equals("lookups") && parts[3].equals("search")) {
+            if (exchange.getRequestMethod().equals("GET")) {
+                searchLookup(exchange, parts[0], parts[2]);
+            } else {
+                methodNotAllowed(exchange, "GET");
+            }
+        } else if (parts.length > 2) {
+            sendJson(exchange, 404, gen -> Json.writeError(gen, "not found"));
+        } else if (parts.length == 1) {
+            switch (exchange.getRequestMethod()) {
+                case "GET" -> getConfig(exchange, parts[0]);
+                case "PUT" -> putConfig(exchange, parts[0]);
+                case "DELETE" -> deleteConfig(exchange, parts[0]);
+                default -> methodNotAllowed(exchange, "GET, PUT, DELETE");
+            }
+        } else if (parts[1].equals("validate") || parts[1].equals("validate:bulk")) {
+            if (!exchange.getRequestMethod().equals("POST")) {
+                methodNotAllowed(exchange, "POST");
+            } else if (parts[1].equals("validate")) {
+                validate(exchange, parts[0]);
+            } else {
+                validateBulk(exchange, parts[0]);
+            }
+        } else {
+            sendJson(exchange, 404, gen -> Json.writeError(gen, "not found"));
+        }
+    }
+
+    private void getConfig(HttpExchange exchange, String id) throws IOException {
+        final ConfigStore.Entry entry = configStore.get(id);
+        if (entry == null) {
+            sendConfigNotFound(exchange, id);
+            return;
+        }
+        final SchemaResponse schema = entry.schema();
+        final SchemaResponse.Encoding encoding = schema.select(exchange.getRequestHeaders().getFirst("Accept-Encoding"));
+        final Headers headers = exchange.getResponseHeaders();
+        headers.set("ETag", schema.etag(encoding));
+        headers.set("Vary", "Accept-Encoding");
+        headers.set("Cache-Control", "no-cache");
+        if (schema.matches(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            sendEmpty(exchange, 304);
+            return;
+        }
+        final byte[] body = schema.body(encoding);
+        headers.set("Content-Type", "application/json");
+        if (encoding.contentEncoding != null) {
+            headers.set("Content-Encoding", encoding.contentEncoding);
+        }
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private void putConfig(HttpExchange exchange, String id) throws IOException {
+        final Config config;
+        try (InputStream in = requestBody(exchange)) {
+            // held for as long as the config is stored, so compacted before it's compiled against
+            config = configCompactor.compact(configReader.read(in));
+        }
+        if (options.getDictionaryDirectory() == null && config.getLookupConfigs() != null
+                && config.getLookupConfigs().stream().anyMatch(lookupConfig -> lookupConfig != null && lookupConfig.getDictionary() != null)) {
+            sendJson(exchange, 400, gen -> Json.writeError(gen, "lookup dictionaries are not enabled on this server"));
+            return;
+        }
+        final ConfigStore.Entry previous = configStore.get(id);
+        final CompiledConfig compiled;
+        try {
+            // reuse whatever is unchanged from the config being replaced
+            compiled = formService.join().compileConfig(config, previous != null ? previous.compiled() : null);
+        } catch (ConstraintViolationException e) {
+            sendJson(exchange, 400, gen -> Json.writeViolations(gen, e.getConstraintViolations()));
+            return;
+        } catch (IllegalArgumentException e) {
+            // a lookup dictionary the config references can't be opened
+            sendJson(exchange, 400, gen -> Json.writeError(gen, e.getMessage()));
+            return;
+        }
+        // serialised once here rather than on every fetch, and only compressed again if the bytes changed, a client
+        // re-putting the config it fetched reuses the stored response
+        final SchemaResponse schema = SchemaResponse.of(objectMapper, config, compiled, previous != null ? previous.schema() : null);
+        final boolean replaced = configStore.put(id, config, compiled, schema);
+        sendEmpty(exchange, replaced ? 204 : 201);
+    }
+
+    private void deleteConfig(HttpExchange exchange, String id) throws IOException {
+        if (!configStore.remove(id)) {
+            sendConfigNotFound(exchange, id);
+            return;
+        }
+        sendEmpty(exchange, 204);
+    }
+
+    private void validate(HttpExchange exchange, String id) throws IOException, AdmissionController.RejectedException {
+        final CompiledConfig config = configStore.getCompiled(id);
+        if (config == null) {
+            sendConfigNotFound(exchange, id);
+            return;
+        }
+        // read before admission, so a slow upload neither holds a slot nor counts towards the latency the limit adapts to
+        final Form form = readBody(exchange, Form.class);
+        final AdmissionController.Permit permit = admissionController.acquire(Priority.INTERACTIVE);
+        AdmissionController.Outcome outcome = AdmissionController.Outcome.IGNORED;
+        try {
+            final ValidationResult result = validateOnExecutor(config, form);
+            outcome = result.complete() ? AdmissionController.Outcome.SUCCESS : AdmissionController.Outcome.DROPPED;
+            sendJson(exchange, 200, gen -> Json.writeResult(gen, result));
+        } finally {
+            admissionController.release(permit, outcome);
+        }
+    }
+
+    private void searchLookup(HttpExchange exchange, String id, String lookupCode) throws IOException {
+        final CompiledConfig config = configStore.getCompiled(id);
+        if (config == null) {
+            sendConfigNotFound(exchange, id);
+            return;
+        }
+        final CompiledLookup lookup = config.getLookup(lookupCode);
+        if (lookup == null) {
+            sendJson(exchange, 404, gen -> Json.writeError(gen, "no lookup with code " + lookupCode));
+            return;
+        }
+        final Map<String, String> parameters = queryParameters(exchange);
+        final int limit;
+        try {
+            limit = Math.min(MAX_SEARCH_LIMIT, Integer.parseInt(parameters.getOrDefault("limit", String.valueOf(DEFAULT_SEARCH_LIMIT))));
+        } catch (NumberFormatException e) {
+            sendJson(exchange, 400, gen -> Json.writeError(gen, "limit must be a number"));
+            return;
+        }
+        if (limit < 1) {
+            sendJson(exchange, 400, gen -> Json.writeError(gen, "limit must be at least 1"));
+            return;
+        }
+        final List<LookupItem> items = lookup.search(parameters.getOrDefault("q", ""), limit);
+        sendJson(exchange, 200, gen -> Json.writeLookupItems(gen, items));
+    }
+
+    /**
+     * Validate on the validation executor, so the request thread blocks, rather than occupying a carrier thread with
+     * CPU bound work while other requests wait to even reach admission
+     */
+    private ValidationResult validateOnExecutor(CompiledConfig config, Form form) throws IOException {
+        final Future<ValidationResult> future = validationExecutor.submit(
+                () -> formService.join().validate(config, form, options.formValidationOptions(null)));
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted waiting on validation");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("validation failed", e.getCause());
+        }
+    }
+
+    private void validateBulk(HttpExchange exchange, String id) throws IOException, AdmissionController.RejectedException {
+        final CompiledConfig config = configStore.getCompiled(id);
+        if (config == null) {
+            sendConfigNotFound(exchange, id);
+            return;
+        }
+        // admits the first form, rejecting the request under overload before responding, the rest are admitted as
+        // they're read
+        final AdmissionController.Permit permit = admissionController.acquire(Priority.BULK);
+        final BulkValidator bulkValidator;
+        final InputStream in;
+        final OutputStream out;
+        try {
+            bulkValidator = new BulkValidator(objectMapper, formService.join(), bulkExecutor, admissionController, options);
+            // results are streamed as they are ready, so the response is chunked and any failure from here on can only
+            // be reported by closing the connection
+            exchange.getResponseHeaders().set("Content-Type", "application/x-ndjson");
+            exchange.sendResponseHeaders(200, 0);
+            in = exchange.getRequestBody();
+            out = exchange.getResponseBody();
+        } catch (IOException | RuntimeException e) {
+            admissionController.release(permit, AdmissionController.Outcome.IGNORED);
+            throw e;
+        }
+        try (in; out) {
+            bulkValidator.validate(config, in, out, permit);
+        }
+    }
+
+    /**
+     * Request body limited to {@link ServerOptions#getMaxRequestBytes()}, rejected up front if it declares a larger
+     * length
+     */
+    InputStream requestBody(HttpExchange exchange) throws IOException {
+        final String contentLength = exchange.getRequestHeaders().getFirst("Content-Length");
+        if (contentLength != null) {
+            try {
+                if (Long.parseLong(contentLength) > options.getMaxRequestBytes()) {
+                    throw new LimitedInputStream.TooLargeException(options.getMaxRequestBytes());
+                }
+            } catch (NumberFormatException e) {
+                // left to the server to reject
+            }
+        }
+        return new LimitedInputStream(exchange.getRequestBody(), options.getMaxRequestBytes());
+    }
+
+    private static Map<String, String> queryParameters(HttpExchange exchange) {
+        final Map<String, String> parameters = new HashMap<>();
+        final String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) {
+            return parameters;
+        }
+        for (final String parameter : query.split("&")) {
+            final int equals = parameter.indexOf('=');
+            if (equals > 0) {
+                parameters.putIfAbsent(
+                        URLDecoder.decode(parameter.substring(0, equals), StandardCharsets.UTF_8),
+                        URLDecoder.decode(parameter.substring(equals + 1), StandardCharsets.UTF_8)
+                );
+            }
+        }
+        return parameters;
+    }
+
+    private <T> T readBody(HttpExchange exchange, Class<T> type) throws IOException {
+        try (InputStream in = requestBody(exchange)) {
+            return objectMapper.readValue(in, type);
+        }
+    }
+
+    private void sendConfigNotFound(HttpExchange exchange, String id) throws IOException {
+        sendJson(exchange, 404, gen -> Json.writeError(gen, "no config with id " + id));
+    }
+
+    private void methodNotAllowed(HttpExchange exchange, String allowed) throws IOException {
+        exchange.getResponseHeaders().set("Allow", allowed);
+        sendJson(exchange, 405, gen -> Json.writeError(gen, "method not allowed"));
+    }
+
+    private void sendEmpty(HttpExchange exchange, int status) throws IOException {
+        exchange.sendResponseHeaders(status, -1);
+    }
+
+    /**
+     * Sends a JSON response, buffered so it is sent with its length
+     */
+    private void sendJson(HttpExchange exchange, int status, Json.Writer writer) throws IOException {
+        final byte[] body = Json.toBytes(objectMapper, writer);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+}
@@ -0,0 +1,170 @@
+package io.ajo.responscore.api;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import io.ajo.responscore.config.LookupItem;
+import io.ajo.responscore.service.ValidationResult;
+
+import javax.validation.ConstraintViolation;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reading and writing of the JSON bodies of the server. Responses are written directly with a {@link JsonGenerator}
+ * rather than mapped from intermediate objects.
+ */
+final class Json {
+
+    private static final Comparator<ConstraintViolation<?>> VIOLATION_ORDER = Comparator
+            .comparing((ConstraintViolation<?> v) -> v.getPropertyPath().toString())
+            .thenComparing(ConstraintViolation::getMessage);
+
+    /**
+     * Writes a JSON value
+     */
+    @FunctionalInterface
+    interface Writer {
+        void write(JsonGenerator gen) throws IOException;
+    }
+
+    private Json() {
+    }
+
+    /**
+     * @return object mapper for request bodies, reading sets in order so attributes of a config keep their order
+     */
+    static ObjectMapper newObjectMapper() {
+        return new ObjectMapper()
+                .registerModule(new SimpleModule().addAbstractTypeMapping(Set.class, LinkedHashSet.class));
+    }
+
+    /**
+     * @return the value written, encoded as UTF-8
+     */
+    static byte[] toBytes(ObjectMapper objectMapper, Writer writer) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+        try (JsonGenerator gen = objectMapper.getFactory().createGenerator(out)) {
+            writer.write(gen);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Writes {@code {"valid":..,"complete":..,"violations":[..]}}
+     */
+    static void writeResult(JsonGenerator gen, ValidationResult result) throws IOException {
+        gen.writeStartObject();
+        writeResultFields(gen, result);
+        gen.writeEndObject();
+    }
+
+    /**
+     * Writes {@code {"line":..,"valid":..,"complete":..,"violations":[..]}}, the result of a line of a bulk request
+     */
+    static void writeResult(JsonGenerator gen, long line, ValidationResult result) throws IOException {
+        gen.writeStartObject();
+        gen.writeNumberField("line", line);
+        writeResultFields(gen, result);
+        gen.writeEndObject();
+    }
+
+    /**
+     * Writes {@code {"violations":[..]}}
+     */
+    static void writeViolations(JsonGenerator gen, Collection<? extends ConstraintViolation<?>> violations) throws IOException {
+        gen.writeStartObject();
+        writeViolationsField(gen, violations);
+        gen.writeEndObject();
+    }
+
+    /**
+     * Writes {@code {"error":..}}
+     */
+    static void writeError(JsonGenerator gen, String message) throws IOException {
+        gen.writeStartObject();
+        gen.writeStringField("error", message);
+        gen.writeEndObject();
+    }
+
+    /**
+     * Writes {@code {"limit":..,"inFlight":..,"queued":{..},"admitted":..,"rejected":{..},"limitIncreases":..,
+     * "limitDecreases":..}}, priorities and rejection reasons in lower case
+     */
+    static void writeMetrics(JsonGenerator gen, AdmissionController.Metrics metrics) throws IOException {
+        gen.writeStartObject();
+        gen.writeNumberField("limit", metrics.limit());
+        gen.writeNumberField("inFlight", metrics.inFlight());
+        gen.writeObjectFieldStart("queued");
+        for (final Map.Entry<Priority, Integer> entry : metrics.queued().entrySet()) {
+            gen.writeNumberField(entry.getKey().name().toLowerCase(Locale.ROOT), entry.getValue());
+        }
+        gen.writeEndObject();
+        gen.writeNumberField("admitted", metrics.admitted());
+        gen.writeObjectFieldStart("rejected");
+        for (final Map.Entry<AdmissionController.Rejection, Long> entry : metrics.rejected().entrySet()) {
+            gen.writeNumberField(entry.getKey().name().toLowerCase(Locale.ROOT), entry.getValue());
+        }
+        gen.writeEndObject();
+        gen.writeNumberField("limitIncreases", metrics.limitIncreases());
+        gen.writeNumberField("limitDecreases", metrics.limitDecreases());
+        gen.writeEndObject();
+    }
+
+    /**
+     * Writes {@code {"items":[{"code":..,"label":..}]}}
+     */
+    static void writeLookupItems(JsonGenerator gen, List<LookupItem> items) throws IOException {
+        gen.writeStartObject();
+        gen.writeArrayFieldStart("items");
+        for (final LookupItem item : items) {
+            gen.writeStartObject();
+            gen.writeStringField("code", item.getCode());
+            gen.writeStringField("label", item.getLabel());
+            gen.writeEndObject();
+        }
+        gen.writeEndArray();
+        gen.writeEndObject();
+    }
+
+    /**
+     * Writes {@code {"line":..,"error":..}}, a line of a bulk request which couldn't be validated
+     */
+    static void writeError(JsonGenerator gen, long line, String message) throws IOException {
+        gen.writeStartObject();
+        gen.writeNumberField("line", line);
+        gen.writeStringField("error", message);
+        gen.writeEndObject();
+    }
+
+    private static void writeResultFields(JsonGenerator gen, ValidationResult result) throws IOException {
+        gen.writeBooleanField("valid", result.isValid());
+        gen.writeBooleanField("complete", result.complete());
+        writeViolationsField(gen, result.violations());
+    }
+
+    /**
+     * Writes the violations as {@code {"path":..,"message":..}} sorted by path then message, so responses are stable
+     */
+    private static void writeViolationsField(
+            JsonGenerator gen,
+            Collection<? extends ConstraintViolation<?>> violations
+    ) throws IOException {
+        gen.writeArrayFieldStart("violations");
+        for (final ConstraintViolation<?> violation : violations.stream().sorted(VIOLATION_ORDER).toList()) {
+            gen.writeStartObject();
+            gen.writeStringField("path", violation.getPropertyPath().toString());
+            gen.writeStringField("message", violation.getMessage());
+            gen.writeEndObject();
+        }
+        gen.writeEndArray();
+    }
+
+}
@@ -0,0 +1,70 @@
+package io.ajo.responscore.api;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Stream of a request body which fails once more than a maximum number of bytes is read, so an oversized body is
+ * rejected while being parsed rather than after it has been buffered
+ */
+final class LimitedInputStream extends FilterInputStream {
+
+    /**
+     * Thrown once a request body exceeds its maximum size
+     */
+    static final class TooLargeException extends IOException {
+
+        private static final long serialVersionUID = 1L;
+
+        TooLargeException(long maxBytes) {
+            super("request body is larger than " + maxBytes + " bytes");
+        }
+    }
+
+    private final long maxBytes;
+    private long read;
+
+    LimitedInputStream(InputStream in, long maxBytes) {
+        super(in);
+        this.maxBytes = maxBytes;
+    }
+
+    @Override
+    public int read() throws IOException {
+        final int b = super.read();
+        if (b >= 0) {
+            count(1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        final int n = super.read(b, off, len);
+        if (n > 0) {
+            count(n);
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        final long skipped = super.skip(n);
+        count(skipped);
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    private void count(long n) throws TooLargeException {
+        read += n;
+        if (read > maxBytes) {
+            throw new TooLargeException(maxBytes);
+        }
+    }
+
+}
@@ -0,0 +1,72 @@
+package io.ajo.responscore.api;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Duration;
+
+/**
+ * Options of the {@link AdmissionController} and its {@link AimdLimit}
+ */
+@Data
+@Builder
+public class LimiterOptions {
+
+    /**
+     * Concurrency limit before any latency is observed
+     */
+    @Builder.Default
+    private final int initialLimit = 16;
+
+    @Builder.Default
+    private final int minLimit = 1;
+
+    @Builder.Default
+    private final int maxLimit = 512;
+
+    /**
+     * Latency above which a request is taken as a sign of overload, decreasing the limit
+     */
+    @Builder.Default
+    private final Duration targetLatency = Duration.ofMillis(250);
+
+    /**
+     * Ratio the limit is multiplied by on overload
+     */
+    @Builder.Default
+    private final double backoffRatio = 0.9;
+
+    /**
+     * Maximum number of {@link Priority#INTERACTIVE} requests waiting for admission, more are rejected
+     */
+    @Builder.Default
+    private final int interactiveQueueSize = 256;
+
+    /**
+     * Maximum number of {@link Priority#BULK} requests waiting for admission, more are rejected. Forms of bulk requests
+     * already admitted wait in the same queue, so this also bounds the number of bulk requests streaming at once
+     */
+    @Builder.Default
+    private final int bulkQueueSize = 16;
+
+    /**
+     * Largest share of the limit {@link Priority#BULK} work may hold at once, at least one, so interactive requests
+     * always have room to be admitted
+     */
+    @Builder.Default
+    private final double bulkShare = 0.5;
+
+    /**
+     * Maximum time a request waits for admission before being rejected
+     */
+    @Builder.Default
+    private final Duration queueTimeout = Duration.ofMillis(500);
+
+    int queueSize(Priority priority) {
+        return switch (priority) {
+            case INTERACTIVE -> interactiveQueueSize;
+            case BULK -> bulkQueueSize;
+        };
+    }
+
+}
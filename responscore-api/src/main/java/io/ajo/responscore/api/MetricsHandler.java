@@ -0,0 +1,50 @@
+package io.ajo.responscore.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Handles {@code GET /metrics}, returning the metrics of the {@link AdmissionController}, see
+ * {@link Json#writeMetrics}
+ */
+final class MetricsHandler implements HttpHandler {
+
+    static final String PATH = "/metrics";
+
+    private final ObjectMapper objectMapper;
+    private final AdmissionController admissionController;
+
+    MetricsHandler(ObjectMapper objectMapper, AdmissionController admissionController) {
+        this.objectMapper = objectMapper;
+        this.admissionController = admissionController;
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (!exchange.getRequestURI().getPath().equals(PATH)) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+            if (!exchange.getRequestMethod().equals("GET")) {
+                exchange.getResponseHeaders().set("Allow", "GET");
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            final AdmissionController.Metrics metrics = admissionController.getMetrics();
+            final byte[] body = Json.toBytes(objectMapper, gen -> Json.writeMetrics(gen, metrics));
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+}
@@ -0,0 +1,98 @@
+package io.ajo.responscore.api;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Reads newline delimited JSON a line at a time, never holding more than a single line. Lines longer than the maximum
+ * are skipped over rather than buffered, and blank lines are skipped entirely.
+ */
+final class NdjsonReader {
+
+    /**
+     * Line of the input
+     * @param number line number, starting from 1 and counting blank lines
+     * @param bytes bytes of the line excluding its terminator, or {@literal null} if the line was too long
+     */
+    record Line(long number, byte[] bytes) {
+
+        boolean isTooLong() {
+            return bytes == null;
+        }
+
+    }
+
+    private final InputStream in;
+    private final int maxLineBytes;
+    private final byte[] buffer = new byte[8192];
+    private int position;
+    private int limit;
+    private byte[] line = new byte[256];
+    private long number;
+
+    NdjsonReader(InputStream in, int maxLineBytes) {
+        this.in = in;
+        this.maxLineBytes = maxLineBytes;
+    }
+
+    /**
+     * @return next line which isn't blank, or {@literal null} at the end of the input
+     */
+    Line next() throws IOException {
+        while (true) {
+            int length = 0;
+            boolean tooLong = false;
+            boolean terminated = false;
+            boolean read = false;
+            while (!terminated) {
+                if (position == limit) {
+                    final int n = in.read(buffer);
+                    if (n < 0) {
+                        break;
+                    }
+                    position = 0;
+                    limit = n;
+                }
+                read = true;
+                int end = position;
+                while (end < limit && buffer[end] != '\n') {
+                    end++;
+                }
+                terminated = end < limit;
+                final int segment = end - position;
+                if (!tooLong && length + segment > maxLineBytes) {
+                    tooLong = true;
+                }
+                if (!tooLong) {
+                    if (length + segment > line.length) {
+                        line = Arrays.copyOf(line, Math.min(maxLineBytes, Math.max(length + segment, line.length * 2)));
+                    }
+                    System.arraycopy(buffer, position, line, length, segment);
+                    length += segment;
+                }
+                position = terminated ? end + 1 : end;
+            }
+            if (!read) {
+                return null;
+            }
+            number++;
+            if (tooLong) {
+                return new Line(number, null);
+            }
+            if (!isBlank(line, length)) {
+                return new Line(number, Arrays.copyOf(line, length));
+            }
+        }
+    }
+
+    private static boolean isBlank(byte[] bytes, int length) {
+        for (int i = 0; i < length; i++) {
+            if (bytes[i] != ' ' && bytes[i] != '\t' && bytes[i] != '\r') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,18 @@
+package io.ajo.responscore.api;
+
+/**
+ * Priority class of a request, each queued separately while waiting for admission. Earlier classes are admitted first
+ */
+public enum Priority {
+
+    /**
+     * Single forms, typically validated while a user waits
+     */
+    INTERACTIVE,
+
+    /**
+     * Bulk requests, see {@link BulkValidator}
+     */
+    BULK
+
+}
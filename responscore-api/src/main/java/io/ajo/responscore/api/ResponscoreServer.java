@@ -0,0 +1,156 @@
+package io.ajo.responscore.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import io.ajo.responscore.compiled.ConfigSnapshot;
+import io.ajo.responscore.service.FormService;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Validation server on the JDK {@link HttpServer}, handling each request on its own virtual thread (see
+ * {@link VirtualThreads}). Configs are held compiled in memory by a {@link ConfigStore}, see {@link ConfigsHandler} for
+ * the routes served, and {@link MetricsHandler} for metrics of admission control. With a
+ * {@link ServerOptions#getSnapshotPath()} the configs survive restarts, written to a {@link ConfigSnapshot} on stop and
+ * restored from it lazily on start.
+ */
+public class ResponscoreServer {
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final ExecutorService validationExecutor;
+    private final ExecutorService bulkExecutor;
+    private final ConfigStore configStore;
+    private final Path snapshotPath;
+
+    private ResponscoreServer(
+            HttpServer server,
+            ExecutorService executor,
+            ExecutorService validationExecutor,
+            ExecutorService bulkExecutor,
+            ConfigStore configStore,
+            Path snapshotPath
+    ) {
+        this.server = server;
+        this.executor = executor;
+        this.validationExecutor = validationExecutor;
+        this.bulkExecutor = bulkExecutor;
+        this.configStore = configStore;
+        this.snapshotPath = snapshotPath;
+    }
+
+    /**
+     * Start a server, listening once this returns
+     * @param options options of the server
+     * @return started server
+     * @throws IOException if the server can't listen on the address
+     */
+    public static ResponscoreServer start(ServerOptions options) throws IOException {
+        // bootstrapping the validator dominates startup, so it runs while the server starts listening, requests
+        // needing it wait for it to finish
+        final CompletableFuture<FormService> formService = CompletableFuture.supplyAsync(
+                () -> new FormService(null, options.isCoalesceInFlight(), options.getDictionaryDirectory()));
+        final ObjectMapper objectMapper = Json.newObjectMapper();
+        final ConfigStore configStore = new ConfigStore(objectMapper, openSnapshot(options.getSnapshotPath(), options.getDictionaryDirectory()));
+        final ExecutorService executor = VirtualThreads.newExecutor();
+        // validation is CPU bound, so forms are validated on a thread per core while request threads wait on them
+        final ExecutorService validationExecutor = newValidationExecutor(Runtime.getRuntime().availableProcessors(), "responscore-validation");
+        // bulk forms queue on their own threads, so single forms never wait behind them
+        final ExecutorService bulkExecutor = newValidationExecutor(options.getBulkThreads(), "responscore-bulk");
+
+        final AdmissionController admissionController = new AdmissionController(options.getLimiterOptions());
+
+        final HttpServer server = HttpServer.create(options.getAddress(), options.getBacklog());
+        server.setExecutor(executor);
+        server.createContext(ConfigsHandler.PREFIX, new ConfigsHandler(
+                objectMapper,
+                configStore,
+                formService,
+                validationExecutor,
+                bulkExecutor,
+                admissionController,
+                options
+        ));
+        server.createContext(MetricsHandler.PATH, new MetricsHandler(objectMapper, admissionController));
+        server.start();
+        return new ResponscoreServer(server, executor, validationExecutor, bulkExecutor, configStore, options.getSnapshotPath());
+    }
+
+    private static ExecutorService newValidationExecutor(int threads, String name) {
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            final Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * @return snapshot at the path, or {@literal null} if there is no path or no usable snapshot at it, in which case
+     *         the server starts empty
+     */
+    private static ConfigSnapshot openSnapshot(Path path, Path dictionaryDirectory) {
+        if (path == null || !Files.exists(path)) {
+            return null;
+        }
+        try {
+            return ConfigSnapshot.open(path, dictionaryDirectory);
+        } catch (IOException e) {
+            System.err.printf("responscore ignoring snapshot: %s%n", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * @return address the server is listening on, with the actual port if started on port 0
+     */
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    public ConfigStore getConfigStore() {
+        return configStore;
+    }
+
+    /**
+     * Stop the server, waiting up to the delay for requests in progress to finish
+     * @param delay maximum time to wait
+     */
+    public void stop(Duration delay) {
+        server.stop((int) Math.min(Integer.MAX_VALUE, delay.toSeconds()));
+        executor.shutdown();
+        validationExecutor.shutdownNow();
+        bulkExecutor.shutdownNow();
+        if (snapshotPath != null) {
+            try {
+                configStore.writeSnapshot(snapshotPath);
+            } catch (IOException e) {
+                System.err.printf("responscore unable to write snapshot: %s%n", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Starts a server on the port in the {@code RESPONSCORE_PORT} environment variable, 8080 if unset, keeping configs
+     * in a snapshot at the path in the {@code RESPONSCORE_SNAPSHOT} environment variable, if set
+     */
+    public static void main(String[] args) throws IOException {
+        final long started = System.nanoTime();
+        final int port = Integer.parseInt(System.getenv().getOrDefault("RESPONSCORE_PORT", "8080"));
+        final String snapshot = System.getenv("RESPONSCORE_SNAPSHOT");
+        final ResponscoreServer server = start(ServerOptions.builder()
+                .address(new InetSocketAddress(port))
+                .snapshotPath(snapshot != null ? Path.of(snapshot) : null)
+                .build());
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> server.stop(Duration.ofSeconds(5))));
+        System.out.printf("responscore listening on %s, started in %d ms%n",
+                server.getAddress(), Duration.ofNanos(System.nanoTime() - started).toMillis());
+    }
+
+}
@@ -0,0 +1,200 @@
+package io.ajo.responscore.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.ajo.responscore.compiled.CompiledConfig;
+import io.ajo.responscore.config.Config;
+import io.ajo.responscore.util.ContentHasher;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Response of {@code GET /configs/{id}}, serialised once when the config is put, and compressed once for each content
+ * coding, so serving it only writes bytes already held. Each coding has its own strong ETag, derived from the
+ * fingerprint of the config and its serialised bytes, as configs with equal content may still serialise their
+ * attributes in a different order.
+ */
+final class SchemaResponse {
+
+    /**
+     * Content coding of the response
+     */
+    enum Encoding {
+        IDENTITY(null, ""),
+        GZIP("gzip", "-gzip"),
+        DEFLATE("deflate", "-deflate");
+
+        /**
+         * Value of {@code Content-Encoding}, {@literal null} for none
+         */
+        final String contentEncoding;
+        final String etagSuffix;
+
+        Encoding(String contentEncoding, String etagSuffix) {
+            this.contentEncoding = contentEncoding;
+            this.etagSuffix = etagSuffix;
+        }
+    }
+
+    private final String etag;
+    private final byte[] identity;
+    private final byte[] gzip;
+    private final byte[] deflate;
+
+    private SchemaResponse(String etag, byte[] identity, byte[] gzip, byte[] deflate) {
+        this.etag = etag;
+        this.identity = identity;
+        this.gzip = gzip;
+        this.deflate = deflate;
+    }
+
+    /**
+     * Serialise and compress the config
+     */
+    static SchemaResponse of(ObjectMapper objectMapper, Config config, CompiledConfig compiled) throws IOException {
+        return of(objectMapper, config, compiled, null);
+    }
+
+    /**
+     * Serialise the config, and compress it unless it serialises to the same bytes as the previous response
+     * @param previous response of the config being replaced, or {@literal null} if there is none
+     * @return the previous response if the config serialises to the same bytes, otherwise a new one
+     */
+    static SchemaResponse of(
+            ObjectMapper objectMapper,
+            Config config,
+            CompiledConfig compiled,
+            SchemaResponse previous
+    ) throws IOException {
+        final byte[] identity = objectMapper.writeValueAsBytes(config);
+        if (previous != null && Arrays.equals(identity, previous.identity)) {
+            return previous;
+        }
+        final String etag = new ContentHasher()
+                .putFingerprint(compiled.getFingerprint())
+                .putBytes(identity)
+                .finish()
+                .toString();
+
+        final ByteArrayOutputStream gzip = new ByteArrayOutputStream(identity.length / 4 + 64);
+        // compressed once per config, so it's worth the best compression, which GZIPOutputStream only exposes to
+        // subclasses
+        try (OutputStream out = new GZIPOutputStream(gzip) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            out.write(identity);
+        }
+        final ByteArrayOutputStream deflate = new ByteArrayOutputStream(identity.length / 4 + 64);
+        final Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try (OutputStream out = new DeflaterOutputStream(deflate, deflater)) {
+            out.write(identity);
+        } finally {
+            deflater.end();
+        }
+        return new SchemaResponse(etag, identity, gzip.toByteArray(), deflate.toByteArray());
+    }
+
+    /**
+     * @return coding the client prefers by q-value, the smaller of those it prefers equally, and identity unless a
+     *         coding is smaller
+     */
+    Encoding select(String acceptEncoding) {
+        Encoding selected = Encoding.IDENTITY;
+        if (acceptEncoding == null) {
+            return selected;
+        }
+        double selectedQuality = 0;
+        for (final Encoding encoding : new Encoding[]{Encoding.GZIP, Encoding.DEFLATE}) {
+            final double quality = quality(acceptEncoding, encoding.contentEncoding);
+            if (quality <= 0 || body(encoding).length >= identity.length) {
+                continue;
+            }
+            if (quality > selectedQuality || (quality == selectedQuality && body(encoding).length < body(selected).length)) {
+                selected = encoding;
+                selectedQuality = quality;
+            }
+        }
+        return selected;
+    }
+
+    byte[] body(Encoding encoding) {
+        return switch (encoding) {
+            case IDENTITY -> identity;
+            case GZIP -> gzip;
+            case DEFLATE -> deflate;
+        };
+    }
+
+    /**
+     * @return quoted strong ETag of the encoding
+     */
+    String etag(Encoding encoding) {
+        return "\"" + etag + encoding.etagSuffix + "\"";
+    }
+
+    /**
+     * @return {@literal true} if {@code If-None-Match} matches any encoding of this response, as they only differ in
+     *         coding the client can use the representation it has
+     */
+    boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            for (final Encoding encoding : Encoding.values()) {
+                if (tag.equals(etag(encoding))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return q-value {@code Accept-Encoding} gives the coding, or failing that {@code *}, 0 if neither is listed
+     */
+    private static double quality(String acceptEncoding, String coding) {
+        double wildcard = 0;
+        for (final String element : acceptEncoding.split(",")) {
+            final String[] parameters = element.split(";");
+            final String name = parameters[0].trim().toLowerCase(Locale.ROOT);
+            if (name.equals(coding)) {
+                return qValue(parameters);
+            }
+            if (name.equals("*")) {
+                wildcard = qValue(parameters);
+            }
+        }
+        return wildcard;
+    }
+
+    private static double qValue(String[] parameters) {
+        for (int i = 1; i < parameters.length; i++) {
+            final String parameter = parameters[i].trim().toLowerCase(Locale.ROOT);
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+}
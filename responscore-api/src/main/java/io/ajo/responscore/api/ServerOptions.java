@@ -0,0 +1,110 @@
+package io.ajo.responscore.api;
+
+import io.ajo.responscore.service.CancellationToken;
+import io.ajo.responscore.service.ValidationOptions;
+import lombok.Builder;
+import lombok.Data;
+
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Options of the {@link ResponscoreServer}
+ */
+@Data
+@Builder
+public class ServerOptions {
+
+    /**
+     * Address to listen on, port 0 picks any free port
+     */
+    @Builder.Default
+    private final InetSocketAddress address = new InetSocketAddress(8080);
+
+    /**
+     * Maximum number of connections queued waiting to be accepted, 0 for the system default
+     */
+    @Builder.Default
+    private final int backlog = 0;
+
+    /**
+     * Maximum size in bytes of a request body, larger requests are rejected with 413
+     */
+    @Builder.Default
+    private final long maxRequestBytes = 16L * 1024 * 1024;
+
+    /**
+     * Maximum size in bytes of a single line of a bulk request, longer lines are reported as errors and skipped
+     */
+    @Builder.Default
+    private final int maxBulkLineBytes = 1024 * 1024;
+
+    /**
+     * Maximum number of lines of a bulk request being validated or waiting to be written at once. Reading the request
+     * pauses while the window is full, so memory held per bulk request is bounded by this and
+     * {@link #maxBulkLineBytes}
+     */
+    @Builder.Default
+    private final int bulkWindow = 64;
+
+    /**
+     * Number of threads validating the forms of bulk requests, separate from those validating single forms so bulk
+     * work never queues ahead of them
+     */
+    @Builder.Default
+    private final int bulkThreads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+    /**
+     * Options of admission control of validation requests
+     */
+    @Builder.Default
+    private final LimiterOptions limiterOptions = LimiterOptions.builder().build();
+
+    /**
+     * If {@literal true}, concurrent validations of the same form against the same config share a single validation,
+     * such as the retries and duplicate tabs of a storm of autosaves
+     */
+    @Builder.Default
+    private final boolean coalesceInFlight = true;
+
+    /**
+     * Time each form has to be validated in, after which it is reported as incomplete
+     */
+    @Builder.Default
+    private final Duration validationTimeout = Duration.ofSeconds(10);
+
+    /**
+     * Limits forms are validated with, the deadline is set from {@link #validationTimeout} per form
+     */
+    @Builder.Default
+    private final ValidationOptions validationOptions = ValidationOptions.DEFAULT;
+
+    /**
+     * Snapshot file configs are restored from on start, if it exists, and written to on stop, see
+     * {@link io.ajo.responscore.compiled.ConfigSnapshot}. {@literal null} to hold configs only in memory
+     */
+    @Builder.Default
+    private final Path snapshotPath = null;
+
+    /**
+     * Directory lookup dictionaries of configs are opened from, dictionary names being paths relative to it, and
+     * rejected if they resolve outside it. {@literal null} to reject configs referencing dictionaries, as clients could
+     * otherwise map any file readable by the server
+     */
+    @Builder.Default
+    private final Path dictionaryDirectory = null;
+
+    /**
+     * @param cancellationToken token to cancel validation with, {@literal null} if it can't be cancelled
+     * @return validation options for a single form, with its deadline set from now
+     */
+    ValidationOptions formValidationOptions(CancellationToken cancellationToken) {
+        return validationOptions.toBuilder()
+                .deadline(Instant.now().plus(validationTimeout))
+                .cancellationToken(cancellationToken)
+                .build();
+    }
+
+}
@@ -0,0 +1,28 @@
+package io.ajo.responscore.api;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Virtual threads are a preview API in Java 19, so they are looked up reflectively rather than compiled against. This
+ * keeps the module's class files free of the preview flag, and falls back to platform threads when the JVM isn't run
+ * with {@code --enable-preview}.
+ */
+final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * @return executor starting a new virtual thread per task, or a cached pool of platform threads if virtual threads
+     *         aren't available
+     */
+    static ExecutorService newExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+}
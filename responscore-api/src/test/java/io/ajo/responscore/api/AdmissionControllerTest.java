@@ -0,0 +1,164 @@
+package io.ajo.responscore.api;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Admission Controller Test")
+public class AdmissionControllerTest {
+
+    @Test
+    @DisplayName("Rejects When Queue Full")
+    public void rejectsWhenQueueFull() throws Exception {
+        final AdmissionController controller = new AdmissionController(LimiterOptions.builder()
+                .initialLimit(1)
+                .interactiveQueueSize(0)
+                .build());
+
+        final AdmissionController.Permit permit = controller.acquire(Priority.INTERACTIVE);
+        final AdmissionController.RejectedException e = assertThrows(AdmissionController.RejectedException.class,
+                () -> controller.acquire(Priority.INTERACTIVE));
+        assertEquals(AdmissionController.Rejection.QUEUE_FULL, e.getRejection());
+
+        controller.release(permit, AdmissionController.Outcome.IGNORED);
+        controller.release(controller.acquire(Priority.INTERACTIVE), AdmissionController.Outcome.IGNORED);
+
+        final AdmissionController.Metrics metrics = controller.getMetrics();
+        assertEquals(2, metrics.admitted());
+        assertEquals(1, metrics.rejected().get(AdmissionController.Rejection.QUEUE_FULL));
+        assertEquals(0, metrics.inFlight());
+    }
+
+    @Test
+    @DisplayName("Rejects When Queue Times Out")
+    public void rejectsWhenQueueTimesOut() throws Exception {
+        final AdmissionController controller = new AdmissionController(LimiterOptions.builder()
+                .initialLimit(1)
+                .queueTimeout(Duration.ofMillis(20))
+                .build());
+
+        controller.acquire(Priority.INTERACTIVE);
+        final AdmissionController.RejectedException e = assertThrows(AdmissionController.RejectedException.class,
+                () -> controller.acquire(Priority.INTERACTIVE));
+        assertEquals(AdmissionController.Rejection.QUEUE_TIMEOUT, e.getRejection());
+        assertEquals(0, controller.getMetrics().queued().get(Priority.INTERACTIVE));
+    }
+
+    @Test
+    @DisplayName("Admits Waiting In Priority Order")
+    public void admitsWaitingInPriorityOrder() throws Exception {
+        final AdmissionController controller = new AdmissionController(LimiterOptions.builder()
+                .initialLimit(1)
+                .queueTimeout(Duration.ofSeconds(10))
+                .build());
+        final AdmissionController.Permit permit = controller.acquire(Priority.INTERACTIVE);
+
+        final List<Priority> admitted = new CopyOnWriteArrayList<>();
+        final CompletableFuture<Void> bulk = CompletableFuture.runAsync(() -> admit(controller, Priority.BULK, admitted));
+        awaitQueued(controller, Priority.BULK);
+        final CompletableFuture<Void> interactive = CompletableFuture.runAsync(() -> admit(controller, Priority.INTERACTIVE, admitted));
+        awaitQueued(controller, Priority.INTERACTIVE);
+
+        controller.release(permit, AdmissionController.Outcome.IGNORED);
+        CompletableFuture.allOf(bulk, interactive).get(10, TimeUnit.SECONDS);
+
+        // bulk was waiting first, but interactive is admitted first
+        assertEquals(List.of(Priority.INTERACTIVE, Priority.BULK), admitted);
+    }
+
+    @Test
+    @DisplayName("Bulk Held To Its Share")
+    public void bulkHeldToItsShare() throws Exception {
+        final AdmissionController controller = new AdmissionController(LimiterOptions.builder()
+                .initialLimit(4)
+                .bulkShare(0.5)
+                .queueTimeout(Duration.ofSeconds(10))
+                .build());
+        final AdmissionController.Permit first = controller.acquire(Priority.BULK);
+        controller.acquireAdmitted(Priority.BULK);
+
+        // bulk is at its share, so further forms wait, while interactive requests are still admitted straight away
+        final CompletableFuture<AdmissionController.Permit> third = CompletableFuture.supplyAsync(() -> {
+            try {
+                return controller.acquireAdmitted(Priority.BULK);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        awaitQueued(controller, Priority.BULK);
+        final AdmissionController.Permit interactive = controller.acquire(Priority.INTERACTIVE);
+        assertEquals(3, controller.getMetrics().inFlight());
+        assertFalse(third.isDone());
+
+        controller.release(interactive, AdmissionController.Outcome.IGNORED);
+        assertFalse(third.isDone());
+        controller.release(first, AdmissionController.Outcome.IGNORED);
+        assertEquals(Priority.BULK, third.get(10, TimeUnit.SECONDS).priority());
+        assertEquals(2, controller.getMetrics().inFlight());
+    }
+
+    @Test
+    @DisplayName("Limit Adapts To Latency")
+    public void limitAdaptsToLatency() {
+        final AimdLimit limit = new AimdLimit(LimiterOptions.builder()
+                .initialLimit(10)
+                .targetLatency(Duration.ofMillis(100))
+                .build());
+
+        // fast requests while busy grow the limit by about one per limit's worth of requests
+        for (int i = 0; i < 10; i++) {
+            limit.onSample(Duration.ofMillis(10).toNanos(), 10, false);
+        }
+        assertEquals(10, limit.getLimit());
+        limit.onSample(Duration.ofMillis(10).toNanos(), 10, false);
+        assertEquals(11, limit.getLimit());
+        assertEquals(1, limit.getIncreases());
+
+        // but not while mostly idle
+        for (int i = 0; i < 100; i++) {
+            limit.onSample(Duration.ofMillis(10).toNanos(), 1, false);
+        }
+        assertEquals(11, limit.getLimit());
+
+        // slow or dropped requests back off multiplicatively
+        limit.onSample(Duration.ofMillis(500).toNanos(), 11, false);
+        assertEquals(9, limit.getLimit());
+        limit.onSample(Duration.ofMillis(10).toNanos(), 9, true);
+        assertEquals(8, limit.getLimit());
+        assertEquals(2, limit.getDecreases());
+
+        for (int i = 0; i < 100; i++) {
+            limit.onSample(Duration.ofMillis(500).toNanos(), 1, false);
+        }
+        assertEquals(1, limit.getLimit());
+    }
+
+    private static void admit(AdmissionController controller, Priority priority, List<Priority> admitted) {
+        try {
+            final AdmissionController.Permit permit = controller.acquire(priority);
+            admitted.add(priority);
+            controller.release(permit, AdmissionController.Outcome.IGNORED);
+        } catch (AdmissionController.RejectedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void awaitQueued(AdmissionController controller, Priority priority) throws InterruptedException {
+        final long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (controller.getMetrics().queued().get(priority) == 0) {
+            assertTrue(System.nanoTime() < end, "timed out waiting for " + priority + " to queue");
+            Thread.sleep(1);
+        }
+    }
+
+}
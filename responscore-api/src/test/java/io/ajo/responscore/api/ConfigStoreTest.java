@@ -0,0 +1,64 @@
+package io.ajo.responscore.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.ajo.responscore.compiled.CompiledConfig;
+import io.ajo.responscore.compiled.ConfigSnapshot;
+import io.ajo.responscore.config.Attribute;
+import io.ajo.responscore.config.Config;
+import io.ajo.responscore.config.Type;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Config Store Test")
+public class ConfigStoreTest {
+
+    private final ObjectMapper objectMapper = Json.newObjectMapper();
+
+    private static CompiledConfig compiled(String attributeCode) {
+        return CompiledConfig.compile(Config.builder()
+                .attributes(Set.of(Attribute.builder().code(attributeCode).label(attributeCode).type(Type.STRING).build()))
+                .build());
+    }
+
+    @Test
+    @DisplayName("Snapshot Written From Current Configs")
+    public void snapshotWrittenFromCurrentConfigs(@TempDir Path directory) throws Exception {
+        final Path restored = directory.resolve("restored.snapshot");
+        new ConfigSnapshot.Writer()
+                .add("materialised", compiled("a"))
+                .add("copied", compiled("b"))
+                .add("removed", compiled("c"))
+                .add("replaced", compiled("d"))
+                .write(restored);
+        final ConfigStore store = new ConfigStore(objectMapper, ConfigSnapshot.open(restored));
+
+        final ConfigStore.Entry materialised = store.get("materialised");
+        assertNotNull(materialised);
+        assertSame(materialised, store.get("materialised"));
+        assertTrue(store.remove("removed"));
+        assertNull(store.get("removed"));
+        assertFalse(store.remove("removed"));
+        final CompiledConfig replacement = compiled("e");
+        assertTrue(store.put("replaced", replacement.getConfig(), replacement, null));
+        assertSame(replacement, store.getCompiled("replaced"));
+
+        final Path written = directory.resolve("written.snapshot");
+        store.writeSnapshot(written);
+        final ConfigSnapshot snapshot = ConfigSnapshot.open(written);
+        assertEquals(Set.of("materialised", "copied", "replaced"), snapshot.getIds());
+        assertEquals(replacement.getFingerprint(), snapshot.getFingerprint("replaced"));
+        assertNotNull(snapshot.get("copied").getRoot().getAttribute("b"));
+    }
+
+}
@@ -0,0 +1,110 @@
+package io.ajo.responscore.api;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Local load generator, sending the same request from a number of concurrent clients for a fixed duration and reporting
+ * the statuses and latency of the responses. Runnable against a live server with
+ * {@code LoadGenerator <url> <body file> <concurrency> <seconds>}
+ */
+public class LoadGenerator {
+
+    /**
+     * @param requests number of requests completed
+     * @param statuses number of responses by status, {@literal -1} for requests which failed without a response
+     * @param p50 median latency
+     * @param p99 99th percentile latency
+     */
+    public record Report(long requests, Map<Integer, Long> statuses, Duration p50, Duration p99) {
+
+        public long count(int status) {
+            return statuses.getOrDefault(status, 0L);
+        }
+
+    }
+
+    private record ClientResult(List<Integer> statuses, List<Long> latencies) {}
+
+    /**
+     * POST the body to the uri from {@code concurrency} clients, each sending its next request as soon as the last
+     * completes, for the duration
+     */
+    public static Report run(URI uri, byte[] body, int concurrency, Duration duration) throws Exception {
+        final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        final HttpRequest request = HttpRequest.newBuilder(uri)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+        final long end = System.nanoTime() + duration.toNanos();
+
+        final ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        try {
+            final List<Future<ClientResult>> futures = new ArrayList<>();
+            for (int i = 0; i < concurrency; i++) {
+                futures.add(executor.submit(() -> {
+                    final ClientResult result = new ClientResult(new ArrayList<>(), new ArrayList<>());
+                    while (System.nanoTime() < end) {
+                        final long start = System.nanoTime();
+                        int status;
+                        try {
+                            status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        } catch (IOException e) {
+                            status = -1;
+                        }
+                        result.statuses().add(status);
+                        result.latencies().add(System.nanoTime() - start);
+                    }
+                    return result;
+                }));
+            }
+
+            final Map<Integer, Long> statuses = new TreeMap<>();
+            final List<Long> latencies = new ArrayList<>();
+            for (final Future<ClientResult> future : futures) {
+                final ClientResult result = future.get();
+                result.statuses().forEach(status -> statuses.merge(status, 1L, Long::sum));
+                latencies.addAll(result.latencies());
+            }
+            Collections.sort(latencies);
+            return new Report(latencies.size(), statuses, percentile(latencies, 0.5), percentile(latencies, 0.99));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Duration percentile(List<Long> sorted, double percentile) {
+        if (sorted.isEmpty()) {
+            return Duration.ZERO;
+        }
+        return Duration.ofNanos(sorted.get((int) Math.min(sorted.size() - 1, Math.ceil(percentile * sorted.size()) - 1)));
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 4) {
+            System.err.println("usage: LoadGenerator <url> <body file> <concurrency> <seconds>");
+            System.exit(1);
+        }
+        final Report report = run(
+                URI.create(args[0]),
+                Files.readAllBytes(Path.of(args[1])),
+                Integer.parseInt(args[2]),
+                Duration.ofSeconds(Long.parseLong(args[3]))
+        );
+        System.out.println(report);
+    }
+
+}
@@ -0,0 +1,408 @@
+package io.ajo.responscore.api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Responscore Server Test")
+public class ResponscoreServerTest {
+
+    private static final String CONFIG = """
+            {"attributes": [
+                {"code": "name", "label": "Name", "type": "STRING", "required": true},
+                {"code": "age", "label": "Age", "type": "INTEGER", "validators": [{"type": "Min", "value": 0}]}
+            ]}""";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient client = HttpClient.newHttpClient();
+    private ResponscoreServer server;
+
+    @BeforeEach
+    public void start() throws IOException {
+        server = ResponscoreServer.start(ServerOptions.builder()
+                .address(new InetSocketAddress("127.0.0.1", 0))
+                .maxRequestBytes(16 * 1024)
+                .maxBulkLineBytes(256)
+                .bulkWindow(4)
+                .build());
+    }
+
+    @AfterEach
+    public void stop() {
+        server.stop(Duration.ZERO);
+    }
+
+    @Test
+    @DisplayName("Put Config And Validate Form")
+    public void putConfigAndValidateForm() throws Exception {
+        assertEquals(201, send("PUT", "/configs/people", CONFIG).statusCode());
+        assertEquals(204, send("PUT", "/configs/people", CONFIG).statusCode());
+
+        final HttpResponse<String> valid = send("POST", "/configs/people/validate", """
+                {"data": {"name": "Ada", "age": 36}}""");
+        assertEquals(200, valid.statusCode());
+        final JsonNode validBody = objectMapper.readTree(valid.body());
+        assertTrue(validBody.get("valid").asBoolean());
+        assertTrue(validBody.get("complete").asBoolean());
+        assertEquals(0, validBody.get("violations").size());
+
+        final HttpResponse<String> invalid = send("POST", "/configs/people/validate", """
+                {"data": {"age": -1}}""");
+        assertEquals(200, invalid.statusCode());
+        final JsonNode invalidBody = objectMapper.readTree(invalid.body());
+        assertFalse(invalidBody.get("valid").asBoolean());
+        assertEquals(2, invalidBody.get("violations").size());
+        assertEquals("data.age", invalidBody.get("violations").get(0).get("path").asText());
+        assertEquals("data.name", invalidBody.get("violations").get(1).get("path").asText());
+    }
+
+    @Test
+    @DisplayName("Get And Delete Config")
+    public void getAndDeleteConfig() throws Exception {
+        send("PUT", "/configs/people", CONFIG);
+
+        final HttpResponse<String> get = send("GET", "/configs/people", null);
+        assertEquals(200, get.statusCode());
+        assertEquals("name", objectMapper.readTree(get.body()).get("attributes").get(0).get("code").asText());
+
+        assertEquals(204, send("DELETE", "/configs/people", null).statusCode());
+        assertEquals(404, send("GET", "/configs/people", null).statusCode());
+    }
+
+    @Test
+    @DisplayName("Schema Compressed With ETag")
+    public void schemaCompressedWithETag() throws Exception {
+        final String items = IntStream.range(0, 200)
+                .mapToObj(i -> "{\"code\": \"item" + i + "\", \"label\": \"Item " + i + "\"}")
+                .collect(Collectors.joining(","));
+        final String config = "{\"lookupConfigs\": [{\"code\": \"items\", \"lookupItems\": [" + items + "]}],"
+                + "\"attributes\": [{\"code\": \"item\", \"label\": \"Item\", \"type\": \"LOOKUP\", \"lookupCode\": \"items\"}]}";
+        assertEquals(201, send("PUT", "/configs/items", config).statusCode());
+
+        final HttpResponse<byte[]> identity = get("/configs/items", "identity", null);
+        assertEquals(200, identity.statusCode());
+        assertTrue(identity.headers().firstValue("Content-Encoding").isEmpty());
+        final String etag = identity.headers().firstValue("ETag").orElseThrow();
+
+        final HttpResponse<byte[]> gzip = get("/configs/items", "deflate;q=0.5, gzip", null);
+        assertEquals("gzip", gzip.headers().firstValue("Content-Encoding").orElseThrow());
+        assertTrue(gzip.body().length < identity.body().length);
+        assertArrayEquals(identity.body(), new GZIPInputStream(new ByteArrayInputStream(gzip.body())).readAllBytes());
+
+        final HttpResponse<byte[]> deflate = get("/configs/items", "gzip;q=0, deflate", null);
+        assertEquals("deflate", deflate.headers().firstValue("Content-Encoding").orElseThrow());
+        assertArrayEquals(identity.body(), new InflaterInputStream(new ByteArrayInputStream(deflate.body())).readAllBytes());
+
+        // each coding has its own tag, any of which revalidates
+        final String gzipEtag = gzip.headers().firstValue("ETag").orElseThrow();
+        assertNotEquals(etag, gzipEtag);
+        assertEquals(304, get("/configs/items", "gzip", gzipEtag).statusCode());
+        assertEquals(304, get("/configs/items", null, "\"other\", " + etag).statusCode());
+
+        // a new version of the config has a new tag
+        send("PUT", "/configs/items", config.replace("Item 0", "First item"));
+        final HttpResponse<byte[]> changed = get("/configs/items", null, etag);
+        assertEquals(200, changed.statusCode());
+        assertNotEquals(etag, changed.headers().firstValue("ETag").orElseThrow());
+    }
+
+    @Test
+    @DisplayName("Reordered Config Served As Put")
+    public void reorderedConfigServedAsPut() throws Exception {
+        final String config = """
+                {"lookupConfigs": [{"code": "colours", "lookupItems": [{"code": "R", "label": "Red"}, {"code": "G", "label": "Green"}]}],
+                 "attributes": [
+                    {"code": "name", "label": "Name", "type": "STRING"},
+                    {"code": "colour", "label": "Colour", "type": "LOOKUP", "lookupCode": "colours"}
+                ]}""";
+        assertEquals(201, send("PUT", "/configs/reordered", config).statusCode());
+        final String etag = get("/configs/reordered", null, null).headers().firstValue("ETag").orElseThrow();
+        assertEquals(204, send("PUT", "/configs/reordered", config).statusCode());
+        assertEquals(304, get("/configs/reordered", null, etag).statusCode());
+
+        // the same content in another order, so the config compiles the same but serialises differently
+        assertEquals(204, send("PUT", "/configs/reordered", """
+                {"lookupConfigs": [{"code": "colours", "lookupItems": [{"code": "G", "label": "Green"}, {"code": "R", "label": "Red"}]}],
+                 "attributes": [
+                    {"code": "colour", "label": "Colour", "type": "LOOKUP", "lookupCode": "colours"},
+                    {"code": "name", "label": "Name", "type": "STRING"}
+                ]}""").statusCode());
+        final HttpResponse<byte[]> reordered = get("/configs/reordered", null, etag);
+        assertEquals(200, reordered.statusCode());
+        assertNotEquals(etag, reordered.headers().firstValue("ETag").orElseThrow());
+        final JsonNode body = objectMapper.readTree(reordered.body());
+        assertEquals("colour", body.get("attributes").get(0).get("code").asText());
+        assertEquals("G", body.get("lookupConfigs").get(0).get("lookupItems").get(0).get("code").asText());
+    }
+
+    @Test
+    @DisplayName("Search Lookup")
+    public void searchLookup() throws Exception {
+        final String items = IntStream.range(0, 200)
+                .mapToObj(i -> "{\"code\": \"item" + i + "\", \"label\": \"Item number " + i + "\"}")
+                .collect(Collectors.joining(","));
+        send("PUT", "/configs/items", "{\"lookupConfigs\": [{\"code\": \"items\", \"lookupItems\": [" + items + "]}],"
+                + "\"attributes\": [{\"code\": \"item\", \"label\": \"Item\", \"type\": \"LOOKUP\", \"lookupCode\": \"items\"}]}");
+
+        final HttpResponse<String> prefix = send("GET", "/configs/items/lookups/items/search?q=ITEM1&limit=3", null);
+        assertEquals(200, prefix.statusCode());
+        final JsonNode prefixItems = objectMapper.readTree(prefix.body()).get("items");
+        assertEquals(3, prefixItems.size());
+        assertEquals("item1", prefixItems.get(0).get("code").asText());
+        assertEquals("Item number 1", prefixItems.get(0).get("label").asText());
+
+        final HttpResponse<String> infix = send("GET", "/configs/items/lookups/items/search?q=number%20199", null);
+        final JsonNode infixItems = objectMapper.readTree(infix.body()).get("items");
+        assertEquals(1, infixItems.size());
+        assertEquals("item199", infixItems.get(0).get("code").asText());
+
+        assertEquals(404, send("GET", "/configs/items/lookups/unknown/search?q=a", null).statusCode());
+        assertEquals(400, send("GET", "/configs/items/lookups/items/search?q=a&limit=many", null).statusCode());
+        assertEquals(400, send("GET", "/configs/items/lookups/items/search?q=a&limit=-1", null).statusCode());
+    }
+
+    @Test
+    @DisplayName("Invalid Config Rejected")
+    public void invalidConfigRejected() throws Exception {
+        final HttpResponse<String> response = send("PUT", "/configs/empty", """
+                {"attributes": []}""");
+        assertEquals(400, response.statusCode());
+        assertEquals(1, objectMapper.readTree(response.body()).get("violations").size());
+        assertEquals(404, send("GET", "/configs/empty", null).statusCode());
+    }
+
+    @Test
+    @DisplayName("Dictionary Config Rejected Unless Enabled")
+    public void dictionaryConfigRejectedUnlessEnabled() throws Exception {
+        final HttpResponse<String> response = send("PUT", "/configs/files", """
+                {"lookupConfigs": [{"code": "files", "dictionary": "/etc/passwd"}],
+                 "attributes": [{"code": "file", "label": "File", "type": "LOOKUP", "lookupCode": "files"}]}""");
+        assertEquals(400, response.statusCode());
+        assertEquals("lookup dictionaries are not enabled on this server", objectMapper.readTree(response.body()).get("error").asText());
+        assertEquals(404, send("GET", "/configs/files", null).statusCode());
+    }
+
+    @Test
+    @DisplayName("Unknown Config Not Found")
+    public void unknownConfigNotFound() throws Exception {
+        assertEquals(404, send("POST", "/configs/unknown/validate", "{}").statusCode());
+    }
+
+    @Test
+    @DisplayName("Malformed Body Rejected")
+    public void malformedBodyRejected() throws Exception {
+        send("PUT", "/configs/people", CONFIG);
+        assertEquals(400, send("POST", "/configs/people/validate", "{\"data\": ").statusCode());
+    }
+
+    @Test
+    @DisplayName("Unexpected Error Answered")
+    public void unexpectedErrorAnswered() throws Exception {
+        send("PUT", "/configs/people", CONFIG);
+        // a null form fails deep in validation, which must still be answered rather than the connection dropped
+        assertEquals(500, send("POST", "/configs/people/validate", "null").statusCode());
+    }
+
+    @Test
+    @DisplayName("Oversized Body Rejected")
+    public void oversizedBodyRejected() throws Exception {
+        send("PUT", "/configs/people", CONFIG);
+        final String body = "{\"data\": {\"name\": \"" + "a".repeat(20_000) + "\"}}";
+        assertEquals(413, send("POST", "/configs/people/validate", body).statusCode());
+    }
+
+    @Test
+    @DisplayName("Method Not Allowed")
+    public void methodNotAllowed() throws Exception {
+        final HttpResponse<String> response = send("GET", "/configs/people/validate", null);
+        assertEquals(405, response.statusCode());
+        assertEquals("POST", response.headers().firstValue("Allow").orElseThrow());
+    }
+
+    @Test
+    @DisplayName("Bulk Results In Order")
+    public void bulkResultsInOrder() throws Exception {
+        send("PUT", "/configs/people", CONFIG);
+
+        // far more lines than the window, and larger in total than a single request may be
+        final StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            body.append(i % 2 == 0 ? "{\"data\": {\"name\": \"Ada\", \"age\": " + i + "}}" : "{\"data\": {\"age\": -1}}").append('\n');
+        }
+        final HttpResponse<String> response = send("POST", "/configs/people/validate:bulk", body.toString());
+        assertEquals(200, response.statusCode());
+        assertEquals("application/x-ndjson", response.headers().firstValue("Content-Type").orElseThrow());
+
+        final String[] lines = response.body().split("\n");
+        assertEquals(500, lines.length);
+        for (int i = 0; i < lines.length; i++) {
+            final JsonNode result = objectMapper.readTree(lines[i]);
+            assertEquals(i + 1, result.get("line").asInt());
+            assertEquals(i % 2 == 0, result.get("valid").asBoolean());
+        }
+    }
+
+    @Test
+    @DisplayName("Bulk Reports Bad Lines")
+    public void bulkReportsBadLines() throws Exception {
+        send("PUT", "/configs/people", CONFIG);
+
+        final String body = "{\"data\": {\"name\": \"Ada\"}}\r\n"
+                + "\n"
+                + "{\"data\": \n"
+                + "{\"data\": {\"name\": \"" + "a".repeat(512) + "\"}}\n"
+                + "{\"data\": {\"name\": \"Grace\"}}";
+        final HttpResponse<String> response = send("POST", "/configs/people/validate:bulk", body);
+        assertEquals(200, response.statusCode());
+
+        final String[] lines = response.body().split("\n");
+        assertEquals(4, lines.length);
+        assertTrue(objectMapper.readTree(lines[0]).get("valid").asBoolean());
+        assertEquals(3, objectMapper.readTree(lines[1]).get("line").asInt());
+        assertTrue(objectMapper.readTree(lines[1]).has("error"));
+        assertEquals(4, objectMapper.readTree(lines[2]).get("line").asInt());
+        assertTrue(objectMapper.readTree(lines[2]).has("error"));
+        assertEquals(5, objectMapper.readTree(lines[3]).get("line").asInt());
+        assertTrue(objectMapper.readTree(lines[3]).get("valid").asBoolean());
+    }
+
+    @Test
+    @DisplayName("Bulk Unknown Config Not Found")
+    public void bulkUnknownConfigNotFound() throws Exception {
+        assertEquals(404, send("POST", "/configs/unknown/validate:bulk", "{}").statusCode());
+    }
+
+    @Test
+    @DisplayName("Restores Configs From Snapshot")
+    public void restoresConfigsFromSnapshot(@TempDir Path directory) throws Exception {
+        final Path snapshot = directory.resolve("configs.snapshot");
+        server.stop(Duration.ZERO);
+        server = ResponscoreServer.start(ServerOptions.builder()
+                .address(new InetSocketAddress("127.0.0.1", 0))
+                .snapshotPath(snapshot)
+                .build());
+        assertEquals(201, send("PUT", "/configs/people", CONFIG).statusCode());
+        assertEquals(201, send("PUT", "/configs/removed", CONFIG).statusCode());
+        assertEquals(204, send("DELETE", "/configs/removed", null).statusCode());
+        server.stop(Duration.ZERO);
+        assertTrue(Files.exists(snapshot));
+
+        server = ResponscoreServer.start(ServerOptions.builder()
+                .address(new InetSocketAddress("127.0.0.1", 0))
+                .snapshotPath(snapshot)
+                .build());
+        assertEquals(404, send("GET", "/configs/removed", null).statusCode());
+        final HttpResponse<String> valid = send("POST", "/configs/people/validate", """
+                {"data": {"name": "Ada", "age": 36}}""");
+        assertEquals(200, valid.statusCode());
+        assertTrue(objectMapper.readTree(valid.body()).get("valid").asBoolean());
+        final HttpResponse<String> config = send("GET", "/configs/people", null);
+        assertEquals(200, config.statusCode());
+        assertEquals(2, objectMapper.readTree(config.body()).get("attributes").size());
+
+        // written again on stop, with the restored config still in it
+        server.stop(Duration.ZERO);
+        server = ResponscoreServer.start(ServerOptions.builder()
+                .address(new InetSocketAddress("127.0.0.1", 0))
+                .snapshotPath(snapshot)
+                .build());
+        assertEquals(204, send("PUT", "/configs/people", CONFIG).statusCode());
+    }
+
+    @Test
+    @DisplayName("Sheds Load Over Limit")
+    public void shedsLoadOverLimit() throws Exception {
+        final ResponscoreServer limited = ResponscoreServer.start(ServerOptions.builder()
+                .address(new InetSocketAddress("127.0.0.1", 0))
+                .limiterOptions(LimiterOptions.builder()
+                        .initialLimit(1)
+                        .maxLimit(1)
+                        .interactiveQueueSize(1)
+                        .build())
+                .build());
+        try {
+            final String base = "http://127.0.0.1:" + limited.getAddress().getPort();
+            client.send(HttpRequest.newBuilder(URI.create(base + "/configs/people"))
+                    .PUT(HttpRequest.BodyPublishers.ofString(CONFIG))
+                    .build(), HttpResponse.BodyHandlers.discarding());
+
+            final LoadGenerator.Report report = LoadGenerator.run(
+                    URI.create(base + "/configs/people/validate"),
+                    "{\"data\": {\"name\": \"Ada\", \"age\": 36}}".getBytes(StandardCharsets.UTF_8),
+                    8,
+                    Duration.ofMillis(500)
+            );
+            assertTrue(report.count(200) > 0);
+            assertTrue(report.count(429) > 0);
+            assertEquals(report.requests(), report.count(200) + report.count(429) + report.count(503));
+
+            final JsonNode metrics = objectMapper.readTree(client.send(HttpRequest.newBuilder(URI.create(base + "/metrics")).build(),
+                    HttpResponse.BodyHandlers.ofString()).body());
+            assertEquals(1, metrics.get("limit").asInt());
+            assertEquals(report.count(200), metrics.get("admitted").asLong());
+            assertEquals(report.count(429), metrics.get("rejected").get("queue_full").asLong());
+        } finally {
+            limited.stop(Duration.ZERO);
+        }
+    }
+
+    @Test
+    @DisplayName("Form Read Before Admission")
+    public void formReadBeforeAdmission() throws Exception {
+        send("PUT", "/configs/people", CONFIG);
+        assertEquals(400, send("POST", "/configs/people/validate", "{\"data\": ").statusCode());
+        // a body which can't be read never took a slot, so a slow upload doesn't hold one either
+        final JsonNode metrics = objectMapper.readTree(send("GET", "/metrics", null).body());
+        assertEquals(0, metrics.get("admitted").asLong());
+
+        assertEquals(200, send("POST", "/configs/people/validate", "{\"data\": {\"name\": \"Ada\"}}").statusCode());
+        assertEquals(1, objectMapper.readTree(send("GET", "/metrics", null).body()).get("admitted").asLong());
+    }
+
+    private HttpResponse<byte[]> get(String path, String acceptEncoding, String ifNoneMatch) throws Exception {
+        final HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://" + server.getAddress().getHostString()
+                + ":" + server.getAddress().getPort() + path));
+        if (acceptEncoding != null) {
+            request.header("Accept-Encoding", acceptEncoding);
+        }
+        if (ifNoneMatch != null) {
+            request.header("If-None-Match", ifNoneMatch);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private HttpResponse<String> send(String method, String path, String body) throws Exception {
+        final HttpRequest request = HttpRequest.newBuilder(URI.create("http://" + server.getAddress().getHostString()
+                        + ":" + server.getAddress().getPort() + path))
+                .method(method, body != null ? HttpRequest.BodyPublishers.ofString(body) : HttpRequest.BodyPublishers.noBody())
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+}
@@ -0,0 +1,91 @@
+package io.ajo.responscore.compiled;
+
+import io.ajo.responscore.config.Attribute;
+import io.ajo.responscore.util.Fingerprint;
+
+/**
+ * Compiled form of an {@link Attribute}, with its validators compiled into {@link ValidatorChain} and its lookup or
+ * composite references resolved
+ */
+public final class CompiledAttribute {
+
+    private final Attribute attribute;
+    private final ValidatorChain validators;
+    private final ValidatorChain itemValidators;
+    private final CompiledLookup lookup;
+    private final CompiledComposite composite;
+    private final Fingerprint fingerprint;
+    private final Fingerprint validationFingerprint;
+
+    /**
+     * @param previous compiled attribute to reuse the validators and fingerprint of, if compiled from the same
+     *                 attribute instance, otherwise {@literal null}
+     */
+    CompiledAttribute(Attribute attribute, CompiledLookup lookup, CompiledComposite composite, CompiledAttribute previous) {
+        this.attribute = attribute;
+        if (previous != null && previous.attribute == attribute) {
+            this.validators = previous.validators;
+            this.itemValidators = previous.itemValidators;
+            this.fingerprint = previous.fingerprint;
+            this.validationFingerprint = previous.validationFingerprint;
+        } else {
+            this.validators = ValidatorChain.compile(attribute.getValidators());
+            this.itemValidators = ValidatorChain.compile(attribute.getValidateItems());
+            this.fingerprint = ConfigFingerprints.attribute(attribute);
+            this.validationFingerprint = ConfigFingerprints.attributeValidation(attribute);
+        }
+        this.lookup = lookup;
+        this.composite = composite;
+    }
+
+    public Attribute getAttribute() {
+        return attribute;
+    }
+
+    public String getCode() {
+        return attribute.getCode();
+    }
+
+    /**
+     * Chain of {@link Attribute#getValidators()}
+     */
+    public ValidatorChain getValidators() {
+        return validators;
+    }
+
+    /**
+     * Chain of {@link Attribute#getValidateItems()}
+     */
+    public ValidatorChain getItemValidators() {
+        return itemValidators;
+    }
+
+    /**
+     * Fingerprint of the content of the attribute, references to lookups and composites are by code
+     */
+    public Fingerprint getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Fingerprint of the content of the attribute which affects validation, everything but the label and tooltip
+     */
+    public Fingerprint getValidationFingerprint() {
+        return validationFingerprint;
+    }
+
+    /**
+     * Resolved {@link Attribute#getLookupCode()}, or {@literal null} if not a lookup attribute
+     */
+    public CompiledLookup getLookup() {
+        return lookup;
+    }
+
+    /**
+     * Resolved {@link Attribute#getCompositeCode()}, or {@literal null} if not a composite attribute
+     */
+    public CompiledComposite getComposite() {
+        return composite;
+    }
+
+}
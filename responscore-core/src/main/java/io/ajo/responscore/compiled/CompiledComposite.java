@@ -0,0 +1,94 @@
+package io.ajo.responscore.compiled;
+
+import io.ajo.responscore.config.Attribute;
+import io.ajo.responscore.util.Fingerprint;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Compiled set of attributes, either the root attributes of a {@link io.ajo.responscore.config.Config} or those of a
+ * {@link io.ajo.responscore.config.CompositeTypeConfig}
+ */
+public final class CompiledComposite {
+
+    private final String code;
+    private final Set<Attribute> source;
+    private List<CompiledAttribute> attributes = List.of();
+    private Map<String, CompiledAttribute> attributesByCode = Map.of();
+    private Fingerprint fingerprint;
+    private Fingerprint validationFingerprint;
+
+    /**
+     * @param source attributes the composite is compiled from
+     */
+    CompiledComposite(String code, Set<Attribute> source) {
+        this.code = code;
+        this.source = source;
+    }
+
+    /**
+     * Attributes are only set once all composites have been created, so composites may reference each other
+     * @param previous compiled composite to reuse the fingerprint of, if compiled from the same attributes instance,
+     *                 otherwise {@literal null}
+     */
+    void setAttributes(List<CompiledAttribute> attributes, CompiledComposite previous) {
+        final Map<String, CompiledAttribute> byCode = new LinkedHashMap<>();
+        for (final CompiledAttribute attribute : attributes) {
+            byCode.put(attribute.getCode(), attribute);
+        }
+        this.attributes = List.copyOf(attributes);
+        this.attributesByCode = Collections.unmodifiableMap(byCode);
+        if (previous != null && previous.source == source) {
+            this.fingerprint = previous.fingerprint;
+            this.validationFingerprint = previous.validationFingerprint;
+        } else {
+            this.fingerprint = ConfigFingerprints.composite(code, this.attributes);
+            this.validationFingerprint = ConfigFingerprints.compositeValidation(code, this.attributes);
+        }
+    }
+
+    /**
+     * @return whether this was compiled from the same attributes instance
+     */
+    boolean isCompiledFrom(Set<Attribute> attributes) {
+        return source == attributes;
+    }
+
+    /**
+     * Code of the {@link io.ajo.responscore.config.CompositeTypeConfig}, {@literal null} for the root attributes
+     */
+    public String getCode() {
+        return code;
+    }
+
+    /**
+     * Attributes in declared order
+     */
+    public List<CompiledAttribute> getAttributes() {
+        return attributes;
+    }
+
+    public CompiledAttribute getAttribute(String code) {
+        return attributesByCode.get(code);
+    }
+
+    /**
+     * Fingerprint of the code and attributes of the composite, references to lookups and composites are by code so
+     * composites referencing each other don't need each other's fingerprint
+     */
+    public Fingerprint getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Fingerprint of the code and the validation fingerprints of the attributes of the composite
+     */
+    public Fingerprint getValidationFingerprint() {
+        return validationFingerprint;
+    }
+
+}
@@ -0,0 +1,261 @@
+package io.ajo.responscore.compiled;
+
+import io.ajo.responscore.config.Attribute;
+import io.ajo.responscore.config.CompositeTypeConfig;
+import io.ajo.responscore.config.Config;
+import io.ajo.responscore.config.LookupConfig;
+import io.ajo.responscore.util.Fingerprint;
+import org.apache.commons.lang3.StringUtils;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiled form of a {@link Config}, ready to validate {@link io.ajo.responscore.form.Form} data against. Compiling
+ * resolves all lookup and composite references and compiles all validators, so none of this work is repeated per
+ * validation.
+ * The config must be valid before compiling, see {@link io.ajo.responscore.service.FormService#compileConfig(Config)}
+ */
+public final class CompiledConfig {
+
+    private final Config config;
+    private final CompiledComposite root;
+    private final Map<String, CompiledLookup> lookups;
+    private final Map<String, CompiledComposite> composites;
+    private final Fingerprint fingerprint;
+    private final Fingerprint validationFingerprint;
+
+    private CompiledConfig(
+            Config config,
+            CompiledComposite root,
+            Map<String, CompiledLookup> lookups,
+            Map<String, CompiledComposite> composites,
+            Fingerprint fingerprint,
+            Fingerprint validationFingerprint
+    ) {
+        this.config = config;
+        this.root = root;
+        this.lookups = lookups;
+        this.composites = composites;
+        this.fingerprint = fingerprint;
+        this.validationFingerprint = validationFingerprint;
+    }
+
+    /**
+     * Compile a valid config
+     * @param config config to compile, should have been validated
+     * @return compiled config
+     * @throws IllegalArgumentException if the config references an undeclared lookup or composite, or a lookup
+     *         dictionary which can't be opened
+     */
+    public static CompiledConfig compile(Config config) throws IllegalArgumentException {
+        return compile(config, null);
+    }
+
+    /**
+     * Compile a valid config, reusing the compiled lookups, composites, validators and fingerprints of a previous
+     * compilation wherever the config shares the same instances with the config it was compiled from, so recompiling
+     * an edited config, or one a {@link io.ajo.responscore.config.ConfigOverlay} was applied to, costs in proportion
+     * to what was changed. Shared instances must not have been modified since the previous compilation.
+     * @param config config to compile, should have been validated
+     * @param previous previous compilation, typically of an earlier version of the config, or {@literal null}
+     * @return compiled config
+     * @throws IllegalArgumentException if the config references an undeclared lookup or composite, or a lookup
+     *         dictionary which can't be opened
+     */
+    public static CompiledConfig compile(Config config, CompiledConfig previous) throws IllegalArgumentException {
+        return compile(config, previous, null);
+    }
+
+    /**
+     * Compile a valid config as {@link #compile(Config, CompiledConfig)}, opening lookup dictionaries within a
+     * directory, for configs which aren't trusted to name any file
+     * @param config config to compile, should have been validated
+     * @param previous previous compilation, typically of an earlier version of the config, or {@literal null}
+     * @param dictionaryDirectory directory lookup dictionaries are resolved within, those resolving outside it can't
+     *                            be opened, or {@literal null} to open dictionaries as the paths they name
+     * @return compiled config
+     * @throws IllegalArgumentException if the config references an undeclared lookup or composite, or a lookup
+     *         dictionary which can't be opened
+     */
+    public static CompiledConfig compile(
+            Config config,
+            CompiledConfig previous,
+            Path dictionaryDirectory
+    ) throws IllegalArgumentException {
+        final Map<String, CompiledLookup> lookups = new HashMap<>();
+        for (final LookupConfig lookupConfig : config.getLookupConfigs()) {
+            final CompiledLookup previousLookup = previous != null ? previous.lookups.get(lookupConfig.getCode()) : null;
+            lookups.put(lookupConfig.getCode(), previousLookup != null && previousLookup.getLookupConfig() == lookupConfig
+                    ? previousLookup
+                    : new CompiledLookup(lookupConfig, dictionaryDirectory));
+        }
+        // composites unchanged since the previous compilation, which reference only unchanged lookups and composites,
+        // are reused whole, so an overlay of a large config only compiles the composites it changes
+        final Map<String, CompiledComposite> reused = reusableComposites(config, lookups, previous);
+        // create all composites up front, so composites can reference each other (or themselves)
+        final Map<String, CompiledComposite> composites = new HashMap<>(reused);
+        for (final CompositeTypeConfig compositeTypeConfig : config.getCompositeTypeConfigs()) {
+            composites.computeIfAbsent(
+                    compositeTypeConfig.getCode(),
+                    code -> new CompiledComposite(code, compositeTypeConfig.getAttributes())
+            );
+        }
+        for (final CompositeTypeConfig compositeTypeConfig : config.getCompositeTypeConfigs()) {
+            if (reused.containsKey(compositeTypeConfig.getCode())) {
+                continue;
+            }
+            final CompiledComposite previousComposite = previous != null
+                    ? previous.composites.get(compositeTypeConfig.getCode())
+                    : null;
+            composites.get(compositeTypeConfig.getCode()).setAttributes(
+                    compileAttributes(compositeTypeConfig.getAttributes(), lookups, composites, previousComposite),
+                    previousComposite
+            );
+        }
+        final CompiledComposite previousRoot = previous != null ? previous.root : null;
+        final CompiledComposite root;
+        if (previousRoot != null && previousRoot.isCompiledFrom(config.getAttributes())
+                && referencesOnly(previousRoot, lookups, reused)) {
+            root = previousRoot;
+        } else {
+            root = new CompiledComposite(null, config.getAttributes());
+            root.setAttributes(compileAttributes(config.getAttributes(), lookups, composites, previousRoot), previousRoot);
+        }
+        return new CompiledConfig(
+                config,
+                root,
+                Map.copyOf(lookups),
+                Map.copyOf(composites),
+                ConfigFingerprints.config(root, lookups.values(), composites.values()),
+                ConfigFingerprints.configValidation(root, lookups.values(), composites.values())
+        );
+    }
+
+    /**
+     * @return previously compiled composites, by code, compiled from the same attributes instances as the config's
+     *         composite type configs, and referencing only lookups and composites which are themselves reused
+     */
+    private static Map<String, CompiledComposite> reusableComposites(
+            Config config,
+            Map<String, CompiledLookup> lookups,
+            CompiledConfig previous
+    ) {
+        final Map<String, CompiledComposite> reusable = new HashMap<>();
+        if (previous == null) {
+            return reusable;
+        }
+        for (final CompositeTypeConfig compositeTypeConfig : config.getCompositeTypeConfigs()) {
+            final CompiledComposite previousComposite = previous.composites.get(compositeTypeConfig.getCode());
+            if (previousComposite != null && previousComposite.isCompiledFrom(compositeTypeConfig.getAttributes())) {
+                reusable.put(compositeTypeConfig.getCode(), previousComposite);
+            }
+        }
+        // dropping a composite may leave others referencing it, so repeat until none are dropped
+        boolean dropped = true;
+        while (dropped) {
+            dropped = reusable.values().removeIf(composite -> !referencesOnly(composite, lookups, reusable));
+        }
+        return reusable;
+    }
+
+    /**
+     * @return whether every lookup and composite the attributes of the composite reference is the one compiled for
+     *         their code
+     */
+    private static boolean referencesOnly(
+            CompiledComposite composite,
+            Map<String, CompiledLookup> lookups,
+            Map<String, CompiledComposite> composites
+    ) {
+        for (final CompiledAttribute attribute : composite.getAttributes()) {
+            if (attribute.getLookup() != null
+                    && lookups.get(attribute.getAttribute().getLookupCode()) != attribute.getLookup()) {
+                return false;
+            }
+            if (attribute.getComposite() != null
+                    && composites.get(attribute.getAttribute().getCompositeCode()) != attribute.getComposite()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static List<CompiledAttribute> compileAttributes(
+            Collection<Attribute> attributes,
+            Map<String, CompiledLookup> lookups,
+            Map<String, CompiledComposite> composites,
+            CompiledComposite previous
+    ) {
+        final List<CompiledAttribute> compiled = new ArrayList<>(attributes.size());
+        for (final Attribute attribute : attributes) {
+            CompiledLookup lookup = null;
+            CompiledComposite composite = null;
+            if (!StringUtils.isEmpty(attribute.getLookupCode())) {
+                lookup = lookups.get(attribute.getLookupCode());
+                if (lookup == null) {
+                    throw new IllegalArgumentException("Unknown lookup code: " + attribute.getLookupCode());
+                }
+            } else if (!StringUtils.isEmpty(attribute.getCompositeCode())) {
+                composite = composites.get(attribute.getCompositeCode());
+                if (composite == null) {
+                    throw new IllegalArgumentException("Unknown composite code: " + attribute.getCompositeCode());
+                }
+            }
+            final CompiledAttribute previousAttribute = previous != null ? previous.getAttribute(attribute.getCode()) : null;
+            compiled.add(new CompiledAttribute(attribute, lookup, composite, previousAttribute));
+        }
+        return compiled;
+    }
+
+    /**
+     * Config this was compiled from
+     */
+    public Config getConfig() {
+        return config;
+    }
+
+    /**
+     * Compiled root attributes of the config
+     */
+    public CompiledComposite getRoot() {
+        return root;
+    }
+
+    /**
+     * Fingerprint of the content of the config, equal for configs with equal content. Unlike {@link Config#equals}
+     * this covers every field, as attributes, lookups and composite types only compare equal by code
+     */
+    public Fingerprint getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Fingerprint of the content of the config which affects validating forms, equal for configs only differing in
+     * labels and tooltips, so they can share validation results
+     */
+    public Fingerprint getValidationFingerprint() {
+        return validationFingerprint;
+    }
+
+    public CompiledLookup getLookup(String code) {
+        return lookups.get(code);
+    }
+
+    public CompiledComposite getComposite(String code) {
+        return composites.get(code);
+    }
+
+    Map<String, CompiledLookup> getLookups() {
+        return lookups;
+    }
+
+    Map<String, CompiledComposite> getComposites() {
+        return composites;
+    }
+
+}
@@ -0,0 +1,154 @@
+package io.ajo.responscore.compiled;
+
+import io.ajo.responscore.config.LookupConfig;
+import io.ajo.responscore.config.LookupItem;
+import io.ajo.responscore.util.Fingerprint;
+
+import java.io.IOException;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Compiled form of a {@link LookupConfig}, with the item codes indexed for constant time membership checks, or, when
+ * the config references a dictionary, the dictionary mapped for membership checks by binary search off the heap
+ */
+public final class CompiledLookup {
+
+    private final LookupConfig lookupConfig;
+    /**
+     * Items held by the config by code, {@literal null} if they are held by {@link #dictionary}
+     */
+    private final Map<String, LookupItem> items;
+    private final LookupDictionary dictionary;
+    private final Fingerprint fingerprint;
+    private final Fingerprint validationFingerprint;
+    private volatile LookupIndex index;
+
+    /**
+     * @param dictionaryDirectory directory the dictionary of the config is resolved within, or {@literal null} to
+     *                            open it as the path it names
+     * @throws IllegalArgumentException if the dictionary of the config can't be opened
+     */
+    CompiledLookup(LookupConfig lookupConfig, Path dictionaryDirectory) {
+        this.lookupConfig = lookupConfig;
+        if (lookupConfig.getDictionary() != null) {
+            try {
+                this.dictionary = dictionaryDirectory != null
+                        ? LookupDictionary.open(dictionaryDirectory, lookupConfig.getDictionary())
+                        : LookupDictionary.open(Path.of(lookupConfig.getDictionary()));
+            } catch (IOException | InvalidPathException e) {
+                throw new IllegalArgumentException("Unable to open dictionary of lookup code: " + lookupConfig.getCode(), e);
+            }
+            this.items = null;
+        } else {
+            this.dictionary = null;
+            this.items = new HashMap<>((int) (lookupConfig.getLookupItems().size() / 0.75f) + 1);
+            for (final LookupItem item : lookupConfig.getLookupItems()) {
+                items.put(item.getCode(), item);
+            }
+        }
+        this.fingerprint = ConfigFingerprints.lookup(lookupConfig, dictionary);
+        this.validationFingerprint = ConfigFingerprints.lookupValidation(lookupConfig, dictionary);
+    }
+
+    public LookupConfig getLookupConfig() {
+        return lookupConfig;
+    }
+
+    /**
+     * Fingerprint of the content of the lookup config
+     */
+    public Fingerprint getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Fingerprint of the item codes of the lookup config, or of its dictionary
+     */
+    public Fingerprint getValidationFingerprint() {
+        return validationFingerprint;
+    }
+
+    /**
+     * Dictionary holding the items, or {@literal null} if the config holds them
+     */
+    public LookupDictionary getDictionary() {
+        return dictionary;
+    }
+
+    /**
+     * Search for items, by code and label as {@link LookupIndex#search(String, int)} when the config holds the items,
+     * or by code prefix as {@link LookupDictionary#search(String, int)} when a dictionary holds them
+     * @param query text to search for
+     * @param limit maximum number of items to return
+     * @return matching items
+     */
+    public List<LookupItem> search(String query, int limit) {
+        return dictionary != null ? dictionary.search(query, limit) : getIndex().search(query, limit);
+    }
+
+    /**
+     * @param code code of the item
+     * @return label of the item with the code, or {@literal null} if there is none
+     */
+    public String getLabel(String code) {
+        if (dictionary != null) {
+            return dictionary.getLabel(code);
+        }
+        final LookupItem item = items.get(code);
+        return item != null ? item.getLabel() : null;
+    }
+
+    /**
+     * @return the item with the code held by the config, or {@literal null} if there is none or a dictionary holds the
+     *         items
+     */
+    LookupItem getItem(String code) {
+        return items != null ? items.get(code) : null;
+    }
+
+    /**
+     * Visit every item, those of a dictionary are decoded as they're visited rather than held
+     */
+    void forEachItem(Consumer<LookupItem> action) {
+        if (dictionary != null) {
+            dictionary.forEach(action);
+        } else {
+            lookupConfig.getLookupItems().forEach(action);
+        }
+    }
+
+    /**
+     * Search index of the items held by the config, built on first use as only lookups searched by clients need it,
+     * and reused with this compiled lookup by later compilations of an unchanged lookup config
+     */
+    LookupIndex getIndex() {
+        LookupIndex built = index;
+        if (built == null) {
+            synchronized (this) {
+                built = index;
+                if (built == null) {
+                    built = new LookupIndex(lookupConfig.getLookupItems());
+                    index = built;
+                }
+            }
+        }
+        return built;
+    }
+
+    /**
+     * @param value data value to check
+     * @return {@literal true} if the value is the code of one of the lookup items
+     */
+    public boolean contains(Object value) {
+        if (dictionary != null) {
+            return value instanceof String && dictionary.contains((String) value);
+        }
+        return items.containsKey(value);
+    }
+
+}
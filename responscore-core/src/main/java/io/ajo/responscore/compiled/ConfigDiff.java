@@ -0,0 +1,277 @@
+package io.ajo.responscore.compiled;
+
+import io.ajo.responscore.config.Attribute;
+import io.ajo.responscore.config.LookupItem;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Differences between two compilations of a config, typically of successive versions of it, so caches of the config
+ * can invalidate or patch only what changed rather than being flushed. Lookups, composites and attributes are matched
+ * by code, and only those with differing fingerprints are compared further, so the diff costs in proportion to the
+ * subtrees changed rather than to the config. The items of a changed lookup are compared in one pass over both
+ * versions, without copying either, see {@link LookupDiff}. For example a fixed label is reported as such, and leaves the
+ * {@link CompiledConfig#getValidationFingerprint()} unchanged, so validation results cached for the previous version
+ * still apply.
+ */
+public final class ConfigDiff {
+
+    public enum Change {
+        ADDED,
+        REMOVED,
+        CHANGED
+    }
+
+    /**
+     * Parts of an attribute which may change
+     */
+    public enum Aspect {
+        /**
+         * {@link Attribute#getLabel()} and {@link Attribute#getTooltip()}, which don't affect validation
+         */
+        LABEL,
+        /**
+         * {@link Attribute#getType()}, its lookup or composite code, whether it's required or a list, and its default
+         * value
+         */
+        TYPE,
+        /**
+         * {@link Attribute#getValidators()} and {@link Attribute#getValidateItems()}
+         */
+        VALIDATORS,
+        /**
+         * {@link Attribute#getDependencies()}
+         */
+        DEPENDENCIES
+    }
+
+    /**
+     * @param compositeCode code of the composite type config of the attribute, {@literal null} for root attributes
+     * @param code code of the attribute
+     * @param aspects parts of the attribute changed, empty unless the attribute changed
+     */
+    public record AttributeDiff(String compositeCode, String code, Change change, Set<Aspect> aspects) {}
+
+    /**
+     * Items are only compared for lookups changed
+     * @param addedItems codes of the items added
+     * @param removedItems codes of the items removed
+     * @param relabelledItems codes of the items with changed labels
+     */
+    public record LookupDiff(
+            String code,
+            Change change,
+            Set<String> addedItems,
+            Set<String> removedItems,
+            Set<String> relabelledItems
+    ) {}
+
+    /**
+     * Attributes are only compared for composites changed, and are reported as {@link AttributeDiff}s
+     */
+    public record CompositeDiff(String code, Change change) {}
+
+    private final List<AttributeDiff> attributes;
+    private final List<LookupDiff> lookups;
+    private final List<CompositeDiff> composites;
+    private final boolean validationChanged;
+
+    private ConfigDiff(
+            List<AttributeDiff> attributes,
+            List<LookupDiff> lookups,
+            List<CompositeDiff> composites,
+            boolean validationChanged
+    ) {
+        this.attributes = List.copyOf(attributes);
+        this.lookups = List.copyOf(lookups);
+        this.composites = List.copyOf(composites);
+        this.validationChanged = validationChanged;
+    }
+
+    /**
+     * @param previous compilation of the earlier version of the config
+     * @param current compilation of the later version of the config
+     * @return differences from the earlier to the later version
+     */
+    public static ConfigDiff between(CompiledConfig previous, CompiledConfig current) {
+        final List<AttributeDiff> attributes = new ArrayList<>();
+        final List<LookupDiff> lookups = new ArrayList<>();
+        final List<CompositeDiff> composites = new ArrayList<>();
+        if (!previous.getFingerprint().equals(current.getFingerprint())) {
+            diffComposite(null, previous.getRoot(), current.getRoot(), attributes);
+            diffLookups(previous.getLookups(), current.getLookups(), lookups);
+            diffComposites(previous.getComposites(), current.getComposites(), composites, attributes);
+        }
+        return new ConfigDiff(
+                attributes,
+                lookups,
+                composites,
+                !previous.getValidationFingerprint().equals(current.getValidationFingerprint())
+        );
+    }
+
+    private static void diffLookups(
+            Map<String, CompiledLookup> previous,
+            Map<String, CompiledLookup> current,
+            List<LookupDiff> diffs
+    ) {
+        for (final CompiledLookup lookup : current.values()) {
+            final String code = lookup.getLookupConfig().getCode();
+            final CompiledLookup previousLookup = previous.get(code);
+            if (previousLookup == null) {
+                diffs.add(new LookupDiff(code, Change.ADDED, Set.of(), Set.of(), Set.of()));
+            } else if (!previousLookup.getFingerprint().equals(lookup.getFingerprint())) {
+                diffs.add(diffItems(code, previousLookup, lookup));
+            }
+        }
+        for (final String code : previous.keySet()) {
+            if (!current.containsKey(code)) {
+                diffs.add(new LookupDiff(code, Change.REMOVED, Set.of(), Set.of(), Set.of()));
+            }
+        }
+    }
+
+    /**
+     * Items are compared in a single pass without copying either lookup: dictionaries are walked in step in place, and
+     * items held by configs are matched by code, skipping those both versions share
+     */
+    private static LookupDiff diffItems(String code, CompiledLookup previous, CompiledLookup current) {
+        final Set<String> added = new HashSet<>();
+        final Set<String> removed = new HashSet<>();
+        final Set<String> relabelled = new HashSet<>();
+        if (previous.getDictionary() != null && current.getDictionary() != null) {
+            LookupDictionary.diff(previous.getDictionary(), current.getDictionary(), added, removed, relabelled);
+        } else {
+            current.forEachItem(item -> {
+                final LookupItem previousItem = previous.getItem(item.getCode());
+                if (previousItem == item) {
+                    return;
+                }
+                if (previousItem == null && !previous.contains(item.getCode())) {
+                    added.add(item.getCode());
+                } else if (!Objects.equals(previous.getLabel(item.getCode()), item.getLabel())) {
+                    relabelled.add(item.getCode());
+                }
+            });
+            previous.forEachItem(item -> {
+                if (current.getItem(item.getCode()) != item && !current.contains(item.getCode())) {
+                    removed.add(item.getCode());
+                }
+            });
+        }
+        return new LookupDiff(code, Change.CHANGED, Set.copyOf(added), Set.copyOf(removed), Set.copyOf(relabelled));
+    }
+
+    private static void diffComposites(
+            Map<String, CompiledComposite> previous,
+            Map<String, CompiledComposite> current,
+            List<CompositeDiff> diffs,
+            List<AttributeDiff> attributeDiffs
+    ) {
+        for (final CompiledComposite composite : current.values()) {
+            final CompiledComposite previousComposite = previous.get(composite.getCode());
+            if (previousComposite == null) {
+                diffs.add(new CompositeDiff(composite.getCode(), Change.ADDED));
+            } else if (!previousComposite.getFingerprint().equals(composite.getFingerprint())) {
+                diffs.add(new CompositeDiff(composite.getCode(), Change.CHANGED));
+                diffComposite(composite.getCode(), previousComposite, composite, attributeDiffs);
+            }
+        }
+        for (final String code : previous.keySet()) {
+            if (!current.containsKey(code)) {
+                diffs.add(new CompositeDiff(code, Change.REMOVED));
+            }
+        }
+    }
+
+    private static void diffComposite(
+            String code,
+            CompiledComposite previous,
+            CompiledComposite current,
+            List<AttributeDiff> diffs
+    ) {
+        if (previous.getFingerprint().equals(current.getFingerprint())) {
+            return;
+        }
+        for (final CompiledAttribute attribute : current.getAttributes()) {
+            final CompiledAttribute previousAttribute = previous.getAttribute(attribute.getCode());
+            if (previousAttribute == null) {
+                diffs.add(new AttributeDiff(code, attribute.getCode(), Change.ADDED, Set.of()));
+            } else if (!previousAttribute.getFingerprint().equals(attribute.getFingerprint())) {
+                diffs.add(new AttributeDiff(
+                        code,
+                        attribute.getCode(),
+                        Change.CHANGED,
+                        aspects(previousAttribute.getAttribute(), attribute.getAttribute())
+                ));
+            }
+        }
+        for (final CompiledAttribute previousAttribute : previous.getAttributes()) {
+            if (current.getAttribute(previousAttribute.getCode()) == null) {
+                diffs.add(new AttributeDiff(code, previousAttribute.getCode(), Change.REMOVED, Set.of()));
+            }
+        }
+    }
+
+    private static Set<Aspect> aspects(Attribute previous, Attribute current) {
+        final Set<Aspect> aspects = EnumSet.noneOf(Aspect.class);
+        if (!Objects.equals(previous.getLabel(), current.getLabel())
+                || !Objects.equals(previous.getTooltip(), current.getTooltip())) {
+            aspects.add(Aspect.LABEL);
+        }
+        if (previous.getType() != current.getType()
+                || !Objects.equals(previous.getLookupCode(), current.getLookupCode())
+                || !Objects.equals(previous.getCompositeCode(), current.getCompositeCode())
+                || previous.isRequired() != current.isRequired()
+                || previous.isList() != current.isList()
+                || !Objects.equals(previous.getDefaultValue(), current.getDefaultValue())) {
+            aspects.add(Aspect.TYPE);
+        }
+        if (!Objects.equals(previous.getValidators(), current.getValidators())
+                || !Objects.equals(previous.getValidateItems(), current.getValidateItems())) {
+            aspects.add(Aspect.VALIDATORS);
+        }
+        if (!Objects.equals(previous.getDependencies(), current.getDependencies())) {
+            aspects.add(Aspect.DEPENDENCIES);
+        }
+        return Set.copyOf(aspects);
+    }
+
+    /**
+     * Root attributes and attributes of composites changed, in order of the later version within each
+     */
+    public List<AttributeDiff> getAttributes() {
+        return attributes;
+    }
+
+    public List<LookupDiff> getLookups() {
+        return lookups;
+    }
+
+    public List<CompositeDiff> getComposites() {
+        return composites;
+    }
+
+    /**
+     * Whether anything affecting validation changed, if not validation results of the earlier version still apply to
+     * the later one, see {@link CompiledConfig#getValidationFingerprint()}
+     */
+    public boolean isValidationChanged() {
+        return validationChanged;
+    }
+
+    /**
+     * Whether nothing changed
+     */
+    public boolean isEmpty() {
+        return attributes.isEmpty() && lookups.isEmpty() && composites.isEmpty();
+    }
+
+}
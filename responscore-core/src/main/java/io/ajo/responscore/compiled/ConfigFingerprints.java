@@ -0,0 +1,213 @@
+package io.ajo.responscore.compiled;
+
+import io.ajo.responscore.config.Attribute;
+import io.ajo.responscore.config.CompositeTypeConfig;
+import io.ajo.responscore.config.Dependent;
+import io.ajo.responscore.config.LookupConfig;
+import io.ajo.responscore.config.LookupItem;
+import io.ajo.responscore.config.Validator;
+import io.ajo.responscore.util.ContentHasher;
+import io.ajo.responscore.util.Fingerprint;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Content fingerprints of config, forming a Merkle tree: the fingerprint of the config combines those of its root
+ * attributes, lookups and composites, and the fingerprint of a composite combines those of its attributes. Sets are
+ * combined independently of their iteration order, and references to lookups and composites are by code, so the
+ * fingerprint of a subtree only depends on its own content and can be memoised by the compiled form of it.
+ * Subtrees of a config can also be fingerprinted before compiling, to tell whether a new version of one changed.
+ * Alongside are validation fingerprints, which leave out labels and tooltips as they don't affect the result of
+ * validating a form, so configs which only differ in them share validation results.
+ */
+public final class ConfigFingerprints {
+
+    /**
+     * Fingerprint in place of null elements, which only config not yet validated may hold
+     */
+    private static final Fingerprint NULL = new ContentHasher().putInt(-1).finish();
+
+    private ConfigFingerprints() {}
+
+    static Fingerprint config(
+            CompiledComposite root,
+            Collection<CompiledLookup> lookups,
+            Collection<CompiledComposite> composites
+    ) {
+        return new ContentHasher()
+                .putFingerprint(root.getFingerprint())
+                .putFingerprint(ContentHasher.combineUnordered(lookups, CompiledLookup::getFingerprint))
+                .putFingerprint(ContentHasher.combineUnordered(composites, CompiledComposite::getFingerprint))
+                .finish();
+    }
+
+    static Fingerprint configValidation(
+            CompiledComposite root,
+            Collection<CompiledLookup> lookups,
+            Collection<CompiledComposite> composites
+    ) {
+        return new ContentHasher()
+                .putFingerprint(root.getValidationFingerprint())
+                .putFingerprint(ContentHasher.combineUnordered(lookups, CompiledLookup::getValidationFingerprint))
+                .putFingerprint(ContentHasher.combineUnordered(composites, CompiledComposite::getValidationFingerprint))
+                .finish();
+    }
+
+    /**
+     * Only item codes are validated against, so labels are left out, but dictionaries are only fingerprinted whole
+     */
+    static Fingerprint lookupValidation(LookupConfig lookupConfig, LookupDictionary dictionary) {
+        return new ContentHasher()
+                .putString(lookupConfig.getCode())
+                .putFingerprint(dictionary != null
+                        ? dictionary.getFingerprint()
+                        : ContentHasher.combineUnordered(
+                                lookupConfig.getLookupItems(),
+                                item -> new ContentHasher().putString(item.getCode()).finish()
+                        ))
+                .finish();
+    }
+
+    static Fingerprint compositeValidation(String code, Collection<CompiledAttribute> attributes) {
+        return new ContentHasher()
+                .putString(code)
+                .putFingerprint(ContentHasher.combineUnordered(attributes, CompiledAttribute::getValidationFingerprint))
+                .finish();
+    }
+
+    /**
+     * @param dictionary dictionary holding the items of the lookup, or {@literal null} if the config holds them
+     */
+    static Fingerprint lookup(LookupConfig lookupConfig, LookupDictionary dictionary) {
+        return new ContentHasher()
+                .putString(lookupConfig.getCode())
+                .putFingerprint(dictionary != null
+                        ? dictionary.getFingerprint()
+                        : unordered(lookupConfig.getLookupItems(), ConfigFingerprints::lookupItem))
+                .finish();
+    }
+
+    /**
+     * @param code code of the composite, {@literal null} for the root attributes
+     */
+    static Fingerprint composite(String code, Collection<CompiledAttribute> attributes) {
+        return new ContentHasher()
+                .putString(code)
+                .putFingerprint(ContentHasher.combineUnordered(attributes, CompiledAttribute::getFingerprint))
+                .finish();
+    }
+
+    /**
+     * Fingerprint of a lookup config before it's compiled, for comparing versions of it. Equal to that of its
+     * compilation for lookups holding their items, dictionaries are fingerprinted by their path as their content isn't
+     * read. Like the other fingerprints before compiling, it allows the nulls of config which hasn't been validated
+     */
+    public static Fingerprint lookupConfig(LookupConfig lookupConfig) {
+        if (lookupConfig.getDictionary() == null) {
+            return lookup(lookupConfig, null);
+        }
+        return new ContentHasher()
+                .putString(lookupConfig.getCode())
+                .putString(lookupConfig.getDictionary())
+                .putFingerprint(unordered(lookupConfig.getLookupItems(), ConfigFingerprints::lookupItem))
+                .finish();
+    }
+
+    /**
+     * Fingerprint of a composite type config before it's compiled, for comparing versions of it. Equal to that of its
+     * compilation
+     */
+    public static Fingerprint compositeTypeConfig(CompositeTypeConfig compositeTypeConfig) {
+        return new ContentHasher()
+                .putString(compositeTypeConfig.getCode())
+                .putFingerprint(unordered(compositeTypeConfig.getAttributes(), ConfigFingerprints::attribute))
+                .finish();
+    }
+
+    public static Fingerprint attribute(Attribute attribute) {
+        return attribute(attribute, true);
+    }
+
+    static Fingerprint attributeValidation(Attribute attribute) {
+        return attribute(attribute, false);
+    }
+
+    private static Fingerprint attribute(Attribute attribute, boolean labels) {
+        final ContentHasher hasher = new ContentHasher()
+                .putString(attribute.getCode());
+        if (labels) {
+            hasher.putString(attribute.getLabel())
+                    .putString(attribute.getTooltip());
+        }
+        hasher.putString(attribute.getType() == null ? null : attribute.getType().name())
+                .putString(attribute.getLookupCode())
+                .putString(attribute.getCompositeCode())
+                .putBoolean(attribute.isRequired())
+                .putBoolean(attribute.isList());
+        putData(hasher, attribute.getDefaultValue());
+        putValidators(hasher, attribute.getValidators());
+        putValidators(hasher, attribute.getValidateItems());
+        if (attribute.getDependencies() == null) {
+            hasher.putInt(-1);
+        } else {
+            hasher.putInt(attribute.getDependencies().size());
+            for (final Dependent dependent : attribute.getDependencies()) {
+                if (dependent == null) {
+                    hasher.putFingerprint(NULL);
+                    continue;
+                }
+                hasher.putString(dependent.getAttributeCode());
+                putData(hasher, dependent.getValues());
+            }
+        }
+        return hasher.finish();
+    }
+
+    private static Fingerprint lookupItem(LookupItem lookupItem) {
+        return new ContentHasher()
+                .putString(lookupItem.getCode())
+                .putString(lookupItem.getLabel())
+                .finish();
+    }
+
+    private static <T> Fingerprint unordered(Collection<T> elements, Function<T, Fingerprint> fingerprinter) {
+        if (elements == null) {
+            return NULL;
+        }
+        return ContentHasher.combineUnordered(elements, element -> element != null ? fingerprinter.apply(element) : NULL);
+    }
+
+    private static void putValidators(ContentHasher hasher, List<Validator> validators) {
+        hasher.putInt(validators == null ? -1 : validators.size());
+        if (validators == null) {
+            return;
+        }
+        for (final Validator validator : validators) {
+            if (validator == null) {
+                hasher.putFingerprint(NULL);
+                continue;
+            }
+            hasher.putString(validator.getType() == null ? null : validator.getType().name())
+                    .putString(validator.getValue() == null ? null : validator.getValue().toString())
+                    .putString(validator.getField())
+                    .putString(validator.getPattern())
+                    .putBoolean(validator.isLinearTime());
+        }
+    }
+
+    /**
+     * Values of unsupported types are hashed by their string form, as config only needs to fingerprint equal to
+     * itself
+     */
+    private static void putData(ContentHasher hasher, Object value) {
+        final ContentHasher dataHasher = new ContentHasher();
+        if (dataHasher.putData(value)) {
+            hasher.putBoolean(true).putFingerprint(dataHasher.finish());
+        } else {
+            hasher.putBoolean(false).putString(String.valueOf(value));
+        }
+    }
+
+}
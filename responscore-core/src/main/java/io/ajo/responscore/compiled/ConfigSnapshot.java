@@ -0,0 +1,280 @@
+package io.ajo.responscore.compiled;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.ajo.responscore.config.ConfigCompactor;
+import io.ajo.responscore.config.ConfigReader;
+import io.ajo.responscore.util.Fingerprint;
+import io.ajo.responscore.util.ObjectMapperUtils;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Memory-mapped snapshot of compiled configs by id, so a node can start serving without first deserialising, validating
+ * and compiling every config. Opening only reads the ids and fingerprints, each config is deserialised and compiled on
+ * first use, skipping validation as it was valid when the snapshot was written, and held compact, see
+ * {@link ConfigCompactor}. A config whose compilation no longer
+ * has the fingerprint it was written with, such as one referencing a lookup dictionary which has since changed, is
+ * stale and not returned. Safe to use concurrently.
+ * <p>
+ * The file is big-endian, laid out as:
+ *  - header: magic {@code RSCS}, version, entry count, padding
+ *  - directory: for each entry the 128-bit fingerprint of the compiled config, then the offset and length of its id
+ *    and of its config
+ *  - data: ids as UTF-8, and configs as JSON
+ * <p>
+ * Lookup indexes are built on first search (see {@link CompiledLookup#search(String, int)}) and lookup dictionaries
+ * are mapped files already, so neither is held in the snapshot.
+ */
+public final class ConfigSnapshot {
+
+    private static final int MAGIC = 0x52534353;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+    private static final int DIRECTORY_ENTRY_BYTES = 32;
+
+    /**
+     * Marks an entry which was stale when materialised
+     */
+    private static final Object STALE = new Object();
+    private static final ConfigReader CONFIG_READER = new ConfigReader();
+    private static final ConfigCompactor CONFIG_COMPACTOR = new ConfigCompactor();
+
+    private final ByteBuffer buffer;
+    private final Map<String, Integer> entries;
+    private final Path dictionaryDirectory;
+    /**
+     * Compiled config, or {@link #STALE}, of each entry materialised
+     */
+    private final AtomicReferenceArray<Object> materialised;
+
+    private ConfigSnapshot(ByteBuffer buffer, Map<String, Integer> entries, Path dictionaryDirectory) {
+        this.buffer = buffer;
+        this.entries = entries;
+        this.dictionaryDirectory = dictionaryDirectory;
+        this.materialised = new AtomicReferenceArray<>(entries.size());
+    }
+
+    /**
+     * Map a snapshot file written by a {@link Writer}
+     * @param path file to map
+     * @return opened snapshot
+     * @throws IOException if the file can't be read, isn't a snapshot of this version or is too large to map
+     */
+    public static ConfigSnapshot open(Path path) throws IOException {
+        return open(path, null);
+    }
+
+    /**
+     * Map a snapshot file written by a {@link Writer}, compiling its configs with lookup dictionaries resolved within a
+     * directory, see {@link CompiledConfig#compile(io.ajo.responscore.config.Config, CompiledConfig, Path)}
+     * @param path file to map
+     * @param dictionaryDirectory directory lookup dictionaries are resolved within, or {@literal null} to open
+     *                            dictionaries as the paths they name
+     * @return opened snapshot
+     * @throws IOException if the file can't be read, isn't a snapshot of this version or is too large to map
+     */
+    public static ConfigSnapshot open(Path path, Path dictionaryDirectory) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final long length = channel.size();
+            if (length > Integer.MAX_VALUE) {
+                throw new IOException("Config snapshot is larger than 2 GiB: " + path);
+            }
+            if (length < HEADER_BYTES) {
+                throw new IOException("Not a config snapshot: " + path);
+            }
+            final ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            if (buffer.getInt(0) != MAGIC) {
+                throw new IOException("Not a config snapshot: " + path);
+            }
+            if (buffer.getInt(4) != VERSION) {
+                throw new IOException("Unsupported config snapshot version " + buffer.getInt(4) + ": " + path);
+            }
+            final int count = buffer.getInt(8);
+            if (count < 0 || HEADER_BYTES + (long) DIRECTORY_ENTRY_BYTES * count > length) {
+                throw new IOException("Config snapshot is truncated: " + path);
+            }
+            final Map<String, Integer> entries = new HashMap<>((int) (count / 0.75f) + 1);
+            for (int entry = 0; entry < count; entry++) {
+                final int directory = directoryAt(entry);
+                if ((long) buffer.getInt(directory + 16) + buffer.getInt(directory + 20) > length
+                        || (long) buffer.getInt(directory + 24) + buffer.getInt(directory + 28) > length) {
+                    throw new IOException("Config snapshot is truncated: " + path);
+                }
+                entries.put(decode(buffer, buffer.getInt(directory + 16), buffer.getInt(directory + 20)), entry);
+            }
+            return new ConfigSnapshot(buffer, entries, dictionaryDirectory);
+        }
+    }
+
+    /**
+     * Ids of the configs in the snapshot
+     */
+    public Set<String> getIds() {
+        return Collections.unmodifiableSet(entries.keySet());
+    }
+
+    /**
+     * @return fingerprint the config was compiled with, without materialising it, or {@literal null} if there is none
+     *         with the id
+     */
+    public Fingerprint getFingerprint(String id) {
+        final Integer entry = entries.get(id);
+        if (entry == null) {
+            return null;
+        }
+        final int directory = directoryAt(entry);
+        return new Fingerprint(buffer.getLong(directory), buffer.getLong(directory + 8));
+    }
+
+    /**
+     * Get the compiled config, deserialising and compiling it on first use
+     * @param id id of the config
+     * @return compiled config, or {@literal null} if there is none with the id or it is stale
+     */
+    public CompiledConfig get(String id) {
+        final Integer entry = entries.get(id);
+        if (entry == null) {
+            return null;
+        }
+        Object compiled = materialised.get(entry);
+        if (compiled == null) {
+            // concurrent first uses may both compile, only one is kept
+            materialised.compareAndSet(entry, null, materialise(entry));
+            compiled = materialised.get(entry);
+        }
+        return compiled == STALE ? null : (CompiledConfig) compiled;
+    }
+
+    private Object materialise(int entry) {
+        final int directory = directoryAt(entry);
+        final CompiledConfig compiled;
+        try {
+            compiled = CompiledConfig.compile(CONFIG_COMPACTOR.compact(CONFIG_READER.read(json(entry))), null, dictionaryDirectory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read config from snapshot", e);
+        } catch (IllegalArgumentException e) {
+            // a lookup dictionary it references can no longer be opened
+            return STALE;
+        }
+        final boolean current = compiled.getFingerprint().high() == buffer.getLong(directory)
+                && compiled.getFingerprint().low() == buffer.getLong(directory + 8);
+        return current ? compiled : STALE;
+    }
+
+    /**
+     * Config of the entry as JSON, also copied as it is to a new snapshot without materialising it
+     */
+    private byte[] json(int entry) {
+        final int directory = directoryAt(entry);
+        final byte[] json = new byte[buffer.getInt(directory + 28)];
+        buffer.get(buffer.getInt(directory + 24), json);
+        return json;
+    }
+
+    private static String decode(ByteBuffer buffer, int start, int length) {
+        final byte[] bytes = new byte[length];
+        buffer.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int directoryAt(int entry) {
+        return HEADER_BYTES + DIRECTORY_ENTRY_BYTES * entry;
+    }
+
+    /**
+     * Collects configs and writes them to a snapshot file
+     */
+    public static final class Writer {
+
+        private record Entry(byte[] id, Fingerprint fingerprint, byte[] json) {}
+
+        private final ObjectMapper objectMapper = ObjectMapperUtils.getObjectMapper();
+        private final List<Entry> entries = new ArrayList<>();
+
+        /**
+         * Add a compiled config
+         * @param id id of the config, each id should only be added once
+         * @param compiled compiled config, its config must be valid
+         */
+        public Writer add(String id, CompiledConfig compiled) throws IOException {
+            entries.add(new Entry(
+                    id.getBytes(StandardCharsets.UTF_8),
+                    compiled.getFingerprint(),
+                    objectMapper.writeValueAsBytes(compiled.getConfig())
+            ));
+            return this;
+        }
+
+        /**
+         * Add a config of another snapshot as it is, without materialising it
+         * @param id id of the config
+         * @param snapshot snapshot holding the config
+         * @throws IllegalArgumentException if the snapshot has no config with the id
+         */
+        public Writer copy(String id, ConfigSnapshot snapshot) {
+            final Integer entry = snapshot.entries.get(id);
+            if (entry == null) {
+                throw new IllegalArgumentException("No config in snapshot with id: " + id);
+            }
+            entries.add(new Entry(id.getBytes(StandardCharsets.UTF_8), snapshot.getFingerprint(id), snapshot.json(entry)));
+            return this;
+        }
+
+        /**
+         * Write the configs added, replacing the file atomically, so a snapshot open on it is unaffected and a failed
+         * write leaves it as it was
+         * @param path file to write
+         */
+        public void write(Path path) throws IOException {
+            final Path temporary = Files.createTempFile(path.toAbsolutePath().getParent(), path.getFileName().toString(), ".tmp");
+            try {
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                    out.writeInt(MAGIC);
+                    out.writeInt(VERSION);
+                    out.writeInt(entries.size());
+                    out.writeInt(0);
+                    long offset = HEADER_BYTES + (long) DIRECTORY_ENTRY_BYTES * entries.size();
+                    for (final Entry entry : entries) {
+                        out.writeLong(entry.fingerprint().high());
+                        out.writeLong(entry.fingerprint().low());
+                        out.writeInt((int) offset);
+                        out.writeInt(entry.id().length);
+                        offset += entry.id().length;
+                        out.writeInt((int) offset);
+                        out.writeInt(entry.json().length);
+                        offset += entry.json().length;
+                        if (offset > Integer.MAX_VALUE) {
+                            throw new IOException("Config snapshot would be larger than 2 GiB: " + path);
+                        }
+                    }
+                    for (final Entry entry : entries) {
+                        out.write(entry.id());
+                        out.write(entry.json());
+                    }
+                }
+                Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temporary);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,361 @@
+package io.ajo.responscore.compiled;
+
+import io.ajo.responscore.config.LookupItem;
+import io.ajo.responscore.util.ContentHasher;
+import io.ajo.responscore.util.Fingerprint;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Lookup items held in a memory-mapped file rather than on the heap, for lookups too large to hold as objects. Items
+ * are sorted by the UTF-8 bytes of their code, so membership and labels are found by binary search over the mapped
+ * file, and only the labels asked for are decoded. Immutable once opened, so safe to read concurrently.
+ * <p>
+ * The file is big-endian, laid out as:
+ *  - header: magic {@code RSLD}, version, item count, padding, and the 128-bit fingerprint of the items
+ *  - offsets: {@code count + 1} longs, the offset of each item in the file, then the end of the last item
+ *  - items: for each item the length of its code as an int, then its code, then its label, both UTF-8
+ * <p>
+ * The file is mapped as a single buffer, so it may not exceed 2 GiB, which holds tens of millions of items.
+ */
+public final class LookupDictionary {
+
+    private static final int MAGIC = 0x52534C44;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+
+    private final Path path;
+    private final ByteBuffer buffer;
+    private final int size;
+    private final Fingerprint fingerprint;
+
+    private LookupDictionary(Path path, ByteBuffer buffer, int size, Fingerprint fingerprint) {
+        this.path = path;
+        this.buffer = buffer;
+        this.size = size;
+        this.fingerprint = fingerprint;
+    }
+
+    /**
+     * Write the items to a dictionary file, replacing any existing file
+     * @param path file to write
+     * @param items items to write, codes must be unique
+     * @throws IllegalArgumentException if two items share a code
+     */
+    public static void write(Path path, Collection<LookupItem> items) throws IOException {
+        final byte[][] codes = new byte[items.size()][];
+        final byte[][] labels = new byte[items.size()][];
+        final Integer[] order = new Integer[items.size()];
+        int i = 0;
+        for (final LookupItem item : items) {
+            codes[i] = item.getCode().getBytes(StandardCharsets.UTF_8);
+            labels[i] = item.getLabel().getBytes(StandardCharsets.UTF_8);
+            order[i] = i;
+            i++;
+        }
+        Arrays.sort(order, (a, b) -> Arrays.compareUnsigned(codes[a], codes[b]));
+
+        final ContentHasher hasher = new ContentHasher().putInt(order.length);
+        for (i = 0; i < order.length; i++) {
+            if (i > 0 && Arrays.equals(codes[order[i - 1]], codes[order[i]])) {
+                throw new IllegalArgumentException("Duplicate lookup item code: "
+                        + new String(codes[order[i]], StandardCharsets.UTF_8));
+            }
+            hasher.putBytes(codes[order[i]]).putBytes(labels[order[i]]);
+        }
+        final Fingerprint fingerprint = hasher.finish();
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(order.length);
+            out.writeInt(0);
+            out.writeLong(fingerprint.high());
+            out.writeLong(fingerprint.low());
+            long offset = HEADER_BYTES + 8L * (order.length + 1);
+            for (final int item : order) {
+                out.writeLong(offset);
+                offset += 4 + codes[item].length + labels[item].length;
+            }
+            out.writeLong(offset);
+            for (final int item : order) {
+                out.writeInt(codes[item].length);
+                out.write(codes[item]);
+                out.write(labels[item]);
+            }
+        }
+    }
+
+    /**
+     * Map a dictionary file written by {@link #write(Path, Collection)}. The mapping is released once the dictionary is
+     * no longer reachable
+     * @param path file to map
+     * @return opened dictionary
+     * @throws IOException if the file can't be read, isn't a dictionary, is corrupt or is too large to map
+     */
+    public static LookupDictionary open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final long length = channel.size();
+            if (length > Integer.MAX_VALUE) {
+                throw new IOException("Lookup dictionary is larger than 2 GiB: " + path);
+            }
+            if (length < HEADER_BYTES + 8) {
+                throw new IOException("Not a lookup dictionary: " + path);
+            }
+            final ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            if (buffer.getInt(0) != MAGIC) {
+                throw new IOException("Not a lookup dictionary: " + path);
+            }
+            if (buffer.getInt(4) != VERSION) {
+                throw new IOException("Unsupported lookup dictionary version " + buffer.getInt(4) + ": " + path);
+            }
+            final int size = buffer.getInt(8);
+            if (size < 0 || HEADER_BYTES + 8L * (size + 1L) > length || buffer.getLong(offsetAt(size)) != length) {
+                throw new IOException("Lookup dictionary is truncated: " + path);
+            }
+            // items are read without bounds checks of their own, so a corrupt file is rejected here rather than failing
+            // while validating a form
+            if (buffer.getLong(offsetAt(0)) != HEADER_BYTES + 8L * (size + 1L)) {
+                throw new IOException("Lookup dictionary is corrupt: " + path);
+            }
+            for (int item = 0; item < size; item++) {
+                // each item starts where the one before ends, so these bound every item within the file
+                final long start = buffer.getLong(offsetAt(item));
+                final long end = buffer.getLong(offsetAt(item + 1));
+                if (end < start + 4 || end > length) {
+                    throw new IOException("Lookup dictionary is corrupt: " + path);
+                }
+                final int codeLength = buffer.getInt((int) start);
+                if (codeLength < 0 || start + 4 + codeLength > end) {
+                    throw new IOException("Lookup dictionary is corrupt: " + path);
+                }
+            }
+            return new LookupDictionary(path, buffer, size, new Fingerprint(buffer.getLong(16), buffer.getLong(24)));
+        }
+    }
+
+    /**
+     * Map a dictionary file named by a config, which may not be trusted to name any file, within a directory
+     * @param directory directory holding the dictionaries
+     * @param name path of the file relative to the directory
+     * @return opened dictionary
+     * @throws IOException if the name resolves outside the directory, including through links, or as {@link #open(Path)}
+     */
+    public static LookupDictionary open(Path directory, String name) throws IOException {
+        final Path root = directory.toRealPath();
+        final Path path = root.resolve(name).normalize();
+        if (!path.startsWith(root) || !path.toRealPath().startsWith(root)) {
+            throw new IOException("Lookup dictionary is outside the dictionary directory: " + name);
+        }
+        return open(path);
+    }
+
+    /**
+     * @param code code to check
+     * @return {@literal true} if the code is the code of one of the items
+     */
+    public boolean contains(String code) {
+        return find(code.getBytes(StandardCharsets.UTF_8)) >= 0;
+    }
+
+    /**
+     * @param code code of the item
+     * @return label of the item with the code, or {@literal null} if there is none
+     */
+    public String getLabel(String code) {
+        final int item = find(code.getBytes(StandardCharsets.UTF_8));
+        return item < 0 ? null : label(item);
+    }
+
+    /**
+     * Search for items whose code starts with the prefix, matched exactly as labels aren't indexed
+     * @param prefix start of the codes to find
+     * @param limit maximum number of items to return
+     * @return matching items, in order of code
+     */
+    public List<LookupItem> search(String prefix, int limit) {
+        final List<LookupItem> results = new ArrayList<>(Math.min(Math.max(limit, 0), 16));
+        final byte[] key = prefix.getBytes(StandardCharsets.UTF_8);
+        // codes starting with the prefix are contiguous from the first code not less than it
+        int item = find(key);
+        if (item < 0) {
+            item = -item - 1;
+        }
+        for (; item < size && results.size() < limit && startsWith(item, key); item++) {
+            results.add(LookupItem.builder().code(code(item)).label(label(item)).build());
+        }
+        return results;
+    }
+
+    /**
+     * Visit every item, in order of code, decoding each as it's visited
+     */
+    void forEach(Consumer<LookupItem> action) {
+        for (int item = 0; item < size; item++) {
+            action.accept(LookupItem.builder().code(code(item)).label(label(item)).build());
+        }
+    }
+
+    /**
+     * Compare the items of two dictionaries, walking both in order of code in step and comparing items in place in the
+     * mapped files, so only the codes of items which differ are decoded
+     * @param added receives the codes of items only in the current dictionary
+     * @param removed receives the codes of items only in the previous dictionary
+     * @param relabelled receives the codes of items in both with different labels
+     */
+    static void diff(
+            LookupDictionary previous,
+            LookupDictionary current,
+            Set<String> added,
+            Set<String> removed,
+            Set<String> relabelled
+    ) {
+        int i = 0;
+        int j = 0;
+        while (i < previous.size && j < current.size) {
+            final ByteBuffer previousCode = previous.codeBytes(i);
+            final ByteBuffer currentCode = current.codeBytes(j);
+            final int mismatch = previousCode.mismatch(currentCode);
+            final int compare = mismatch < 0
+                    ? 0
+                    : mismatch < Math.min(previousCode.remaining(), currentCode.remaining())
+                            ? Byte.compareUnsigned(previousCode.get(mismatch), currentCode.get(mismatch))
+                            : Integer.compare(previousCode.remaining(), currentCode.remaining());
+            if (compare < 0) {
+                removed.add(previous.code(i++));
+            } else if (compare > 0) {
+                added.add(current.code(j++));
+            } else {
+                if (!previous.itemBytes(i).equals(current.itemBytes(j))) {
+                    relabelled.add(current.code(j));
+                }
+                i++;
+                j++;
+            }
+        }
+        for (; i < previous.size; i++) {
+            removed.add(previous.code(i));
+        }
+        for (; j < current.size; j++) {
+            added.add(current.code(j));
+        }
+    }
+
+    /**
+     * Number of items in the dictionary
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Fingerprint of the items, computed when the file was written
+     */
+    public Fingerprint getFingerprint() {
+        return fingerprint;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * @return index of the item with the code, or {@code -(insertion point) - 1} if there is none
+     */
+    private int find(byte[] key) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            final int compare = compareCode(mid, key);
+            if (compare < 0) {
+                low = mid + 1;
+            } else if (compare > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -low - 1;
+    }
+
+    /**
+     * Compares the code of the item to the key by unsigned bytes, in place in the mapped file
+     */
+    private int compareCode(int item, byte[] key) {
+        final int start = start(item);
+        final int length = buffer.getInt(start);
+        final int common = Math.min(length, key.length);
+        for (int i = 0; i < common; i++) {
+            final int compare = Byte.compareUnsigned(buffer.get(start + 4 + i), key[i]);
+            if (compare != 0) {
+                return compare;
+            }
+        }
+        return Integer.compare(length, key.length);
+    }
+
+    private boolean startsWith(int item, byte[] key) {
+        final int start = start(item);
+        if (buffer.getInt(start) < key.length) {
+            return false;
+        }
+        for (int i = 0; i < key.length; i++) {
+            if (buffer.get(start + 4 + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private ByteBuffer codeBytes(int item) {
+        final int start = start(item);
+        return buffer.slice(start + 4, buffer.getInt(start));
+    }
+
+    private ByteBuffer itemBytes(int item) {
+        final int start = start(item);
+        return buffer.slice(start, start(item + 1) - start);
+    }
+
+    private String code(int item) {
+        final int start = start(item);
+        return decode(start + 4, buffer.getInt(start));
+    }
+
+    private String label(int item) {
+        final int start = start(item);
+        final int labelStart = start + 4 + buffer.getInt(start);
+        return decode(labelStart, start(item + 1) - labelStart);
+    }
+
+    private String decode(int start, int length) {
+        final byte[] bytes = new byte[length];
+        // absolute bulk get, so concurrent reads don't share a position
+        buffer.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int start(int item) {
+        return (int) buffer.getLong(offsetAt(item));
+    }
+
+    private static int offsetAt(int item) {
+        return HEADER_BYTES + 8 * item;
+    }
+
+}
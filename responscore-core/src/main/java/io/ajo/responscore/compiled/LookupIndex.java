@@ -0,0 +1,237 @@
+package io.ajo.responscore.compiled;
+
+import io.ajo.responscore.config.LookupItem;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Typeahead search index over the codes and labels of the items of a lookup, matched case insensitively. Keys are held
+ * in a sorted array for prefix search by binary search, and trigram postings of every key find items containing the
+ * query elsewhere without scanning the items. Immutable once built, so safe to search concurrently.
+ */
+public final class LookupIndex {
+
+    /**
+     * Queries shorter than this are only matched as prefixes
+     */
+    private static final int GRAM = 3;
+    private static final int[] NO_ITEMS = new int[0];
+
+    /**
+     * Items ordered by code, referenced by their position
+     */
+    private final LookupItem[] items;
+    /**
+     * Normalised codes and labels of the items, sorted
+     */
+    private final String[] keys;
+    /**
+     * Item of each key
+     */
+    private final int[] keyItems;
+    /**
+     * Normalised code and label of each item
+     */
+    private final String[] itemCodes;
+    private final String[] itemLabels;
+    /**
+     * Ascending items whose normalised code or label contains each trigram
+     */
+    private final Map<Long, int[]> postings;
+
+    LookupIndex(Collection<LookupItem> lookupItems) {
+        this.items = lookupItems.toArray(new LookupItem[0]);
+        Arrays.sort(items, Comparator.comparing(LookupItem::getCode));
+
+        this.itemCodes = new String[items.length];
+        this.itemLabels = new String[items.length];
+        final Integer[] order = new Integer[items.length * 2];
+        final String[] unsortedKeys = new String[items.length * 2];
+        for (int i = 0; i < items.length; i++) {
+            itemCodes[i] = normalise(items[i].getCode());
+            itemLabels[i] = normalise(items[i].getLabel());
+            unsortedKeys[2 * i] = itemCodes[i];
+            unsortedKeys[2 * i + 1] = itemLabels[i];
+            order[2 * i] = 2 * i;
+            order[2 * i + 1] = 2 * i + 1;
+        }
+        Arrays.sort(order, Comparator.comparing((Integer key) -> unsortedKeys[key]).thenComparing(key -> key));
+        this.keys = new String[order.length];
+        this.keyItems = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            keys[i] = unsortedKeys[order[i]];
+            keyItems[i] = order[i] / 2;
+        }
+
+        this.postings = buildPostings();
+    }
+
+    /**
+     * Search for items by code or label. Items with a code or label starting with the query come first, in order of
+     * the matching key, followed by those containing the query elsewhere, in order of code. Queries shorter than three
+     * characters only match as prefixes
+     * @param query text to search for, matched case insensitively
+     * @param limit maximum number of items to return
+     * @return matching items
+     */
+    public List<LookupItem> search(String query, int limit) {
+        if (limit <= 0) {
+            return new ArrayList<>();
+        }
+        final List<LookupItem> results = new ArrayList<>(Math.min(limit, 16));
+        final String normalised = normalise(query);
+        // items found so far, few enough to check linearly rather than allocating per item
+        final int[] found = new int[Math.min(limit, items.length)];
+        int size = 0;
+
+        // prefix matches are the contiguous keys from the first key not less than the query
+        for (int i = lowerBound(normalised); i < keys.length && keys[i].startsWith(normalised); i++) {
+            final int item = keyItems[i];
+            if (!contains(found, size, item)) {
+                found[size++] = item;
+                results.add(items[item]);
+                if (size == limit) {
+                    return results;
+                }
+            }
+        }
+
+        if (normalised.length() < GRAM) {
+            return results;
+        }
+        for (final int item : candidates(normalised)) {
+            if (!contains(found, size, item)
+                    && (itemCodes[item].contains(normalised) || itemLabels[item].contains(normalised))) {
+                found[size++] = item;
+                results.add(items[item]);
+                if (size == limit) {
+                    return results;
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Number of items indexed
+     */
+    public int size() {
+        return items.length;
+    }
+
+    /**
+     * @return ascending items containing every trigram of the query, a superset of those containing the query
+     */
+    private int[] candidates(String query) {
+        final int grams = query.length() - GRAM + 1;
+        final int[][] lists = new int[grams][];
+        for (int i = 0; i < grams; i++) {
+            lists[i] = postings.getOrDefault(gram(query, i), NO_ITEMS);
+            if (lists[i].length == 0) {
+                return NO_ITEMS;
+            }
+        }
+        // intersect starting from the shortest list, so the work is bounded by the rarest trigram
+        Arrays.sort(lists, Comparator.comparingInt(list -> list.length));
+        int[] intersection = lists[0];
+        for (int i = 1; i < lists.length && intersection.length > 0; i++) {
+            intersection = intersect(intersection, lists[i]);
+        }
+        return intersection;
+    }
+
+    private Map<Long, int[]> buildPostings() {
+        final Map<Long, int[]> built = new HashMap<>();
+        final Map<Long, Integer> sizes = new HashMap<>();
+        for (int item = 0; item < items.length; item++) {
+            addGrams(built, sizes, itemCodes[item], item);
+            addGrams(built, sizes, itemLabels[item], item);
+        }
+        built.replaceAll((gram, list) -> Arrays.copyOf(list, sizes.get(gram)));
+        return built;
+    }
+
+    /**
+     * Appends the item to the postings of each trigram of the key, items are added in ascending order so each list
+     * only needs checking against its last item to stay free of duplicates
+     */
+    private static void addGrams(Map<Long, int[]> postings, Map<Long, Integer> sizes, String key, int item) {
+        for (int i = 0; i + GRAM <= key.length(); i++) {
+            final long gram = gram(key, i);
+            int[] list = postings.get(gram);
+            final int size = sizes.getOrDefault(gram, 0);
+            if (list == null) {
+                list = new int[4];
+                postings.put(gram, list);
+            } else if (list[size - 1] == item) {
+                continue;
+            } else if (size == list.length) {
+                list = Arrays.copyOf(list, size * 2);
+                postings.put(gram, list);
+            }
+            list[size] = item;
+            sizes.put(gram, size + 1);
+        }
+    }
+
+    private static long gram(String key, int start) {
+        return (long) key.charAt(start) << 32 | (long) key.charAt(start + 1) << 16 | key.charAt(start + 2);
+    }
+
+    /**
+     * Intersects ascending lists, binary searching the longer for each item of the shorter
+     */
+    private static int[] intersect(int[] shorter, int[] longer) {
+        final int[] result = new int[shorter.length];
+        int size = 0;
+        int from = 0;
+        for (final int item : shorter) {
+            final int index = Arrays.binarySearch(longer, from, longer.length, item);
+            if (index >= 0) {
+                result[size++] = item;
+                from = index + 1;
+            } else {
+                from = -index - 1;
+                if (from == longer.length) {
+                    break;
+                }
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    private static boolean contains(int[] found, int size, int item) {
+        for (int i = 0; i < size; i++) {
+            if (found[i] == item) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int lowerBound(String key) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static String normalise(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+}
@@ -0,0 +1,49 @@
+package io.ajo.responscore.compiled;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Bulk bounds check over primitive values, used for numeric lists whose item validators compile to a pure range
+ * check (see {@link ValidatorChain#isRangeOnly()}). Uses the incubating Vector API when the
+ * {@code jdk.incubator.vector} module is present at runtime, otherwise a scalar loop.
+ */
+public final class RangeKernel {
+
+    /**
+     * Below this length the set-up cost of the vector loop isn't worth it
+     */
+    private static final int VECTOR_THRESHOLD = 32;
+
+    private static final boolean VECTOR_AVAILABLE = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    private RangeKernel() {}
+
+    /**
+     * Find all values not within {@code [min, max]}, {@link Double#NaN} is always out of range
+     * @param values values to check
+     * @param min inclusive lower bound
+     * @param max inclusive upper bound
+     * @param onOutOfRange called with the index of every value out of range, in ascending order
+     */
+    public static void findOutOfRange(double[] values, double min, double max, IntConsumer onOutOfRange) {
+        if (VECTOR_AVAILABLE && values.length >= VECTOR_THRESHOLD) {
+            VectorRangeKernel.findOutOfRange(values, min, max, onOutOfRange);
+        } else {
+            findOutOfRangeScalar(values, 0, min, max, onOutOfRange);
+        }
+    }
+
+    static void findOutOfRangeScalar(double[] values, int from, double min, double max, IntConsumer onOutOfRange) {
+        for (int i = from; i < values.length; i++) {
+            // written so NaN is out of range
+            if (!(values[i] >= min && values[i] <= max)) {
+                onOutOfRange.accept(i);
+            }
+        }
+    }
+
+    public static boolean isVectorAvailable() {
+        return VECTOR_AVAILABLE;
+    }
+
+}
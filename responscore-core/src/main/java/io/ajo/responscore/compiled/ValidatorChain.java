@@ -0,0 +1,385 @@
+package io.ajo.responscore.compiled;
+
+import io.ajo.responscore.config.Validator;
+import io.ajo.responscore.config.ValidatorType;
+import io.ajo.responscore.util.PatternCache;
+import org.apache.commons.lang3.ObjectUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Compiled form of a list of {@link Validator}, evaluating to the exact same failures as calling
+ * {@link Validator#validate(Object)} on each of them, but with the following optimisations applied:
+ *  - Exact duplicate validators are dropped, they can only ever produce duplicate violations
+ *  - {@link ValidatorType#NotBlank}, {@link ValidatorType#NotEmpty} and {@link ValidatorType#NotNull} are fused, the
+ *    strongest is evaluated first and the weaker ones only evaluated if it fails
+ *  - {@link ValidatorType#Min}, {@link ValidatorType#Max}, {@link ValidatorType#GreaterThan} and
+ *    {@link ValidatorType#LessThan} are fused into a single range check with a hoisted {@link Number} type guard, the
+ *    {@link BigDecimal} bounds are converted once into equivalent {@code double} thresholds so dominated bounds cost a
+ *    single comparison
+ *  - {@link ValidatorType#MinSize} and {@link ValidatorType#MaxSize} are fused so the size of a value is only
+ *    determined once
+ *  - {@link ValidatorType#Pattern} holds on to its compiled expression
+ * {@link ValidatorType#UniqueItems} isn't evaluated by the chain, as duplicates are reported per item by the list
+ * pipeline of {@link io.ajo.responscore.service.validation.FormValidator}, see {@link #getUniqueItems()}
+ */
+public final class ValidatorChain {
+
+    public static final ValidatorChain EMPTY = new ValidatorChain(List.of(), new Step[0], List.of(), -1);
+
+    /**
+     * De-duplicated validators, in declared order
+     */
+    private final List<Validator> validators;
+    private final Step[] steps;
+    private final List<Validator> uniqueItems;
+    private final long maxSize;
+
+    private ValidatorChain(List<Validator> validators, Step[] steps, List<Validator> uniqueItems, long maxSize) {
+        this.validators = validators;
+        this.steps = steps;
+        this.uniqueItems = uniqueItems;
+        this.maxSize = maxSize;
+    }
+
+    public static ValidatorChain compile(List<Validator> validators) {
+        if (validators == null || validators.isEmpty()) {
+            return EMPTY;
+        }
+        final List<Validator> distinct = List.copyOf(new LinkedHashSet<>(validators));
+
+        final List<Validator> presence = new ArrayList<>();
+        final List<Validator> bounds = new ArrayList<>();
+        final List<Validator> sizes = new ArrayList<>();
+        final List<Step> steps = new ArrayList<>();
+        final List<Validator> uniqueItems = new ArrayList<>();
+        long maxSize = -1;
+        for (final Validator validator : distinct) {
+            if (validator.getType() == ValidatorType.MaxSize) {
+                final long bound = Math.max(0, validator.getValue().longValue());
+                maxSize = maxSize < 0 ? bound : Math.min(maxSize, bound);
+            }
+            switch (validator.getType()) {
+                case NotNull, NotEmpty, NotBlank -> presence.add(validator);
+                case Min, Max, GreaterThan, LessThan -> bounds.add(validator);
+                case MinSize, MaxSize -> sizes.add(validator);
+                case Pattern -> steps.add(new PatternStep(
+                        validator,
+                        PatternCache.get(validator.getPattern(), validator.isLinearTime())
+                ));
+                case UniqueItems -> uniqueItems.add(validator);
+                default -> steps.add(new GenericStep(validator));
+            }
+        }
+        // cheapest checks go first
+        if (!sizes.isEmpty()) {
+            steps.add(0, new SizeStep(sizes));
+        }
+        if (!bounds.isEmpty()) {
+            steps.add(0, new RangeStep(bounds));
+        }
+        if (!presence.isEmpty()) {
+            steps.add(0, new PresenceStep(presence));
+        }
+        return new ValidatorChain(distinct, steps.toArray(new Step[0]), List.copyOf(uniqueItems), maxSize);
+    }
+
+    /**
+     * Validate the data against all validators of the chain
+     * @param data value to validate
+     * @param onInvalid called once for every validator which the data is invalid by
+     * @return {@literal true} if the data is valid by all validators
+     */
+    public boolean validate(Object data, Consumer<Validator> onInvalid) {
+        boolean valid = true;
+        for (final Step step : steps) {
+            if (!step.validate(data, onInvalid)) {
+                valid = false;
+            }
+        }
+        return valid;
+    }
+
+    public List<Validator> getValidators() {
+        return validators;
+    }
+
+    public boolean isEmpty() {
+        return steps.length == 0 && uniqueItems.isEmpty();
+    }
+
+    /**
+     * {@link ValidatorType#UniqueItems} validators, which aren't evaluated by {@link #validate(Object, Consumer)}
+     */
+    public List<Validator> getUniqueItems() {
+        return uniqueItems;
+    }
+
+    /**
+     * Smallest {@link ValidatorType#MaxSize} bound of the chain, or {@literal -1} if it has none
+     */
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * If {@literal true}, a finite number passes the chain if and only if it is within
+     * {@code [getRangeMin(), getRangeMax()]}, so values can be bulk checked with {@link RangeKernel}
+     */
+    public boolean isRangeOnly() {
+        return steps.length == 1 && steps[0] instanceof RangeStep && ((RangeStep) steps[0]).exact;
+    }
+
+    /**
+     * Smallest passing value when {@link #isRangeOnly()}
+     */
+    public double getRangeMin() {
+        return ((RangeStep) steps[0]).min;
+    }
+
+    /**
+     * Largest passing value when {@link #isRangeOnly()}
+     */
+    public double getRangeMax() {
+        return ((RangeStep) steps[0]).max;
+    }
+
+    private interface Step {
+        boolean validate(Object data, Consumer<Validator> onInvalid);
+    }
+
+    private record GenericStep(Validator validator) implements Step {
+        @Override
+        public boolean validate(Object data, Consumer<Validator> onInvalid) {
+            if (!validator.validate(data)) {
+                onInvalid.accept(validator);
+                return false;
+            }
+            return true;
+        }
+    }
+
+    private record PatternStep(Validator validator, PatternCache.CompiledPattern pattern) implements Step {
+        @Override
+        public boolean validate(Object data, Consumer<Validator> onInvalid) {
+            if (data instanceof CharSequence && pattern.matches((CharSequence) data)) {
+                return true;
+            }
+            onInvalid.accept(validator);
+            return false;
+        }
+    }
+
+    /**
+     * NotBlank implies NotEmpty, which implies NotNull
+     */
+    private static final class PresenceStep implements Step {
+
+        private final Validator notBlank;
+        private final Validator notEmpty;
+        private final Validator notNull;
+
+        private PresenceStep(List<Validator> validators) {
+            Validator notBlank = null;
+            Validator notEmpty = null;
+            Validator notNull = null;
+            for (final Validator validator : validators) {
+                switch (validator.getType()) {
+                    case NotBlank -> notBlank = validator;
+                    case NotEmpty -> notEmpty = validator;
+                    default -> notNull = validator;
+                }
+            }
+            this.notBlank = notBlank;
+            this.notEmpty = notEmpty;
+            this.notNull = notNull;
+        }
+
+        @Override
+        public boolean validate(Object data, Consumer<Validator> onInvalid) {
+            if (notBlank != null) {
+                if (data instanceof CharSequence && !StringUtils.isBlank(((CharSequence) data).toString())) {
+                    return true;
+                }
+                onInvalid.accept(notBlank);
+            }
+            if (notEmpty != null) {
+                if (!ObjectUtils.isEmpty(data)) {
+                    return notBlank == null;
+                }
+                onInvalid.accept(notEmpty);
+            }
+            if (notNull != null && data == null) {
+                onInvalid.accept(notNull);
+                return false;
+            }
+            return notBlank == null && notEmpty == null;
+        }
+    }
+
+    /**
+     * Every bound validator compares {@code BigDecimal.valueOf(data.doubleValue())} against its value, which is
+     * monotonic in the {@code double}, so each is equivalent to a single comparison against a {@code double}
+     * threshold for finite values
+     */
+    private static final class RangeStep implements Step {
+
+        private final Validator[] validators;
+        private final double[] thresholds;
+        private final boolean[] lower;
+        private final boolean exact;
+        private final double min;
+        private final double max;
+
+        private RangeStep(List<Validator> validators) {
+            this.validators = validators.toArray(new Validator[0]);
+            this.thresholds = new double[this.validators.length];
+            this.lower = new boolean[this.validators.length];
+            boolean exact = true;
+            double min = Double.NEGATIVE_INFINITY;
+            double max = Double.POSITIVE_INFINITY;
+            for (int i = 0; i < this.validators.length; i++) {
+                final Validator validator = this.validators[i];
+                lower[i] = validator.getType() == ValidatorType.Min || validator.getType() == ValidatorType.GreaterThan;
+                final double threshold = threshold(validator);
+                if (Double.isNaN(threshold)) {
+                    exact = false;
+                    continue;
+                }
+                thresholds[i] = threshold;
+                if (lower[i]) {
+                    min = Math.max(min, threshold);
+                } else {
+                    max = Math.min(max, threshold);
+                }
+            }
+            this.exact = exact;
+            this.min = min;
+            this.max = max;
+        }
+
+        @Override
+        public boolean validate(Object data, Consumer<Validator> onInvalid) {
+            // hoisted type guard, all bounds fail for non-numbers
+            if (!(data instanceof Number)) {
+                for (final Validator validator : validators) {
+                    onInvalid.accept(validator);
+                }
+                return false;
+            }
+            final double d = ((Number) data).doubleValue();
+            if (!exact || !Double.isFinite(d)) {
+                boolean valid = true;
+                for (final Validator validator : validators) {
+                    if (!validator.validate(data)) {
+                        onInvalid.accept(validator);
+                        valid = false;
+                    }
+                }
+                return valid;
+            }
+            // fast path, within the dominating bounds implies within all bounds
+            if (d >= min && d <= max) {
+                return true;
+            }
+            boolean valid = true;
+            for (int i = 0; i < validators.length; i++) {
+                if (lower[i] ? d < thresholds[i] : d > thresholds[i]) {
+                    onInvalid.accept(validators[i]);
+                    valid = false;
+                }
+            }
+            return valid;
+        }
+
+        /**
+         * For lower bounds, the smallest double which passes the validator, for upper bounds the largest
+         * @return threshold or {@link Double#NaN} if no finite threshold could be determined
+         */
+        private static double threshold(Validator validator) {
+            final double approx = validator.getValue().doubleValue();
+            if (!Double.isFinite(approx)) {
+                return Double.NaN;
+            }
+            final boolean lower = validator.getType() == ValidatorType.Min || validator.getType() == ValidatorType.GreaterThan;
+            double threshold = approx;
+            if (lower) {
+                // step down while the next smaller value still passes, then up until passing
+                while (Double.isFinite(Math.nextDown(threshold)) && passes(validator, Math.nextDown(threshold))) {
+                    threshold = Math.nextDown(threshold);
+                }
+                while (Double.isFinite(threshold) && !passes(validator, threshold)) {
+                    threshold = Math.nextUp(threshold);
+                }
+            } else {
+                while (Double.isFinite(Math.nextUp(threshold)) && passes(validator, Math.nextUp(threshold))) {
+                    threshold = Math.nextUp(threshold);
+                }
+                while (Double.isFinite(threshold) && !passes(validator, threshold)) {
+                    threshold = Math.nextDown(threshold);
+                }
+            }
+            return Double.isFinite(threshold) ? threshold : Double.NaN;
+        }
+
+        private static boolean passes(Validator validator, double d) {
+            final int cmp = validator.getValue().compareTo(BigDecimal.valueOf(d));
+            return switch (validator.getType()) {
+                case Min -> cmp <= 0;
+                case Max -> cmp >= 0;
+                case GreaterThan -> cmp < 0;
+                default -> cmp > 0;
+            };
+        }
+    }
+
+    private static final class SizeStep implements Step {
+
+        private final Validator[] validators;
+        private final double[] bounds;
+
+        private SizeStep(List<Validator> validators) {
+            this.validators = validators.toArray(new Validator[0]);
+            this.bounds = new double[this.validators.length];
+            for (int i = 0; i < this.validators.length; i++) {
+                bounds[i] = this.validators[i].getValue().doubleValue();
+            }
+        }
+
+        @Override
+        public boolean validate(Object data, Consumer<Validator> onInvalid) {
+            final int size;
+            if (data instanceof CharSequence) {
+                size = ((CharSequence) data).length();
+            } else if (data.getClass().isArray()) {
+                size = Array.getLength(data);
+            } else if (data instanceof Collection) {
+                size = ((Collection<?>) data).size();
+            } else if (data instanceof Map) {
+                size = ((Map<?, ?>) data).size();
+            } else {
+                size = -1;
+            }
+            boolean valid = true;
+            for (int i = 0; i < validators.length; i++) {
+                final boolean sizeValid = size >= 0 && (validators[i].getType() == ValidatorType.MinSize
+                        ? size >= bounds[i]
+                        : size <= bounds[i]);
+                if (!sizeValid) {
+                    onInvalid.accept(validators[i]);
+                    valid = false;
+                }
+            }
+            return valid;
+        }
+    }
+
+}
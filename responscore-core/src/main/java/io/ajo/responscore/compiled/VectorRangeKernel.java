@@ -0,0 +1,41 @@
+package io.ajo.responscore.compiled;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.util.function.IntConsumer;
+
+/**
+ * SIMD implementation of {@link RangeKernel}, kept in its own class so it is only loaded when the
+ * {@code jdk.incubator.vector} module is present
+ */
+final class VectorRangeKernel {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    private VectorRangeKernel() {}
+
+    static void findOutOfRange(double[] values, double min, double max, IntConsumer onOutOfRange) {
+        final int upperBound = SPECIES.loopBound(values.length);
+        int i = 0;
+        for (; i < upperBound; i += SPECIES.length()) {
+            final DoubleVector vector = DoubleVector.fromArray(SPECIES, values, i);
+            // comparisons against NaN are false, so NaN lanes are out of range
+            final VectorMask<Double> inRange = vector.compare(VectorOperators.GE, min)
+                    .and(vector.compare(VectorOperators.LE, max));
+            if (inRange.allTrue()) {
+                continue;
+            }
+            // only failing lanes produce an index
+            long outOfRange = inRange.not().toLong();
+            while (outOfRange != 0) {
+                onOutOfRange.accept(i + Long.numberOfTrailingZeros(outOfRange));
+                outOfRange &= outOfRange - 1;
+            }
+        }
+        RangeKernel.findOutOfRangeScalar(values, i, min, max, onOutOfRange);
+    }
+
+}
@@ -4,6 +4,7 @@ import io.ajo.responscore.config.validation.annotation.ValidAttribute;
 import lombok.Builder;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import lombok.extern.jackson.Jacksonized;
 
 import javax.validation.Valid;
 import javax.validation.constraints.NotBlank;
@@ -16,6 +17,7 @@ import java.util.List;
  */
 @Data
 @Builder
+@Jacksonized
 @ValidAttribute
 @EqualsAndHashCode(of = {"code"})
 public class Attribute {
@@ -3,6 +3,7 @@ package io.ajo.responscore.config;
 import lombok.Builder;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import lombok.extern.jackson.Jacksonized;
 
 import javax.validation.Valid;
 import javax.validation.constraints.NotBlank;
@@ -13,6 +14,7 @@ import java.util.Set;
 
 @Data
 @Builder
+@Jacksonized
 @EqualsAndHashCode(of = {"code"})
 public class CompositeTypeConfig {
 
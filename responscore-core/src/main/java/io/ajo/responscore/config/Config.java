@@ -3,6 +3,7 @@ package io.ajo.responscore.config;
 import io.ajo.responscore.config.validation.annotation.ValidConfig;
 import lombok.Builder;
 import lombok.Data;
+import lombok.extern.jackson.Jacksonized;
 
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
@@ -17,6 +18,7 @@ import java.util.Set;
  */
 @Data
 @Builder
+@Jacksonized
 @ValidConfig
 public class Config {
 
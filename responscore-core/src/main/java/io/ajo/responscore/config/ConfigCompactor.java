@@ -0,0 +1,139 @@
+package io.ajo.responscore.config;
+
+import io.ajo.responscore.util.CompactSet;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Copies configs into a compact form for holding long term, such as the configs of every tenant of a server. The copy
+ * is equal in content, validates and compiles identically, and is still made of the classes of the authoring API, but:
+ *  - sets are {@link CompactSet}s, arrays in iteration order rather than a node per element
+ *  - empty lists and sets are the shared immutable empty ones, others are immutable copies
+ *  - codes, labels and the codes they're referenced by are interned, so each is held once across all configs
+ *  - equal {@link Validator}s within a config are the same instance
+ * Collections of the copy can't be modified, and as its objects may be shared they must not be modified either, so
+ * edit the config the copy was made from and compact it again. Lookup items are unique and usually the bulk of a
+ * config, so are reused rather than copied, and their strings aren't interned.
+ * Safe to use concurrently.
+ */
+public final class ConfigCompactor {
+
+    /**
+     * @param config config to compact
+     * @return compact copy of the config
+     */
+    public Config compact(Config config) {
+        final Map<Validator, Validator> validators = new HashMap<>();
+        return Config.builder()
+                .lookupConfigs(set(config.getLookupConfigs(), this::lookupConfig))
+                .compositeTypeConfigs(set(config.getCompositeTypeConfigs(), c -> compositeTypeConfig(c, validators)))
+                .attributes(set(config.getAttributes(), a -> attribute(a, validators)))
+                .build();
+    }
+
+    private LookupConfig lookupConfig(LookupConfig lookupConfig) {
+        return LookupConfig.builder()
+                .code(intern(lookupConfig.getCode()))
+                .lookupItems(lookupConfig.getLookupItems() != null ? CompactSet.copyOf(lookupConfig.getLookupItems()) : null)
+                .dictionary(lookupConfig.getDictionary())
+                .build();
+    }
+
+    private CompositeTypeConfig compositeTypeConfig(CompositeTypeConfig compositeTypeConfig, Map<Validator, Validator> validators) {
+        return CompositeTypeConfig.builder()
+                .code(intern(compositeTypeConfig.getCode()))
+                .attributes(set(compositeTypeConfig.getAttributes(), a -> attribute(a, validators)))
+                .build();
+    }
+
+    private Attribute attribute(Attribute attribute, Map<Validator, Validator> validators) {
+        return Attribute.builder()
+                .code(intern(attribute.getCode()))
+                .label(intern(attribute.getLabel()))
+                .tooltip(intern(attribute.getTooltip()))
+                .type(attribute.getType())
+                .lookupCode(intern(attribute.getLookupCode()))
+                .compositeCode(intern(attribute.getCompositeCode()))
+                .required(attribute.isRequired())
+                .list(attribute.isList())
+                .defaultValue(attribute.getDefaultValue())
+                .validators(list(attribute.getValidators(), v -> validator(v, validators)))
+                .validateItems(list(attribute.getValidateItems(), v -> validator(v, validators)))
+                .dependencies(list(attribute.getDependencies(), this::dependent))
+                .build();
+    }
+
+    private Validator validator(Validator validator, Map<Validator, Validator> validators) {
+        if (validator == null) {
+            return null;
+        }
+        return validators.computeIfAbsent(validator, v -> Validator.builder()
+                .type(v.getType())
+                .value(v.getValue())
+                .field(intern(v.getField()))
+                .pattern(v.getPattern())
+                .linearTime(v.isLinearTime())
+                .build());
+    }
+
+    private Dependent dependent(Dependent dependent) {
+        if (dependent == null) {
+            return null;
+        }
+        return Dependent.builder()
+                .attributeCode(intern(dependent.getAttributeCode()))
+                .values(dependent.getValues() != null ? CompactSet.copyOf(dependent.getValues()) : null)
+                .build();
+    }
+
+    /**
+     * @return compact copy of the elements, or {@literal null} if they are {@literal null}
+     */
+    private static <T> Set<T> set(Collection<T> elements, Copier<T> copier) {
+        if (elements == null) {
+            return null;
+        }
+        final List<T> copies = new ArrayList<>(elements.size());
+        for (final T element : elements) {
+            copies.add(element != null ? copier.copy(element) : null);
+        }
+        return CompactSet.copyOf(copies);
+    }
+
+    /**
+     * @return immutable copy of the elements, or {@literal null} if they are {@literal null}
+     */
+    private static <T> List<T> list(List<T> elements, Copier<T> copier) {
+        if (elements == null) {
+            return null;
+        }
+        if (elements.isEmpty()) {
+            return List.of();
+        }
+        final List<T> copies = new ArrayList<>(elements.size());
+        boolean hasNull = false;
+        for (final T element : elements) {
+            final T copy = copier.copy(element);
+            hasNull |= copy == null;
+            copies.add(copy);
+        }
+        // List.copyOf rejects nulls, which validation reports rather than compaction
+        return hasNull ? Collections.unmodifiableList(copies) : List.copyOf(copies);
+    }
+
+    private static String intern(String value) {
+        return value != null ? value.intern() : null;
+    }
+
+    @FunctionalInterface
+    private interface Copier<T> {
+        T copy(T element);
+    }
+
+}
@@ -0,0 +1,142 @@
+package io.ajo.responscore.config;
+
+import lombok.Builder;
+import lombok.Data;
+import lombok.extern.jackson.Jacksonized;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Changes to a base {@link Config}, such as the overrides a tenant makes to a shared questionnaire. Applying the overlay
+ * copies only what it changes, the config it produces shares every other lookup config, composite type config and
+ * attribute instance with the base, so compiling it against a compilation of the base (see
+ * {@link io.ajo.responscore.compiled.CompiledConfig#compile(Config, io.ajo.responscore.compiled.CompiledConfig)})
+ * reuses all the base compiled for them, and costs in proportion to the overlay.
+ */
+@Data
+@Builder
+@Jacksonized
+public class ConfigOverlay {
+
+    /**
+     * Root attributes added to the base, or replacing the root attribute of the base with the same code in place
+     */
+    @Builder.Default
+    private Set<Attribute> attributes = new LinkedHashSet<>();
+
+    /**
+     * Codes of root attributes of the base to remove
+     */
+    @Builder.Default
+    private Set<String> removedAttributes = new HashSet<>();
+
+    /**
+     * Composite type configs added to the base, or replacing the composite type config of the base with the same code
+     */
+    @Builder.Default
+    private Set<CompositeTypeConfig> compositeTypeConfigs = new HashSet<>();
+
+    /**
+     * Lookup configs added to the base, or replacing the lookup config of the base with the same code
+     */
+    @Builder.Default
+    private Set<LookupConfig> lookupConfigs = new HashSet<>();
+
+    /**
+     * Items added to the lookups of the base by lookup code, replacing any item with the same code. Only the lookups
+     * with items added are copied
+     */
+    @Builder.Default
+    private Map<String, Set<LookupItem>> lookupItems = new HashMap<>();
+
+    /**
+     * Apply the overlay to the base, neither is modified
+     * @param base config to apply the overlay to
+     * @return config of the base with the changes of the overlay, sharing all it doesn't change with the base
+     * @throws IllegalArgumentException if items are added to a lookup the base and overlay don't declare, or which is
+     *         held in a dictionary
+     */
+    public Config apply(Config base) {
+        return Config.builder()
+                .lookupConfigs(applyLookupConfigs(base.getLookupConfigs()))
+                .compositeTypeConfigs(replaceByCode(base.getCompositeTypeConfigs(), compositeTypeConfigs, CompositeTypeConfig::getCode))
+                .attributes(applyAttributes(base.getAttributes()))
+                .build();
+    }
+
+    private Set<LookupConfig> applyLookupConfigs(Set<LookupConfig> baseLookupConfigs) {
+        final Set<LookupConfig> replaced = replaceByCode(baseLookupConfigs, lookupConfigs, LookupConfig::getCode);
+        if (lookupItems.isEmpty()) {
+            return replaced;
+        }
+        final Map<String, LookupConfig> byCode = new LinkedHashMap<>();
+        for (final LookupConfig lookupConfig : replaced) {
+            byCode.put(lookupConfig.getCode(), lookupConfig);
+        }
+        for (final Map.Entry<String, Set<LookupItem>> entry : lookupItems.entrySet()) {
+            final LookupConfig lookupConfig = byCode.get(entry.getKey());
+            if (lookupConfig == null) {
+                throw new IllegalArgumentException("Items added to undeclared lookup code: " + entry.getKey());
+            }
+            if (lookupConfig.getDictionary() != null) {
+                throw new IllegalArgumentException("Items added to lookup held in a dictionary: " + entry.getKey());
+            }
+            // items are equal by code, so they're removed before adding to replace those with the same code
+            final Set<LookupItem> items = new LinkedHashSet<>(lookupConfig.getLookupItems());
+            items.removeAll(entry.getValue());
+            items.addAll(entry.getValue());
+            byCode.put(entry.getKey(), LookupConfig.builder()
+                    .code(lookupConfig.getCode())
+                    .lookupItems(items)
+                    .build());
+        }
+        return new LinkedHashSet<>(byCode.values());
+    }
+
+    /**
+     * @return the base attributes instance if nothing changes, so the root compiled from it is reused whole
+     */
+    private Set<Attribute> applyAttributes(Set<Attribute> baseAttributes) {
+        if (attributes.isEmpty() && removedAttributes.isEmpty()) {
+            return baseAttributes;
+        }
+        final Map<String, Attribute> overrides = new LinkedHashMap<>();
+        for (final Attribute attribute : attributes) {
+            overrides.put(attribute.getCode(), attribute);
+        }
+        final Set<Attribute> applied = new LinkedHashSet<>();
+        for (final Attribute attribute : baseAttributes) {
+            if (!removedAttributes.contains(attribute.getCode())) {
+                final Attribute override = overrides.remove(attribute.getCode());
+                applied.add(override != null ? override : attribute);
+            }
+        }
+        applied.addAll(overrides.values());
+        return applied;
+    }
+
+    /**
+     * @return the base instance if there are no replacements, otherwise the base with the replacements in place and
+     *         additions at the end
+     */
+    private static <T> Set<T> replaceByCode(Set<T> base, Set<T> replacements, Function<T, String> code) {
+        if (replacements.isEmpty()) {
+            return base;
+        }
+        final Map<String, T> byCode = new LinkedHashMap<>();
+        for (final T element : base) {
+            byCode.put(code.apply(element), element);
+        }
+        for (final T replacement : replacements) {
+            byCode.put(code.apply(replacement), replacement);
+        }
+        return new LinkedHashSet<>(byCode.values());
+    }
+
+}
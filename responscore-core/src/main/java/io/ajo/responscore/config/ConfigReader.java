@@ -0,0 +1,336 @@
+package io.ajo.responscore.config;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Streaming reader of {@link Config} documents, building configs straight from the tokens of a {@link JsonParser}
+ * rather than through bean binding. Reads documents as Jackson binding with a default
+ * {@link com.fasterxml.jackson.databind.ObjectMapper} does, rejecting unknown fields, but keeps sets in document order.
+ * Within a document repeated strings, such as the codes attributes reference and repeated labels, are interned so they
+ * are held once, and sets are sized from the number of elements read so they are never rehashed as they grow.
+ * Errors are reported as {@link JsonParseException}, with the JSON pointer of the offending value in the message and
+ * its line and column as the location.
+ * Safe to use concurrently, all state of a read is local to it.
+ */
+public final class ConfigReader {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    public Config read(byte[] json) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+            return read(parser);
+        }
+    }
+
+    public Config read(InputStream json) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+            return read(parser);
+        }
+    }
+
+    /**
+     * Read a config from the parser, which must be positioned before or on the start of the document
+     * @param parser parser to read from
+     * @return config read, not yet validated
+     * @throws JsonParseException if the document isn't a config
+     */
+    public Config read(JsonParser parser) throws IOException {
+        final Config config = new Reading(parser).config();
+        if (parser.nextToken() != null) {
+            throw error(parser, "trailing content after config");
+        }
+        return config;
+    }
+
+    /**
+     * State of reading a single document
+     */
+    private static final class Reading {
+
+        private final JsonParser parser;
+        private final Map<String, String> strings = new HashMap<>();
+
+        private Reading(JsonParser parser) {
+            this.parser = parser;
+        }
+
+        private Config config() throws IOException {
+            start(parser.currentToken() == null ? parser.nextToken() : parser.currentToken());
+            final Config.ConfigBuilder builder = Config.builder();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String field = parser.getCurrentName();
+                parser.nextToken();
+                switch (field) {
+                    case "lookupConfigs" -> builder.lookupConfigs(set(this::lookupConfig));
+                    case "compositeTypeConfigs" -> builder.compositeTypeConfigs(set(this::compositeTypeConfig));
+                    case "attributes" -> builder.attributes(set(this::attribute));
+                    default -> throw unknownField(field);
+                }
+            }
+            return builder.build();
+        }
+
+        private LookupConfig lookupConfig() throws IOException {
+            start(parser.currentToken());
+            final LookupConfig.LookupConfigBuilder builder = LookupConfig.builder();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String field = parser.getCurrentName();
+                parser.nextToken();
+                switch (field) {
+                    case "code" -> builder.code(string());
+                    case "lookupItems" -> builder.lookupItems(set(this::lookupItem));
+                    case "dictionary" -> builder.dictionary(string());
+                    default -> throw unknownField(field);
+                }
+            }
+            return builder.build();
+        }
+
+        private LookupItem lookupItem() throws IOException {
+            start(parser.currentToken());
+            final LookupItem.LookupItemBuilder builder = LookupItem.builder();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String field = parser.getCurrentName();
+                parser.nextToken();
+                switch (field) {
+                    // item codes are unique within a lookup, so aren't worth interning
+                    case "code" -> builder.code(parser.currentToken() == JsonToken.VALUE_NULL ? null : text());
+                    case "label" -> builder.label(string());
+                    default -> throw unknownField(field);
+                }
+            }
+            return builder.build();
+        }
+
+        private CompositeTypeConfig compositeTypeConfig() throws IOException {
+            start(parser.currentToken());
+            final CompositeTypeConfig.CompositeTypeConfigBuilder builder = CompositeTypeConfig.builder();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String field = parser.getCurrentName();
+                parser.nextToken();
+                switch (field) {
+                    case "code" -> builder.code(string());
+                    case "attributes" -> builder.attributes(set(this::attribute));
+                    default -> throw unknownField(field);
+                }
+            }
+            return builder.build();
+        }
+
+        private Attribute attribute() throws IOException {
+            start(parser.currentToken());
+            final Attribute.AttributeBuilder builder = Attribute.builder();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String field = parser.getCurrentName();
+                parser.nextToken();
+                switch (field) {
+                    case "code" -> builder.code(string());
+                    case "label" -> builder.label(string());
+                    case "tooltip" -> builder.tooltip(string());
+                    case "type" -> builder.type(enumValue(Type.class));
+                    case "lookupCode" -> builder.lookupCode(string());
+                    case "compositeCode" -> builder.compositeCode(string());
+                    case "required" -> builder.required(bool());
+                    case "list" -> builder.list(bool());
+                    case "defaultValue" -> builder.defaultValue(value());
+                    case "validators" -> builder.validators(list(this::validator));
+                    case "validateItems" -> builder.validateItems(list(this::validator));
+                    case "dependencies" -> builder.dependencies(list(this::dependent));
+                    default -> throw unknownField(field);
+                }
+            }
+            return builder.build();
+        }
+
+        private Validator validator() throws IOException {
+            start(parser.currentToken());
+            final Validator.ValidatorBuilder builder = Validator.builder();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String field = parser.getCurrentName();
+                parser.nextToken();
+                switch (field) {
+                    case "type" -> builder.type(enumValue(ValidatorType.class));
+                    case "value" -> builder.value(decimal());
+                    case "field" -> builder.field(string());
+                    case "pattern" -> builder.pattern(string());
+                    case "linearTime" -> builder.linearTime(bool());
+                    default -> throw unknownField(field);
+                }
+            }
+            return builder.build();
+        }
+
+        private Dependent dependent() throws IOException {
+            start(parser.currentToken());
+            final Dependent.DependentBuilder builder = Dependent.builder();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String field = parser.getCurrentName();
+                parser.nextToken();
+                switch (field) {
+                    case "attributeCode" -> builder.attributeCode(string());
+                    case "values" -> builder.values(set(this::value));
+                    default -> throw unknownField(field);
+                }
+            }
+            return builder.build();
+        }
+
+        /**
+         * Elements are read into a list first, so the set is built at its final size
+         * @return set of the elements of the current array, or {@literal null} if the current value is null
+         */
+        private <T> Set<T> set(Element<T> element) throws IOException {
+            final List<T> elements = list(element);
+            if (elements == null) {
+                return null;
+            }
+            final Set<T> set = new LinkedHashSet<>((int) (elements.size() / 0.75f) + 1);
+            set.addAll(elements);
+            return set;
+        }
+
+        /**
+         * @return elements of the current array, or {@literal null} if the current value is null
+         */
+        private <T> List<T> list(Element<T> element) throws IOException {
+            if (parser.currentToken() == JsonToken.VALUE_NULL) {
+                return null;
+            }
+            if (parser.currentToken() != JsonToken.START_ARRAY) {
+                throw error(parser, "expected an array at " + pointer());
+            }
+            final List<T> elements = new ArrayList<>();
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                elements.add(element.read());
+            }
+            return elements;
+        }
+
+        /**
+         * Untyped value, read as Jackson binds {@link Object}: integers as the smallest of {@link Integer},
+         * {@link Long} and {@link java.math.BigInteger} holding them, other numbers as {@link Double}, objects as
+         * {@link LinkedHashMap} and arrays as {@link ArrayList}
+         */
+        private Object value() throws IOException {
+            return switch (parser.currentToken()) {
+                case VALUE_NULL -> null;
+                case VALUE_STRING -> text();
+                case VALUE_TRUE -> Boolean.TRUE;
+                case VALUE_FALSE -> Boolean.FALSE;
+                case VALUE_NUMBER_INT -> parser.getNumberValue();
+                case VALUE_NUMBER_FLOAT -> parser.getDoubleValue();
+                case START_ARRAY -> list(this::value);
+                case START_OBJECT -> {
+                    final Map<String, Object> map = new LinkedHashMap<>();
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        final String field = parser.getCurrentName();
+                        parser.nextToken();
+                        map.put(field, value());
+                    }
+                    yield map;
+                }
+                default -> throw error(parser, "unexpected " + parser.currentToken() + " at " + pointer());
+            };
+        }
+
+        /**
+         * @return interned string, or {@literal null} if the current value is null
+         */
+        private String string() throws IOException {
+            if (parser.currentToken() == JsonToken.VALUE_NULL) {
+                return null;
+            }
+            final String value = text();
+            final String interned = strings.putIfAbsent(value, value);
+            return interned != null ? interned : value;
+        }
+
+        /**
+         * @return text of the current value, numbers and booleans are coerced to their text as Jackson binding does
+         */
+        private String text() throws IOException {
+            final JsonToken token = parser.currentToken();
+            if (token == JsonToken.VALUE_NULL || !token.isScalarValue()) {
+                throw error(parser, "expected a string at " + pointer());
+            }
+            return parser.getText();
+        }
+
+        private boolean bool() throws IOException {
+            return switch (parser.currentToken()) {
+                case VALUE_TRUE -> true;
+                case VALUE_FALSE, VALUE_NULL -> false;
+                default -> throw error(parser, "expected a boolean at " + pointer());
+            };
+        }
+
+        private BigDecimal decimal() throws IOException {
+            return switch (parser.currentToken()) {
+                case VALUE_NULL -> null;
+                case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> parser.getDecimalValue();
+                case VALUE_STRING -> {
+                    try {
+                        yield new BigDecimal(parser.getText().trim());
+                    } catch (NumberFormatException e) {
+                        throw error(parser, "expected a number at " + pointer());
+                    }
+                }
+                default -> throw error(parser, "expected a number at " + pointer());
+            };
+        }
+
+        private <E extends Enum<E>> E enumValue(Class<E> type) throws IOException {
+            if (parser.currentToken() == JsonToken.VALUE_NULL) {
+                return null;
+            }
+            try {
+                return Enum.valueOf(type, text());
+            } catch (IllegalArgumentException e) {
+                throw error(parser, "unknown " + type.getSimpleName() + " '" + parser.getText() + "' at " + pointer());
+            }
+        }
+
+        private void start(JsonToken token) throws IOException {
+            if (token != JsonToken.START_OBJECT) {
+                throw error(parser, "expected an object at " + pointer());
+            }
+        }
+
+        private JsonParseException unknownField(String field) {
+            return error(parser, "unknown field '" + field + "' at " + pointer());
+        }
+
+        /**
+         * @return JSON pointer of the current value, or of the document
+         */
+        private String pointer() {
+            final String pointer = parser.getParsingContext().pathAsPointer().toString();
+            return pointer.isEmpty() ? "/" : pointer;
+        }
+
+    }
+
+    @FunctionalInterface
+    private interface Element<T> {
+        T read() throws IOException;
+    }
+
+    private static JsonParseException error(JsonParser parser, String message) {
+        return new JsonParseException(parser, message);
+    }
+
+}
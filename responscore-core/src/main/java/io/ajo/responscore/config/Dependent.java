@@ -2,6 +2,7 @@ package io.ajo.responscore.config;
 
 import lombok.Builder;
 import lombok.Data;
+import lombok.extern.jackson.Jacksonized;
 
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
@@ -11,6 +12,7 @@ import java.util.Set;
 
 @Data
 @Builder
+@Jacksonized
 public class Dependent {
 
     /**
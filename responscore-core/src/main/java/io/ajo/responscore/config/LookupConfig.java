@@ -3,16 +3,17 @@ package io.ajo.responscore.config;
 import lombok.Builder;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import lombok.extern.jackson.Jacksonized;
 
 import javax.validation.Valid;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
-import javax.validation.constraints.Size;
 import java.util.HashSet;
 import java.util.Set;
 
 @Data
 @Builder
+@Jacksonized
 @EqualsAndHashCode(of = {"code"})
 public class LookupConfig {
 
@@ -23,12 +24,18 @@ public class LookupConfig {
     private String code;
 
     /**
-     * Set of items which comprises the acceptable values for this lookup type
+     * Set of items which comprises the acceptable values for this lookup type, must be empty if {@link #dictionary}
+     * is set
      */
     @Valid
     @NotNull
-    @Size(min = 1)
     @Builder.Default
     private Set<LookupItem> lookupItems = new HashSet<>();
 
+    /**
+     * Path of a dictionary file holding the items instead of {@link #lookupItems}, for lookups too large to hold on the
+     * heap, see {@link io.ajo.responscore.compiled.LookupDictionary}
+     */
+    private String dictionary;
+
 }
@@ -3,11 +3,13 @@ package io.ajo.responscore.config;
 import lombok.Builder;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import lombok.extern.jackson.Jacksonized;
 
 import javax.validation.constraints.NotBlank;
 
 @Data
 @Builder
+@Jacksonized
 @EqualsAndHashCode(of = {"code"})
 public class LookupItem {
 
@@ -82,7 +82,12 @@ public enum Type {
         return false;
     }
 
+    @SuppressWarnings("unchecked")
     public <T> T coerceType(Object value, boolean list) throws IllegalArgumentException {
+        // composite data already in form is returned as is, converting would walk its entire (possibly deep) subtree
+        if (extendsType(COMPOSITE) && (list ? isCompositeList(value) : isCompositeValue(value))) {
+            return (T) value;
+        }
         if (list) {
             return OBJECT_MAPPER.convertValue(
                     value,
@@ -99,6 +104,30 @@ public enum Type {
         }
     }
 
+    private static boolean isCompositeList(Object value) {
+        if (!(value instanceof Collection)) {
+            return false;
+        }
+        for (final Object element : (Collection<?>) value) {
+            if (!isCompositeValue(element)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isCompositeValue(Object value) {
+        if (!(value instanceof Map)) {
+            return false;
+        }
+        for (final Object key : ((Map<?, ?>) value).keySet()) {
+            if (!(key instanceof String)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public static Optional<Type> getTypeForJavaType(Class<?> clz) {
         return Optional.ofNullable(javaTypeMapping.get(clz));
     }
@@ -1,8 +1,11 @@
 package io.ajo.responscore.config;
 
 import io.ajo.responscore.config.validation.annotation.ValidValidator;
+import io.ajo.responscore.util.PatternCache;
+import io.ajo.responscore.util.UniqueItemsTracker;
 import lombok.Builder;
 import lombok.Data;
+import lombok.extern.jackson.Jacksonized;
 import org.apache.commons.lang3.ObjectUtils;
 import org.apache.commons.lang3.StringUtils;
 
@@ -18,6 +21,7 @@ import java.util.Map;
  */
 @Data
 @Builder
+@Jacksonized
 @ValidValidator
 public class Validator {
 
@@ -77,6 +81,12 @@ public class Validator {
             }
             return false;
         });
+        VALIDATORS_MAP.put(ValidatorType.Pattern, (v, o) ->
+                o instanceof CharSequence && PatternCache.get(v.pattern, v.linearTime).matches((CharSequence) o)
+        );
+        VALIDATORS_MAP.put(ValidatorType.UniqueItems, (v, o) ->
+                UniqueItemsTracker.allUnique(o, v.field)
+        );
     }
 
     @NotNull
@@ -92,9 +102,23 @@ public class Validator {
     /**
      * Used for specifying specific field that is within a {@link Type#COMPOSITE} type value. Can use dot-notation
      * Only valid for {@link Type#COMPOSITE}
+     * For {@link ValidatorType#UniqueItems}, items are compared by the value of this field
      */
     private String field;
 
+    /**
+     * Regular expression the entire value must match
+     * Only valid for {@link ValidatorType#Pattern}
+     */
+    private String pattern;
+
+    /**
+     * If {@literal true} the {@link this#pattern} is matched in linear time (RE2 semantics), guarding against
+     * catastrophic backtracking at the cost of back-references and look-around not being supported
+     * Only valid for {@link ValidatorType#Pattern}
+     */
+    private boolean linearTime;
+
     public boolean validate(final Object data) {
         return VALIDATORS_MAP.get(type).validate(this, data);
     }
@@ -9,5 +9,7 @@ public enum ValidatorType {
     LessThan,
     NotEmpty,
     MinSize,
-    MaxSize
+    MaxSize,
+    Pattern,
+    UniqueItems
 }
@@ -3,6 +3,7 @@ package io.ajo.responscore.config.validation;
 import io.ajo.responscore.config.Attribute;
 import io.ajo.responscore.config.Type;
 import io.ajo.responscore.config.Validator;
+import io.ajo.responscore.config.ValidatorType;
 import io.ajo.responscore.config.validation.annotation.ValidAttribute;
 import io.ajo.responscore.validation.ConstraintViolationBuilder;
 import org.apache.commons.lang3.StringUtils;
@@ -18,6 +19,10 @@ import javax.validation.ConstraintValidatorContext;
  *  - If {@link Attribute#getCompositeCode()} is set then {@link Type} must extend {@link Type#COMPOSITE}
  *  - If {@link Attribute#getValidateItems()} is not empty, then {@link Attribute#isList()} must be {@literal true}
  *  - If {@link Validator#getField()} is set, then {@link Attribute#getType()} must be {@link Type#COMPOSITE}
+ *  - If {@link Validator#getType()} is {@link ValidatorType#Pattern}, then {@link Attribute#getType()} must extend
+ *    {@link Type#STRING}
+ *  - If {@link Validator#getType()} is {@link ValidatorType#UniqueItems}, then {@link Attribute#isList()} must be
+ *    {@literal true}, and it can't be one of {@link Attribute#getValidateItems()}
  *  - If {@link Attribute#getDefaultValue()} is set, then value should be coercible to {@link Attribute#getType()}
  */
 public class AttributeValidator implements ConstraintValidator<ValidAttribute, Attribute> {
@@ -69,6 +74,22 @@ public class AttributeValidator implements ConstraintValidator<ValidAttribute, A
                         .build("{responscore.validation.attribute_validator.validator_field_ref_not_composite}");
                 valid = false;
             }
+            if (validator.getType() == ValidatorType.Pattern && !value.getType().extendsType(Type.STRING)) {
+                ConstraintViolationBuilder.builder(ctx)
+                        .addPropertyNode("validators")
+                        .addIterableNode(i)
+                        .addPropertyNode("type")
+                        .build("{responscore.validation.attribute_validator.pattern_not_string}");
+                valid = false;
+            }
+            if (validator.getType() == ValidatorType.UniqueItems && !value.isList()) {
+                ConstraintViolationBuilder.builder(ctx)
+                        .addPropertyNode("validators")
+                        .addIterableNode(i)
+                        .addPropertyNode("type")
+                        .build("{responscore.validation.attribute_validator.unique_items_not_list}");
+                valid = false;
+            }
         }
         for (int i = 0; i < value.getValidateItems().size(); i++) {
             final Validator validator = value.getValidateItems().get(i);
@@ -80,6 +101,22 @@ public class AttributeValidator implements ConstraintValidator<ValidAttribute, A
                         .build("{responscore.validation.attribute_validator.validate_items_field_ref_not_composite}");
                 valid = false;
             }
+            if (validator.getType() == ValidatorType.Pattern && !value.getType().extendsType(Type.STRING)) {
+                ConstraintViolationBuilder.builder(ctx)
+                        .addPropertyNode("validateItems")
+                        .addIterableNode(i)
+                        .addPropertyNode("type")
+                        .build("{responscore.validation.attribute_validator.validate_items_pattern_not_string}");
+                valid = false;
+            }
+            if (validator.getType() == ValidatorType.UniqueItems) {
+                ConstraintViolationBuilder.builder(ctx)
+                        .addPropertyNode("validateItems")
+                        .addIterableNode(i)
+                        .addPropertyNode("type")
+                        .build("{responscore.validation.attribute_validator.validate_items_unique_items}");
+                valid = false;
+            }
         }
         if (value.getDefaultValue() != null) {
             try {
@@ -13,43 +13,78 @@ import org.apache.commons.lang3.StringUtils;
 
 import javax.validation.ConstraintValidator;
 import javax.validation.ConstraintValidatorContext;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Optional;
+import java.util.Map;
 import java.util.Set;
 
 /**
  * Validates the {@link Config} to ensure fields are set correctly, checks:
  *  - If {@link Attribute} extends {@link Type#LOOKUP} then {@link Attribute#getLookupCode()} must reference a {@link LookupConfig}
  *  - If {@link LookupConfig} is defined but not used by any {@link Attribute}
+ *  - If {@link LookupConfig} has both or neither of lookup items and a dictionary
  *  - If {@link Attribute} extends {@link Type#COMPOSITE} then {@link Attribute#getCompositeCode()} must reference a {@link CompositeTypeConfig}
  *  - If {@link Attribute} extends {@link Type#COMPOSITE} and has {@link Validator#getField()} set, then field must be part of {@link CompositeTypeConfig}
  *  - If {@link CompositeTypeConfig} is defined but not used by any {@link Attribute}
  *  - If {@link Attribute} has {@link Attribute#getDependencies()} then {@link Dependent#getAttributeCode()} must reference another {@link Attribute#getCode}
+ *  - If {@link CompositeTypeConfig} is nested deeper than {@link ValidConfig#maxDepth()}
+ * Composite type configs are walked breadth first with an explicit work queue, each is validated once at the
+ * shallowest path it is used, so self-referencing composite types terminate. Declarations are indexed by code up
+ * front, so validating costs in proportion to the size of the config.
  */
 public class ConfigValidator implements ConstraintValidator<ValidConfig, Config> {
 
-    private final Set<LookupConfig> usedLookupConfigs = new HashSet<>();
-    private final Set<CompositeTypeConfig> usedCompositeTypeConfigs = new HashSet<>();
+    private int maxDepth;
+
+    @Override
+    public void initialize(ValidConfig constraintAnnotation) {
+        this.maxDepth = constraintAnnotation.maxDepth();
+    }
 
     @Override
     public boolean isValid(Config value, ConstraintValidatorContext ctx) {
+        return isValid(value, ConstraintViolationBuilder.builder(ctx), maxDepth);
+    }
+
+    /**
+     * Check the config, building violations from the root builder, which may build to a context or a sink
+     */
+    static boolean isValid(Config value, ConstraintViolationBuilder root, int maxDepth) {
+        // validator instances are shared, so state of a single validation is kept local
+        final Set<LookupConfig> usedLookupConfigs = new HashSet<>();
+        final Set<CompositeTypeConfig> usedCompositeTypeConfigs = new HashSet<>();
+        final Index index = Index.of(value);
         boolean valid = true;
-        final ConstraintViolationBuilder builder = ConstraintViolationBuilder.builder(ctx);
-        boolean recursiveValid = recursiveCompositeIsValid(builder, value, value.getAttributes());
-        // if recursive result is invalid, then propagate
-        if (!recursiveValid) {
-            valid = false;
+
+        final Deque<Frame> queue = new ArrayDeque<>();
+        queue.add(new Frame(ConstraintViolationBuilder.from(root), value.getAttributes(), 0));
+        while (!queue.isEmpty()) {
+            final Frame frame = queue.poll();
+            if (!compositeIsValid(frame, index, maxDepth, queue, usedLookupConfigs, usedCompositeTypeConfigs)) {
+                valid = false;
+            }
         }
 
         int i = 0;
         // lookup config validation
         for (final LookupConfig lookupConfig : value.getLookupConfigs()) {
+            if (lookupConfig.getLookupItems() != null
+                    && lookupConfig.getLookupItems().isEmpty() == StringUtils.isEmpty(lookupConfig.getDictionary())) {
+                ConstraintViolationBuilder.from(root)
+                        .addPropertyNode("lookupConfigs")
+                        .addIterableNode(i)
+                        .addPropertyNode("lookupItems")
+                        .build("{responscore.validation.config_validator.lookup_items_or_dictionary}");
+                valid = false;
+            }
             // skip lookup config if code was null
             if (lookupConfig.getCode() == null) {
                 continue;
             }
             if (!usedLookupConfigs.contains(lookupConfig)) {
-                ConstraintViolationBuilder.builder(ctx)
+                ConstraintViolationBuilder.from(root)
                         .addPropertyNode("lookupConfigs")
                         .addIterableNode(i)
                         .addMessageParameter("lookupConfig", lookupConfig.getCode())
@@ -67,7 +102,7 @@ public class ConfigValidator implements ConstraintValidator<ValidConfig, Config>
                 continue;
             }
             if (!usedCompositeTypeConfigs.contains(compositeTypeConfig)) {
-                ConstraintViolationBuilder.builder(ctx)
+                ConstraintViolationBuilder.from(root)
                         .addPropertyNode("compositeTypeConfigs")
                         .addIterableNode(i)
                         .addMessageParameter("compositeTypeConfig", compositeTypeConfig.getCode())
@@ -79,21 +114,69 @@ public class ConfigValidator implements ConstraintValidator<ValidConfig, Config>
         return valid;
     }
 
-    private boolean recursiveCompositeIsValid(ConstraintViolationBuilder ctx, Config config, Set<Attribute> attributes) {
+    /**
+     * Attributes of the config, or of a composite type config, waiting on the work queue to be validated
+     */
+    private record Frame(ConstraintViolationBuilder ctx, Set<Attribute> attributes, int depth) {}
+
+    /**
+     * Declarations of the config by code, so each reference is checked with a hash lookup rather than a scan
+     * @param attributeCodes codes of the root attributes
+     * @param compositeAttributeCodes codes of the attributes of each composite type config, added as first needed
+     */
+    private record Index(
+            Map<String, LookupConfig> lookupConfigs,
+            Map<String, CompositeTypeConfig> compositeTypeConfigs,
+            Set<String> attributeCodes,
+            Map<CompositeTypeConfig, Set<String>> compositeAttributeCodes
+    ) {
+        static Index of(Config config) {
+            final Map<String, LookupConfig> lookupConfigs = new HashMap<>();
+            for (final LookupConfig lookupConfig : config.getLookupConfigs()) {
+                lookupConfigs.putIfAbsent(lookupConfig.getCode(), lookupConfig);
+            }
+            final Map<String, CompositeTypeConfig> compositeTypeConfigs = new HashMap<>();
+            for (final CompositeTypeConfig compositeTypeConfig : config.getCompositeTypeConfigs()) {
+                compositeTypeConfigs.putIfAbsent(compositeTypeConfig.getCode(), compositeTypeConfig);
+            }
+            return new Index(lookupConfigs, compositeTypeConfigs, codes(config.getAttributes()), new HashMap<>());
+        }
+
+        Set<String> attributeCodes(CompositeTypeConfig compositeTypeConfig) {
+            return compositeAttributeCodes.computeIfAbsent(compositeTypeConfig, c -> codes(c.getAttributes()));
+        }
+
+        private static Set<String> codes(Set<Attribute> attributes) {
+            final Set<String> codes = new HashSet<>();
+            for (final Attribute attribute : attributes) {
+                codes.add(attribute.getCode());
+            }
+            return codes;
+        }
+    }
+
+    private static boolean compositeIsValid(
+            Frame frame,
+            Index index,
+            int maxDepth,
+            Deque<Frame> queue,
+            Set<LookupConfig> usedLookupConfigs,
+            Set<CompositeTypeConfig> usedCompositeTypeConfigs
+    ) {
         boolean valid = true;
         int i = 0;
-        for (final Attribute attr : attributes) {
+        for (final Attribute attr : frame.attributes()) {
             // construct a new instance of the ctx with the new path
-            final ConstraintViolationBuilder attrCtx = ConstraintViolationBuilder.from(ctx)
+            final ConstraintViolationBuilder attrCtx = ConstraintViolationBuilder.from(frame.ctx())
                     .addPropertyNode("attributes")
                     .addIterableNode(i);
 
             // validation for lookup attribute
             if (attr.getType().extendsType(Type.LOOKUP)) {
-                final Optional<LookupConfig> oLookupConfig = config.getLookupConfigs().stream()
-                        .filter(c -> c.getCode().equals(attr.getLookupCode()))
-                        .findAny();
-                if (oLookupConfig.isEmpty()) {
+                final LookupConfig lookupConfig = attr.getLookupCode() != null
+                        ? index.lookupConfigs().get(attr.getLookupCode())
+                        : null;
+                if (lookupConfig == null) {
                     ConstraintViolationBuilder.from(attrCtx)
                             .addPropertyNode("lookupCode")
                             .addMessageParameter("lookupCode", attr.getLookupCode())
@@ -101,29 +184,29 @@ public class ConfigValidator implements ConstraintValidator<ValidConfig, Config>
                     valid = false;
                 } else {
                     // add to seen list for later validation
-                    usedLookupConfigs.add(oLookupConfig.get());
+                    usedLookupConfigs.add(lookupConfig);
                 }
             }
 
             // validate for composite attribute
             if (attr.getType().extendsType(Type.COMPOSITE)) {
-                final Optional<CompositeTypeConfig> oCompositeTypeConfig = config.getCompositeTypeConfigs().stream()
-                        .filter(c -> c.getCode().equals(attr.getCompositeCode()))
-                        .findAny();
-                if (oCompositeTypeConfig.isEmpty()) {
+                final CompositeTypeConfig compositeTypeConfig = attr.getCompositeCode() != null
+                        ? index.compositeTypeConfigs().get(attr.getCompositeCode())
+                        : null;
+                if (compositeTypeConfig == null) {
                     ConstraintViolationBuilder.from(attrCtx)
                             .addPropertyNode("compositeCode")
                             .addMessageParameter("compositeCode", attr.getCompositeCode())
                             .build("{responscore.validation.config_validator.unknown_composite_code}");
                     valid = false;
                 } else {
-                    final CompositeTypeConfig compositeTypeConfig = oCompositeTypeConfig.get();
-                    // add type to seen list for later validation
-                    usedCompositeTypeConfigs.add(compositeTypeConfig);
+                    final Set<String> fields = index.attributeCodes(compositeTypeConfig);
+                    // add type to seen list for later validation, only queueing its attributes the first time seen
+                    final boolean firstUse = usedCompositeTypeConfigs.add(compositeTypeConfig);
                     for (int j = 0; j < attr.getValidators().size(); j++) {
                         final Validator validator = attr.getValidators().get(j);
                         if (!StringUtils.isEmpty(validator.getField())
-                                && compositeTypeConfig.getAttributes().stream().noneMatch(a -> a.getCode().equals(validator.getField()))) {
+                                && !fields.contains(validator.getField())) {
                             ConstraintViolationBuilder.from(attrCtx)
                                     .addPropertyNode("validators")
                                     .addIterableNode(j)
@@ -137,7 +220,7 @@ public class ConfigValidator implements ConstraintValidator<ValidConfig, Config>
                     for (int j = 0; j < attr.getValidateItems().size(); j++) {
                         final Validator validator = attr.getValidateItems().get(j);
                         if (!StringUtils.isEmpty(validator.getField())
-                                && compositeTypeConfig.getAttributes().stream().noneMatch(a -> a.getCode().equals(validator.getField()))) {
+                                && !fields.contains(validator.getField())) {
                             ConstraintViolationBuilder.from(attrCtx)
                                     .addPropertyNode("validateItems")
                                     .addIterableNode(j)
@@ -149,18 +232,25 @@ public class ConfigValidator implements ConstraintValidator<ValidConfig, Config>
                         }
                     }
 
-                    // recurse the attributes to further validate
-                    boolean recursiveValid = recursiveCompositeIsValid(attrCtx, config, compositeTypeConfig.getAttributes());
-                    // if recursive result is invalid, then propagate
-                    if (!recursiveValid) {
-                        valid = false;
+                    // queue the attributes to further validate
+                    if (firstUse) {
+                        if (frame.depth() >= maxDepth) {
+                            ConstraintViolationBuilder.from(attrCtx)
+                                    .addPropertyNode("compositeCode")
+                                    .addMessageParameter("compositeCode", attr.getCompositeCode())
+                                    .addMessageParameter("maxDepth", String.valueOf(maxDepth))
+                                    .build("{responscore.validation.config_validator.max_depth_exceeded}");
+                            valid = false;
+                        } else {
+                            queue.add(new Frame(attrCtx, compositeTypeConfig.getAttributes(), frame.depth() + 1));
+                        }
                     }
                 }
             }
             if (attr.getDependencies() != null) {
                 for (int j = 0; j < attr.getDependencies().size(); j++) {
                     final Dependent dependent = attr.getDependencies().get(j);
-                    if (config.getAttributes().stream().noneMatch(a -> a.getCode().equals(dependent.getAttributeCode()))) {
+                    if (!index.attributeCodes().contains(dependent.getAttributeCode())) {
                         ConstraintViolationBuilder.from(attrCtx)
                                 .addPropertyNode("dependencies")
                                 .addIterableNode(j)
@@ -0,0 +1,304 @@
+package io.ajo.responscore.config.validation;
+
+import io.ajo.responscore.compiled.ConfigFingerprints;
+import io.ajo.responscore.config.Attribute;
+import io.ajo.responscore.config.CompositeTypeConfig;
+import io.ajo.responscore.config.Config;
+import io.ajo.responscore.config.LookupConfig;
+import io.ajo.responscore.config.validation.annotation.ValidConfig;
+import io.ajo.responscore.util.Fingerprint;
+import io.ajo.responscore.util.ValidationUtils;
+import io.ajo.responscore.validation.ConstraintViolationBuilder;
+import org.hibernate.validator.internal.engine.path.PathImpl;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Path;
+import javax.validation.ValidationException;
+import javax.validation.metadata.ConstraintDescriptor;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.MissingResourceException;
+import java.util.ResourceBundle;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Validates successive versions of a {@link Config}, such as those an authoring UI submits on every edit, reusing the
+ * results of validating the previous versions, and finding the same violations as validating each version in full
+ * would. Validating is in two parts:
+ *  - the constraints of each attribute, lookup config and composite type config, which are the bulk of the work, are
+ *    only checked for those whose content changed since the previous version. Their violations are remembered by
+ *    content fingerprint, so fingerprinting is all it costs to tell an element is unchanged
+ *  - the references between them and the tracking of unused configs, see {@link ConfigValidator}, are checked for the
+ *    whole config each time, as one pass of hash lookups which costs far less than the constraints
+ * Not safe to use concurrently, keep one per editing session.
+ */
+public final class IncrementalConfigValidator {
+
+    private static final Pattern MESSAGE_PARAMETER = Pattern.compile("\\{([^{}]+)}");
+
+    private final javax.validation.Validator validator = ValidationUtils.getValidator();
+    private final int maxDepth = Config.class.getAnnotation(ValidConfig.class).maxDepth();
+    private final ResourceBundle messages = ResourceBundle.getBundle("ValidationMessages");
+    private Map<Fingerprint, Set<? extends ConstraintViolation<?>>> previousResults = new HashMap<>();
+    private Map<Fingerprint, Set<? extends ConstraintViolation<?>>> results = new HashMap<>();
+    private int validated;
+
+    /**
+     * @param config version of the config to validate
+     * @return violations of the config, as {@link javax.validation.Validator#validate} would find them
+     */
+    public Set<ConstraintViolation<Config>> validate(Config config) {
+        final Set<ConstraintViolation<Config>> violations = new HashSet<>();
+        validated = 0;
+        for (final String property : new String[]{"lookupConfigs", "compositeTypeConfigs", "attributes"}) {
+            violations.addAll(validator.validateProperty(config, property));
+        }
+        if (config.getLookupConfigs() == null || config.getCompositeTypeConfigs() == null || config.getAttributes() == null) {
+            // nothing more can be checked without the collections
+            return violations;
+        }
+
+        for (final LookupConfig lookupConfig : config.getLookupConfigs()) {
+            addElement(violations, config, "lookupConfigs[]", lookupConfig, ConfigFingerprints::lookupConfig);
+        }
+        for (final CompositeTypeConfig compositeTypeConfig : config.getCompositeTypeConfigs()) {
+            if (compositeTypeConfig == null) {
+                continue;
+            }
+            // the attributes are validated one by one below, so only the properties of the composite itself are here
+            for (final String property : new String[]{"code", "attributes"}) {
+                for (final ConstraintViolation<CompositeTypeConfig> violation : validator.validateProperty(compositeTypeConfig, property)) {
+                    violations.add(new RootedViolation(config, "compositeTypeConfigs[]", violation));
+                }
+            }
+            if (compositeTypeConfig.getAttributes() != null) {
+                for (final Attribute attribute : compositeTypeConfig.getAttributes()) {
+                    addElement(violations, config, "compositeTypeConfigs[].attributes[]", attribute, ConfigFingerprints::attribute);
+                }
+            }
+        }
+        for (final Attribute attribute : config.getAttributes()) {
+            addElement(violations, config, "attributes[]", attribute, ConfigFingerprints::attribute);
+        }
+        // results not reused by this version are dropped, so only those of the latest version are held
+        previousResults = results;
+        results = new HashMap<>();
+
+        ConfigValidator.isValid(
+                config,
+                ConstraintViolationBuilder.builder((path, template, parameters) ->
+                        violations.add(new ConfigViolation(config, path, template, interpolate(template, parameters)))),
+                maxDepth
+        );
+        return violations;
+    }
+
+    /**
+     * Number of attributes and lookup configs validated by the last {@link #validate(Config)}, the results of the rest
+     * were reused
+     */
+    public int getValidated() {
+        return validated;
+    }
+
+    private <T> void addElement(
+            Set<ConstraintViolation<Config>> violations,
+            Config config,
+            String path,
+            T element,
+            Function<T, Fingerprint> fingerprinter
+    ) {
+        if (element == null) {
+            return;
+        }
+        final Fingerprint fingerprint = fingerprinter.apply(element);
+        Set<? extends ConstraintViolation<?>> elementViolations = results.get(fingerprint);
+        if (elementViolations == null) {
+            elementViolations = previousResults.get(fingerprint);
+            if (elementViolations == null) {
+                elementViolations = validator.validate(element);
+                validated++;
+            }
+            results.put(fingerprint, elementViolations);
+        }
+        for (final ConstraintViolation<?> violation : elementViolations) {
+            violations.add(new RootedViolation(config, path, violation));
+        }
+    }
+
+    /**
+     * Interpolate the message as bean validation does, for the parameters of {@link ConfigValidator}'s messages
+     */
+    private String interpolate(String template, Map<String, String> parameters) {
+        final Matcher matcher = MESSAGE_PARAMETER.matcher(template);
+        final StringBuilder message = new StringBuilder();
+        while (matcher.find()) {
+            final String name = matcher.group(1);
+            String replacement = parameters.get(name);
+            if (replacement == null) {
+                try {
+                    replacement = interpolate(messages.getString(name), parameters);
+                } catch (MissingResourceException e) {
+                    replacement = parameters.containsKey(name) ? "null" : matcher.group();
+                }
+            }
+            matcher.appendReplacement(message, Matcher.quoteReplacement(replacement));
+        }
+        matcher.appendTail(message);
+        return message.toString();
+    }
+
+    /**
+     * Violation found validating the config, rather than by bean validation
+     */
+    private static final class ConfigViolation extends Violation {
+
+        private final String template;
+        private final String message;
+
+        private ConfigViolation(Config config, String path, String template, String message) {
+            super(config, path);
+            this.template = template;
+            this.message = message;
+        }
+
+        @Override
+        public String getMessage() {
+            return message;
+        }
+
+        @Override
+        public String getMessageTemplate() {
+            return template;
+        }
+
+        @Override
+        public Object getLeafBean() {
+            return getRootBean();
+        }
+
+        @Override
+        public Object getInvalidValue() {
+            return getRootBean();
+        }
+
+        @Override
+        public ConstraintDescriptor<?> getConstraintDescriptor() {
+            return null;
+        }
+
+        @Override
+        public <U> U unwrap(Class<U> type) {
+            throw new ValidationException("Type " + type + " not supported for unwrapping");
+        }
+
+    }
+
+    /**
+     * Violation found validating an element of the config, with its path from the config
+     */
+    private static final class RootedViolation extends Violation {
+
+        private final ConstraintViolation<?> violation;
+
+        private RootedViolation(Config config, String parentPath, ConstraintViolation<?> violation) {
+            super(config, rootedPath(parentPath, violation.getPropertyPath().toString()));
+            this.violation = violation;
+        }
+
+        private static String rootedPath(String parentPath, String path) {
+            return path.isEmpty() ? parentPath : parentPath + "." + path;
+        }
+
+        @Override
+        public String getMessage() {
+            return violation.getMessage();
+        }
+
+        @Override
+        public String getMessageTemplate() {
+            return violation.getMessageTemplate();
+        }
+
+        @Override
+        public Object getLeafBean() {
+            return violation.getLeafBean();
+        }
+
+        @Override
+        public Object getInvalidValue() {
+            return violation.getInvalidValue();
+        }
+
+        @Override
+        public ConstraintDescriptor<?> getConstraintDescriptor() {
+            return violation.getConstraintDescriptor();
+        }
+
+        @Override
+        public <U> U unwrap(Class<U> type) {
+            return violation.unwrap(type);
+        }
+
+    }
+
+    /**
+     * Violation of the config, equal to another of the same path and message, as the config is too large to compare
+     */
+    private abstract static class Violation implements ConstraintViolation<Config> {
+
+        private final Config config;
+        private final String path;
+
+        Violation(Config config, String path) {
+            this.config = config;
+            this.path = path;
+        }
+
+        @Override
+        public Config getRootBean() {
+            return config;
+        }
+
+        @Override
+        public Class<Config> getRootBeanClass() {
+            return Config.class;
+        }
+
+        @Override
+        public Object[] getExecutableParameters() {
+            return null;
+        }
+
+        @Override
+        public Object getExecutableReturnValue() {
+            return null;
+        }
+
+        @Override
+        public Path getPropertyPath() {
+            return PathImpl.createPathFromString(path);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Violation other && path.equals(other.path) && getMessage().equals(other.getMessage());
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * path.hashCode() + getMessage().hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return path + ": " + getMessage();
+        }
+
+    }
+
+}
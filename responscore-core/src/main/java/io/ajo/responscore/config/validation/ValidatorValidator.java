@@ -4,7 +4,9 @@ package io.ajo.responscore.config.validation;
 import io.ajo.responscore.config.Validator;
 import io.ajo.responscore.config.ValidatorType;
 import io.ajo.responscore.config.validation.annotation.ValidValidator;
+import io.ajo.responscore.util.PatternCache;
 import io.ajo.responscore.validation.ConstraintViolationBuilder;
+import org.apache.commons.lang3.StringUtils;
 
 import javax.validation.ConstraintValidator;
 import javax.validation.ConstraintValidatorContext;
@@ -13,6 +15,8 @@ import javax.validation.ConstraintValidatorContext;
  * Validates the {@link Validator} to ensure fields are set correctly based on the {@link ValidatorType} used.
  * Following checks:
  *  - {@code value} field is set when {@code type} is, Min, Max, GreaterTHan, LessThan, otherwise fail if field set
+ *  - {@code pattern} field is set, and compiles for the matching mode, when {@code type} is Pattern, otherwise fail if
+ *    field set
  *
  */
 public class ValidatorValidator implements ConstraintValidator<ValidValidator, Validator> {
@@ -23,6 +27,30 @@ public class ValidatorValidator implements ConstraintValidator<ValidValidator, V
         if (value.getType() == null) {
             return true;
         }
+        if (value.getType() == ValidatorType.Pattern) {
+            if (StringUtils.isEmpty(value.getPattern())) {
+                ConstraintViolationBuilder.builder(ctx)
+                        .addPropertyNode("pattern")
+                        .addMessageParameter("type", value.getType().name())
+                        .build("{responscore.validation.validator_validator.no_pattern}");
+                return false;
+            }
+            try {
+                PatternCache.get(value.getPattern(), value.isLinearTime());
+            } catch (IllegalArgumentException e) {
+                ConstraintViolationBuilder.builder(ctx)
+                        .addPropertyNode("pattern")
+                        .addMessageParameter("pattern", value.getPattern())
+                        .build("{responscore.validation.validator_validator.invalid_pattern}");
+                return false;
+            }
+        } else if (value.getPattern() != null) {
+            ConstraintViolationBuilder.builder(ctx)
+                    .addPropertyNode("pattern")
+                    .addMessageParameter("type", value.getType().name())
+                    .build("{responscore.validation.validator_validator.pattern_set}");
+            return false;
+        }
         switch (value.getType()) {
             case Min, Max, GreaterThan, LessThan, MinSize, MaxSize -> {
                 if (value.getValue() == null) {
@@ -22,4 +22,9 @@ public @interface ValidConfig {
 
     Class<? extends Payload>[] payload() default {};
 
+    /**
+     * Maximum depth composite type configs can be nested, attributes of the config itself are depth 0
+     */
+    int maxDepth() default 64;
+
 }
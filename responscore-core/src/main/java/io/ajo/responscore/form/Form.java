@@ -2,6 +2,7 @@ package io.ajo.responscore.form;
 
 import lombok.Builder;
 import lombok.Data;
+import lombok.extern.jackson.Jacksonized;
 
 import javax.validation.constraints.NotNull;
 import java.util.HashMap;
@@ -9,6 +10,7 @@ import java.util.Map;
 
 @Data
 @Builder
+@Jacksonized
 public class Form {
 
     @NotNull
@@ -0,0 +1,20 @@
+package io.ajo.responscore.service;
+
+/**
+ * Token to cooperatively cancel validation of a form, typically from another thread. Validation checks the token
+ * between attributes and list items, stopping with an incomplete result once cancelled.
+ * @see ValidationOptions#getCancellationToken()
+ */
+public final class CancellationToken {
+
+    private volatile boolean cancelled;
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+}
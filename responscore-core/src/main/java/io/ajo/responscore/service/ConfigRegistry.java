@@ -0,0 +1,134 @@
+package io.ajo.responscore.service;
+
+import io.ajo.responscore.compiled.CompiledConfig;
+import io.ajo.responscore.config.Config;
+import io.ajo.responscore.config.validation.IncrementalConfigValidator;
+
+import javax.validation.ConstraintViolationException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Registry of the current compiled version of configs by id, for updating configs while forms are validated against
+ * them. Updates are validated and compiled on an executor, incrementally against the current version, then published
+ * atomically, so readers never wait on or see a partly applied update.
+ * Reading the current version is a single volatile load, of an immutable map of versions which is replaced whole on
+ * every publish. Versions are immutable, so holding one pins it: a validation, or a series of incremental validations,
+ * which keeps the version it started with sees the same compiled config throughout however often the config is
+ * updated, and a superseded version is released once nothing holds it.
+ * Safe to use concurrently.
+ */
+public final class ConfigRegistry {
+
+    /**
+     * @param id id of the config
+     * @param number number of the version, versions published later have greater numbers
+     * @param compiled compiled config of the version
+     */
+    public record Version(String id, long number, CompiledConfig compiled) {}
+
+    private final FormService formService;
+    private final Executor executor;
+    private volatile Map<String, Version> versions = Map.of();
+    /**
+     * Number of the latest update of each id still compiling, guarded by itself along with publishing
+     */
+    private final Map<String, Long> pending = new HashMap<>();
+    private long nextNumber = 1;
+
+    /**
+     * @param formService service to validate and compile configs with
+     * @param executor executor to compile updates on
+     */
+    public ConfigRegistry(FormService formService, Executor executor) {
+        this.formService = formService;
+        this.executor = executor;
+    }
+
+    /**
+     * @return current version of the config, or {@literal null} if there is none with the id
+     */
+    public Version get(String id) {
+        return versions.get(id);
+    }
+
+    /**
+     * Validate and compile the config in the background and publish it as the current version of the id, unless it's
+     * superseded first by a later update or removal of the id, in which case it's discarded
+     * @param id id of the config
+     * @param config config to publish
+     * @return future of the version published, completed with {@literal null} if it was discarded, or exceptionally
+     *         with a {@link ConstraintViolationException} if the config is invalid, leaving the current version as it
+     *         was
+     */
+    public CompletableFuture<Version> update(String id, Config config) {
+        return update(id, config, null);
+    }
+
+    /**
+     * Validate and compile the config in the background as {@link #update(String, Config)} does, validating it with an
+     * incremental validator of the earlier versions of the config, so only the parts changed since are validated again
+     * @param id id of the config
+     * @param config config to publish
+     * @param configValidator validator of the earlier versions of the config, or {@literal null} to validate the whole
+     *        config
+     * @return future of the version published, see {@link #update(String, Config)}
+     */
+    public CompletableFuture<Version> update(String id, Config config, IncrementalConfigValidator configValidator) {
+        final long number;
+        synchronized (pending) {
+            number = nextNumber++;
+            pending.put(id, number);
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            final Version current = versions.get(id);
+            final CompiledConfig previous = current != null ? current.compiled() : null;
+            final CompiledConfig compiled = configValidator != null
+                    ? formService.compileConfig(config, previous, configValidator)
+                    : formService.compileConfig(config, previous);
+            final Version version = new Version(id, number, compiled);
+            return publish(version) ? version : null;
+        }, executor).whenComplete((version, e) -> {
+            if (e != null) {
+                synchronized (pending) {
+                    pending.remove(id, number);
+                }
+            }
+        });
+    }
+
+    /**
+     * Remove the config, discarding any update of it still compiling. Holders of its versions can still use them
+     * @return {@literal true} if there was a config with the id
+     */
+    public boolean remove(String id) {
+        synchronized (pending) {
+            pending.remove(id);
+            if (!versions.containsKey(id)) {
+                return false;
+            }
+            final Map<String, Version> updated = new HashMap<>(versions);
+            updated.remove(id);
+            versions = Map.copyOf(updated);
+            return true;
+        }
+    }
+
+    /**
+     * @return {@literal true} if the version was published, {@literal false} if it was superseded
+     */
+    private boolean publish(Version version) {
+        synchronized (pending) {
+            if (!pending.remove(version.id(), version.number())) {
+                return false;
+            }
+            final Map<String, Version> updated = new HashMap<>(versions);
+            updated.put(version.id(), version);
+            versions = Map.copyOf(updated);
+            return true;
+        }
+    }
+
+}
@@ -0,0 +1,328 @@
+package io.ajo.responscore.service;
+
+import io.ajo.responscore.compiled.ConfigFingerprints;
+import io.ajo.responscore.config.Attribute;
+import io.ajo.responscore.config.CompositeTypeConfig;
+import io.ajo.responscore.config.Config;
+import io.ajo.responscore.config.ConfigReader;
+import io.ajo.responscore.config.LookupConfig;
+import io.ajo.responscore.config.validation.IncrementalConfigValidator;
+import io.ajo.responscore.util.Fingerprint;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Source of a config held in a local directory, publishing it to a {@link ConfigRegistry} whenever the directory
+ * changes. The config is split over any number of {@code .json} files in the directory, each a config document read
+ * by {@link ConfigReader} holding part of it: the config is their lookup configs, composite type configs and root
+ * attributes together, root attributes in order of file name. Splitting a large config, such as a file per large
+ * lookup, means a change only re-reads the files changed.
+ * Lookup configs, composite type configs and root attributes re-read are compared by content fingerprint with those of
+ * the same code before the change, and those unchanged are replaced with the earlier instance, so compiling the new
+ * version against the current one only recompiles the lookups and composites which actually changed, see
+ * {@link io.ajo.responscore.compiled.CompiledConfig#compile(Config, io.ajo.responscore.compiled.CompiledConfig)}, and
+ * the config is validated by an {@link IncrementalConfigValidator} kept for the source, so only those are validated
+ * again too.
+ * Not safe to use concurrently, changes should be polled from a single thread, such as by {@link #run()}.
+ */
+public final class ConfigSource implements Runnable, Closeable {
+
+    private static final String EXTENSION = ".json";
+    /**
+     * Editors write a file in several steps, so after a change the directory is watched this much longer, to apply all
+     * of them at once
+     */
+    private static final Duration SETTLE = Duration.ofMillis(50);
+
+    private final Path directory;
+    private final String id;
+    private final ConfigRegistry registry;
+    private final Consumer<Throwable> onError;
+    private final ConfigReader reader = new ConfigReader();
+    private final IncrementalConfigValidator configValidator = new IncrementalConfigValidator();
+    private final WatchService watchService;
+    /**
+     * Configs read from each file, by file name so they're combined in order
+     */
+    private final Map<Path, Config> files = new TreeMap<>();
+    private final Map<String, Shared<LookupConfig>> lookupConfigs = new HashMap<>();
+    private final Map<String, Shared<CompositeTypeConfig>> compositeTypeConfigs = new HashMap<>();
+    private final Map<String, Shared<Attribute>> attributes = new HashMap<>();
+    /**
+     * Root attributes of the config last published, reused if none change so the compiled root is reused too
+     */
+    private Set<Attribute> rootAttributes;
+    /**
+     * Fingerprints of the instances read by the current reload, so they're only fingerprinted once
+     */
+    private final Map<Object, Fingerprint> fingerprinted = new IdentityHashMap<>();
+    /**
+     * Names of the files changed which couldn't be read, read again with the next change
+     */
+    private final Set<Path> unread = new HashSet<>();
+
+    /**
+     * Instance of a subtree of the config, and its fingerprint
+     */
+    private record Shared<T>(T instance, Fingerprint fingerprint) {}
+
+    /**
+     * @param directory directory holding the config files
+     * @param id id to publish the config as
+     * @param registry registry to publish the config to
+     * @throws IOException if the directory can't be watched
+     */
+    public ConfigSource(Path directory, String id, ConfigRegistry registry) throws IOException {
+        this(directory, id, registry, e -> {});
+    }
+
+    /**
+     * @param directory directory holding the config files
+     * @param id id to publish the config as
+     * @param registry registry to publish the config to
+     * @param onError called by {@link #run()} with each change not published, with the {@link IOException} of a file
+     *        which can't be read or the {@link javax.validation.ConstraintViolationException} of an invalid config
+     * @throws IOException if the directory can't be watched
+     */
+    public ConfigSource(Path directory, String id, ConfigRegistry registry, Consumer<Throwable> onError) throws IOException {
+        this.directory = directory;
+        this.id = id;
+        this.registry = registry;
+        this.onError = onError;
+        this.watchService = directory.getFileSystem().newWatchService();
+        directory.register(
+                watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY,
+                StandardWatchEventKinds.ENTRY_DELETE
+        );
+    }
+
+    /**
+     * Read every file of the directory and publish the config, changes made since the source was created are seen by
+     * this rather than by polling
+     * @return future of publishing the config, see {@link ConfigRegistry#update(String, Config)}
+     * @throws IOException if a file can't be read or isn't a config document, nothing is published
+     */
+    public CompletableFuture<ConfigRegistry.Version> load() throws IOException {
+        final Set<Path> names = new HashSet<>(files.keySet());
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+            for (final Path file : stream) {
+                names.add(file.getFileName());
+            }
+        }
+        return reload(names);
+    }
+
+    /**
+     * Wait for the directory to change, then re-read the files changed and publish the config
+     * @param timeout time to wait for a change
+     * @return future of publishing the config, see {@link ConfigRegistry#update(String, Config)}, or {@literal null}
+     *         if nothing changed within the timeout
+     * @throws IOException if a file changed can't be read or isn't a config document, nothing is published and the
+     *         files are read again on the next change
+     * @throws ClosedWatchServiceException if the source is closed
+     */
+    public CompletableFuture<ConfigRegistry.Version> poll(Duration timeout) throws IOException, InterruptedException {
+        final WatchKey first = watchService.poll(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return null;
+        }
+        final Set<Path> changed = new HashSet<>();
+        boolean overflow = false;
+        WatchKey key = first;
+        while (key != null) {
+            for (final WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    overflow = true;
+                } else if (event.context().toString().endsWith(EXTENSION)) {
+                    changed.add((Path) event.context());
+                }
+            }
+            key.reset();
+            key = watchService.poll(SETTLE.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        if (overflow) {
+            return load();
+        }
+        return changed.isEmpty() ? null : reload(changed);
+    }
+
+    /**
+     * Poll for changes until closed or interrupted, reporting changes which aren't published to the error callback
+     */
+    @Override
+    public void run() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    final CompletableFuture<ConfigRegistry.Version> published = poll(Duration.ofSeconds(1));
+                    if (published != null) {
+                        published.whenComplete((version, e) -> {
+                            if (e != null) {
+                                onError.accept(e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+                            }
+                        });
+                    }
+                } catch (IOException e) {
+                    onError.accept(e);
+                }
+            }
+        } catch (ClosedWatchServiceException | InterruptedException e) {
+            // closed or interrupted, so stop
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+
+    /**
+     * Re-read the files and publish the config, if any file can't be read none of them are applied
+     * @param changed names of the files changed, those which no longer exist are removed
+     */
+    private CompletableFuture<ConfigRegistry.Version> reload(Set<Path> changed) throws IOException {
+        final Set<Path> names = new HashSet<>(changed);
+        names.addAll(unread);
+        unread.clear();
+        final Map<Path, Config> read = new HashMap<>();
+        fingerprinted.clear();
+        for (final Path name : names) {
+            try (InputStream in = Files.newInputStream(directory.resolve(name))) {
+                read.put(name, share(reader.read(in)));
+            } catch (NoSuchFileException e) {
+                read.put(name, null);
+            } catch (IOException e) {
+                unread.addAll(names);
+                throw new IOException(name + ": " + e.getMessage(), e);
+            }
+        }
+        for (final Map.Entry<Path, Config> entry : read.entrySet()) {
+            if (entry.getValue() != null) {
+                files.put(entry.getKey(), entry.getValue());
+            } else {
+                files.remove(entry.getKey());
+            }
+        }
+        return registry.update(id, combine(), configValidator);
+    }
+
+    /**
+     * @return the config read, with every lookup config, composite type config and root attribute unchanged since the
+     *         last publish replaced by the earlier instance
+     */
+    private Config share(Config config) {
+        return Config.builder()
+                .lookupConfigs(share(config.getLookupConfigs(), lookupConfigs, LookupConfig::getCode, ConfigFingerprints::lookupConfig))
+                .compositeTypeConfigs(share(config.getCompositeTypeConfigs(), compositeTypeConfigs, CompositeTypeConfig::getCode, ConfigFingerprints::compositeTypeConfig))
+                .attributes(share(config.getAttributes(), attributes, Attribute::getCode, ConfigFingerprints::attribute))
+                .build();
+    }
+
+    private <T> Set<T> share(
+            Set<T> read,
+            Map<String, Shared<T>> shared,
+            Function<T, String> code,
+            Function<T, Fingerprint> fingerprint
+    ) {
+        final Set<T> result = new LinkedHashSet<>();
+        if (read == null) {
+            return result;
+        }
+        for (final T element : read) {
+            final Shared<T> previous = shared.get(code.apply(element));
+            final Fingerprint elementFingerprint = fingerprint.apply(element);
+            if (previous != null && previous.fingerprint().equals(elementFingerprint)) {
+                result.add(previous.instance());
+            } else {
+                fingerprinted.put(element, elementFingerprint);
+                result.add(element);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Combine the configs of every file, and remember their instances for sharing with the next change
+     */
+    private Config combine() {
+        final Set<LookupConfig> combinedLookupConfigs = new LinkedHashSet<>();
+        final Set<CompositeTypeConfig> combinedCompositeTypeConfigs = new LinkedHashSet<>();
+        final Set<Attribute> combinedAttributes = new LinkedHashSet<>();
+        for (final Config config : files.values()) {
+            combinedLookupConfigs.addAll(config.getLookupConfigs());
+            combinedCompositeTypeConfigs.addAll(config.getCompositeTypeConfigs());
+            combinedAttributes.addAll(config.getAttributes());
+        }
+        remember(combinedLookupConfigs, lookupConfigs, LookupConfig::getCode, ConfigFingerprints::lookupConfig);
+        remember(combinedCompositeTypeConfigs, compositeTypeConfigs, CompositeTypeConfig::getCode, ConfigFingerprints::compositeTypeConfig);
+        remember(combinedAttributes, attributes, Attribute::getCode, ConfigFingerprints::attribute);
+        if (rootAttributes == null || !sameInstances(rootAttributes, combinedAttributes)) {
+            rootAttributes = combinedAttributes;
+        }
+        return Config.builder()
+                .lookupConfigs(combinedLookupConfigs)
+                .compositeTypeConfigs(combinedCompositeTypeConfigs)
+                .attributes(rootAttributes)
+                .build();
+    }
+
+    /**
+     * Replace the remembered instances with the current ones, only fingerprinting those not already remembered
+     */
+    private <T> void remember(
+            Iterable<T> current,
+            Map<String, Shared<T>> shared,
+            Function<T, String> code,
+            Function<T, Fingerprint> fingerprint
+    ) {
+        final Map<String, Shared<T>> previous = new HashMap<>(shared);
+        shared.clear();
+        for (final T element : current) {
+            final Shared<T> existing = previous.get(code.apply(element));
+            shared.put(code.apply(element), existing != null && existing.instance() == element
+                    ? existing
+                    : new Shared<>(element, fingerprinted.computeIfAbsent(element, e -> fingerprint.apply(element))));
+        }
+    }
+
+    private static boolean sameInstances(Set<Attribute> previous, Set<Attribute> current) {
+        if (previous.size() != current.size()) {
+            return false;
+        }
+        final Iterator<Attribute> it = current.iterator();
+        for (final Attribute attribute : previous) {
+            if (attribute != it.next()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
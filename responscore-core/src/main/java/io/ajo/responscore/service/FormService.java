@@ -1,16 +1,59 @@
 package io.ajo.responscore.service;
 
+import io.ajo.responscore.compiled.CompiledConfig;
 import io.ajo.responscore.config.Config;
+import io.ajo.responscore.config.validation.IncrementalConfigValidator;
 import io.ajo.responscore.form.Form;
 import io.ajo.responscore.service.validation.FormContainer;
+import io.ajo.responscore.service.validation.FormValidator;
+import io.ajo.responscore.util.SingleFlight;
 import io.ajo.responscore.util.ValidationUtils;
 
 import javax.validation.ConstraintViolation;
+import javax.validation.ConstraintViolationException;
+import java.nio.file.Path;
 import java.util.HashSet;
 import java.util.Set;
 
 public class FormService {
     private final javax.validation.Validator validator = ValidationUtils.getValidator();
+    private final ValidationResultCache resultCache;
+    private final SingleFlight<ValidationKey, Set<ConstraintViolation<Object>>> inFlight;
+    private final Path dictionaryDirectory;
+
+    public FormService() {
+        this(null);
+    }
+
+    /**
+     * @param resultCache cache of validation results, or {@literal null} to not cache results
+     */
+    public FormService(ValidationResultCache resultCache) {
+        this(resultCache, false);
+    }
+
+    /**
+     * @param resultCache cache of validation results, or {@literal null} to not cache results
+     * @param coalesceInFlight if {@literal true}, concurrent validations of the same form against the same config
+     *                         share a single validation, see {@link SingleFlight}
+     */
+    public FormService(ValidationResultCache resultCache, boolean coalesceInFlight) {
+        this(resultCache, coalesceInFlight, null);
+    }
+
+    /**
+     * @param resultCache cache of validation results, or {@literal null} to not cache results
+     * @param coalesceInFlight if {@literal true}, concurrent validations of the same form against the same config
+     *                         share a single validation, see {@link SingleFlight}
+     * @param dictionaryDirectory directory lookup dictionaries of compiled configs are resolved within, for configs
+     *                            which aren't trusted to name any file, or {@literal null} to open dictionaries as
+     *                            the paths they name
+     */
+    public FormService(ValidationResultCache resultCache, boolean coalesceInFlight, Path dictionaryDirectory) {
+        this.resultCache = resultCache;
+        this.inFlight = coalesceInFlight ? new SingleFlight<>() : null;
+        this.dictionaryDirectory = dictionaryDirectory;
+    }
 
     public Set<ConstraintViolation<Object>> validateFormWithConfig(Config config, Form form) {
 
@@ -22,10 +65,165 @@ public class FormService {
             return paramViolations;
         }
 
-        final FormContainer container = new FormContainer(config, form);
-        paramViolations.addAll(validator.validate(container));
+        paramViolations.addAll(validateContainer(CompiledConfig.compile(config, null, dictionaryDirectory), form, ValidationOptions.DEFAULT));
 
         return paramViolations;
     }
 
+    /**
+     * Validate the form against an already compiled config, skipping validation of the config itself
+     * @param config compiled config, see {@link #compileConfig(Config)}
+     * @param form form to validate
+     * @return violations of the form
+     */
+    public Set<ConstraintViolation<Object>> validateFormWithConfig(CompiledConfig config, Form form) {
+        return validateFormWithConfig(config, form, ValidationOptions.DEFAULT);
+    }
+
+    /**
+     * Validate the form against an already compiled config, skipping validation of the config itself
+     * @param config compiled config, see {@link #compileConfig(Config)}
+     * @param form form to validate
+     * @param options limits to apply while validating
+     * @return violations of the form
+     */
+    public Set<ConstraintViolation<Object>> validateFormWithConfig(
+            CompiledConfig config,
+            Form form,
+            ValidationOptions options
+    ) {
+
+        // validate parameters are valid objects
+        final Set<ConstraintViolation<Object>> paramViolations = new HashSet<>(validator.validate(form));
+        if (!paramViolations.isEmpty()) {
+            return paramViolations;
+        }
+
+        paramViolations.addAll(validateContainer(config, form, options));
+
+        return paramViolations;
+    }
+
+    /**
+     * Validate the form against an already compiled config, reporting whether validation completed, which it may not if
+     * {@link ValidationOptions#getDeadline()} passes or {@link ValidationOptions#getCancellationToken()} is cancelled
+     * @param config compiled config, see {@link #compileConfig(Config)}
+     * @param form form to validate
+     * @param options limits, deadline and cancellation to apply while validating
+     * @return violations of the form, and whether validation completed
+     */
+    public ValidationResult validate(CompiledConfig config, Form form, ValidationOptions options) {
+        final Set<ConstraintViolation<Object>> violations = validateFormWithConfig(config, form, options);
+        final boolean complete = violations.stream().noneMatch(FormValidator::isIncomplete);
+        return new ValidationResult(violations, complete);
+    }
+
+    /**
+     * Validate and compile the config, so it can be reused to validate many forms
+     * @param config config to compile
+     * @return compiled config
+     * @throws ConstraintViolationException if the config is invalid
+     */
+    public CompiledConfig compileConfig(Config config) throws ConstraintViolationException {
+        final Set<ConstraintViolation<Config>> violations = validator.validate(config);
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+        return CompiledConfig.compile(config, null, dictionaryDirectory);
+    }
+
+    /**
+     * Validate and compile the config, reusing whatever is unchanged from a previous compilation, see
+     * {@link CompiledConfig#compile(Config, CompiledConfig)}
+     * @param config config to compile
+     * @param previous previous compilation, typically of an earlier version of the config
+     * @return compiled config
+     * @throws ConstraintViolationException if the config is invalid
+     */
+    public CompiledConfig compileConfig(Config config, CompiledConfig previous) throws ConstraintViolationException {
+        final Set<ConstraintViolation<Config>> violations = validator.validate(config);
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+        return CompiledConfig.compile(config, previous, dictionaryDirectory);
+    }
+
+    /**
+     * Validate and compile the config as {@link #compileConfig(Config, CompiledConfig)} does, but validate it with an
+     * incremental validator, so only the parts changed since the versions it validated before are validated again
+     * @param config config to compile
+     * @param previous previous compilation, typically of an earlier version of the config
+     * @param configValidator validator of the earlier versions of the config, used by one compile at a time
+     * @return compiled config
+     * @throws ConstraintViolationException if the config is invalid
+     */
+    public CompiledConfig compileConfig(
+            Config config,
+            CompiledConfig previous,
+            IncrementalConfigValidator configValidator
+    ) throws ConstraintViolationException {
+        final Set<ConstraintViolation<Config>> violations;
+        synchronized (configValidator) {
+            violations = configValidator.validate(config);
+        }
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+        return CompiledConfig.compile(config, previous, dictionaryDirectory);
+    }
+
+    /**
+     * Validate the form data against the compiled config, using the result cache and coalescing if present
+     */
+    private Set<ConstraintViolation<Object>> validateContainer(
+            CompiledConfig config,
+            Form form,
+            ValidationOptions options
+    ) {
+        // the key hashes all the form data, so it's only built once the data is known to be within the limits
+        final ValidationKey key = (resultCache != null || inFlight != null) && FormValidator.isAdmitted(config, form, options)
+                ? ValidationKey.of(config, form, options)
+                : null;
+        if (key == null) {
+            return validator.validate(new FormContainer(config, form, options));
+        }
+        if (resultCache != null) {
+            final Set<ConstraintViolation<Object>> cached = resultCache.get(key);
+            if (cached != null) {
+                return new HashSet<>(cached);
+            }
+        }
+        if (inFlight == null) {
+            return validateAndCache(key, config, form, options);
+        }
+
+        // joins a validation in flight only until its own deadline or cancellation, which the validation shared may not
+        // have, then validates itself, stopping with an incomplete result
+        final CancellationToken cancellationToken = options.getCancellationToken();
+        final SingleFlight.Result<Set<ConstraintViolation<Object>>> result = inFlight.execute(
+                key,
+                () -> validateAndCache(key, config, form, options),
+                options.getDeadline(),
+                cancellationToken != null ? cancellationToken::isCancelled : null
+        );
+        if (result.shared() && result.value().stream().anyMatch(FormValidator::isIncomplete)) {
+            // stopped by the deadline or cancellation of the validation shared, rather than of this one
+            return validateAndCache(key, config, form, options);
+        }
+        return result.shared() ? new HashSet<>(result.value()) : result.value();
+    }
+
+    private Set<ConstraintViolation<Object>> validateAndCache(
+            ValidationKey key,
+            CompiledConfig config,
+            Form form,
+            ValidationOptions options
+    ) {
+        final Set<ConstraintViolation<Object>> violations = validator.validate(new FormContainer(config, form, options));
+        if (resultCache != null && violations.stream().noneMatch(FormValidator::isIncomplete)) {
+            resultCache.put(key, violations);
+        }
+        return violations;
+    }
+
 }
@@ -0,0 +1,36 @@
+package io.ajo.responscore.service;
+
+import io.ajo.responscore.compiled.CompiledConfig;
+import io.ajo.responscore.form.Form;
+import io.ajo.responscore.util.ContentHasher;
+import io.ajo.responscore.util.Fingerprint;
+
+import java.security.SecureRandom;
+import java.util.List;
+
+/**
+ * Identity of validating a form, equal for validations which must have the same result: the validation fingerprint
+ * of the compiled config, which leaves out labels, the canonical hash of the form data and the limits validated with
+ * <p>
+ * Keys are compared by hash alone, never by the data, so forms whose data collide share results. The form data is
+ * hashed with a random seed of the process, so data can't be chosen to collide with a known form without the seed,
+ * but the hash isn't cryptographic: a cache or single flight sharing results by key should only see data from callers
+ * trusted not to attack the hash.
+ * @param formBytes approximate size of the form data, equal for equal form data
+ */
+record ValidationKey(Fingerprint config, Fingerprint form, List<Integer> limits, long formBytes) {
+
+    private static final long SEED = new SecureRandom().nextLong();
+
+    /**
+     * @return key of validating the form, or {@literal null} if the form data can't be hashed
+     */
+    static ValidationKey of(CompiledConfig config, Form form, ValidationOptions options) {
+        final ContentHasher hasher = new ContentHasher(SEED);
+        if (!hasher.putData(form.getData())) {
+            return null;
+        }
+        return new ValidationKey(config.getValidationFingerprint(), hasher.finish(), options.limits(), hasher.getEstimatedBytes());
+    }
+
+}
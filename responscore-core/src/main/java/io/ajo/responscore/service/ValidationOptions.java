@@ -0,0 +1,83 @@
+package io.ajo.responscore.service;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Options bounding the work done validating a single {@link io.ajo.responscore.form.Form}, so a hostile or broken
+ * payload is rejected in bounded time and memory. Exceeding any limit is reported as a violation.
+ */
+@Data
+@Builder(toBuilder = true)
+public class ValidationOptions {
+
+    public static final ValidationOptions DEFAULT = ValidationOptions.builder().build();
+
+    /**
+     * Maximum nesting depth of composite data, the form data itself is depth 0
+     */
+    @Builder.Default
+    private final int maxDepth = 32;
+
+    /**
+     * Maximum number of values validated in total, counting every attribute value and list item. Validation stops
+     * once exceeded
+     */
+    @Builder.Default
+    private final int maxNodes = 10_000_000;
+
+    /**
+     * Maximum number of items in any single list
+     */
+    @Builder.Default
+    private final int maxListSize = 1_000_000;
+
+    /**
+     * Maximum length of any string
+     */
+    @Builder.Default
+    private final int maxStringLength = 1_000_000;
+
+    /**
+     * Maximum number of digits of any number, in either its precision or scale
+     */
+    @Builder.Default
+    private final int maxNumberDigits = 1_000;
+
+    /**
+     * Maximum number of keys of any map which isn't composite data, such as unknown data
+     */
+    @Builder.Default
+    private final int maxKeys = 10_000;
+
+    /**
+     * Multiple of the bounds derived from config which data is admitted up to, so data a little over a bound is still
+     * reported by its validators, while data far over it is rejected before it is coerced. For example a list
+     * attribute with a {@link io.ajo.responscore.config.ValidatorType#MaxSize} of 10 admits up to 40 items
+     */
+    @Builder.Default
+    private final int admissionFactor = 4;
+
+    /**
+     * Time by which validation must finish, checked between attributes and list items, if passed validation stops
+     * with an incomplete result. {@literal null} for no deadline
+     */
+    private final Instant deadline;
+
+    /**
+     * Token to cancel validation with, once cancelled validation stops with an incomplete result. {@literal null} if
+     * validation can't be cancelled
+     */
+    private final CancellationToken cancellationToken;
+
+    /**
+     * Limits which affect the result of validation, so excluding the deadline and cancellation
+     */
+    List<Integer> limits() {
+        return List.of(maxDepth, maxNodes, maxListSize, maxStringLength, maxNumberDigits, maxKeys, admissionFactor);
+    }
+
+}
@@ -0,0 +1,20 @@
+package io.ajo.responscore.service;
+
+import javax.validation.ConstraintViolation;
+import java.util.Set;
+
+/**
+ * Result of validating a form
+ * @param violations violations found, if incomplete these are only those found before validation stopped
+ * @param complete {@literal false} if validation stopped early, due to its deadline passing or being cancelled
+ */
+public record ValidationResult(Set<ConstraintViolation<Object>> violations, boolean complete) {
+
+    /**
+     * @return {@literal true} if validation completed without any violations
+     */
+    public boolean isValid() {
+        return complete && violations.isEmpty();
+    }
+
+}
@@ -0,0 +1,61 @@
+package io.ajo.responscore.service;
+
+import io.ajo.responscore.util.CacheStats;
+import io.ajo.responscore.util.TinyLfuCache;
+
+import javax.validation.ConstraintViolation;
+import java.util.Set;
+
+/**
+ * Bounded cache of form validation results, so identical resubmissions of a form (retries, double submits, replayed
+ * queues) skip validation. Results are keyed by {@link ValidationKey}, and evicted by {@link TinyLfuCache} once the
+ * approximate memory of the cached results exceeds the maximum. Only complete results are cached.
+ */
+public class ValidationResultCache {
+
+    /**
+     * Approximate bytes of an entry without any violations
+     */
+    private static final long ENTRY_BYTES = 256;
+    /**
+     * Approximate bytes of a violation, besides the form data it retains as its root bean
+     */
+    private static final long VIOLATION_BYTES = 512;
+
+    private final TinyLfuCache<ValidationKey, Set<ConstraintViolation<Object>>> cache;
+
+    /**
+     * @param maximumBytes approximate maximum memory of cached results
+     */
+    public ValidationResultCache(long maximumBytes) {
+        this.cache = new TinyLfuCache<>(
+                maximumBytes,
+                (int) Math.min(1 << 20, Math.max(64, maximumBytes / 1024)),
+                ValidationResultCache::weigh
+        );
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    Set<ConstraintViolation<Object>> get(ValidationKey key) {
+        return cache.get(key);
+    }
+
+    void put(ValidationKey key, Set<ConstraintViolation<Object>> violations) {
+        cache.put(key, Set.copyOf(violations));
+    }
+
+    private static long weigh(ValidationKey key, Set<ConstraintViolation<Object>> violations) {
+        // violations retain the form data, so their weight includes it
+        return violations.isEmpty()
+                ? ENTRY_BYTES
+                : ENTRY_BYTES + key.formBytes() + VIOLATION_BYTES * violations.size();
+    }
+
+}
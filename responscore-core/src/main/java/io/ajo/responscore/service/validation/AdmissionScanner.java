@@ -0,0 +1,294 @@
+package io.ajo.responscore.service.validation;
+
+import io.ajo.responscore.compiled.CompiledAttribute;
+import io.ajo.responscore.compiled.CompiledComposite;
+import io.ajo.responscore.compiled.ValidatorChain;
+import io.ajo.responscore.service.ValidationOptions;
+import io.ajo.responscore.validation.ConstraintViolationBuilder;
+
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Cheap pre-scan of form data, run before any of it is coerced or copied, which rejects data far larger or deeper than
+ * the config could ever accept. Bounds are derived from the compiled config where possible:
+ *  - Composite data may have at most {@link ValidationOptions#getAdmissionFactor()} times as many keys as the
+ *    composite has attributes, other maps at most {@link ValidationOptions#getMaxKeys()}
+ *  - Lists may have at most {@link ValidationOptions#getAdmissionFactor()} times the smallest
+ *    {@link io.ajo.responscore.config.ValidatorType#MaxSize} of their attribute, and never more than
+ *    {@link ValidationOptions#getMaxListSize()}
+ *  - Strings may be at most {@link ValidationOptions#getAdmissionFactor()} times the smallest
+ *    {@link io.ajo.responscore.config.ValidatorType#MaxSize} of their attribute, and never longer than
+ *    {@link ValidationOptions#getMaxStringLength()}
+ *  - Numbers may have at most {@link ValidationOptions#getMaxNumberDigits()} digits
+ *  - Maps and lists of unknown data may be nested at most {@link ValidationOptions#getMaxDepth()} deep, and there may
+ *    be at most {@link ValidationOptions#getMaxNodes()} values in total
+ * Data is walked with an explicit work stack, and the scan stops at the first value rejected.
+ */
+final class AdmissionScanner {
+
+    /**
+     * Map or list waiting on the work stack to be scanned
+     * @param value map, collection or array
+     * @param attribute attribute the elements of a list belong to, {@literal null} if unknown
+     * @param composite composite the keys of a map belong to, {@literal null} if unknown
+     */
+    private record Frame(
+            Object value,
+            CompiledAttribute attribute,
+            CompiledComposite composite,
+            ConstraintViolationBuilder ctx,
+            int depth
+    ) {}
+
+    private final ValidationOptions options;
+    private final Deadline deadline;
+    private final ConstraintViolationBuilder rootCtx;
+    private final Deque<Frame> stack = new ArrayDeque<>();
+    private long nodes;
+
+    private AdmissionScanner(ValidationOptions options, Deadline deadline, ConstraintViolationBuilder rootCtx) {
+        this.options = options;
+        this.deadline = deadline;
+        this.rootCtx = rootCtx;
+    }
+
+    /**
+     * Scan the form data, reporting a violation for the first value rejected
+     * @param root root attributes of the config
+     * @param data form data
+     * @param options limits to scan with
+     * @param deadline deadline of validation, the scan stops once passed
+     * @param ctx builder of the path of the form data
+     * @return {@literal true} if the data is admitted for validation
+     */
+    static boolean scan(
+            CompiledComposite root,
+            Map<String, Object> data,
+            ValidationOptions options,
+            Deadline deadline,
+            ConstraintViolationBuilder ctx
+    ) {
+        return new AdmissionScanner(options, deadline, ctx).run(root, data);
+    }
+
+    private boolean run(CompiledComposite root, Map<String, Object> data) {
+        stack.push(new Frame(data, null, root, rootCtx, 0));
+        while (!stack.isEmpty()) {
+            final Frame frame = stack.pop();
+            final boolean admitted = frame.value() instanceof Map
+                    ? scanMap(frame)
+                    : scanList(frame);
+            if (!admitted) {
+                stack.clear();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean scanMap(Frame frame) {
+        final Map<?, ?> map = (Map<?, ?>) frame.value();
+        final long maxKeys = frame.composite() != null
+                ? Math.max(1, (long) frame.composite().getAttributes().size()) * options.getAdmissionFactor()
+                : options.getMaxKeys();
+        if (map.size() > maxKeys) {
+            ConstraintViolationBuilder.from(frame.ctx())
+                    .addMessageParameter("maxKeys", String.valueOf(maxKeys))
+                    .build("{responscore.validation.form_validator.max_keys_exceeded}");
+            return false;
+        }
+        for (final Map.Entry<?, ?> entry : map.entrySet()) {
+            final String key = String.valueOf(entry.getKey());
+            final CompiledAttribute attribute = frame.composite() != null ? frame.composite().getAttribute(key) : null;
+            final ConstraintViolationBuilder entryCtx = ConstraintViolationBuilder.from(frame.ctx()).addPropertyNode(key);
+            final boolean admitted = attribute != null && attribute.getAttribute().isList()
+                    ? scanListValue(entry.getValue(), attribute, entryCtx, frame.depth())
+                    : scanValue(entry.getValue(), attribute, entryCtx, frame.depth());
+            if (!admitted) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean scanList(Frame frame) {
+        int index = 0;
+        for (final Iterator<?> it = iterator(frame.value()); it.hasNext(); index++) {
+            final Object element = it.next();
+            // the path of a scalar element is only built if it is rejected
+            if (!isContainer(element)) {
+                if (!countNode() || !scanScalar(element, frame.attribute(), frame.ctx(), index)) {
+                    return false;
+                }
+            } else if (!scanValue(element, frame.attribute(), ConstraintViolationBuilder.from(frame.ctx()).addIterableNode(index), frame.depth())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Scans the value of a list attribute, elements are scanned as items of the attribute
+     */
+    private boolean scanListValue(Object value, CompiledAttribute attribute, ConstraintViolationBuilder ctx, int depth) {
+        if (!(value instanceof Collection) && (value == null || !value.getClass().isArray())) {
+            // not a list, coercion will reject it
+            return scanValue(value, null, ctx, depth);
+        }
+        if (!countNode()) {
+            return false;
+        }
+        final long maxSize = bound(attribute.getValidators(), options.getMaxListSize());
+        if (size(value) > maxSize) {
+            ConstraintViolationBuilder.from(ctx)
+                    .addMessageParameter("maxListSize", String.valueOf(maxSize))
+                    .build("{responscore.validation.form_validator.max_list_size_exceeded}");
+            return false;
+        }
+        stack.push(new Frame(value, attribute, null, ctx, depth));
+        return true;
+    }
+
+    /**
+     * Scans a single value, which is an item of the attribute if the attribute is a list
+     */
+    private boolean scanValue(Object value, CompiledAttribute attribute, ConstraintViolationBuilder ctx, int depth) {
+        if (!countNode()) {
+            return false;
+        }
+        if (!isContainer(value)) {
+            return scanScalar(value, attribute, ctx, -1);
+        }
+        if (depth + 1 > options.getMaxDepth()) {
+            ConstraintViolationBuilder.from(ctx)
+                    .addMessageParameter("maxDepth", String.valueOf(options.getMaxDepth()))
+                    .build("{responscore.validation.form_validator.max_depth_exceeded}");
+            return false;
+        }
+        if (value instanceof Map) {
+            final CompiledComposite composite = attribute != null ? attribute.getComposite() : null;
+            stack.push(new Frame(value, null, composite, ctx, depth + 1));
+            return true;
+        }
+        // lists which aren't the value of a list attribute are unknown data
+        if (size(value) > options.getMaxListSize()) {
+            ConstraintViolationBuilder.from(ctx)
+                    .addMessageParameter("maxListSize", String.valueOf(options.getMaxListSize()))
+                    .build("{responscore.validation.form_validator.max_list_size_exceeded}");
+            return false;
+        }
+        stack.push(new Frame(value, null, null, ctx, depth + 1));
+        return true;
+    }
+
+    /**
+     * @param index index of the value within the list {@code ctx} is the path of, or {@literal -1} if {@code ctx} is
+     *              the path of the value itself
+     */
+    private boolean scanScalar(Object value, CompiledAttribute attribute, ConstraintViolationBuilder ctx, int index) {
+        if (value instanceof CharSequence) {
+            final long maxLength = attribute != null
+                    ? bound(attribute.getAttribute().isList() ? attribute.getItemValidators() : attribute.getValidators(), options.getMaxStringLength())
+                    : options.getMaxStringLength();
+            if (((CharSequence) value).length() > maxLength) {
+                path(ctx, index)
+                        .addMessageParameter("maxStringLength", String.valueOf(maxLength))
+                        .build("{responscore.validation.form_validator.max_string_length_exceeded}");
+                return false;
+            }
+        } else if (value instanceof BigDecimal || value instanceof BigInteger) {
+            if (digits((Number) value) > options.getMaxNumberDigits()) {
+                path(ctx, index)
+                        .addMessageParameter("maxNumberDigits", String.valueOf(options.getMaxNumberDigits()))
+                        .build("{responscore.validation.form_validator.max_number_digits_exceeded}");
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Counts a value towards {@link ValidationOptions#getMaxNodes()}, and periodically checks the deadline
+     * @return {@literal false} if the scan must stop
+     */
+    private boolean countNode() {
+        if (++nodes > options.getMaxNodes()) {
+            // reported against the data as a whole
+            ConstraintViolationBuilder.from(rootCtx)
+                    .addMessageParameter("maxNodes", String.valueOf(options.getMaxNodes()))
+                    .build("{responscore.validation.form_validator.max_nodes_exceeded}");
+            return false;
+        }
+        final String reason = deadline.poll();
+        if (reason != null) {
+            ConstraintViolationBuilder.from(rootCtx).build(reason);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return the config derived bound for the chain, scaled by the admission factor, but never more than the limit
+     */
+    private long bound(ValidatorChain chain, long limit) {
+        final long maxSize = chain.getMaxSize();
+        if (maxSize < 0) {
+            return limit;
+        }
+        final long scaled = maxSize > Long.MAX_VALUE / options.getAdmissionFactor()
+                ? Long.MAX_VALUE
+                : maxSize * options.getAdmissionFactor();
+        return Math.min(limit, scaled);
+    }
+
+    private static long digits(Number value) {
+        if (value instanceof BigInteger) {
+            // number of decimal digits is within one of bitLength * log10(2)
+            return (long) (((BigInteger) value).bitLength() * 0.30103) + 1;
+        }
+        final BigDecimal decimal = (BigDecimal) value;
+        return Math.max(decimal.precision(), Math.abs((long) decimal.scale()));
+    }
+
+    private static boolean isContainer(Object value) {
+        return value instanceof Map || value instanceof Collection || (value != null && value.getClass().isArray());
+    }
+
+    private static int size(Object value) {
+        return value instanceof Collection ? ((Collection<?>) value).size() : Array.getLength(value);
+    }
+
+    private static Iterator<?> iterator(Object value) {
+        if (value instanceof Collection) {
+            return ((Collection<?>) value).iterator();
+        }
+        final int length = Array.getLength(value);
+        return new Iterator<>() {
+            private int i;
+
+            @Override
+            public boolean hasNext() {
+                return i < length;
+            }
+
+            @Override
+            public Object next() {
+                return Array.get(value, i++);
+            }
+        };
+    }
+
+    private static ConstraintViolationBuilder path(ConstraintViolationBuilder ctx, int index) {
+        return index < 0
+                ? ConstraintViolationBuilder.from(ctx)
+                : ConstraintViolationBuilder.from(ctx).addIterableNode(index);
+    }
+
+}
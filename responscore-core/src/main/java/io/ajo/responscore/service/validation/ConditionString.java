@@ -24,6 +24,12 @@ public class ConditionString {
                 case MaxSize -> {
                     return " (MaxSize=" + validator.getValue().toString() + ")";
                 }
+                case Pattern -> {
+                    return " (Pattern=" + validator.getPattern() + ")";
+                }
+                case UniqueItems -> {
+                    return validator.getField() == null ? "" : " (field=" + validator.getField() + ")";
+                }
                 default -> {
                     return "";
                 }
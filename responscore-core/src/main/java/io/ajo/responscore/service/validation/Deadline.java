@@ -0,0 +1,73 @@
+package io.ajo.responscore.service.validation;
+
+import io.ajo.responscore.service.CancellationToken;
+import io.ajo.responscore.service.ValidationOptions;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Deadline and cancellation of validating a single form. The deadline is converted once into {@link System#nanoTime()}
+ * so checking it doesn't read the wall clock.
+ */
+final class Deadline {
+
+    /**
+     * Number of {@link #poll()} calls between checks, keeping the cost per list item negligible
+     */
+    private static final int POLL_INTERVAL = 64;
+
+    static final String DEADLINE_EXCEEDED = "{responscore.validation.form_validator.deadline_exceeded}";
+    static final String CANCELLED = "{responscore.validation.form_validator.cancelled}";
+
+    private final boolean timed;
+    private final long deadlineNanos;
+    private final CancellationToken cancellationToken;
+    private int polls;
+
+    private Deadline(boolean timed, long deadlineNanos, CancellationToken cancellationToken) {
+        this.timed = timed;
+        this.deadlineNanos = deadlineNanos;
+        this.cancellationToken = cancellationToken;
+    }
+
+    static Deadline of(ValidationOptions options) {
+        final Instant deadline = options.getDeadline();
+        if (deadline == null) {
+            return new Deadline(false, 0, options.getCancellationToken());
+        }
+        long remaining;
+        try {
+            remaining = Duration.between(Instant.now(), deadline).toNanos();
+        } catch (ArithmeticException e) {
+            // further away (or further past) than nanoseconds can represent
+            remaining = deadline.isAfter(Instant.now()) ? Long.MAX_VALUE / 2 : -1;
+        }
+        return new Deadline(true, System.nanoTime() + remaining, options.getCancellationToken());
+    }
+
+    /**
+     * @return message template of the reason validation must stop, or {@literal null} if it can continue
+     */
+    String check() {
+        if (cancellationToken != null && cancellationToken.isCancelled()) {
+            return CANCELLED;
+        }
+        if (timed && System.nanoTime() - deadlineNanos >= 0) {
+            return DEADLINE_EXCEEDED;
+        }
+        return null;
+    }
+
+    /**
+     * As {@link #check()}, but only actually checking every {@link #POLL_INTERVAL} calls
+     */
+    String poll() {
+        if (++polls < POLL_INTERVAL) {
+            return null;
+        }
+        polls = 0;
+        return check();
+    }
+
+}
@@ -1,23 +1,31 @@
 package io.ajo.responscore.service.validation;
 
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.ajo.responscore.compiled.CompiledAttribute;
+import io.ajo.responscore.compiled.CompiledComposite;
+import io.ajo.responscore.compiled.CompiledConfig;
+import io.ajo.responscore.compiled.RangeKernel;
+import io.ajo.responscore.compiled.ValidatorChain;
 import io.ajo.responscore.config.Attribute;
-import io.ajo.responscore.config.CompositeTypeConfig;
-import io.ajo.responscore.config.Config;
 import io.ajo.responscore.config.Dependent;
-import io.ajo.responscore.config.LookupConfig;
+import io.ajo.responscore.config.Type;
 import io.ajo.responscore.config.Validator;
+import io.ajo.responscore.form.Form;
+import io.ajo.responscore.service.ValidationOptions;
 import io.ajo.responscore.service.validation.annotation.ValidForm;
 import io.ajo.responscore.util.ObjectMapperUtils;
+import io.ajo.responscore.util.UniqueItemsTracker;
 import io.ajo.responscore.validation.ConstraintViolationBuilder;
-import org.apache.commons.lang3.StringUtils;
 
 import javax.validation.ConstraintValidator;
 import javax.validation.ConstraintValidatorContext;
+import javax.validation.ConstraintViolation;
+import java.lang.reflect.Array;
+import java.util.ArrayDeque;
 import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 public class FormValidator implements ConstraintValidator<ValidForm, FormContainer> {
 
@@ -25,205 +33,398 @@ public class FormValidator implements ConstraintValidator<ValidForm, FormContain
 
     @Override
     public boolean isValid(FormContainer value, ConstraintValidatorContext ctx) {
-        // Copy data of the form to mutate during validation, use object mapper to ensure deep copy
-        final Map<String, Object> dataCopy = objectMapper.convertValue(value.form().getData(), new TypeReference<>() {});
+        // form data is only read, never mutated, so there is no need to copy it
         final ConstraintViolationBuilder builder = ConstraintViolationBuilder.builder(ctx).addPropertyNode("data");
-        return recursiveDataValidate(value.config(), value.config().getAttributes(), dataCopy, builder);
+        final ValidationOptions options = value.options() != null ? value.options() : ValidationOptions.DEFAULT;
+        final Deadline deadline = Deadline.of(options);
+        // reject grossly oversized data before any of it is coerced
+        if (!AdmissionScanner.scan(value.config().getRoot(), value.form().getData(), options, deadline, builder)) {
+            return false;
+        }
+        return new Traversal(options, deadline, builder).run(value.config().getRoot(), value.form().getData());
+    }
+
+    /**
+     * Run the admission scan on its own, for work done on the form data before validating it, such as hashing it,
+     * which must not walk data the scan would reject. Rejected data is reported by validating it
+     * @param config compiled config the form is validated against
+     * @param form form to validate
+     * @param options limits, deadline and cancellation of validation
+     * @return {@literal true} if the form data is admitted for validation
+     */
+    public static boolean isAdmitted(CompiledConfig config, Form form, ValidationOptions options) {
+        return AdmissionScanner.scan(
+                config.getRoot(),
+                form.getData(),
+                options,
+                Deadline.of(options),
+                ConstraintViolationBuilder.builder((path, messageTemplate, messageParameters) -> {})
+        );
     }
 
+    /**
+     * @param violation violation of a form
+     * @return {@literal true} if the violation reports validation stopped before completing, due to its deadline
+     * passing or being cancelled
+     */
+    public static boolean isIncomplete(ConstraintViolation<?> violation) {
+        return Deadline.DEADLINE_EXCEEDED.equals(violation.getMessageTemplate())
+                || Deadline.CANCELLED.equals(violation.getMessageTemplate());
+    }
 
-    private boolean recursiveDataValidate(
-            Config config,
-            Set<Attribute> attributes,
+    /**
+     * Composite data waiting on the work stack to be validated
+     */
+    private record Frame(
+            CompiledComposite composite,
             Map<String, Object> data,
-            ConstraintViolationBuilder ctx
-    ) {
-        boolean valid = true;
-        // copy data to use only for dependency checks
-        final Map<String, Object> dependencyData = objectMapper.convertValue(data, new TypeReference<>() {});
-        for (final Attribute attribute : attributes) {
-            final ConstraintViolationBuilder attrCtx = ConstraintViolationBuilder.from(ctx)
-                    .addPropertyNode(attribute.getCode());
-            if (data.containsKey(attribute.getCode())) {
-                // first coerce data to ensure validation can be done
-                final Object coercedData;
-                try {
-                    final Object attrData = data.remove(attribute.getCode());
-                    coercedData = attribute.getType().coerceType(attrData, attribute.isList());
-                } catch (IllegalArgumentException e) {
-                    ConstraintViolationBuilder.from(attrCtx)
-                            .addMessageParameter("attributeType", attribute.getType().name())
-                            .build("{responscore.validation.form_validator.invalid_data_type}");
-                    valid = false;
-                    continue;
+            ConstraintViolationBuilder ctx,
+            int depth
+    ) {}
+
+    /**
+     * State of validating a single form. Composite data is walked with an explicit work stack rather than recursion,
+     * so deeply nested data can't overflow the thread stack, and the limits of {@link ValidationOptions} are enforced
+     * along the way.
+     */
+    private final class Traversal {
+
+        private final ValidationOptions options;
+        private final Deadline deadline;
+        private final ConstraintViolationBuilder rootCtx;
+        private final Deque<Frame> stack = new ArrayDeque<>();
+        private long nodes;
+        private boolean stopped;
+        private boolean valid = true;
+
+        private Traversal(ValidationOptions options, Deadline deadline, ConstraintViolationBuilder rootCtx) {
+            this.options = options;
+            this.deadline = deadline;
+            this.rootCtx = rootCtx;
+        }
+
+        private boolean run(CompiledComposite root, Map<String, Object> data) {
+            stack.push(new Frame(root, data, rootCtx, 0));
+            while (!stack.isEmpty() && !stopped) {
+                validateComposite(stack.pop());
+            }
+            return valid;
+        }
+
+        private void validateComposite(Frame frame) {
+            final Map<String, Object> data = frame.data();
+            for (final CompiledAttribute compiledAttribute : frame.composite().getAttributes()) {
+                if (!checkDeadline(deadline.check())) {
+                    return;
                 }
-                if (!StringUtils.isEmpty(attribute.getLookupCode())) {
-                    // safe operation as config validator will ensure there is always a match
-                    final LookupConfig lookupConfig = config.getLookupConfigs().stream()
-                            .filter(c -> c.getCode().equals(attribute.getLookupCode()))
-                            .findAny()
-                            .get();
-                    final boolean lookupValid = validateLookupDataWithAttribute(attribute, coercedData, lookupConfig, attrCtx);
-                    if (!lookupValid) {
-                        valid = false;
+                final Attribute attribute = compiledAttribute.getAttribute();
+                final ConstraintViolationBuilder attrCtx = ConstraintViolationBuilder.from(frame.ctx())
+                        .addPropertyNode(attribute.getCode());
+                if (data.containsKey(attribute.getCode())) {
+                    if (!countNodes(1)) {
+                        return;
                     }
-                } else if (!StringUtils.isEmpty(attribute.getCompositeCode())) {
-                    // safe operation as config validator will ensure there is always a match
-                    final CompositeTypeConfig compositeTypeConfig = config.getCompositeTypeConfigs().stream()
-                            .filter(c -> c.getCode().equals(attribute.getCompositeCode()))
-                            .findAny()
-                            .get();
-                    final boolean compositeValid = validateCompositeDataWithAttribute(config, attribute, coercedData, compositeTypeConfig, attrCtx);
-                    if (!compositeValid) {
-                        valid = false;
+                    final Object attrData = data.get(attribute.getCode());
+                    // reject oversized lists before paying for their coercion
+                    if (attribute.isList() && !checkListSize(attrData, attrCtx)) {
+                        continue;
                     }
-                } else {
-                    final boolean dataValid = validateDataWithAttribute(attribute, coercedData, attrCtx);
-                    if (!dataValid) {
+                    // first coerce data to ensure validation can be done, lists are materialised only this once
+                    final Object coercedData;
+                    try {
+                        coercedData = attribute.getType().coerceType(attrData, attribute.isList());
+                    } catch (IllegalArgumentException e) {
+                        ConstraintViolationBuilder.from(attrCtx)
+                                .addMessageParameter("attributeType", attribute.getType().name())
+                                .build("{responscore.validation.form_validator.invalid_data_type}");
                         valid = false;
+                        continue;
+                    }
+                    if (attribute.isList()) {
+                        validateListDataWithAttribute(compiledAttribute, (Collection<?>) coercedData, attrCtx, frame.depth());
+                        if (stopped) {
+                            return;
+                        }
+                    } else {
+                        validateWithValidators(compiledAttribute, coercedData, attrCtx);
+                        validateReferenceData(compiledAttribute, coercedData, attrCtx, frame.depth());
                     }
-                }
 
-                // validate dependencies
-                if (attribute.getDependencies() != null) {
-                    for (Dependent dependent : attribute.getDependencies()) {
-                        final Object dependeeValue = dependencyData.get(dependent.getAttributeCode());
-                        if (dependent.getValues().stream().noneMatch(v -> v.equals(dependeeValue))) {
-                            ConstraintViolationBuilder.from(attrCtx)
-                                    .addMessageParameter("dependeeAttr", dependent.getAttributeCode())
-                                    .build("{responscore.validation.form_validator.unmet_dependencies}");
-                            valid = false;
+                    // validate dependencies
+                    if (attribute.getDependencies() != null) {
+                        for (Dependent dependent : attribute.getDependencies()) {
+                            final Object dependeeValue = normaliseDependeeValue(data.get(dependent.getAttributeCode()));
+                            if (dependent.getValues().stream().noneMatch(v -> v.equals(dependeeValue))) {
+                                ConstraintViolationBuilder.from(attrCtx)
+                                        .addMessageParameter("dependeeAttr", dependent.getAttributeCode())
+                                        .build("{responscore.validation.form_validator.unmet_dependencies}");
+                                valid = false;
+                            }
                         }
                     }
+                } else {
+                    if (attribute.isRequired()) {
+                        ConstraintViolationBuilder.from(attrCtx)
+                                .build("{responscore.validation.form_validator.missing_required_data}");
+                        valid = false;
+                    }
                 }
-            } else {
-                if (attribute.isRequired()) {
-                    ConstraintViolationBuilder.from(attrCtx)
-                            .build("{responscore.validation.form_validator.missing_required_data}");
+            }
+
+            // ensure there isn't any unknown data remaining
+            for (final String key : data.keySet()) {
+                if (frame.composite().getAttribute(key) == null) {
+                    ConstraintViolationBuilder.from(frame.ctx())
+                            .addMessageParameter("dataKey", key)
+                            .build("{responscore.validation.form_validator.unknown_data}");
                     valid = false;
                 }
             }
         }
 
-        // ensure there isn't any unknown data remaining
-        if (!data.isEmpty()) {
-            for (final String key : data.keySet()) {
-                ConstraintViolationBuilder.from(ctx)
-                        .addMessageParameter("dataKey", key)
-                        .build("{responscore.validation.form_validator.unknown_data}");
+        /**
+         * Validates a list in a single pass, each element has its item validators, uniqueness and lookup membership
+         * checked before moving onto the next element, composite elements are queued on the work stack
+         */
+        private void validateListDataWithAttribute(
+                CompiledAttribute compiledAttribute,
+                Collection<?> listData,
+                ConstraintViolationBuilder ctx,
+                int depth
+        ) {
+            // validators of the list itself
+            validateWithValidators(compiledAttribute, listData, ctx);
+
+            final UniqueItemsTracker[] uniqueTrackers = createUniqueTrackers(compiledAttribute, listData.size());
+            // skip iterating if there is nothing to validate per element
+            if (compiledAttribute.getItemValidators().isEmpty()
+                    && uniqueTrackers.length == 0
+                    && compiledAttribute.getLookup() == null
+                    && compiledAttribute.getComposite() == null) {
+                return;
+            }
+            if (!countNodes(listData.size())) {
+                return;
+            }
+            if (isNumericRangeList(compiledAttribute)) {
+                validateNumericListData(compiledAttribute, listData, uniqueTrackers, ctx);
+                return;
+            }
+            int i = 0;
+            for (final Object elementData : listData) {
+                if (!checkDeadline(deadline.poll())) {
+                    return;
+                }
+                final int index = i++;
+                final boolean itemsValid = compiledAttribute.getItemValidators().validate(elementData, v -> ConstraintViolationBuilder.from(ctx)
+                        .addIterableNode(index)
+                        .addMessageParameter("validatorType", v.getType().name())
+                        .addMessageParameter("validatorCondition", ConditionString.format(v))
+                        .build("{responscore.validation.form_validator.invalid_list_data}"));
+                if (!itemsValid) {
+                    valid = false;
+                }
+                validateUniqueItem(compiledAttribute, uniqueTrackers, elementData, index, ctx);
+                if (compiledAttribute.getLookup() != null || compiledAttribute.getComposite() != null) {
+                    final ConstraintViolationBuilder elemCtx = ConstraintViolationBuilder.from(ctx).addIterableNode(index);
+                    validateReferenceData(compiledAttribute, elementData, elemCtx, depth);
+                }
             }
-            valid = false;
         }
 
-        return valid;
-    }
+        /**
+         * Unboxes the coerced list into a {@code double[]} and bound checks it with {@link RangeKernel}, only the
+         * elements out of range are run through the item validators to produce the exact violations
+         */
+        private void validateNumericListData(
+                CompiledAttribute compiledAttribute,
+                Collection<?> listData,
+                UniqueItemsTracker[] uniqueTrackers,
+                ConstraintViolationBuilder ctx
+        ) {
+            final Object[] elements = listData.toArray();
+            final double[] values = new double[elements.length];
+            for (int i = 0; i < elements.length; i++) {
+                // null elements, or those too large for a double, are left for the item validators to report
+                final double value = elements[i] instanceof Number ? ((Number) elements[i]).doubleValue() : Double.NaN;
+                values[i] = Double.isFinite(value) ? value : Double.NaN;
+            }
+            final ValidatorChain itemValidators = compiledAttribute.getItemValidators();
+            if (!checkDeadline(deadline.check())) {
+                return;
+            }
+            RangeKernel.findOutOfRange(values, itemValidators.getRangeMin(), itemValidators.getRangeMax(), index -> {
+                final boolean elementValid = itemValidators.validate(elements[index], v -> ConstraintViolationBuilder.from(ctx)
+                        .addIterableNode(index)
+                        .addMessageParameter("validatorType", v.getType().name())
+                        .addMessageParameter("validatorCondition", ConditionString.format(v))
+                        .build("{responscore.validation.form_validator.invalid_list_data}"));
+                if (!elementValid) {
+                    valid = false;
+                }
+            });
+            if (uniqueTrackers.length > 0) {
+                for (int i = 0; i < elements.length; i++) {
+                    if (!checkDeadline(deadline.poll())) {
+                        return;
+                    }
+                    validateUniqueItem(compiledAttribute, uniqueTrackers, elements[i], i, ctx);
+                }
+            }
+        }
 
-    private boolean validateLookupDataWithAttribute(
-            Attribute attribute,
-            Object data,
-            LookupConfig lookupConfig,
-            ConstraintViolationBuilder ctx
-    ) {
-        boolean valid = validateDataWithAttribute(attribute, data, ctx);
-        // handle list differently
-        if (attribute.isList()) {
-            final Collection<Object> listData = attribute.getType().coerceType(data, true);
-            int i = 0;
-            for (Object elemData : listData) {
-                // check to see the data matches a lookup item
-                if (lookupConfig.getLookupItems().stream().noneMatch(li -> li.getCode().equals(elemData))) {
+        /**
+         * Adds the element to the unique trackers, reporting it if it duplicates an earlier element
+         */
+        private void validateUniqueItem(
+                CompiledAttribute compiledAttribute,
+                UniqueItemsTracker[] uniqueTrackers,
+                Object elementData,
+                int index,
+                ConstraintViolationBuilder ctx
+        ) {
+            for (int t = 0; t < uniqueTrackers.length; t++) {
+                if (!uniqueTrackers[t].add(elementData)) {
+                    final Validator v = compiledAttribute.getValidators().getUniqueItems().get(t);
                     ConstraintViolationBuilder.from(ctx)
-                            .addIterableNode(i)
-                            .addMessageParameter("dataValue", elemData.toString())
-                            .build("{responscore.validation.form_validator.invalid_lookup_value}");
+                            .addIterableNode(index)
+                            .addMessageParameter("validatorType", v.getType().name())
+                            .addMessageParameter("validatorCondition", ConditionString.format(v))
+                            .build("{responscore.validation.form_validator.duplicate_list_data}");
                     valid = false;
                 }
-                i++;
             }
-        } else {
-            // check to see the data matches a lookup item
-            if (lookupConfig.getLookupItems().stream().noneMatch(li -> li.getCode().equals(data))) {
-                ConstraintViolationBuilder.from(ctx)
-                        .addMessageParameter("dataValue", data.toString())
-                        .build("{responscore.validation.form_validator.invalid_lookup_value}");
+        }
+
+        private void validateWithValidators(CompiledAttribute compiledAttribute, Object data, ConstraintViolationBuilder ctx) {
+            final boolean validatorsValid = compiledAttribute.getValidators().validate(data, v -> ConstraintViolationBuilder.from(ctx)
+                    .addMessageParameter("validatorType", v.getType().name())
+                    .addMessageParameter("validatorCondition", ConditionString.format(v))
+                    .build("{responscore.validation.form_validator.invalid_data}"));
+            if (!validatorsValid) {
                 valid = false;
             }
         }
-        return valid;
-    }
 
-    private boolean validateCompositeDataWithAttribute(
-            Config config,
-            Attribute attribute,
-            Object data,
-            CompositeTypeConfig compositeTypeConfig,
-            ConstraintViolationBuilder ctx
-    ) {
-        boolean valid = validateDataWithAttribute(attribute, data, ctx);
-        // handle list differently
-        if (attribute.isList()) {
-            final Collection<Object> listData = attribute.getType().coerceType(data, true);
-            int i = 0;
-            for (Object elemData : listData) {
-                final ConstraintViolationBuilder elemCtx = ConstraintViolationBuilder.from(ctx).addIterableNode(i);
-                final boolean recursiveValid = recursiveDataValidate(
-                        config,
-                        compositeTypeConfig.getAttributes(),
-                        objectMapper.convertValue(elemData, new TypeReference<>() {}),
-                        elemCtx
-                );
-                if (!recursiveValid) {
+        /**
+         * Validates a single (non-list) value against the lookup the attribute references, or queues it to be
+         * validated against the composite the attribute references
+         */
+        @SuppressWarnings("unchecked")
+        private void validateReferenceData(
+                CompiledAttribute compiledAttribute,
+                Object data,
+                ConstraintViolationBuilder ctx,
+                int depth
+        ) {
+            if (compiledAttribute.getLookup() != null) {
+                // check to see the data matches a lookup item
+                if (!compiledAttribute.getLookup().contains(data)) {
+                    ConstraintViolationBuilder.from(ctx)
+                            .addMessageParameter("dataValue", String.valueOf(data))
+                            .build("{responscore.validation.form_validator.invalid_lookup_value}");
                     valid = false;
                 }
-                i++;
-            }
-        } else {
-            // check to see the data matches a composite type config via recursion
-            final boolean recursiveValid = recursiveDataValidate(
-                    config,
-                    compositeTypeConfig.getAttributes(),
-                    objectMapper.convertValue(data, new TypeReference<>() {}),
-                    ctx
-            );
-            if (!recursiveValid) {
-                valid = false;
+            } else if (compiledAttribute.getComposite() != null) {
+                // coercion has already produced a map for each composite value
+                if (!(data instanceof Map)) {
+                    ConstraintViolationBuilder.from(ctx)
+                            .addMessageParameter("attributeType", compiledAttribute.getAttribute().getType().name())
+                            .build("{responscore.validation.form_validator.invalid_data_type}");
+                    valid = false;
+                } else if (depth >= options.getMaxDepth()) {
+                    ConstraintViolationBuilder.from(ctx)
+                            .addMessageParameter("maxDepth", String.valueOf(options.getMaxDepth()))
+                            .build("{responscore.validation.form_validator.max_depth_exceeded}");
+                    valid = false;
+                } else {
+                    stack.push(new Frame(compiledAttribute.getComposite(), (Map<String, Object>) data, ctx, depth + 1));
+                }
             }
         }
-        return valid;
-    }
 
-    private boolean validateDataWithAttribute(Attribute attribute, Object data, ConstraintViolationBuilder ctx) {
-        boolean valid = true;
-        // validators
-        for (final Validator v : attribute.getValidators()) {
-            if (!v.validate(data)) {
+        /**
+         * @return {@literal false} if the raw list data has more items than allowed
+         */
+        private boolean checkListSize(Object data, ConstraintViolationBuilder ctx) {
+            final int size;
+            if (data instanceof Collection) {
+                size = ((Collection<?>) data).size();
+            } else if (data != null && data.getClass().isArray()) {
+                size = Array.getLength(data);
+            } else {
+                return true;
+            }
+            if (size > options.getMaxListSize()) {
                 ConstraintViolationBuilder.from(ctx)
-                        .addMessageParameter("validatorType", v.getType().name())
-                        .addMessageParameter("validatorCondition", ConditionString.format(v))
-                        .build("{responscore.validation.form_validator.invalid_data}");
+                        .addMessageParameter("maxListSize", String.valueOf(options.getMaxListSize()))
+                        .build("{responscore.validation.form_validator.max_list_size_exceeded}");
                 valid = false;
+                return false;
             }
+            return true;
         }
 
-        // list validators
-        if (attribute.isList()) {
-            final Collection<Object> listData = attribute.getType().coerceType(data, true);
-            int i = 0;
-            for (final Object elementData : listData) {
-                for (final Validator v : attribute.getValidateItems()) {
-                    if (!v.validate(elementData)) {
-                        ConstraintViolationBuilder.from(ctx)
-                                .addIterableNode(i)
-                                .addMessageParameter("validatorType", v.getType().name())
-                                .addMessageParameter("validatorCondition", ConditionString.format(v))
-                                .build("{responscore.validation.form_validator.invalid_list_data}");
-                        valid = false;
-                    }
-                }
-                i++;
+        /**
+         * Stops validation if its deadline has passed or it has been cancelled
+         * @param reason message template of the reason to stop, from {@link Deadline}
+         * @return {@literal false} if validation has been stopped
+         */
+        private boolean checkDeadline(String reason) {
+            if (reason == null) {
+                return true;
             }
+            ConstraintViolationBuilder.from(rootCtx).build(reason);
+            valid = false;
+            stopped = true;
+            stack.clear();
+            return false;
         }
-        return valid;
+
+        /**
+         * Counts values towards {@link ValidationOptions#getMaxNodes()}, stopping validation once exceeded
+         * @return {@literal false} if validation has been stopped
+         */
+        private boolean countNodes(int count) {
+            nodes += count;
+            if (nodes > options.getMaxNodes()) {
+                ConstraintViolationBuilder.from(rootCtx)
+                        .addMessageParameter("maxNodes", String.valueOf(options.getMaxNodes()))
+                        .build("{responscore.validation.form_validator.max_nodes_exceeded}");
+                valid = false;
+                stopped = true;
+                stack.clear();
+                return false;
+            }
+            return true;
+        }
+    }
+
+    private static UniqueItemsTracker[] createUniqueTrackers(CompiledAttribute compiledAttribute, int size) {
+        final List<Validator> uniqueItems = compiledAttribute.getValidators().getUniqueItems();
+        final UniqueItemsTracker[] trackers = new UniqueItemsTracker[uniqueItems.size()];
+        for (int i = 0; i < trackers.length; i++) {
+            trackers[i] = new UniqueItemsTracker(uniqueItems.get(i).getField(), size);
+        }
+        return trackers;
+    }
+
+    /**
+     * Numeric lists with only range item validators and no references can be bound checked in bulk
+     */
+    private static boolean isNumericRangeList(CompiledAttribute compiledAttribute) {
+        final Type type = compiledAttribute.getAttribute().getType();
+        return (type.extendsType(Type.DECIMAL) || type.extendsType(Type.INTEGER))
+                && compiledAttribute.getItemValidators().isRangeOnly()
+                && compiledAttribute.getLookup() == null
+                && compiledAttribute.getComposite() == null;
+    }
+
+    /**
+     * Dependency values are declared in config as plain JSON values, so the dependee data is compared in the same form
+     */
+    private Object normaliseDependeeValue(Object value) {
+        return value == null ? null : objectMapper.convertValue(value, Object.class);
     }
 
 }
@@ -0,0 +1,21 @@
+package io.ajo.responscore.util;
+
+/**
+ * Point in time statistics of a {@link TinyLfuCache}
+ * @param hitCount number of lookups which found an entry
+ * @param missCount number of lookups which didn't find an entry
+ * @param evictionCount number of entries evicted, or rejected for admission
+ * @param size number of entries
+ * @param weight total weight of entries
+ */
+public record CacheStats(long hitCount, long missCount, long evictionCount, long size, long weight) {
+
+    /**
+     * @return ratio of lookups which found an entry, or {@literal 0} if there have been no lookups
+     */
+    public double hitRate() {
+        final long requests = hitCount + missCount;
+        return requests == 0 ? 0 : (double) hitCount / requests;
+    }
+
+}
@@ -0,0 +1,146 @@
+package io.ajo.responscore.util;
+
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Immutable set held as an array of its elements in iteration order, with an open addressing table of positions in
+ * the array for membership checks once it's too large to scan. Costs about 12 to 16 bytes per element, against about
+ * 50 for a {@link java.util.HashSet}, as there's no node per element. Unlike {@link Set#copyOf(Collection)} it keeps
+ * the order elements were given in, and allows {@literal null}.
+ */
+public final class CompactSet<E> extends AbstractSet<E> {
+
+    /**
+     * Sets up to this size are scanned rather than indexed
+     */
+    private static final int MAX_SCANNED = 8;
+
+    private final Object[] elements;
+    /**
+     * Position + 1 of the elements by hash, 0 for empty slots, {@literal null} if the set is scanned
+     */
+    private final int[] table;
+
+    private CompactSet(Object[] elements, int[] table) {
+        this.elements = elements;
+        this.table = table;
+    }
+
+    /**
+     * @param collection elements of the set, equal elements are only kept once, the first in iteration order
+     * @return immutable set of the elements, the shared empty set if there are none
+     */
+    public static <E> Set<E> copyOf(Collection<? extends E> collection) {
+        if (collection instanceof CompactSet) {
+            @SuppressWarnings("unchecked") final Set<E> set = (Set<E>) collection;
+            return set;
+        }
+        if (collection.isEmpty()) {
+            return Set.of();
+        }
+        final Object[] given = collection.toArray();
+        if (given.length <= MAX_SCANNED) {
+            int size = 0;
+            for (final Object element : given) {
+                if (indexOf(given, size, element) < 0) {
+                    given[size++] = element;
+                }
+            }
+            return new CompactSet<>(size == given.length ? given : copy(given, size), null);
+        }
+        final int[] table = new int[tableSize(given.length)];
+        int size = 0;
+        for (final Object element : given) {
+            int slot = slot(element, table.length);
+            while (table[slot] != 0 && !Objects.equals(given[table[slot] - 1], element)) {
+                slot = (slot + 1) & (table.length - 1);
+            }
+            if (table[slot] == 0) {
+                // compacts in place, positions written are never ahead of the element being added
+                given[size] = element;
+                table[slot] = ++size;
+            }
+        }
+        return new CompactSet<>(size == given.length ? given : copy(given, size), table);
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (table == null) {
+            return indexOf(elements, elements.length, o) >= 0;
+        }
+        int slot = slot(o, table.length);
+        while (table[slot] != 0) {
+            if (Objects.equals(elements[table[slot] - 1], o)) {
+                return true;
+            }
+            slot = (slot + 1) & (table.length - 1);
+        }
+        return false;
+    }
+
+    @Override
+    public int size() {
+        return elements.length;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < elements.length;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public E next() {
+                if (next >= elements.length) {
+                    throw new NoSuchElementException();
+                }
+                return (E) elements[next++];
+            }
+        };
+    }
+
+    @Override
+    public Object[] toArray() {
+        return elements.clone();
+    }
+
+    private static int indexOf(Object[] elements, int size, Object o) {
+        for (int i = 0; i < size; i++) {
+            if (Objects.equals(elements[i], o)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static Object[] copy(Object[] elements, int size) {
+        final Object[] copy = new Object[size];
+        System.arraycopy(elements, 0, copy, 0, size);
+        return copy;
+    }
+
+    /**
+     * @return power of two at least twice the size, so probe sequences stay short
+     */
+    private static int tableSize(int size) {
+        return Integer.highestOneBit(size * 2 - 1) << 1;
+    }
+
+    private static int slot(Object element, int tableSize) {
+        final int hash = Objects.hashCode(element);
+        // spread the high bits down, as the table is indexed by the low bits
+        return (hash ^ (hash >>> 16)) & (tableSize - 1);
+    }
+
+}
@@ -0,0 +1,309 @@
+package io.ajo.responscore.util;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteOrder;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Streaming 128-bit hash (MurmurHash3 x64 128 over 64-bit lanes) of content, producing a {@link Fingerprint}.
+ * {@link #putData(Object)} hashes JSON-like data canonically, so equal data hashes equal regardless of the iteration
+ * order of maps and sets. Numbers are hashed by their exact representation and type, so only data which validates
+ * identically hashes equal.
+ * Unseeded hashes are stable across processes, so they can be persisted. The hash isn't cryptographic, so content
+ * chosen to collide can collide, hashes of untrusted content used as keys should be seeded, see
+ * {@link #ContentHasher(long)}.
+ */
+public final class ContentHasher {
+
+    /**
+     * Deepest nesting of data {@link #putData(Object)} will hash
+     */
+    public static final int MAX_DEPTH = 64;
+
+    private static final VarHandle LONG_VIEW = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private static final long C1 = 0x87c37b91114253d5L;
+    private static final long C2 = 0x4cf5ad432745937fL;
+
+    private static final int TAG_NULL = 1;
+    private static final int TAG_STRING = 2;
+    private static final int TAG_NUMBER = 3;
+    private static final int TAG_BOOLEAN = 4;
+    private static final int TAG_DATE = 5;
+    private static final int TAG_LIST = 6;
+    private static final int TAG_ARRAY = 7;
+    private static final int TAG_SET = 8;
+    private static final int TAG_MAP = 9;
+
+    /**
+     * Rough size in bytes of the content hashed, a proxy for the memory it occupies
+     */
+    private static final int NODE_BYTES = 16;
+
+    private final long seed;
+    private long h1;
+    private long h2;
+    private long pending;
+    private boolean hasPending;
+    private long lanes;
+    private long estimatedBytes;
+
+    public ContentHasher() {
+        this(0);
+    }
+
+    /**
+     * Hasher seeded with a secret, such as a random seed kept for the life of a process, so content can't be chosen to
+     * collide without knowing it. The seed also keys how the elements of maps and sets are combined
+     * @param seed seed of the hash, 0 for the unseeded hash
+     */
+    public ContentHasher(long seed) {
+        this.seed = seed;
+        this.h1 = seed;
+        this.h2 = seed;
+    }
+
+    public ContentHasher putLong(long value) {
+        lanes++;
+        if (!hasPending) {
+            pending = value;
+            hasPending = true;
+            return this;
+        }
+        hasPending = false;
+        long k1 = pending;
+        long k2 = value;
+
+        k1 *= C1;
+        k1 = Long.rotateLeft(k1, 31);
+        k1 *= C2;
+        h1 ^= k1;
+        h1 = Long.rotateLeft(h1, 27);
+        h1 += h2;
+        h1 = h1 * 5 + 0x52dce729;
+
+        k2 *= C2;
+        k2 = Long.rotateLeft(k2, 33);
+        k2 *= C1;
+        h2 ^= k2;
+        h2 = Long.rotateLeft(h2, 31);
+        h2 += h1;
+        h2 = h2 * 5 + 0x38495ab5;
+        return this;
+    }
+
+    public ContentHasher putInt(int value) {
+        return putLong(value);
+    }
+
+    public ContentHasher putBoolean(boolean value) {
+        return putLong(value ? 1 : 0);
+    }
+
+    /**
+     * Hashes the length and characters of the string, so consecutive strings can't run into each other.
+     * {@literal null} is hashed distinctly from every string
+     */
+    public ContentHasher putString(CharSequence value) {
+        if (value == null) {
+            return putLong(-1);
+        }
+        final int length = value.length();
+        putLong(length);
+        estimatedBytes += NODE_BYTES + 2L * length;
+        int i = 0;
+        for (; i + 4 <= length; i += 4) {
+            putLong((long) value.charAt(i)
+                    | (long) value.charAt(i + 1) << 16
+                    | (long) value.charAt(i + 2) << 32
+                    | (long) value.charAt(i + 3) << 48);
+        }
+        long tail = 0;
+        for (int shift = 0; i < length; i++, shift += 16) {
+            tail |= (long) value.charAt(i) << shift;
+        }
+        return putLong(tail);
+    }
+
+    /**
+     * Hashes the length and content of the bytes, eight at a time
+     */
+    public ContentHasher putBytes(byte[] value) {
+        final int length = value.length;
+        putLong(length);
+        estimatedBytes += NODE_BYTES + length;
+        int i = 0;
+        for (; i + 8 <= length; i += 8) {
+            putLong((long) LONG_VIEW.get(value, i));
+        }
+        long tail = 0;
+        for (int shift = 0; i < length; i++, shift += 8) {
+            tail |= (value[i] & 0xffL) << shift;
+        }
+        return putLong(tail);
+    }
+
+    public ContentHasher putFingerprint(Fingerprint fingerprint) {
+        return putLong(fingerprint.high()).putLong(fingerprint.low());
+    }
+
+    /**
+     * Hashes JSON-like data: {@literal null}, strings, numbers, booleans, dates, and maps, collections and arrays of
+     * these. Maps and non-list collections are hashed independently of their iteration order
+     * @param data data to hash
+     * @return {@literal false} if the data contains an unsupported type or is nested deeper than {@link #MAX_DEPTH},
+     * in which case the state of the hasher is undefined
+     */
+    public boolean putData(Object data) {
+        return putData(data, 0);
+    }
+
+    private boolean putData(Object data, int depth) {
+        estimatedBytes += NODE_BYTES;
+        if (data == null) {
+            putInt(TAG_NULL);
+        } else if (data instanceof CharSequence) {
+            putInt(TAG_STRING).putString((CharSequence) data);
+        } else if (data instanceof Boolean) {
+            putInt(TAG_BOOLEAN).putBoolean((Boolean) data);
+        } else if (data instanceof Number) {
+            if (!isSupportedNumber(data)) {
+                return false;
+            }
+            putInt(TAG_NUMBER).putString(data.getClass().getName()).putString(data.toString());
+        } else if (data instanceof Date) {
+            putInt(TAG_DATE).putLong(((Date) data).getTime());
+        } else if (depth >= MAX_DEPTH) {
+            return false;
+        } else if (data instanceof Map) {
+            putInt(TAG_MAP).putInt(((Map<?, ?>) data).size());
+            return putUnordered(((Map<?, ?>) data).entrySet(), depth);
+        } else if (data instanceof List) {
+            putInt(TAG_LIST).putInt(((List<?>) data).size());
+            for (final Object element : (List<?>) data) {
+                if (!putData(element, depth + 1)) {
+                    return false;
+                }
+            }
+        } else if (data instanceof Collection) {
+            putInt(TAG_SET).putInt(((Collection<?>) data).size());
+            return putUnordered((Collection<?>) data, depth);
+        } else if (data.getClass().isArray()) {
+            final int length = Array.getLength(data);
+            putInt(TAG_ARRAY).putInt(length);
+            for (int i = 0; i < length; i++) {
+                if (!putData(Array.get(data, i), depth + 1)) {
+                    return false;
+                }
+            }
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Each element is hashed on its own, then the hashes summed, which is independent of the order they are summed in.
+     * A seeded hasher mixes each hash with the seed before summing, so sums can't be steered to collide, unseeded
+     * hashes are summed as they are so fingerprints persisted before seeding stay valid
+     */
+    private boolean putUnordered(Collection<?> elements, int depth) {
+        long high = 0;
+        long low = 0;
+        for (final Object element : elements) {
+            final ContentHasher elementHasher = new ContentHasher(seed);
+            final boolean supported = element instanceof Map.Entry
+                    ? elementHasher.putData(((Map.Entry<?, ?>) element).getKey(), depth + 1)
+                    && elementHasher.putData(((Map.Entry<?, ?>) element).getValue(), depth + 1)
+                    : elementHasher.putData(element, depth + 1);
+            if (!supported) {
+                return false;
+            }
+            final Fingerprint fingerprint = elementHasher.finish();
+            if (seed != 0) {
+                high += fmix64(fingerprint.high() ^ seed);
+                low += fmix64(fingerprint.low() ^ Long.rotateLeft(seed, 32));
+            } else {
+                high += fingerprint.high();
+                low += fingerprint.low();
+            }
+            estimatedBytes += elementHasher.estimatedBytes;
+        }
+        putLong(high).putLong(low);
+        return true;
+    }
+
+    /**
+     * Combines the fingerprints of the elements independently of their order
+     * @param elements elements to combine
+     * @param fingerprinter fingerprint of an element
+     * @return combined fingerprint, which includes the number of elements
+     */
+    public static <T> Fingerprint combineUnordered(
+            Collection<? extends T> elements,
+            Function<? super T, Fingerprint> fingerprinter
+    ) {
+        long high = 0;
+        long low = 0;
+        for (final T element : elements) {
+            final Fingerprint fingerprint = fingerprinter.apply(element);
+            high += fingerprint.high();
+            low += fingerprint.low();
+        }
+        return new ContentHasher().putInt(TAG_SET).putInt(elements.size()).putLong(high).putLong(low).finish();
+    }
+
+    private static boolean isSupportedNumber(Object number) {
+        return number instanceof Integer || number instanceof Long || number instanceof Short || number instanceof Byte
+                || number instanceof Double || number instanceof Float
+                || number instanceof BigInteger || number instanceof BigDecimal;
+    }
+
+    /**
+     * @return fingerprint of all content put so far
+     */
+    public Fingerprint finish() {
+        long k1 = hasPending ? pending : 0;
+        if (hasPending) {
+            k1 *= C1;
+            k1 = Long.rotateLeft(k1, 31);
+            k1 *= C2;
+        }
+        long r1 = h1 ^ k1;
+        long r2 = h2;
+        r1 ^= lanes;
+        r2 ^= lanes;
+        r1 += r2;
+        r2 += r1;
+        r1 = fmix64(r1);
+        r2 = fmix64(r2);
+        r1 += r2;
+        r2 += r1;
+        return new Fingerprint(r1, r2);
+    }
+
+    /**
+     * Rough size in bytes of the data put, see {@link #putData(Object)}
+     */
+    public long getEstimatedBytes() {
+        return estimatedBytes;
+    }
+
+    private static long fmix64(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+
+}
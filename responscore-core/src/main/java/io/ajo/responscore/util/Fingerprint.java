@@ -0,0 +1,16 @@
+package io.ajo.responscore.util;
+
+/**
+ * 128-bit content fingerprint, see {@link ContentHasher}
+ */
+public record Fingerprint(long high, long low) {
+
+    /**
+     * @return fingerprint as 32 lowercase hex characters
+     */
+    @Override
+    public String toString() {
+        return String.format("%016x%016x", high, low);
+    }
+
+}
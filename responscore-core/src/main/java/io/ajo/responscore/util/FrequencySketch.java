@@ -0,0 +1,77 @@
+package io.ajo.responscore.util;
+
+/**
+ * Count-min sketch of 4-bit counters, estimating how often a hash has been seen recently. Once enough increments
+ * have been sampled every counter is halved, so estimates favour recent popularity.
+ */
+final class FrequencySketch {
+
+    private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+    };
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final int MAX_COUNT = 15;
+
+    private final long[] table;
+    private final int tableMask;
+    private final int sampleSize;
+    private int size;
+
+    /**
+     * @param expectedEntries number of distinct entries expected to be tracked
+     */
+    FrequencySketch(int expectedEntries) {
+        // one 64-bit word (16 counters) per entry, rounded up to a power of two
+        final int length = Integer.highestOneBit(Math.min(1 << 26, Math.max(16, expectedEntries)) - 1) << 1;
+        this.table = new long[length];
+        this.tableMask = length - 1;
+        this.sampleSize = 10 * length;
+    }
+
+    /**
+     * @return estimated number of times the hash has been incremented recently, at most {@value #MAX_COUNT}
+     */
+    int frequency(int hash) {
+        int frequency = MAX_COUNT;
+        for (int i = 0; i < SEEDS.length; i++) {
+            final long h = spread(hash, i);
+            final int shift = ((int) h & 15) << 2;
+            frequency = Math.min(frequency, (int) ((table[index(h)] >>> shift) & 0xF));
+        }
+        return frequency;
+    }
+
+    void increment(int hash) {
+        boolean added = false;
+        for (int i = 0; i < SEEDS.length; i++) {
+            final long h = spread(hash, i);
+            final int index = index(h);
+            final int shift = ((int) h & 15) << 2;
+            if (((table[index] >>> shift) & 0xF) < MAX_COUNT) {
+                table[index] += 1L << shift;
+                added = true;
+            }
+        }
+        if (added && ++size >= sampleSize) {
+            reset();
+        }
+    }
+
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        size /= 2;
+    }
+
+    private int index(long h) {
+        return (int) (h >>> 32) & tableMask;
+    }
+
+    private static long spread(int hash, int depth) {
+        long h = (hash + SEEDS[depth]) * SEEDS[depth];
+        h ^= h >>> 29;
+        return h;
+    }
+
+}
@@ -0,0 +1,32 @@
+package io.ajo.responscore.util;
+
+public class HashUtils {
+
+    /**
+     * Spreads the bits of a hash code, so hash codes differing only in the upper bits (or sequential values) don't
+     * cluster when masked to a power of two table size
+     * @param hash hash code
+     * @return mixed hash code
+     */
+    public static int mix(int hash) {
+        final int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Spreads all 64 bits of a value over the result (murmur3 finaliser), so values differing only in their upper or
+     * lower half don't cluster either
+     * @param value value to hash
+     * @return mixed hash
+     */
+    public static long mix64(long value) {
+        long h = value;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+}
@@ -0,0 +1,81 @@
+package io.ajo.responscore.util;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Open-addressing (linear probing) hash set of primitive {@code long} values, avoiding boxing for large sets of
+ * numbers. Only supports adding, which is all that is needed to detect duplicates.
+ * Values are hashed with a random seed of the set, so values can't be chosen to fall in one probe run.
+ */
+public final class LongHashSet {
+
+    private static final long EMPTY = 0L;
+
+    private final long seed = ThreadLocalRandom.current().nextLong();
+    private long[] keys;
+    private int mask;
+    private int size;
+    // the EMPTY marker value can't be stored in the table, so is tracked separately
+    private boolean containsEmpty;
+
+    /**
+     * @param expectedSize number of values expected to be added, the set grows if exceeded
+     */
+    public LongHashSet(int expectedSize) {
+        final int capacity = tableSizeFor(expectedSize);
+        this.keys = new long[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * @param value value to add
+     * @return {@literal true} if the value wasn't already present
+     */
+    public boolean add(long value) {
+        if (value == EMPTY) {
+            if (containsEmpty) {
+                return false;
+            }
+            containsEmpty = true;
+            return true;
+        }
+        int slot = slot(value);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == value) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = value;
+        if (++size > keys.length >> 1) {
+            resize();
+        }
+        return true;
+    }
+
+    private void resize() {
+        final long[] oldKeys = keys;
+        keys = new long[oldKeys.length << 1];
+        mask = keys.length - 1;
+        for (final long key : oldKeys) {
+            if (key != EMPTY) {
+                int slot = slot(key);
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+            }
+        }
+    }
+
+    private int slot(long value) {
+        return (int) HashUtils.mix64(value ^ seed) & mask;
+    }
+
+    static int tableSizeFor(int expectedSize) {
+        // keep the load factor at or below 0.5
+        final long target = Math.max(4L, (long) expectedSize * 2);
+        return (int) Math.min(1 << 30, Long.highestOneBit(target - 1) << 1);
+    }
+
+}
@@ -0,0 +1,92 @@
+package io.ajo.responscore.util;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Open-addressing (linear probing) hash set of non-null objects, compared by {@link Object#equals(Object)}. Only
+ * supports adding, which is all that is needed to detect duplicates.
+ * Hash codes are mixed with a random seed of the set, but equal hash codes, such as those of strings chosen to collide,
+ * still fall in one probe run, so once a probe runs too long the set moves its values to a {@link HashSet}, which
+ * keeps colliding values of comparable types such as strings in a tree.
+ */
+public final class ObjectHashSet {
+
+    /**
+     * Longest probe before falling back, far longer than any probe at a load factor of 0.5 unless hash codes collide
+     */
+    private static final int MAX_PROBE = 64;
+
+    private final int seed = ThreadLocalRandom.current().nextInt();
+    private Object[] keys;
+    private int mask;
+    private int size;
+    private Set<Object> fallback;
+
+    /**
+     * @param expectedSize number of values expected to be added, the set grows if exceeded
+     */
+    public ObjectHashSet(int expectedSize) {
+        final int capacity = LongHashSet.tableSizeFor(expectedSize);
+        this.keys = new Object[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * @param value non-null value to add
+     * @return {@literal true} if an equal value wasn't already present
+     */
+    public boolean add(Object value) {
+        if (fallback != null) {
+            return fallback.add(value);
+        }
+        int slot = slot(value);
+        int probes = 0;
+        while (keys[slot] != null) {
+            if (keys[slot].equals(value)) {
+                return false;
+            }
+            if (++probes > MAX_PROBE) {
+                fallBack();
+                return fallback.add(value);
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = value;
+        if (++size > keys.length >> 1) {
+            resize();
+        }
+        return true;
+    }
+
+    private void resize() {
+        final Object[] oldKeys = keys;
+        keys = new Object[oldKeys.length << 1];
+        mask = keys.length - 1;
+        for (final Object key : oldKeys) {
+            if (key != null) {
+                int slot = slot(key);
+                while (keys[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+            }
+        }
+    }
+
+    private void fallBack() {
+        fallback = new HashSet<>(keys.length);
+        for (final Object key : keys) {
+            if (key != null) {
+                fallback.add(key);
+            }
+        }
+        keys = null;
+    }
+
+    private int slot(Object value) {
+        return HashUtils.mix(value.hashCode() ^ seed) & mask;
+    }
+
+}
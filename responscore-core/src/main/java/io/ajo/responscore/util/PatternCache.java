@@ -0,0 +1,84 @@
+package io.ajo.responscore.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded, application wide cache of compiled regular expressions used by
+ * {@link io.ajo.responscore.config.ValidatorType#Pattern} validators. Each distinct expression (and matching mode) is
+ * compiled once and shared, the least recently used entries are evicted once {@link #MAX_ENTRIES} is reached.
+ */
+public class PatternCache {
+
+    /**
+     * Maximum number of compiled expressions held by the cache
+     */
+    public static final int MAX_ENTRIES = 1024;
+
+    private static final Map<Key, CompiledPattern> CACHE = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, CompiledPattern> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    /**
+     * Get the compiled form of the expression, compiling and caching it if not already present
+     * @param expression regular expression to compile
+     * @param linearTime if {@literal true} the expression is compiled for linear-time matching (RE2 semantics), which
+     *                   guarantees matching can't backtrack catastrophically but doesn't support back-references or
+     *                   look-around
+     * @return compiled pattern
+     * @throws IllegalArgumentException if the expression isn't a valid regular expression for the matching mode
+     */
+    public static CompiledPattern get(String expression, boolean linearTime) throws IllegalArgumentException {
+        final Key key = new Key(expression, linearTime);
+        synchronized (CACHE) {
+            final CompiledPattern cached = CACHE.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        // compile outside the lock, a concurrent compile of the same expression is harmless
+        final CompiledPattern compiled = compile(expression, linearTime);
+        synchronized (CACHE) {
+            final CompiledPattern existing = CACHE.putIfAbsent(key, compiled);
+            return existing != null ? existing : compiled;
+        }
+    }
+
+    /**
+     * Number of compiled expressions currently held
+     */
+    public static int size() {
+        synchronized (CACHE) {
+            return CACHE.size();
+        }
+    }
+
+    private static CompiledPattern compile(String expression, boolean linearTime) throws IllegalArgumentException {
+        try {
+            if (linearTime) {
+                final com.google.re2j.Pattern pattern = com.google.re2j.Pattern.compile(expression);
+                return input -> pattern.matcher(input).matches();
+            } else {
+                final java.util.regex.Pattern pattern = java.util.regex.Pattern.compile(expression);
+                return input -> pattern.matcher(input).matches();
+            }
+        } catch (java.util.regex.PatternSyntaxException | com.google.re2j.PatternSyntaxException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+    }
+
+    @FunctionalInterface
+    public interface CompiledPattern {
+        /**
+         * @param input character sequence to match
+         * @return {@literal true} if the entire input matches the expression
+         */
+        boolean matches(CharSequence input);
+    }
+
+    private record Key(String expression, boolean linearTime) {}
+
+}
@@ -0,0 +1,148 @@
+package io.ajo.responscore.util;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent computations of the same key, so while a computation is in flight any other call for its key
+ * waits for and shares its result rather than computing it again. The first caller computes on its own thread,
+ * nothing is retained once the computation completes, so later calls compute afresh.
+ */
+public final class SingleFlight<K, V> {
+
+    /**
+     * How often a caller waiting on a computation in flight checks its deadline and whether it's cancelled
+     */
+    private static final Duration POLL = Duration.ofMillis(10);
+
+    /**
+     * @param value result of the computation
+     * @param shared {@literal true} if the result was computed by another caller
+     */
+    public record Result<V>(V value, boolean shared) {}
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder shares = new LongAdder();
+
+    /**
+     * Compute the value of the key, or share the result of a computation of the key already in flight
+     * @param key key of the computation, must have value semantics
+     * @param computation computation of the value, run on the calling thread if nothing is in flight
+     * @return result of the computation, and whether it was shared
+     */
+    public Result<V> execute(K key, Supplier<V> computation) {
+        return execute(key, computation, null, null);
+    }
+
+    /**
+     * Compute the value of the key, or share the result of a computation of the key already in flight, waiting for it
+     * only until the caller's own deadline passes or it's cancelled. The caller then runs the computation itself,
+     * unshared, so joining a longer computation never holds a caller past its own limits
+     * @param key key of the computation, must have value semantics
+     * @param computation computation of the value, run on the calling thread if nothing is in flight or the wait is
+     *                    given up
+     * @param deadline time to give up waiting by, or {@literal null} for none
+     * @param cancelled whether to give up waiting, checked periodically while waiting, or {@literal null} for never
+     * @return result of the computation, and whether it was shared
+     */
+    public Result<V> execute(K key, Supplier<V> computation, Instant deadline, BooleanSupplier cancelled) {
+        final CompletableFuture<V> future = new CompletableFuture<>();
+        final CompletableFuture<V> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            shares.increment();
+            if (waitFor(existing, deadline, cancelled)) {
+                return new Result<>(await(existing), true);
+            }
+            shares.decrement();
+            executions.increment();
+            return new Result<>(computation.get(), false);
+        }
+        executions.increment();
+        try {
+            final V value = computation.get();
+            future.complete(value);
+            return new Result<>(value, false);
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    /**
+     * Number of computations run
+     */
+    public long getExecutions() {
+        return executions.sum();
+    }
+
+    /**
+     * Number of calls which shared the result of another
+     */
+    public long getShares() {
+        return shares.sum();
+    }
+
+    /**
+     * @return {@literal true} if the computation completed, {@literal false} if the wait was given up first
+     */
+    private static boolean waitFor(CompletableFuture<?> future, Instant deadline, BooleanSupplier cancelled) {
+        if (deadline == null && cancelled == null) {
+            return true;
+        }
+        while (!future.isDone()) {
+            if (cancelled != null && cancelled.getAsBoolean()) {
+                return false;
+            }
+            Duration wait = POLL;
+            if (deadline != null) {
+                final Duration remaining = Duration.between(Instant.now(), deadline);
+                if (remaining.isNegative() || remaining.isZero()) {
+                    return false;
+                }
+                if (remaining.compareTo(wait) < 0) {
+                    wait = remaining;
+                }
+            }
+            try {
+                future.get(wait.toNanos(), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                // checked again above
+            } catch (ExecutionException e) {
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static <V> V await(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            // rethrow what the computation threw, as the caller computing it saw
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+}
@@ -0,0 +1,228 @@
+package io.ajo.responscore.util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.ToLongBiFunction;
+
+/**
+ * Bounded cache using W-TinyLFU eviction. New entries enter a small LRU window, entries leaving the window only
+ * displace an entry of the main segmented LRU (probation and protected) if a {@link FrequencySketch} estimates they
+ * are used more often. This keeps one-off entries from flushing out popular ones.
+ * The cache is bounded by the total weight of its entries, rather than their number. All methods are synchronized.
+ */
+public final class TinyLfuCache<K, V> {
+
+    private static final int WINDOW = 0;
+    private static final int PROBATION = 1;
+    private static final int PROTECTED = 2;
+
+    private final long maximumWeight;
+    private final long windowMaximum;
+    private final long protectedMaximum;
+    private final ToLongBiFunction<K, V> weigher;
+    private final FrequencySketch sketch;
+    private final Map<K, Node<K, V>> data = new HashMap<>();
+    private final Queue<K, V> window = new Queue<>();
+    private final Queue<K, V> probation = new Queue<>();
+    private final Queue<K, V> protect = new Queue<>();
+
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    /**
+     * @param maximumWeight maximum total weight of entries
+     * @param expectedEntries number of entries expected to be cached, sizes the frequency sketch
+     * @param weigher weight of an entry, such as its approximate size in bytes
+     */
+    public TinyLfuCache(long maximumWeight, int expectedEntries, ToLongBiFunction<K, V> weigher) {
+        if (maximumWeight <= 0) {
+            throw new IllegalArgumentException("maximumWeight must be positive");
+        }
+        this.maximumWeight = maximumWeight;
+        this.windowMaximum = Math.max(1, maximumWeight / 100);
+        this.protectedMaximum = (maximumWeight - windowMaximum) * 8 / 10;
+        this.weigher = weigher;
+        this.sketch = new FrequencySketch(expectedEntries);
+    }
+
+    /**
+     * @return cached value, or {@literal null} if not present
+     */
+    public synchronized V get(K key) {
+        sketch.increment(hash(key));
+        final Node<K, V> node = data.get(key);
+        if (node == null) {
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        switch (node.queue) {
+            case WINDOW -> window.moveToTail(node);
+            case PROBATION -> {
+                // promote, demoting the least recently used protected entries if it overflows
+                probation.remove(node);
+                node.queue = PROTECTED;
+                protect.addLast(node);
+                while (protect.weight > protectedMaximum && protect.head != node) {
+                    final Node<K, V> demoted = protect.head;
+                    protect.remove(demoted);
+                    demoted.queue = PROBATION;
+                    probation.addLast(demoted);
+                }
+            }
+            default -> protect.moveToTail(node);
+        }
+        return node.value;
+    }
+
+    /**
+     * Caches the value, replacing any existing value of the key. Values weighing more than the maximum weight are
+     * never cached
+     */
+    public synchronized void put(K key, V value) {
+        final Node<K, V> existing = data.remove(key);
+        if (existing != null) {
+            queueOf(existing).remove(existing);
+        }
+        final long weight = weigher.applyAsLong(key, value);
+        if (weight > maximumWeight) {
+            return;
+        }
+        sketch.increment(hash(key));
+        final Node<K, V> node = new Node<>(key, value, weight);
+        data.put(key, node);
+        window.addLast(node);
+        evict();
+    }
+
+    public synchronized void invalidateAll() {
+        data.clear();
+        window.clear();
+        probation.clear();
+        protect.clear();
+    }
+
+    public synchronized CacheStats stats() {
+        return new CacheStats(hitCount, missCount, evictionCount, data.size(), weight());
+    }
+
+    private void evict() {
+        // entries overflowing the window become candidates for the main segments
+        Node<K, V> candidate = null;
+        while (window.weight > windowMaximum && window.head != null) {
+            final Node<K, V> node = window.head;
+            window.remove(node);
+            node.queue = PROBATION;
+            probation.addLast(node);
+            if (candidate == null) {
+                candidate = node;
+            }
+        }
+        while (weight() > maximumWeight) {
+            final Node<K, V> victim = probation.head != null ? probation.head : protect.head;
+            if (victim == null) {
+                evict(window.head);
+            } else if (candidate == null || victim == candidate) {
+                if (victim == candidate) {
+                    candidate = candidate.next;
+                }
+                evict(victim);
+            } else if (sketch.frequency(hash(candidate.key)) > sketch.frequency(hash(victim.key))) {
+                evict(victim);
+            } else {
+                final Node<K, V> next = candidate.next;
+                evict(candidate);
+                candidate = next;
+            }
+        }
+    }
+
+    private void evict(Node<K, V> node) {
+        queueOf(node).remove(node);
+        data.remove(node.key);
+        evictionCount++;
+    }
+
+    private long weight() {
+        return window.weight + probation.weight + protect.weight;
+    }
+
+    private Queue<K, V> queueOf(Node<K, V> node) {
+        return switch (node.queue) {
+            case WINDOW -> window;
+            case PROBATION -> probation;
+            default -> protect;
+        };
+    }
+
+    private static int hash(Object key) {
+        return HashUtils.mix(key.hashCode());
+    }
+
+    private static final class Node<K, V> {
+        private final K key;
+        private final V value;
+        private final long weight;
+        private int queue = WINDOW;
+        private Node<K, V> prev;
+        private Node<K, V> next;
+
+        private Node(K key, V value, long weight) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * Intrusive doubly linked list of nodes, head is the least recently used
+     */
+    private static final class Queue<K, V> {
+        private Node<K, V> head;
+        private Node<K, V> tail;
+        private long weight;
+
+        private void addLast(Node<K, V> node) {
+            node.prev = tail;
+            node.next = null;
+            if (tail == null) {
+                head = node;
+            } else {
+                tail.next = node;
+            }
+            tail = node;
+            weight += node.weight;
+        }
+
+        private void remove(Node<K, V> node) {
+            if (node.prev == null) {
+                head = node.next;
+            } else {
+                node.prev.next = node.next;
+            }
+            if (node.next == null) {
+                tail = node.prev;
+            } else {
+                node.next.prev = node.prev;
+            }
+            node.prev = null;
+            node.next = null;
+            weight -= node.weight;
+        }
+
+        private void moveToTail(Node<K, V> node) {
+            if (node != tail) {
+                remove(node);
+                addLast(node);
+            }
+        }
+
+        private void clear() {
+            head = null;
+            tail = null;
+            weight = 0;
+        }
+    }
+
+}
@@ -0,0 +1,118 @@
+package io.ajo.responscore.util;
+
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Tracks the items of a single list to detect duplicates for
+ * {@link io.ajo.responscore.config.ValidatorType#UniqueItems}, in linear time.
+ * Numbers are compared by numeric value, integral values are kept in a primitive {@link LongHashSet}, all other values
+ * in an {@link ObjectHashSet}. When a field is set, items are compared by the value of that field of the composite.
+ */
+public final class UniqueItemsTracker {
+
+    private final String field;
+    private final int expectedSize;
+    // created on first use, as lists are rarely of both numbers and other values
+    private LongHashSet longs;
+    private ObjectHashSet objects;
+    private boolean nullSeen;
+
+    /**
+     * @param field composite field to compare items by, or {@literal null} to compare whole items
+     * @param expectedSize number of items in the list
+     */
+    public UniqueItemsTracker(String field, int expectedSize) {
+        this.field = field;
+        this.expectedSize = expectedSize;
+    }
+
+    /**
+     * @param item next item of the list
+     * @return {@literal true} if no equal item has been added before
+     */
+    public boolean add(Object item) {
+        final Object value = field == null
+                ? item
+                : item instanceof Map ? ((Map<?, ?>) item).get(field) : null;
+        if (value == null) {
+            if (nullSeen) {
+                return false;
+            }
+            nullSeen = true;
+            return true;
+        }
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return addLong(((Number) value).longValue());
+        }
+        if (value instanceof BigInteger) {
+            final BigInteger bigInteger = (BigInteger) value;
+            return bigInteger.bitLength() < Long.SIZE ? addLong(bigInteger.longValue()) : addObject(bigInteger);
+        }
+        if (value instanceof BigDecimal) {
+            return addDecimal((BigDecimal) value);
+        }
+        if (value instanceof Double || value instanceof Float) {
+            final double d = ((Number) value).doubleValue();
+            return Double.isFinite(d) ? addDecimal(BigDecimal.valueOf(d)) : addObject(value);
+        }
+        return addObject(value);
+    }
+
+    private boolean addLong(long value) {
+        if (longs == null) {
+            longs = new LongHashSet(expectedSize);
+        }
+        return longs.add(value);
+    }
+
+    private boolean addObject(Object value) {
+        if (objects == null) {
+            objects = new ObjectHashSet(expectedSize);
+        }
+        return objects.add(value);
+    }
+
+    private boolean addDecimal(BigDecimal decimal) {
+        // compare by numeric value, so 1.0 and 1.00 (and 1) are equal
+        final BigDecimal stripped = decimal.signum() == 0 ? BigDecimal.ZERO : decimal.stripTrailingZeros();
+        if (stripped.scale() <= 0 && stripped.precision() - stripped.scale() < 19) {
+            return addLong(stripped.longValueExact());
+        }
+        return addObject(stripped);
+    }
+
+    /**
+     * Check a whole list for duplicates, used by {@link io.ajo.responscore.config.Validator#validate(Object)}
+     * @param data collection or array of items
+     * @param field composite field to compare items by, or {@literal null} to compare whole items
+     * @return {@literal true} if the data is a list without duplicates
+     */
+    public static boolean allUnique(Object data, String field) {
+        if (data instanceof Collection) {
+            final Collection<?> collection = (Collection<?>) data;
+            final UniqueItemsTracker tracker = new UniqueItemsTracker(field, collection.size());
+            for (final Object item : collection) {
+                if (!tracker.add(item)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (data != null && data.getClass().isArray()) {
+            final int length = Array.getLength(data);
+            final UniqueItemsTracker tracker = new UniqueItemsTracker(field, length);
+            for (int i = 0; i < length; i++) {
+                if (!tracker.add(Array.get(data, i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+}
@@ -5,19 +5,63 @@ import org.hibernate.validator.internal.engine.constraintvalidation.ConstraintVa
 
 import javax.validation.ConstraintValidatorContext;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class ConstraintViolationBuilder {
 
+    /**
+     * Receives the violations of a builder without a {@link ConstraintValidatorContext}, so checks written against the
+     * builder can also be run outside of bean validation
+     */
+    @FunctionalInterface
+    public interface Sink {
+        /**
+         * @param path property path of the violation, as {@link javax.validation.Path#toString()} renders it
+         * @param messageTemplate template of the message
+         * @param messageParameters parameters to interpolate into the message
+         */
+        void violation(String path, String messageTemplate, Map<String, String> messageParameters);
+    }
+
     private final ConstraintValidatorContext ctx;
+    private final Sink sink;
+    /**
+     * Message parameters added to this builder, only kept when building to a {@link Sink}, created on first use
+     */
+    private Map<String, String> messageParameters;
+    /**
+     * Builder this was cloned from, the first {@link #parentSize} of its segments prefix the path of this builder.
+     * Segments are only ever appended, so sharing the prefix makes cloning constant time regardless of path depth
+     */
+    private final ConstraintViolationBuilder parent;
+    private final int parentSize;
     private final List<PropertyPathSegment> segments = new ArrayList<>();
 
-    private ConstraintViolationBuilder(ConstraintValidatorContext ctx) {
+    private ConstraintViolationBuilder(
+            ConstraintValidatorContext ctx,
+            Sink sink,
+            ConstraintViolationBuilder parent,
+            int parentSize
+    ) {
         this.ctx = ctx;
+        this.sink = sink;
+        this.parent = parent;
+        this.parentSize = parentSize;
     }
 
     public static ConstraintViolationBuilder builder(ConstraintValidatorContext ctx) {
-        return new ConstraintViolationBuilder(ctx);
+        return new ConstraintViolationBuilder(ctx, null, null, 0);
+    }
+
+    /**
+     * @param sink sink to build violations to
+     * @return builder of violations to the sink rather than a {@link ConstraintValidatorContext}
+     */
+    public static ConstraintViolationBuilder builder(Sink sink) {
+        return new ConstraintViolationBuilder(null, sink, null, 0);
     }
 
     /**
@@ -26,9 +70,7 @@ public class ConstraintViolationBuilder {
      * @return cloned constraint builder
      */
     public static ConstraintViolationBuilder from(ConstraintViolationBuilder other) {
-        final ConstraintViolationBuilder clone = builder(other.ctx);
-        clone.segments.addAll(other.segments);
-        return clone;
+        return new ConstraintViolationBuilder(other.ctx, other.sink, other, other.segments.size());
     }
 
     /**
@@ -38,7 +80,14 @@ public class ConstraintViolationBuilder {
      * @return this instance for chaining
      */
     public ConstraintViolationBuilder addMessageParameter(String parameter, String value) {
-        ((ConstraintValidatorContextImpl) ctx).addMessageParameter(parameter, value);
+        if (sink != null) {
+            if (messageParameters == null) {
+                messageParameters = new HashMap<>();
+            }
+            messageParameters.put(parameter, value);
+        } else {
+            ((ConstraintValidatorContextImpl) ctx).addMessageParameter(parameter, value);
+        }
         return this;
     }
 
@@ -66,6 +115,15 @@ public class ConstraintViolationBuilder {
      * Terminating operation
      */
     public void build(String messageTemplate) {
+        final List<PropertyPathSegment> segments = collectSegments();
+        if (sink != null) {
+            final StringBuilder path = new StringBuilder();
+            for (final PropertyPathSegment segment : segments) {
+                segment.appendPath(path);
+            }
+            sink.violation(path.toString(), messageTemplate, collectMessageParameters());
+            return;
+        }
         final ConstraintValidatorContext.ConstraintViolationBuilder builder = ctx.buildConstraintViolationWithTemplate(messageTemplate);
         if (segments.isEmpty()) {
             builder.addConstraintViolation().disableDefaultConstraintViolation();
@@ -78,4 +136,36 @@ public class ConstraintViolationBuilder {
             nodeCtx.addConstraintViolation().disableDefaultConstraintViolation();
         }
     }
-}
+
+    /**
+     * @return message parameters added to this builder and those it was cloned from, later ones taking precedence
+     */
+    private Map<String, String> collectMessageParameters() {
+        final Map<String, String> collected = parent != null ? parent.collectMessageParameters() : new HashMap<>();
+        if (messageParameters != null) {
+            collected.putAll(messageParameters);
+        }
+        return collected;
+    }
+
+    /**
+     * @return segments of the full path, including those shared with the builders this was cloned from
+     */
+    private List<PropertyPathSegment> collectSegments() {
+        if (parent == null) {
+            return segments;
+        }
+        final List<PropertyPathSegment> collected = new ArrayList<>(segments);
+        Collections.reverse(collected);
+        ConstraintViolationBuilder builder = this;
+        while (builder.parent != null) {
+            final int size = builder.parentSize;
+            builder = builder.parent;
+            for (int i = size - 1; i >= 0; i--) {
+                collected.add(builder.segments.get(i));
+            }
+        }
+        Collections.reverse(collected);
+        return collected;
+    }
+}
\ No newline at end of file
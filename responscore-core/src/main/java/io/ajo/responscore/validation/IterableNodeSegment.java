@@ -17,4 +17,9 @@ public record IterableNodeSegment(Integer index) implements PropertyPathSegment
     ) {
         return ctx.addPropertyNode(null).inContainer(List.class, index);
     }
+
+    @Override
+    public void appendPath(StringBuilder path) {
+        path.append('[').append(index != null ? index.toString() : "").append(']');
+    }
 }
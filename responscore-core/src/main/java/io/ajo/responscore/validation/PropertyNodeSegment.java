@@ -17,4 +17,12 @@ public record PropertyNodeSegment(String propertyNode) implements PropertyPathSe
     ) {
         return ctx.addPropertyNode(propertyNode);
     }
+
+    @Override
+    public void appendPath(StringBuilder path) {
+        if (!path.isEmpty()) {
+            path.append('.');
+        }
+        path.append(propertyNode);
+    }
 }
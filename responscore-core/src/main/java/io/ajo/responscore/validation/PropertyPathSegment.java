@@ -12,4 +12,9 @@ public interface PropertyPathSegment {
         ConstraintValidatorContext.ConstraintViolationBuilder ctx
     );
 
+    /**
+     * Append the segment to the path as {@link javax.validation.Path#toString()} renders it
+     */
+    void appendPath(StringBuilder path);
+
 }
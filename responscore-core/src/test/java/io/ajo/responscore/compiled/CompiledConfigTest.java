@@ -0,0 +1,149 @@
+package io.ajo.responscore.compiled;
+
+import io.ajo.responscore.config.Attribute;
+import io.ajo.responscore.config.CompositeTypeConfig;
+import io.ajo.responscore.config.Config;
+import io.ajo.responscore.config.LookupConfig;
+import io.ajo.responscore.config.LookupItem;
+import io.ajo.responscore.config.Type;
+import io.ajo.responscore.config.Validator;
+import io.ajo.responscore.config.ValidatorType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+@DisplayName("Compiled Config Test")
+public class CompiledConfigTest {
+
+    private static Attribute numberAttribute(BigDecimal max) {
+        return Attribute.builder()
+                .code("number")
+                .label("number")
+                .type(Type.INTEGER)
+                .validators(List.of(
+                        Validator.builder()
+                                .type(ValidatorType.Max)
+                                .value(max)
+                                .build()
+                ))
+                .build();
+    }
+
+    private static LookupConfig lookupConfig() {
+        return LookupConfig.builder()
+                .code("lookupCode")
+                .lookupItems(Set.of(
+                        LookupItem.builder().code("a").label("A").build(),
+                        LookupItem.builder().code("b").label("B").build()
+                ))
+                .build();
+    }
+
+    private static CompositeTypeConfig compositeTypeConfig() {
+        return CompositeTypeConfig.builder()
+                .code("compositeCode")
+                .attributes(Set.of(
+                        Attribute.builder()
+                                .code("choice")
+                                .label("choice")
+                                .type(Type.LOOKUP)
+                                .lookupCode("lookupCode")
+                                .build(),
+                        Attribute.builder()
+                                .code("child")
+                                .label("child")
+                                .type(Type.COMPOSITE)
+                                .compositeCode("compositeCode")
+                                .build()
+                ))
+                .build();
+    }
+
+    private static Config config(Attribute numberAttribute, LookupConfig lookupConfig, CompositeTypeConfig compositeTypeConfig) {
+        final Set<Attribute> attributes = new LinkedHashSet<>();
+        attributes.add(numberAttribute);
+        attributes.add(Attribute.builder()
+                .code("composite")
+                .label("composite")
+                .type(Type.COMPOSITE)
+                .compositeCode("compositeCode")
+                .build());
+        return Config.builder()
+                .attributes(attributes)
+                .lookupConfigs(Set.of(lookupConfig))
+                .compositeTypeConfigs(Set.of(compositeTypeConfig))
+                .build();
+    }
+
+    @Test
+    @DisplayName("Test Fingerprint Covers Content")
+    public void testFingerprintCoversContent() {
+        final Config config = config(numberAttribute(BigDecimal.TEN), lookupConfig(), compositeTypeConfig());
+        final Config equalConfig = config(numberAttribute(BigDecimal.TEN), lookupConfig(), compositeTypeConfig());
+        final Config changedConfig = config(numberAttribute(BigDecimal.ONE), lookupConfig(), compositeTypeConfig());
+
+        assertEquals(CompiledConfig.compile(config).getFingerprint(), CompiledConfig.compile(equalConfig).getFingerprint());
+        // attributes only compare equal by code, the fingerprint sees the changed validator
+        assertEquals(config, changedConfig);
+        assertNotEquals(CompiledConfig.compile(config).getFingerprint(), CompiledConfig.compile(changedConfig).getFingerprint());
+    }
+
+    @Test
+    @DisplayName("Test Recompile Reuses Unchanged Subtrees")
+    public void testRecompileReusesUnchangedSubtrees() {
+        final LookupConfig lookupConfig = lookupConfig();
+        final CompositeTypeConfig compositeTypeConfig = compositeTypeConfig();
+        final CompiledConfig previous = CompiledConfig.compile(config(numberAttribute(BigDecimal.TEN), lookupConfig, compositeTypeConfig));
+
+        final Config edited = config(numberAttribute(BigDecimal.ONE), lookupConfig, compositeTypeConfig);
+        final CompiledConfig recompiled = CompiledConfig.compile(edited, previous);
+
+        assertSame(previous.getLookup("lookupCode"), recompiled.getLookup("lookupCode"));
+        assertSame(
+                previous.getComposite("compositeCode").getAttribute("choice").getValidators(),
+                recompiled.getComposite("compositeCode").getAttribute("choice").getValidators()
+        );
+        assertNotSame(
+                previous.getRoot().getAttribute("number").getValidators(),
+                recompiled.getRoot().getAttribute("number").getValidators()
+        );
+        // references are resolved against the new compilation
+        assertSame(recompiled.getLookup("lookupCode"), recompiled.getComposite("compositeCode").getAttribute("choice").getLookup());
+        assertSame(recompiled.getComposite("compositeCode"), recompiled.getRoot().getAttribute("composite").getComposite());
+
+        assertEquals(CompiledConfig.compile(edited).getFingerprint(), recompiled.getFingerprint());
+        assertNotEquals(previous.getFingerprint(), recompiled.getFingerprint());
+        assertEquals(previous.getComposite("compositeCode").getFingerprint(), recompiled.getComposite("compositeCode").getFingerprint());
+    }
+
+    @Test
+    @DisplayName("Test Recompile Reuses Unchanged Composites Whole")
+    public void testRecompileReusesUnchangedCompositesWhole() {
+        final LookupConfig lookupConfig = lookupConfig();
+        final CompositeTypeConfig compositeTypeConfig = compositeTypeConfig();
+        final Attribute numberAttribute = numberAttribute(BigDecimal.TEN);
+        final CompiledConfig previous = CompiledConfig.compile(config(numberAttribute, lookupConfig, compositeTypeConfig));
+
+        final CompiledConfig numberEdited = CompiledConfig.compile(config(numberAttribute(BigDecimal.ONE), lookupConfig, compositeTypeConfig), previous);
+        assertSame(previous.getComposite("compositeCode"), numberEdited.getComposite("compositeCode"));
+        assertNotSame(previous.getRoot(), numberEdited.getRoot());
+
+        // the composite references the changed lookup, so is compiled again, as is the root referencing the composite
+        final Config lookupEdited = config(numberAttribute, lookupConfig(), compositeTypeConfig);
+        final CompiledConfig recompiled = CompiledConfig.compile(lookupEdited, previous);
+        assertNotSame(previous.getComposite("compositeCode"), recompiled.getComposite("compositeCode"));
+        assertSame(recompiled.getLookup("lookupCode"), recompiled.getComposite("compositeCode").getAttribute("choice").getLookup());
+        assertSame(recompiled.getComposite("compositeCode"), recompiled.getRoot().getAttribute("composite").getComposite());
+        assertEquals(CompiledConfig.compile(lookupEdited).getFingerprint(), recompiled.getFingerprint());
+    }
+
+}
@@ -0,0 +1,147 @@
+package io.ajo.responscore.compiled;
+
+import io.ajo.responscore.config.Attribute;
+import io.ajo.responscore.config.CompositeTypeConfig;
+import io.ajo.responscore.config.Config;
+import io.ajo.responscore.config.LookupConfig;
+import io.ajo.responscore.config.LookupItem;
+import io.ajo.responscore.config.Type;
+import io.ajo.responscore.config.Validator;
+import io.ajo.responscore.config.ValidatorType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Config Diff Test")
+public class ConfigDiffTest {
+
+    private static Attribute number(String label, BigDecimal max) {
+        return Attribute.builder()
+                .code("number")
+                .label(label)
+                .type(Type.INTEGER)
+                .validators(List.of(Validator.builder().type(ValidatorType.Max).value(max).build()))
+                .build();
+    }
+
+    private static Config config(Attribute number, Set<LookupItem> items, boolean withPet) {
+        final Set<Attribute> attributes = new LinkedHashSet<>();
+        attributes.add(number);
+        attributes.add(Attribute.builder().code("address").label("Address").type(Type.COMPOSITE).compositeCode("address").build());
+        final Set<CompositeTypeConfig> compositeTypeConfigs = new LinkedHashSet<>();
+        compositeTypeConfigs.add(CompositeTypeConfig.builder()
+                .code("address")
+                .attributes(Set.of(Attribute.builder().code("country").label("Country").type(Type.LOOKUP).lookupCode("country").build()))
+                .build());
+        if (withPet) {
+            compositeTypeConfigs.add(CompositeTypeConfig.builder()
+                    .code("pet")
+                    .attributes(Set.of(Attribute.builder().code("kind").label("Kind").type(Type.STRING).build()))
+                    .build());
+        }
+        return Config.builder()
+                .attributes(attributes)
+                .compositeTypeConfigs(compositeTypeConfigs)
+                .lookupConfigs(Set.of(LookupConfig.builder().code("country").lookupItems(items).build()))
+                .build();
+    }
+
+    private static LookupItem item(String code, String label) {
+        return LookupItem.builder().code(code).label(label).build();
+    }
+
+    @Test
+    @DisplayName("Test Label Change Keeps Validation Fingerprint")
+    public void testLabelChangeKeepsValidationFingerprint() {
+        final Set<LookupItem> items = Set.of(item("AU", "Australia"));
+        final CompiledConfig previous = CompiledConfig.compile(config(number("Nubmer", BigDecimal.TEN), items, false));
+        final CompiledConfig current = CompiledConfig.compile(config(number("Number", BigDecimal.TEN), items, false));
+
+        final ConfigDiff diff = ConfigDiff.between(previous, current);
+        assertEquals(
+                List.of(new ConfigDiff.AttributeDiff(null, "number", ConfigDiff.Change.CHANGED, Set.of(ConfigDiff.Aspect.LABEL))),
+                diff.getAttributes()
+        );
+        assertTrue(diff.getLookups().isEmpty());
+        assertTrue(diff.getComposites().isEmpty());
+        assertFalse(diff.isValidationChanged());
+        assertNotEquals(previous.getFingerprint(), current.getFingerprint());
+        assertEquals(previous.getValidationFingerprint(), current.getValidationFingerprint());
+
+        assertTrue(ConfigDiff.between(current, CompiledConfig.compile(current.getConfig())).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test Reports Changed Subtrees")
+    public void testReportsChangedSubtrees() {
+        final CompiledConfig previous = CompiledConfig.compile(config(
+                number("Number", BigDecimal.TEN),
+                Set.of(item("AU", "Australia"), item("NZ", "New Zealand")),
+                true
+        ));
+        final CompiledConfig current = CompiledConfig.compile(config(
+                number("Number", BigDecimal.ONE),
+                Set.of(item("AU", "Straya"), item("FJ", "Fiji")),
+                false
+        ));
+
+        final ConfigDiff diff = ConfigDiff.between(previous, current);
+        assertEquals(
+                List.of(new ConfigDiff.AttributeDiff(null, "number", ConfigDiff.Change.CHANGED, Set.of(ConfigDiff.Aspect.VALIDATORS))),
+                diff.getAttributes()
+        );
+        assertEquals(
+                List.of(new ConfigDiff.LookupDiff("country", ConfigDiff.Change.CHANGED, Set.of("FJ"), Set.of("NZ"), Set.of("AU"))),
+                diff.getLookups()
+        );
+        // the address composite references the lookup by code, so is unchanged
+        assertEquals(List.of(new ConfigDiff.CompositeDiff("pet", ConfigDiff.Change.REMOVED)), diff.getComposites());
+        assertTrue(diff.isValidationChanged());
+    }
+
+    @Test
+    @DisplayName("Test Compares Dictionary Items In Place")
+    public void testComparesDictionaryItemsInPlace(@TempDir Path directory) throws IOException {
+        final Path previousDictionary = directory.resolve("previous.dict");
+        final Path currentDictionary = directory.resolve("current.dict");
+        LookupDictionary.write(previousDictionary, List.of(
+                item("AT", "Austria"), item("AU", "Australia"), item("NZ", "New Zealand"), item("\u00c5X", "Aland")));
+        LookupDictionary.write(currentDictionary, List.of(
+                item("AT", "Austria"), item("AU", "Straya"), item("FJ", "Fiji"), item("\u00c5X", "Aland")));
+
+        final ConfigDiff.LookupDiff expected = new ConfigDiff.LookupDiff(
+                "country", ConfigDiff.Change.CHANGED, Set.of("FJ"), Set.of("NZ"), Set.of("AU"));
+        assertEquals(List.of(expected), ConfigDiff.between(dictionaryConfig(previousDictionary), dictionaryConfig(currentDictionary)).getLookups());
+
+        // and against the items held by a config, in either direction
+        final CompiledConfig inline = CompiledConfig.compile(config(number("Number", BigDecimal.TEN), Set.of(
+                item("AT", "Austria"), item("AU", "Straya"), item("FJ", "Fiji"), item("\u00c5X", "Aland")), false));
+        assertEquals(List.of(expected), ConfigDiff.between(dictionaryConfig(previousDictionary), inline).getLookups());
+        assertEquals(
+                List.of(new ConfigDiff.LookupDiff("country", ConfigDiff.Change.CHANGED, Set.of("NZ"), Set.of("FJ"), Set.of("AU"))),
+                ConfigDiff.between(inline, dictionaryConfig(previousDictionary)).getLookups()
+        );
+    }
+
+    private static CompiledConfig dictionaryConfig(Path dictionary) {
+        final Config config = config(number("Number", BigDecimal.TEN), Set.of(), false);
+        return CompiledConfig.compile(Config.builder()
+                .attributes(config.getAttributes())
+                .compositeTypeConfigs(config.getCompositeTypeConfigs())
+                .lookupConfigs(Set.of(LookupConfig.builder().code("country").dictionary(dictionary.toString()).build()))
+                .build());
+    }
+
+}
@@ -0,0 +1,109 @@
+package io.ajo.responscore.compiled;
+
+import io.ajo.responscore.config.Attribute;
+import io.ajo.responscore.config.Config;
+import io.ajo.responscore.config.LookupConfig;
+import io.ajo.responscore.config.LookupItem;
+import io.ajo.responscore.config.Type;
+import io.ajo.responscore.config.Validator;
+import io.ajo.responscore.config.ValidatorType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Config Snapshot Test")
+public class ConfigSnapshotTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Test Round Trip")
+    public void testRoundTrip() throws IOException {
+        final CompiledConfig people = CompiledConfig.compile(Config.builder()
+                .attributes(Set.of(
+                        Attribute.builder().code("name").label("Name").type(Type.STRING).required(true).build(),
+                        Attribute.builder().code("age").label("Age").type(Type.INTEGER)
+                                .validators(List.of(Validator.builder().type(ValidatorType.Min).value(BigDecimal.ZERO).build()))
+                                .build(),
+                        Attribute.builder().code("country").label("Country").type(Type.LOOKUP).lookupCode("countries").build()
+                ))
+                .lookupConfigs(Set.of(LookupConfig.builder()
+                        .code("countries")
+                        .lookupItems(Set.of(LookupItem.builder().code("AU").label("Australia").build()))
+                        .build()))
+                .build());
+        final CompiledConfig empty = CompiledConfig.compile(Config.builder().build());
+        final Path path = directory.resolve("configs.snapshot");
+        new ConfigSnapshot.Writer().add("people", people).add("empty", empty).write(path);
+
+        final ConfigSnapshot snapshot = ConfigSnapshot.open(path);
+        assertEquals(Set.of("people", "empty"), snapshot.getIds());
+        assertEquals(people.getFingerprint(), snapshot.getFingerprint("people"));
+        assertNull(snapshot.getFingerprint("unknown"));
+        assertNull(snapshot.get("unknown"));
+
+        final CompiledConfig restored = snapshot.get("people");
+        assertEquals(people.getFingerprint(), restored.getFingerprint());
+        assertTrue(restored.getLookup("countries").contains("AU"));
+        // materialised once
+        assertSame(restored, snapshot.get("people"));
+
+        // copied without materialising, while the snapshot it's copied from is open on the same file
+        new ConfigSnapshot.Writer().copy("empty", snapshot).write(path);
+        final ConfigSnapshot copied = ConfigSnapshot.open(path);
+        assertEquals(Set.of("empty"), copied.getIds());
+        assertEquals(empty.getFingerprint(), copied.get("empty").getFingerprint());
+        assertNotNull(snapshot.get("empty"));
+    }
+
+    @Test
+    @DisplayName("Test Stale When Dictionary Changes")
+    public void testStaleWhenDictionaryChanges() throws IOException {
+        final Path dictionary = directory.resolve("countries.dict");
+        LookupDictionary.write(dictionary, List.of(LookupItem.builder().code("AU").label("Australia").build()));
+        final CompiledConfig config = CompiledConfig.compile(Config.builder()
+                .attributes(Set.of(
+                        Attribute.builder().code("country").label("Country").type(Type.LOOKUP).lookupCode("countries").build()
+                ))
+                .lookupConfigs(Set.of(LookupConfig.builder().code("countries").dictionary(dictionary.toString()).build()))
+                .build());
+        final Path path = directory.resolve("configs.snapshot");
+        new ConfigSnapshot.Writer().add("countries", config).write(path);
+
+        LookupDictionary.write(dictionary, List.of(LookupItem.builder().code("NZ").label("New Zealand").build()));
+        final ConfigSnapshot snapshot = ConfigSnapshot.open(path);
+        assertEquals(config.getFingerprint(), snapshot.getFingerprint("countries"));
+        assertNull(snapshot.get("countries"));
+    }
+
+    @Test
+    @DisplayName("Test Invalid Files")
+    public void testInvalidFiles() throws IOException {
+        final Path notSnapshot = directory.resolve("not.snapshot");
+        Files.writeString(notSnapshot, "not a snapshot");
+        assertThrows(IOException.class, () -> ConfigSnapshot.open(notSnapshot));
+
+        final Path truncated = directory.resolve("truncated.snapshot");
+        new ConfigSnapshot.Writer().add("empty", CompiledConfig.compile(Config.builder().build())).write(truncated);
+        final byte[] bytes = Files.readAllBytes(truncated);
+        Files.write(truncated, Arrays.copyOf(bytes, bytes.length - 1));
+        assertThrows(IOException.class, () -> ConfigSnapshot.open(truncated));
+    }
+
+}
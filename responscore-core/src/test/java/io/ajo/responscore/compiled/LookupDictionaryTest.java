@@ -0,0 +1,151 @@
+package io.ajo.responscore.compiled;
+
+import io.ajo.responscore.config.LookupConfig;
+import io.ajo.responscore.config.LookupItem;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Lookup Dictionary Test")
+public class LookupDictionaryTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Test Membership And Labels")
+    public void testMembershipAndLabels() throws IOException {
+        final List<LookupItem> items = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            items.add(LookupItem.builder().code(String.format("%06d", i * 3)).label("Postcode " + i).build());
+        }
+        items.add(LookupItem.builder().code("Zürich").label("Zürich, Schweiz").build());
+        final Path path = directory.resolve("postcodes.dict");
+        LookupDictionary.write(path, items);
+
+        final LookupDictionary dictionary = LookupDictionary.open(path);
+        assertEquals(100_001, dictionary.size());
+        assertTrue(dictionary.contains("000000"));
+        assertTrue(dictionary.contains("299997"));
+        assertFalse(dictionary.contains("000001"));
+        assertFalse(dictionary.contains("2999970"));
+        assertFalse(dictionary.contains(""));
+        assertEquals("Postcode 4115", dictionary.getLabel("012345"));
+        assertEquals("Zürich, Schweiz", dictionary.getLabel("Zürich"));
+        assertNull(dictionary.getLabel("012346"));
+
+        assertEquals(List.of("012300", "012303", "012306"),
+                dictionary.search("0123", 3).stream().map(LookupItem::getCode).toList());
+        assertEquals(34, dictionary.search("0123", 100).size());
+        assertTrue(dictionary.search("9", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test Fingerprint Matches Items")
+    public void testFingerprintMatchesItems() throws IOException {
+        final Path first = directory.resolve("first.dict");
+        final Path second = directory.resolve("second.dict");
+        final Path third = directory.resolve("third.dict");
+        LookupDictionary.write(first, List.of(
+                LookupItem.builder().code("a").label("A").build(),
+                LookupItem.builder().code("b").label("B").build()
+        ));
+        LookupDictionary.write(second, List.of(
+                LookupItem.builder().code("b").label("B").build(),
+                LookupItem.builder().code("a").label("A").build()
+        ));
+        LookupDictionary.write(third, List.of(
+                LookupItem.builder().code("a").label("A").build(),
+                LookupItem.builder().code("b").label("Bee").build()
+        ));
+
+        // items are sorted before writing, so the order they are given in doesn't matter
+        assertEquals(LookupDictionary.open(first).getFingerprint(), LookupDictionary.open(second).getFingerprint());
+        assertNotEquals(LookupDictionary.open(first).getFingerprint(), LookupDictionary.open(third).getFingerprint());
+
+        final CompiledLookup lookup = new CompiledLookup(LookupConfig.builder().code("letters").dictionary(first.toString()).build(), null);
+        assertTrue(lookup.contains("a"));
+        assertFalse(lookup.contains(1));
+        assertEquals("B", lookup.getLabel("b"));
+    }
+
+    @Test
+    @DisplayName("Test Invalid Files")
+    public void testInvalidFiles() throws IOException {
+        assertThrows(IllegalArgumentException.class, () -> LookupDictionary.write(directory.resolve("duplicate.dict"), List.of(
+                LookupItem.builder().code("a").label("A").build(),
+                LookupItem.builder().code("a").label("Another A").build()
+        )));
+
+        final Path notDictionary = directory.resolve("not.dict");
+        Files.writeString(notDictionary, "not a dictionary, but long enough to hold a header");
+        assertThrows(IOException.class, () -> LookupDictionary.open(notDictionary));
+
+        final Path truncated = directory.resolve("truncated.dict");
+        LookupDictionary.write(truncated, Set.of(LookupItem.builder().code("a").label("A").build()));
+        final byte[] bytes = Files.readAllBytes(truncated);
+        Files.write(truncated, Arrays.copyOf(bytes, bytes.length - 1));
+        assertThrows(IOException.class, () -> LookupDictionary.open(truncated));
+
+        // offsets out of order, and a code longer than its item, are rejected on open rather than failing on read
+        final Path corrupt = directory.resolve("corrupt.dict");
+        LookupDictionary.write(corrupt, List.of(
+                LookupItem.builder().code("a").label("A").build(),
+                LookupItem.builder().code("b").label("B").build()
+        ));
+        final byte[] valid = Files.readAllBytes(corrupt);
+        final ByteBuffer outOfOrder = ByteBuffer.wrap(valid.clone());
+        outOfOrder.putLong(32 + 8, outOfOrder.getLong(32 + 8 * 2) + 1);
+        Files.write(corrupt, outOfOrder.array());
+        assertThrows(IOException.class, () -> LookupDictionary.open(corrupt));
+        final ByteBuffer longCode = ByteBuffer.wrap(valid.clone());
+        longCode.putInt((int) longCode.getLong(32), 100);
+        Files.write(corrupt, longCode.array());
+        assertThrows(IOException.class, () -> LookupDictionary.open(corrupt));
+        Files.write(corrupt, valid);
+        assertEquals("B", LookupDictionary.open(corrupt).getLabel("b"));
+
+        assertThrows(IllegalArgumentException.class, () -> new CompiledLookup(
+                LookupConfig.builder().code("missing").dictionary(directory.resolve("missing.dict").toString()).build(), null));
+    }
+
+    @Test
+    @DisplayName("Test Opened Within Directory")
+    public void testOpenedWithinDirectory() throws IOException {
+        final Path dictionaries = Files.createDirectory(directory.resolve("dictionaries"));
+        LookupDictionary.write(dictionaries.resolve("inside.dict"), List.of(LookupItem.builder().code("a").label("A").build()));
+        LookupDictionary.write(directory.resolve("outside.dict"), List.of(LookupItem.builder().code("b").label("B").build()));
+
+        assertTrue(LookupDictionary.open(dictionaries, "inside.dict").contains("a"));
+        assertTrue(new CompiledLookup(LookupConfig.builder().code("inside").dictionary("inside.dict").build(), dictionaries).contains("a"));
+
+        // names escaping the directory, by parent segments, absolutely or through a link, are rejected
+        assertThrows(IOException.class, () -> LookupDictionary.open(dictionaries, "../outside.dict"));
+        assertThrows(IOException.class, () -> LookupDictionary.open(dictionaries, directory.resolve("outside.dict").toString()));
+        try {
+            Files.createSymbolicLink(dictionaries.resolve("link.dict"), directory.resolve("outside.dict"));
+            assertThrows(IOException.class, () -> LookupDictionary.open(dictionaries, "link.dict"));
+        } catch (UnsupportedOperationException e) {
+            // links aren't supported by the file system
+        }
+        assertThrows(IllegalArgumentException.class, () -> new CompiledLookup(
+                LookupConfig.builder().code("outside").dictionary("../outside.dict").build(), dictionaries));
+    }
+
+}
@@ -0,0 +1,76 @@
+package io.ajo.responscore.compiled;
+
+import io.ajo.responscore.config.LookupConfig;
+import io.ajo.responscore.config.LookupItem;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Lookup Index Test")
+public class LookupIndexTest {
+
+    private static final LookupIndex INDEX = new LookupIndex(Set.of(
+            LookupItem.builder().code("AU").label("Australia").build(),
+            LookupItem.builder().code("AT").label("Austria").build(),
+            LookupItem.builder().code("NZ").label("New Zealand").build(),
+            LookupItem.builder().code("GB").label("United Kingdom").build(),
+            LookupItem.builder().code("US").label("United States").build(),
+            LookupItem.builder().code("ZA").label("South Africa").build()
+    ));
+
+    @Test
+    @DisplayName("Test Prefix Matches Codes And Labels")
+    public void testPrefixMatchesCodesAndLabels() {
+        // a code sorts before labels it prefixes, and each item is only returned once
+        assertEquals(List.of("AU", "AT"), codes(INDEX.search("au", 10)));
+        assertEquals(List.of("AU", "AT"), codes(INDEX.search("aust", 10)));
+        assertEquals(List.of("GB", "US"), codes(INDEX.search("UNITED", 10)));
+        assertEquals(List.of("US"), codes(INDEX.search("us", 1)));
+        assertEquals(6, INDEX.search("", 10).size());
+        assertTrue(INDEX.search("x", 10).isEmpty());
+        assertTrue(INDEX.search("au", 0).isEmpty());
+        assertTrue(INDEX.search("au", -1).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test Infix Matches After Prefix Matches")
+    public void testInfixMatchesAfterPrefixMatches() {
+        assertEquals(List.of("ZA"), codes(INDEX.search("africa", 10)));
+        assertEquals(List.of("NZ"), codes(INDEX.search("zeal", 10)));
+        assertEquals(List.of("GB", "US"), codes(INDEX.search("ited", 10)));
+        // only prefixes are matched under three characters
+        assertTrue(INDEX.search("ia", 10).isEmpty());
+        // every trigram is in "united states", but not the query itself
+        assertTrue(INDEX.search("unites", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test Large Lookup")
+    public void testLargeLookup() {
+        final Set<LookupItem> items = new HashSet<>();
+        for (int i = 0; i < 70_000; i++) {
+            items.add(LookupItem.builder().code(String.format("P%05d", i)).label("Product number " + i).build());
+        }
+        final LookupConfig lookupConfig = LookupConfig.builder().code("products").lookupItems(items).build();
+        final CompiledLookup lookup = new CompiledLookup(lookupConfig, null);
+        final LookupIndex index = lookup.getIndex();
+        assertSame(index, lookup.getIndex());
+        assertEquals(70_000, index.size());
+
+        assertEquals(List.of("P12340", "P12341", "P12342"), codes(index.search("p1234", 3)));
+        assertEquals(List.of("P69999"), codes(index.search("number 69999", 10)));
+        assertEquals(10, index.search("product", 10).size());
+    }
+
+    private static List<String> codes(List<LookupItem> items) {
+        return items.stream().map(LookupItem::getCode).toList();
+    }
+
+}
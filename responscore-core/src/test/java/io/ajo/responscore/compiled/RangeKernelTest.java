@@ -0,0 +1,49 @@
+package io.ajo.responscore.compiled;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Range Kernel Test")
+public class RangeKernelTest {
+
+    @Test
+    @DisplayName("Test Out Of Range Indexes Match Scalar Check")
+    public void testOutOfRangeIndexesMatchScalarCheck() {
+        final Random random = new Random(26);
+        for (final int length : new int[]{0, 1, 7, 31, 32, 33, 100, 1_000, 100_003}) {
+            final double[] values = new double[length];
+            for (int i = 0; i < length; i++) {
+                values[i] = random.nextInt(50) == 0 ? Double.NaN : random.nextDouble() * 200 - 100;
+            }
+            final List<Integer> expected = new ArrayList<>();
+            for (int i = 0; i < length; i++) {
+                if (!(values[i] >= -90 && values[i] <= 90)) {
+                    expected.add(i);
+                }
+            }
+            final List<Integer> actual = new ArrayList<>();
+            RangeKernel.findOutOfRange(values, -90, 90, actual::add);
+            assertEquals(expected, actual, "out of range indexes for length " + length);
+        }
+    }
+
+    @Test
+    @DisplayName("Test Unbounded Range Only Rejects NaN")
+    public void testUnboundedRangeOnlyRejectsNaN() {
+        final double[] values = new double[64];
+        values[5] = Double.NaN;
+        values[40] = -Double.MAX_VALUE;
+        final List<Integer> actual = new ArrayList<>();
+        RangeKernel.findOutOfRange(values, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, actual::add);
+        assertEquals(List.of(5), actual);
+        assertTrue(RangeKernel.isVectorAvailable());
+    }
+
+}
@@ -0,0 +1,114 @@
+package io.ajo.responscore.compiled;
+
+import io.ajo.responscore.config.Validator;
+import io.ajo.responscore.config.ValidatorType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Validator Chain Test")
+public class ValidatorChainTest {
+
+    private static final List<Object> VALUES = List.of(
+            "", " ", "a", "abc", "abcdef", 0, 1, -1, 9, 10, 11, 100, 0.1, 0.3, 9.999999, 10.000001,
+            -0.0, Double.MIN_VALUE, BigDecimal.valueOf(10.5), new BigDecimal("0.30000000000000000001"),
+            BigInteger.valueOf(42), List.of(), List.of(1), List.of(1, 2, 3), Map.of(), Map.of("k", "v"), true
+    );
+
+    @Test
+    @DisplayName("Test Fused Range Matches Unfused Evaluation")
+    public void testFusedRangeMatchesUnfusedEvaluation() {
+        assertMatchesUnfused(List.of(
+                validator(ValidatorType.Min, BigDecimal.ONE),
+                validator(ValidatorType.Max, BigDecimal.TEN),
+                validator(ValidatorType.Min, BigDecimal.valueOf(5)),
+                validator(ValidatorType.GreaterThan, new BigDecimal("0.3")),
+                validator(ValidatorType.LessThan, new BigDecimal("10.000001")),
+                validator(ValidatorType.NotNull, null)
+        ));
+        assertMatchesUnfused(List.of(
+                validator(ValidatorType.GreaterThan, new BigDecimal("0.30000000000000000001")),
+                validator(ValidatorType.Max, new BigDecimal("-0.0")),
+                validator(ValidatorType.Min, new BigDecimal("1E+400"))
+        ));
+    }
+
+    @Test
+    @DisplayName("Test Fused Presence Matches Unfused Evaluation")
+    public void testFusedPresenceMatchesUnfusedEvaluation() {
+        assertMatchesUnfused(List.of(
+                validator(ValidatorType.NotNull, null),
+                validator(ValidatorType.NotEmpty, null)
+        ));
+        assertMatchesUnfused(List.of(
+                validator(ValidatorType.NotBlank, null),
+                validator(ValidatorType.NotNull, null),
+                validator(ValidatorType.NotEmpty, null)
+        ));
+        assertMatchesUnfused(List.of(
+                validator(ValidatorType.NotBlank, null),
+                validator(ValidatorType.NotNull, null)
+        ));
+    }
+
+    @Test
+    @DisplayName("Test Fused Size Matches Unfused Evaluation")
+    public void testFusedSizeMatchesUnfusedEvaluation() {
+        assertMatchesUnfused(List.of(
+                validator(ValidatorType.MinSize, BigDecimal.ONE),
+                validator(ValidatorType.MaxSize, BigDecimal.valueOf(3)),
+                validator(ValidatorType.MinSize, BigDecimal.TWO),
+                validator(ValidatorType.NotEmpty, null),
+                Validator.builder().type(ValidatorType.Pattern).pattern("a.*").build()
+        ));
+    }
+
+    @Test
+    @DisplayName("Test Duplicate Validators Dropped")
+    public void testDuplicateValidatorsDropped() {
+        final ValidatorChain chain = ValidatorChain.compile(List.of(
+                validator(ValidatorType.Min, BigDecimal.ONE),
+                validator(ValidatorType.Min, BigDecimal.ONE),
+                validator(ValidatorType.NotNull, null)
+        ));
+        assertEquals(2, chain.getValidators().size());
+
+        final List<Validator> failures = new ArrayList<>();
+        assertFalse(chain.validate(0, failures::add));
+        assertEquals(1, failures.size());
+        assertTrue(chain.validate(1, failures::add));
+        assertTrue(ValidatorChain.compile(List.of()).isEmpty());
+    }
+
+    private static void assertMatchesUnfused(List<Validator> validators) {
+        final ValidatorChain chain = ValidatorChain.compile(validators);
+        for (final Object value : VALUES) {
+            final Set<Validator> expected = new LinkedHashSet<>();
+            for (final Validator validator : validators) {
+                if (!validator.validate(value)) {
+                    expected.add(validator);
+                }
+            }
+            final Set<Validator> actual = new LinkedHashSet<>();
+            final boolean valid = chain.validate(value, actual::add);
+            assertEquals(expected, actual, "failures for value " + value);
+            assertEquals(expected.isEmpty(), valid, "result for value " + value);
+        }
+    }
+
+    private static Validator validator(ValidatorType type, BigDecimal value) {
+        return Validator.builder().type(type).value(value).build();
+    }
+
+}
@@ -318,4 +318,88 @@ public class AttributeValidatorTest {
         assertTrue(oFieldBViolation.isPresent());
         assertEquals("attribute with item validator has 'field' set must be of type `COMPOSITE`", oFieldBViolation.get().getMessage());
     }
+
+    @Test
+    @DisplayName("Invalid Pattern Validator Non String Attribute")
+    public void invalidPatternValidatorNonStringAttribute() {
+        final Attribute attr = Attribute.builder()
+                .code("code")
+                .label("label")
+                .type(Type.INTEGER)
+                .validators(List.of(
+                        Validator.builder()
+                                .type(ValidatorType.Pattern)
+                                .pattern("[0-9]+")
+                                .build()
+                ))
+                .build();
+
+        final Set<ConstraintViolation<Attribute>> violations = validator.validate(attr);
+
+        assertEquals(1, violations.size());
+        final ConstraintViolation<Attribute> violation = violations.iterator().next();
+        assertEquals("attribute with validator of type 'Pattern' must be of or extend type `STRING`", violation.getMessage());
+        assertEquals("validators[0].type", violation.getPropertyPath().toString());
+    }
+
+    @Test
+    @DisplayName("Valid Pattern Validator Url Attribute")
+    public void validPatternValidatorUrlAttribute() {
+        final Attribute attr = Attribute.builder()
+                .code("code")
+                .label("label")
+                .type(Type.URL)
+                .list(true)
+                .validateItems(List.of(
+                        Validator.builder()
+                                .type(ValidatorType.Pattern)
+                                .pattern("https://.*")
+                                .build()
+                ))
+                .build();
+
+        final Set<ConstraintViolation<Attribute>> violations = validator.validate(attr);
+
+        assertEquals(0, violations.size());
+    }
+
+    @Test
+    @DisplayName("Invalid UniqueItems Validator Placement")
+    public void invalidUniqueItemsValidatorPlacement() {
+        final Attribute attr = Attribute.builder()
+                .code("code")
+                .label("label")
+                .type(Type.STRING)
+                .validators(List.of(
+                        Validator.builder()
+                                .type(ValidatorType.UniqueItems)
+                                .build()
+                ))
+                .build();
+
+        final Set<ConstraintViolation<Attribute>> violations = validator.validate(attr);
+
+        assertEquals(1, violations.size());
+        final ConstraintViolation<Attribute> violation = violations.iterator().next();
+        assertEquals("attribute with validator of type 'UniqueItems' must have 'list' set to `true`", violation.getMessage());
+        assertEquals("validators[0].type", violation.getPropertyPath().toString());
+
+        final Attribute itemsAttr = Attribute.builder()
+                .code("code")
+                .label("label")
+                .type(Type.STRING)
+                .list(true)
+                .validateItems(List.of(
+                        Validator.builder()
+                                .type(ValidatorType.UniqueItems)
+                                .build()
+                ))
+                .build();
+
+        final Set<ConstraintViolation<Attribute>> itemsViolations = validator.validate(itemsAttr);
+
+        assertEquals(1, itemsViolations.size());
+        assertEquals("validateItems[0].type", itemsViolations.iterator().next().getPropertyPath().toString());
+    }
+
 }
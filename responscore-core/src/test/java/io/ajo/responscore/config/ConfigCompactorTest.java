@@ -0,0 +1,96 @@
+package io.ajo.responscore.config;
+
+import io.ajo.responscore.compiled.CompiledConfig;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Config Compactor Test")
+public class ConfigCompactorTest {
+
+    private final ConfigCompactor compactor = new ConfigCompactor();
+
+    @Test
+    @DisplayName("Test Compact Copy Is Equal")
+    public void testCompactCopyIsEqual() {
+        final Config config = config(50, 1_000);
+        final Config compact = compactor.compact(config);
+
+        assertEquals(CompiledConfig.compile(config).getFingerprint(), CompiledConfig.compile(compact).getFingerprint());
+        assertEquals(new ArrayList<>(config.getAttributes()).stream().map(Attribute::getCode).toList(),
+                new ArrayList<>(compact.getAttributes()).stream().map(Attribute::getCode).toList());
+        assertThrows(UnsupportedOperationException.class, () -> compact.getAttributes().clear());
+        assertThrows(UnsupportedOperationException.class,
+                () -> compact.getAttributes().iterator().next().getValidators().add(Validator.builder().build()));
+    }
+
+    @Test
+    @DisplayName("Test Shares Instances")
+    public void testSharesInstances() {
+        final Config compact = compactor.compact(config(50, 10));
+        final List<Attribute> attributes = new ArrayList<>(compact.getAttributes());
+
+        // every attribute has the same validators, so they're shared, and none has item validators
+        assertSame(attributes.get(0).getValidators().get(0), attributes.get(1).getValidators().get(0));
+        assertSame(attributes.get(0).getValidateItems(), attributes.get(1).getValidateItems());
+        assertSame(List.of(), attributes.get(0).getValidateItems());
+        // the code of the lookup and the code referencing it are the same string
+        assertSame(compact.getLookupConfigs().iterator().next().getCode(), attributes.get(1).getLookupCode());
+    }
+
+    @Test
+    @DisplayName("Test Reduces Footprint")
+    public void testReducesFootprint() {
+        // attributes, where sharing strings, validators and empty lists counts most
+        final Config attributes = config(2_000, 1);
+        final long size = GraphLayout.parseInstance(attributes).totalSize();
+        final long compactSize = GraphLayout.parseInstance(compactor.compact(attributes)).totalSize();
+        assertTrue(compactSize < size * 0.5, "compact " + compactSize + " bytes, original " + size + " bytes");
+
+        // lookup items, which are kept, so only their set shrinks
+        final Config lookup = config(1, 20_000);
+        final long lookupSize = GraphLayout.parseInstance(lookup).totalSize();
+        final long compactLookupSize = GraphLayout.parseInstance(compactor.compact(lookup)).totalSize();
+        assertTrue(compactLookupSize < lookupSize * 0.9, "compact " + compactLookupSize + " bytes, original " + lookupSize + " bytes");
+    }
+
+    /**
+     * Config as bean binding builds it, with a fresh copy of every string and validator
+     */
+    private static Config config(int attributes, int lookupItems) {
+        final Set<LookupItem> items = new HashSet<>();
+        for (int i = 0; i < lookupItems; i++) {
+            items.add(LookupItem.builder().code("item" + i).label("Item " + i).build());
+        }
+        final Set<Attribute> attributeSet = new LinkedHashSet<>();
+        for (int i = 0; i < attributes; i++) {
+            attributeSet.add(Attribute.builder()
+                    .code(new String("attribute" + i))
+                    .label(new String("Attribute"))
+                    .type(i % 2 == 0 ? Type.STRING : Type.LOOKUP)
+                    .lookupCode(i % 2 == 0 ? null : new String("items"))
+                    .validators(new ArrayList<>(List.of(
+                            Validator.builder().type(ValidatorType.NotNull).build(),
+                            Validator.builder().type(ValidatorType.MaxSize).value(new BigDecimal("100")).build()
+                    )))
+                    .build());
+        }
+        return Config.builder()
+                .lookupConfigs(new HashSet<>(Set.of(LookupConfig.builder().code(new String("items")).lookupItems(items).build())))
+                .attributes(attributeSet)
+                .build();
+    }
+
+}
@@ -0,0 +1,151 @@
+package io.ajo.responscore.config;
+
+import io.ajo.responscore.compiled.CompiledConfig;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("Config Overlay Test")
+public class ConfigOverlayTest {
+
+    private static Attribute attribute(String code, BigDecimal max) {
+        return Attribute.builder()
+                .code(code)
+                .label(code)
+                .type(Type.INTEGER)
+                .validators(List.of(Validator.builder().type(ValidatorType.Max).value(max).build()))
+                .build();
+    }
+
+    private static Config base() {
+        final Set<Attribute> attributes = new LinkedHashSet<>();
+        attributes.add(attribute("first", BigDecimal.TEN));
+        attributes.add(Attribute.builder().code("address").label("address").type(Type.COMPOSITE).compositeCode("address").build());
+        attributes.add(attribute("last", BigDecimal.TEN));
+        final Set<CompositeTypeConfig> compositeTypeConfigs = new LinkedHashSet<>();
+        compositeTypeConfigs.add(CompositeTypeConfig.builder()
+                .code("address")
+                .attributes(Set.of(
+                        Attribute.builder().code("street").label("street").type(Type.STRING).build(),
+                        Attribute.builder().code("country").label("country").type(Type.LOOKUP).lookupCode("country").build()
+                ))
+                .build());
+        compositeTypeConfigs.add(CompositeTypeConfig.builder()
+                .code("pet")
+                .attributes(Set.of(
+                        Attribute.builder().code("kind").label("kind").type(Type.LOOKUP).lookupCode("kind").build()
+                ))
+                .build());
+        final Set<LookupConfig> lookupConfigs = new LinkedHashSet<>();
+        lookupConfigs.add(LookupConfig.builder()
+                .code("country")
+                .lookupItems(Set.of(LookupItem.builder().code("AU").label("Australia").build()))
+                .build());
+        lookupConfigs.add(LookupConfig.builder()
+                .code("kind")
+                .lookupItems(Set.of(LookupItem.builder().code("cat").label("Cat").build()))
+                .build());
+        return Config.builder()
+                .attributes(attributes)
+                .compositeTypeConfigs(compositeTypeConfigs)
+                .lookupConfigs(lookupConfigs)
+                .build();
+    }
+
+    private static List<String> codes(Set<Attribute> attributes) {
+        return attributes.stream().map(Attribute::getCode).toList();
+    }
+
+    @Test
+    @DisplayName("Test Apply Replaces Adds And Removes Attributes")
+    public void testApplyReplacesAddsAndRemovesAttributes() {
+        final Config base = base();
+        final Attribute replacement = attribute("first", BigDecimal.ONE);
+        final Config applied = ConfigOverlay.builder()
+                .attributes(Set.of(replacement, attribute("added", BigDecimal.ONE)))
+                .removedAttributes(Set.of("last"))
+                .build()
+                .apply(base);
+
+        assertEquals(List.of("first", "address", "added"), codes(applied.getAttributes()));
+        assertSame(replacement, applied.getAttributes().iterator().next());
+        assertEquals(List.of("first", "address", "last"), codes(base.getAttributes()));
+        assertSame(base.getCompositeTypeConfigs(), applied.getCompositeTypeConfigs());
+        assertSame(base.getLookupConfigs(), applied.getLookupConfigs());
+    }
+
+    @Test
+    @DisplayName("Test Apply Adds Lookup Items")
+    public void testApplyAddsLookupItems() {
+        final Config base = base();
+        final Config applied = ConfigOverlay.builder()
+                .lookupItems(Map.of("country", Set.of(
+                        LookupItem.builder().code("AU").label("Australia (AU)").build(),
+                        LookupItem.builder().code("NZ").label("New Zealand").build()
+                )))
+                .build()
+                .apply(base);
+
+        final CompiledConfig compiled = CompiledConfig.compile(applied);
+        assertEquals("Australia (AU)", compiled.getLookup("country").getLabel("AU"));
+        assertEquals("New Zealand", compiled.getLookup("country").getLabel("NZ"));
+        assertNull(CompiledConfig.compile(base).getLookup("country").getLabel("NZ"));
+        assertSame(base.getAttributes(), applied.getAttributes());
+
+        assertThrows(IllegalArgumentException.class, () -> ConfigOverlay.builder()
+                .lookupItems(Map.of("undeclared", Set.of(LookupItem.builder().code("a").label("A").build())))
+                .build()
+                .apply(base));
+    }
+
+    @Test
+    @DisplayName("Test Compiling Overlay Shares Unchanged Compilation")
+    public void testCompilingOverlaySharesUnchangedCompilation() {
+        final Config base = base();
+        final CompiledConfig compiledBase = CompiledConfig.compile(base);
+        final Config applied = ConfigOverlay.builder()
+                .attributes(Set.of(attribute("last", BigDecimal.ONE)))
+                .lookupItems(Map.of("country", Set.of(LookupItem.builder().code("NZ").label("New Zealand").build())))
+                .build()
+                .apply(base);
+        final CompiledConfig compiled = CompiledConfig.compile(applied, compiledBase);
+
+        // untouched by the overlay
+        assertSame(compiledBase.getLookup("kind"), compiled.getLookup("kind"));
+        assertSame(compiledBase.getComposite("pet"), compiled.getComposite("pet"));
+        assertSame(
+                compiledBase.getRoot().getAttribute("first").getValidators(),
+                compiled.getRoot().getAttribute("first").getValidators()
+        );
+        // changed by the overlay, or referencing what it changed
+        assertNotSame(compiledBase.getLookup("country"), compiled.getLookup("country"));
+        assertNotSame(compiledBase.getComposite("address"), compiled.getComposite("address"));
+        assertSame(compiled.getLookup("country"), compiled.getComposite("address").getAttribute("country").getLookup());
+
+        assertEquals(CompiledConfig.compile(applied).getFingerprint(), compiled.getFingerprint());
+    }
+
+    @Test
+    @DisplayName("Test Compiling Empty Overlay Reuses Compilation")
+    public void testCompilingEmptyOverlayReusesCompilation() {
+        final Config base = base();
+        final CompiledConfig compiledBase = CompiledConfig.compile(base);
+        final CompiledConfig compiled = CompiledConfig.compile(ConfigOverlay.builder().build().apply(base), compiledBase);
+
+        assertSame(compiledBase.getRoot(), compiled.getRoot());
+        assertSame(compiledBase.getComposite("address"), compiled.getComposite("address"));
+        assertEquals(compiledBase.getFingerprint(), compiled.getFingerprint());
+    }
+
+}
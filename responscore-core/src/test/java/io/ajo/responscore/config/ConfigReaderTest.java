@@ -0,0 +1,107 @@
+package io.ajo.responscore.config;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import io.ajo.responscore.compiled.CompiledConfig;
+import io.ajo.responscore.util.ObjectMapperUtils;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Config Reader Test")
+public class ConfigReaderTest {
+
+    private static final String CONFIG = """
+            {
+              "lookupConfigs": [
+                {"code": "countries", "lookupItems": [
+                  {"code": "AU", "label": "Australia"},
+                  {"code": "NZ", "label": "New Zealand"}
+                ]}
+              ],
+              "compositeTypeConfigs": [
+                {"code": "address", "attributes": [
+                  {"code": "street", "label": "Street", "type": "STRING", "required": true},
+                  {"code": "country", "label": "Country", "type": "LOOKUP", "lookupCode": "countries"}
+                ]}
+              ],
+              "attributes": [
+                {"code": "name", "label": "Name", "tooltip": null, "type": "STRING", "required": true,
+                 "validators": [{"type": "Pattern", "pattern": "[A-Z].*", "linearTime": true}, {"type": "MaxSize", "value": "20"}]},
+                {"code": "age", "label": "Age", "type": "INTEGER", "defaultValue": 18,
+                 "validators": [{"type": "Min", "value": 0}, {"type": "Max", "value": 150.5}]},
+                {"code": "addresses", "label": "Addresses", "type": "COMPOSITE", "compositeCode": "address", "list": true,
+                 "validators": [{"type": "UniqueItems", "field": "street"}]},
+                {"code": "tags", "label": "Tags", "type": "STRING", "list": true, "defaultValue": ["a", {"b": 1.5}],
+                 "validateItems": [{"type": "NotBlank"}],
+                 "dependencies": [{"attributeCode": "age", "values": [1, 2, 12345678901, "three", true]}]}
+              ]
+            }""";
+
+    private final ConfigReader reader = new ConfigReader();
+
+    @Test
+    @DisplayName("Test Reads As Jackson Binding")
+    public void testReadsAsJacksonBinding() throws IOException {
+        final Config read = reader.read(CONFIG.getBytes(StandardCharsets.UTF_8));
+        final Config bound = ObjectMapperUtils.getObjectMapper().readValue(CONFIG, Config.class);
+
+        // fingerprints cover every field, unlike equals
+        assertEquals(CompiledConfig.compile(bound).getFingerprint(), CompiledConfig.compile(read).getFingerprint());
+        assertEquals(List.of("name", "age", "addresses", "tags"), read.getAttributes().stream().map(Attribute::getCode).toList());
+
+        final Attribute age = read.getAttributes().stream().filter(a -> a.getCode().equals("age")).findAny().orElseThrow();
+        assertEquals(18, age.getDefaultValue());
+        assertEquals(new BigDecimal("150.5"), age.getValidators().get(1).getValue());
+        final Attribute tags = read.getAttributes().stream().filter(a -> a.getCode().equals("tags")).findAny().orElseThrow();
+        assertEquals(List.of("a", Map.of("b", 1.5)), tags.getDefaultValue());
+        assertEquals(Set.of(1, 2, 12345678901L, "three", true), tags.getDependencies().get(0).getValues());
+        assertTrue(tags.getValidators().isEmpty());
+        assertNull(tags.getTooltip());
+    }
+
+    @Test
+    @DisplayName("Test Interns Repeated Strings")
+    public void testInternsRepeatedStrings() throws IOException {
+        final Config read = reader.read(CONFIG.getBytes(StandardCharsets.UTF_8));
+        final LookupConfig countries = read.getLookupConfigs().iterator().next();
+        final Attribute country = read.getCompositeTypeConfigs().iterator().next().getAttributes().stream()
+                .filter(a -> a.getCode().equals("country")).findAny().orElseThrow();
+        final Attribute addresses = read.getAttributes().stream()
+                .filter(a -> a.getCode().equals("addresses")).findAny().orElseThrow();
+        assertSame(countries.getCode(), country.getLookupCode());
+        assertSame(read.getCompositeTypeConfigs().iterator().next().getCode(), addresses.getCompositeCode());
+    }
+
+    @Test
+    @DisplayName("Test Errors Locate Value")
+    public void testErrorsLocateValue() {
+        final JsonParseException unknownField = assertThrows(JsonParseException.class, () -> reader.read("""
+                {"attributes": [
+                  {"code": "name", "label": "Name", "type": "STRING"},
+                  {"code": "age", "labl": "Age"}
+                ]}""".getBytes(StandardCharsets.UTF_8)));
+        assertEquals("unknown field 'labl' at /attributes/1/labl", unknownField.getOriginalMessage());
+        assertEquals(3, unknownField.getLocation().getLineNr());
+
+        final JsonParseException unknownType = assertThrows(JsonParseException.class, () -> reader.read("""
+                {"attributes": [{"code": "name", "type": "TEXT"}]}""".getBytes(StandardCharsets.UTF_8)));
+        assertEquals("unknown Type 'TEXT' at /attributes/0/type", unknownType.getOriginalMessage());
+
+        assertThrows(JsonParseException.class, () -> reader.read("{\"attributes\": {}}".getBytes(StandardCharsets.UTF_8)));
+        assertThrows(JsonParseException.class, () -> reader.read("[]".getBytes(StandardCharsets.UTF_8)));
+        assertThrows(JsonParseException.class, () -> reader.read("{} {}".getBytes(StandardCharsets.UTF_8)));
+    }
+
+}
@@ -5,6 +5,7 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import javax.validation.ConstraintViolation;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -119,9 +120,9 @@ public class ConfigValidatorTest {
         assertTrue(oCodeViolation.isPresent());
         assertEquals("must not be blank", oCodeViolation.get().getMessage());
         final Optional<ConstraintViolation<Config>> oLookupItemsViolation = violations.stream()
-                .filter(v -> v.getPropertyPath().toString().equals("lookupConfigs[].lookupItems")).findAny();
+                .filter(v -> v.getPropertyPath().toString().equals("lookupConfigs[0].lookupItems")).findAny();
         assertTrue(oLookupItemsViolation.isPresent());
-        assertEquals("size must be between 1 and 2147483647", oLookupItemsViolation.get().getMessage());
+        assertEquals("lookup config must have either 'lookupItems' or a 'dictionary'", oLookupItemsViolation.get().getMessage());
     }
 
     @Test
@@ -667,4 +668,76 @@ public class ConfigValidatorTest {
         assertEquals("attribute with dependency reference 'attributeCode' ('missing') which doesn't exist", violation.getMessage());
         assertEquals("attributes[0].dependencies[0].attributeCode", violation.getPropertyPath().toString());
     }
+
+    @Test
+    @DisplayName("Valid Self Referencing Composite Type Config")
+    public void validSelfReferencingCompositeTypeConfig() {
+        final Config config = Config.builder()
+                .attributes(Set.of(
+                        Attribute.builder()
+                                .code("code")
+                                .label("label")
+                                .type(Type.COMPOSITE)
+                                .compositeCode("tree")
+                                .build()
+                ))
+                .compositeTypeConfigs(Set.of(
+                        CompositeTypeConfig.builder()
+                                .code("tree")
+                                .attributes(Set.of(
+                                        Attribute.builder()
+                                                .code("child")
+                                                .label("child")
+                                                .type(Type.COMPOSITE)
+                                                .compositeCode("tree")
+                                                .build()
+                                ))
+                                .build()
+                ))
+                .build();
+
+        final Set<ConstraintViolation<Config>> violations = validator.validate(config);
+
+        assertEquals(0, violations.size());
+    }
+
+    @Test
+    @DisplayName("Invalid Composite Type Config Max Depth")
+    public void invalidCompositeTypeConfigMaxDepth() {
+        // chain of composite types nested one inside the next, deeper than the default maximum depth of 64
+        final Set<CompositeTypeConfig> compositeTypeConfigs = new HashSet<>();
+        for (int i = 0; i < 70; i++) {
+            compositeTypeConfigs.add(CompositeTypeConfig.builder()
+                    .code("composite" + i)
+                    .attributes(Set.of(
+                            Attribute.builder()
+                                    .code("child")
+                                    .label("child")
+                                    .type(i < 69 ? Type.COMPOSITE : Type.STRING)
+                                    .compositeCode(i < 69 ? "composite" + (i + 1) : null)
+                                    .build()
+                    ))
+                    .build());
+        }
+        final Config config = Config.builder()
+                .attributes(Set.of(
+                        Attribute.builder()
+                                .code("code")
+                                .label("label")
+                                .type(Type.COMPOSITE)
+                                .compositeCode("composite0")
+                                .build()
+                ))
+                .compositeTypeConfigs(compositeTypeConfigs)
+                .build();
+
+        final Set<ConstraintViolation<Config>> violations = validator.validate(config);
+
+        final Optional<ConstraintViolation<Config>> oDepthViolation = violations.stream()
+                .filter(v -> v.getMessage().equals("composite type with code 'composite64' is nested deeper than the maximum depth of 64"))
+                .findAny();
+        assertTrue(oDepthViolation.isPresent());
+        assertTrue(oDepthViolation.get().getPropertyPath().toString().endsWith(".compositeCode"));
+    }
+
 }
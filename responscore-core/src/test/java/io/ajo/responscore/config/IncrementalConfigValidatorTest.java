@@ -0,0 +1,120 @@
+package io.ajo.responscore.config;
+
+import io.ajo.responscore.config.validation.IncrementalConfigValidator;
+import io.ajo.responscore.util.ValidationUtils;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.validation.ConstraintViolation;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Incremental Config Validator Test")
+public class IncrementalConfigValidatorTest {
+
+    private static Attribute attribute(String code) {
+        return Attribute.builder().code(code).label(code).type(Type.STRING).build();
+    }
+
+    private static Config config(Set<Attribute> attributes, Set<CompositeTypeConfig> compositeTypeConfigs) {
+        return Config.builder()
+                .attributes(attributes)
+                .compositeTypeConfigs(compositeTypeConfigs)
+                .lookupConfigs(Set.of(
+                        LookupConfig.builder()
+                                .code("country")
+                                .lookupItems(Set.of(LookupItem.builder().code("AU").label("Australia").build()))
+                                .build(),
+                        LookupConfig.builder()
+                                .code("unused")
+                                .lookupItems(Set.of(LookupItem.builder().code("x").label("X").build()))
+                                .build()
+                ))
+                .build();
+    }
+
+    private static Set<Attribute> attributes(Attribute... attributes) {
+        final Set<Attribute> result = new LinkedHashSet<>();
+        for (int i = 0; i < 20; i++) {
+            result.add(attribute("attribute" + i));
+        }
+        result.addAll(List.of(attributes));
+        return result;
+    }
+
+    private static Set<String> describe(Set<? extends ConstraintViolation<Config>> violations) {
+        return violations.stream()
+                .map(v -> v.getPropertyPath().toString() + ": " + v.getMessage())
+                .collect(Collectors.toSet());
+    }
+
+    private static void assertParity(IncrementalConfigValidator validator, Config config) {
+        final Set<String> expected = describe(ValidationUtils.getValidator().validate(config));
+        assertEquals(expected, describe(validator.validate(config)));
+    }
+
+    @Test
+    @DisplayName("Test Finds Same Violations As Full Validation")
+    public void testFindsSameViolationsAsFullValidation() {
+        final IncrementalConfigValidator validator = new IncrementalConfigValidator();
+        final Set<CompositeTypeConfig> compositeTypeConfigs = Set.of(CompositeTypeConfig.builder()
+                .code("address")
+                .attributes(Set.of(
+                        Attribute.builder().code("street").type(Type.STRING).build(),
+                        Attribute.builder().code("country").label("country").type(Type.LOOKUP).lookupCode("country").build()
+                ))
+                .build());
+
+        final Config invalid = config(attributes(
+                Attribute.builder().code("address").label("address").type(Type.COMPOSITE).compositeCode("address").build(),
+                Attribute.builder().code("kind").label("kind").type(Type.LOOKUP).lookupCode("kind").build(),
+                Attribute.builder()
+                        .code("dependent")
+                        .label("dependent")
+                        .type(Type.STRING)
+                        .dependencies(List.of(Dependent.builder().attributeCode("missing").values(Set.of("a")).build()))
+                        .build()
+        ), compositeTypeConfigs);
+        assertTrue(ValidationUtils.getValidator().validate(invalid).size() > 1);
+        assertParity(validator, invalid);
+
+        final Config fixed = config(attributes(
+                Attribute.builder().code("address").label("address").type(Type.COMPOSITE).compositeCode("address").build(),
+                Attribute.builder().code("unused").label("unused").type(Type.LOOKUP).lookupCode("unused").build()
+        ), compositeTypeConfigs);
+        assertParity(validator, fixed);
+
+        final Config broken = config(attributes(Attribute.builder().code("unlabelled").type(Type.STRING).build()), Set.of());
+        assertParity(validator, broken);
+    }
+
+    @Test
+    @DisplayName("Test Only Validates Changed Elements")
+    public void testOnlyValidatesChangedElements() {
+        final IncrementalConfigValidator validator = new IncrementalConfigValidator();
+        final Set<Attribute> attributes = attributes(
+                Attribute.builder().code("country").label("country").type(Type.LOOKUP).lookupCode("country").build(),
+                Attribute.builder().code("unused").label("unused").type(Type.LOOKUP).lookupCode("unused").build()
+        );
+        assertTrue(validator.validate(config(attributes, Set.of())).isEmpty());
+        assertEquals(attributes.size() + 2, validator.getValidated());
+
+        // relabelling the attribute changes its content, but nothing else needs validating again
+        final Set<Attribute> edited = new LinkedHashSet<>(attributes);
+        edited.remove(attribute("attribute3"));
+        edited.add(Attribute.builder().code("attribute3").type(Type.STRING).build());
+        final Config config = config(edited, Set.of());
+        assertParity(validator, config);
+        assertEquals(1, validator.getValidated());
+
+        assertEquals(new HashSet<>(), describe(validator.validate(config(attributes, Set.of()))));
+        assertEquals(1, validator.getValidated());
+    }
+
+}
@@ -525,4 +525,112 @@ public class ValidatorValidatorTest {
         assertEquals("attribute with default value ('definitely') is of wrong type for attribute type 'BOOLEAN'", boolViolation.getMessage());
         assertEquals("default", boolViolation.getPropertyPath().toString());
     }
+
+    @Test
+    @DisplayName("Valid Pattern Validator")
+    public void validPatternValidator() {
+        final Validator patternValidator = Validator.builder()
+                .type(ValidatorType.Pattern)
+                .pattern("[a-z]+")
+                .build();
+
+        final Set<ConstraintViolation<Validator>> violations = validator.validate(patternValidator);
+
+        assertEquals(0, violations.size());
+    }
+
+    @Test
+    @DisplayName("Invalid Pattern Validator")
+    public void invalidPatternValidator() {
+        final Validator noPatternValidator = Validator.builder()
+                .type(ValidatorType.Pattern)
+                .build();
+
+        final Set<ConstraintViolation<Validator>> noPatternViolations = validator.validate(noPatternValidator);
+
+        assertEquals(1, noPatternViolations.size());
+        final ConstraintViolation<Validator> noPatternViolation = noPatternViolations.iterator().next();
+        assertEquals("validator of type 'Pattern' must have 'pattern' field set", noPatternViolation.getMessage());
+        assertEquals("pattern", noPatternViolation.getPropertyPath().toString());
+
+        final Validator badPatternValidator = Validator.builder()
+                .type(ValidatorType.Pattern)
+                .pattern("[a-z")
+                .build();
+
+        final Set<ConstraintViolation<Validator>> badPatternViolations = validator.validate(badPatternValidator);
+
+        assertEquals(1, badPatternViolations.size());
+        final ConstraintViolation<Validator> badPatternViolation = badPatternViolations.iterator().next();
+        assertEquals("validator 'pattern' field ('[a-z') is not a valid regular expression", badPatternViolation.getMessage());
+        assertEquals("pattern", badPatternViolation.getPropertyPath().toString());
+
+        // back-references aren't supported when matching in linear time
+        final Validator linearValidator = Validator.builder()
+                .type(ValidatorType.Pattern)
+                .pattern("(a)\\1")
+                .linearTime(true)
+                .build();
+
+        assertEquals(1, validator.validate(linearValidator).size());
+    }
+
+    @Test
+    @DisplayName("Invalid Pattern Set On Non Pattern Validator")
+    public void invalidPatternSetOnNonPatternValidator() {
+        final Validator notBlankValidator = Validator.builder()
+                .type(ValidatorType.NotBlank)
+                .pattern("[a-z]+")
+                .build();
+
+        final Set<ConstraintViolation<Validator>> violations = validator.validate(notBlankValidator);
+
+        assertEquals(1, violations.size());
+        final ConstraintViolation<Validator> violation = violations.iterator().next();
+        assertEquals("validator not of type 'NotBlank' has 'pattern' field set invalidly", violation.getMessage());
+        assertEquals("pattern", violation.getPropertyPath().toString());
+    }
+
+    @Test
+    @DisplayName("Test Pattern Validator Logic")
+    public void testPatternValidatorLogic() {
+        final Validator patternValidator = Validator.builder()
+                .type(ValidatorType.Pattern)
+                .pattern("[a-z]+@[a-z]+")
+                .build();
+        assertTrue(patternValidator.validate("abc@def"));
+        assertFalse(patternValidator.validate("abc@def.com"));
+        assertFalse(patternValidator.validate(null));
+        assertFalse(patternValidator.validate(1));
+
+        final Validator linearValidator = Validator.builder()
+                .type(ValidatorType.Pattern)
+                .pattern("(a+)+b")
+                .linearTime(true)
+                .build();
+        assertTrue(linearValidator.validate("aaab"));
+        // catastrophic for a backtracking engine, linear for RE2
+        assertFalse(linearValidator.validate("a".repeat(10_000) + "c"));
+    }
+
+    @Test
+    @DisplayName("Test UniqueItems Validator Logic")
+    public void testUniqueItemsValidatorLogic() {
+        final Validator uniqueItemsValidator = Validator.builder().type(ValidatorType.UniqueItems).build();
+        assertTrue(uniqueItemsValidator.validate(List.of(1, 2, 3)));
+        assertTrue(uniqueItemsValidator.validate(List.of("a", "b")));
+        assertTrue(uniqueItemsValidator.validate(new int[]{1, 2}));
+        assertFalse(uniqueItemsValidator.validate(List.of(1, 2, 1)));
+        assertFalse(uniqueItemsValidator.validate(List.of(BigDecimal.ONE, new BigDecimal("1.00"))));
+        assertFalse(uniqueItemsValidator.validate(List.of(2L, 2.0)));
+        assertFalse(uniqueItemsValidator.validate(1));
+
+        final Validator uniqueFieldValidator = Validator.builder()
+                .type(ValidatorType.UniqueItems)
+                .field("id")
+                .build();
+        assertTrue(uniqueFieldValidator.validate(List.of(Map.of("id", 1, "v", "a"), Map.of("id", 2, "v", "a"))));
+        assertFalse(uniqueFieldValidator.validate(List.of(Map.of("id", 1, "v", "a"), Map.of("id", 1, "v", "b"))));
+    }
+
 }
@@ -0,0 +1,126 @@
+package io.ajo.responscore.service;
+
+import io.ajo.responscore.config.Attribute;
+import io.ajo.responscore.config.Config;
+import io.ajo.responscore.config.Type;
+import io.ajo.responscore.config.validation.IncrementalConfigValidator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.validation.ConstraintViolationException;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Config Registry Test")
+public class ConfigRegistryTest {
+
+    /**
+     * Compiles are only run when the test says so
+     */
+    private final Queue<Runnable> compiles = new ArrayDeque<>();
+    private final ConfigRegistry registry = new ConfigRegistry(new FormService(), compiles::add);
+
+    private static Config config(String attributeCode) {
+        return Config.builder()
+                .attributes(Set.of(Attribute.builder().code(attributeCode).label(attributeCode).type(Type.STRING).build()))
+                .build();
+    }
+
+    private void compileAll() {
+        while (!compiles.isEmpty()) {
+            compiles.poll().run();
+        }
+    }
+
+    @Test
+    @DisplayName("Test Update Published Once Compiled")
+    public void testUpdatePublishedOnceCompiled() {
+        final CompletableFuture<ConfigRegistry.Version> first = registry.update("id", config("first"));
+        assertNull(registry.get("id"));
+        compileAll();
+        final ConfigRegistry.Version pinned = registry.get("id");
+        assertSame(first.join(), pinned);
+
+        final CompletableFuture<ConfigRegistry.Version> second = registry.update("id", config("second"));
+        // readers see the current version until the update is published
+        assertSame(pinned, registry.get("id"));
+        compileAll();
+        assertSame(second.join(), registry.get("id"));
+        assertTrue(second.join().number() > pinned.number());
+        // the pinned version is unchanged by the update
+        assertNotNull(pinned.compiled().getRoot().getAttribute("first"));
+        assertNull(pinned.compiled().getRoot().getAttribute("second"));
+    }
+
+    @Test
+    @DisplayName("Test Superseded Update Discarded")
+    public void testSupersededUpdateDiscarded() {
+        final CompletableFuture<ConfigRegistry.Version> first = registry.update("id", config("first"));
+        final CompletableFuture<ConfigRegistry.Version> second = registry.update("id", config("second"));
+        // the later update compiles first, the earlier must not replace it
+        final Runnable firstCompile = compiles.poll();
+        compiles.poll().run();
+        firstCompile.run();
+
+        assertNull(first.join());
+        assertSame(second.join(), registry.get("id"));
+
+        registry.update("id", config("third"));
+        assertTrue(registry.remove("id"));
+        compileAll();
+        assertNull(registry.get("id"));
+        assertFalse(registry.remove("id"));
+    }
+
+    @Test
+    @DisplayName("Test Invalid Update Keeps Current Version")
+    public void testInvalidUpdateKeepsCurrentVersion() {
+        registry.update("id", config("first"));
+        compileAll();
+        final ConfigRegistry.Version current = registry.get("id");
+
+        final CompletableFuture<ConfigRegistry.Version> invalid = registry.update("id", config(null));
+        compileAll();
+        final CompletionException e = assertThrows(CompletionException.class, invalid::join);
+        assertInstanceOf(ConstraintViolationException.class, e.getCause());
+        assertSame(current, registry.get("id"));
+        assertEquals("id", current.id());
+    }
+
+    @Test
+    @DisplayName("Test Incremental Update Validates Only Changes")
+    public void testIncrementalUpdateValidatesOnlyChanges() {
+        final IncrementalConfigValidator configValidator = new IncrementalConfigValidator();
+        final Attribute name = Attribute.builder().code("name").label("Name").type(Type.STRING).build();
+        registry.update("id", Config.builder().attributes(Set.of(name)).build(), configValidator);
+        compileAll();
+        final ConfigRegistry.Version first = registry.get("id");
+        assertNotNull(first);
+
+        final Attribute age = Attribute.builder().code("age").label("Age").type(Type.INTEGER).build();
+        final CompletableFuture<ConfigRegistry.Version> second =
+                registry.update("id", Config.builder().attributes(Set.of(name, age)).build(), configValidator);
+        compileAll();
+        assertEquals(1, configValidator.getValidated());
+        assertNotNull(second.join().compiled().getRoot().getAttribute("age"));
+
+        final CompletableFuture<ConfigRegistry.Version> invalid = registry.update("id", config(null), configValidator);
+        compileAll();
+        final CompletionException e = assertThrows(CompletionException.class, invalid::join);
+        assertInstanceOf(ConstraintViolationException.class, e.getCause());
+        assertSame(second.join(), registry.get("id"));
+    }
+
+}
@@ -0,0 +1,147 @@
+package io.ajo.responscore.service;
+
+import io.ajo.responscore.compiled.CompiledConfig;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.validation.ConstraintViolationException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("Config Source Test")
+public class ConfigSourceTest {
+
+    private static final String ROOT = """
+            {"attributes": [
+              {"code": "name", "label": "Name", "type": "STRING"},
+              {"code": "address", "label": "Address", "type": "COMPOSITE", "compositeCode": "address"},
+              {"code": "pet", "label": "Pet", "type": "COMPOSITE", "compositeCode": "pet"}
+            ]}
+            """;
+    private static final String COMPOSITES = """
+            {"compositeTypeConfigs": [
+              {"code": "address", "attributes": [{"code": "country", "label": "Country", "type": "LOOKUP", "lookupCode": "country"}]},
+              {"code": "pet", "attributes": [{"code": "kind", "label": "Kind", "type": "STRING"}]}
+            ]}
+            """;
+
+    private static String countries(String label) {
+        return """
+                {"lookupConfigs": [{"code": "country", "lookupItems": [{"code": "AU", "label": "%s"}]}]}
+                """.formatted(label);
+    }
+
+    @TempDir
+    Path directory;
+
+    private final ConfigRegistry registry = new ConfigRegistry(new FormService(), Runnable::run);
+
+    /**
+     * Poll until the source applies a change, as some file systems report a write as several changes
+     */
+    private static CompiledConfig pollChange(ConfigSource source) throws Exception {
+        final CompletableFuture<ConfigRegistry.Version> version = source.poll(Duration.ofSeconds(10));
+        assertNotNull(version);
+        return version.join().compiled();
+    }
+
+    @Test
+    @DisplayName("Test Change Recompiles Only Changed Subtrees")
+    public void testChangeRecompilesOnlyChangedSubtrees() throws Exception {
+        Files.writeString(directory.resolve("root.json"), ROOT);
+        Files.writeString(directory.resolve("composites.json"), COMPOSITES);
+        Files.writeString(directory.resolve("countries.json"), countries("Australia"));
+        try (ConfigSource source = new ConfigSource(directory, "id", registry)) {
+            final CompiledConfig loaded = source.load().join().compiled();
+            assertEquals("Australia", loaded.getLookup("country").getLabel("AU"));
+
+            Files.writeString(directory.resolve("countries.json"), countries("Straya"));
+            final CompiledConfig changed = pollChange(source);
+
+            assertEquals("Straya", changed.getLookup("country").getLabel("AU"));
+            assertNotSame(loaded.getComposite("address"), changed.getComposite("address"));
+            // the composites file wasn't re-read, and nothing it holds references the lookup changed
+            assertSame(loaded.getComposite("pet"), changed.getComposite("pet"));
+            assertSame(
+                    loaded.getRoot().getAttribute("name").getValidators(),
+                    changed.getRoot().getAttribute("name").getValidators()
+            );
+            assertEquals(CompiledConfig.compile(changed.getConfig()).getFingerprint(), changed.getFingerprint());
+
+            // rewritten with the same content, so every instance is shared with the previous version
+            Files.writeString(directory.resolve("composites.json"), COMPOSITES);
+            final CompiledConfig rewritten = pollChange(source);
+            assertSame(changed.getComposite("pet"), rewritten.getComposite("pet"));
+            assertSame(changed.getComposite("address"), rewritten.getComposite("address"));
+            assertSame(changed.getRoot(), rewritten.getRoot());
+        }
+    }
+
+    @Test
+    @DisplayName("Test Unreadable Change Not Published")
+    public void testUnreadableChangeNotPublished() throws Exception {
+        Files.writeString(directory.resolve("root.json"), """
+                {"attributes": [{"code": "name", "label": "Name", "type": "STRING"}]}
+                """);
+        try (ConfigSource source = new ConfigSource(directory, "id", registry)) {
+            final ConfigRegistry.Version loaded = source.load().join();
+
+            Files.writeString(directory.resolve("extra.json"), "{\"attributes\": [");
+            assertThrows(IOException.class, () -> source.poll(Duration.ofSeconds(10)));
+            assertSame(loaded, registry.get("id"));
+
+            Files.delete(directory.resolve("extra.json"));
+            final CompiledConfig deleted = pollChange(source);
+            assertNotNull(deleted.getRoot().getAttribute("name"));
+            assertNull(source.poll(Duration.ofMillis(100)));
+        }
+    }
+
+    @Test
+    @DisplayName("Test Run Reports Changes Not Published")
+    public void testRunReportsChangesNotPublished() throws Exception {
+        Files.writeString(directory.resolve("root.json"), """
+                {"attributes": [{"code": "name", "label": "Name", "type": "STRING"}]}
+                """);
+        final BlockingQueue<Throwable> errors = new LinkedBlockingQueue<>();
+        try (ConfigSource source = new ConfigSource(directory, "id", registry, errors::add)) {
+            final ConfigRegistry.Version loaded = source.load().join();
+            final Thread thread = new Thread(source);
+            thread.start();
+            try {
+                Files.writeString(directory.resolve("root.json"), """
+                        {"attributes": [{"code": "name", "type": "STRING"}]}
+                        """);
+                assertInstanceOf(ConstraintViolationException.class, errors.poll(10, TimeUnit.SECONDS));
+                assertSame(loaded, registry.get("id"));
+
+                Files.writeString(directory.resolve("extra.json"), "{\"attributes\": [");
+                Throwable error;
+                do {
+                    // the invalid root may be reported again as it's rewritten in several steps
+                    error = errors.poll(10, TimeUnit.SECONDS);
+                } while (error instanceof ConstraintViolationException);
+                assertInstanceOf(IOException.class, error);
+            } finally {
+                thread.interrupt();
+                thread.join();
+            }
+        }
+    }
+
+}
@@ -1,5 +1,7 @@
 package io.ajo.responscore.service;
 
+import io.ajo.responscore.compiled.CompiledConfig;
+import io.ajo.responscore.compiled.LookupDictionary;
 import io.ajo.responscore.config.Attribute;
 import io.ajo.responscore.config.CompositeTypeConfig;
 import io.ajo.responscore.config.Config;
@@ -12,15 +14,29 @@ import io.ajo.responscore.config.ValidatorType;
 import io.ajo.responscore.form.Form;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import javax.validation.ConstraintViolation;
+import javax.validation.ConstraintViolationException;
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DisplayName("Form Service Test")
@@ -215,6 +231,75 @@ public class FormServiceTest {
         assertEquals("data value ('not_lookup') doesn't match any known lookup item code", violation.getMessage());
     }
 
+    @Test
+    @DisplayName("Lookup Value In Dictionary")
+    public void lookupValueInDictionary(@TempDir Path directory) throws IOException {
+        final Path dictionary = directory.resolve("lookup.dict");
+        LookupDictionary.write(dictionary, List.of(
+                LookupItem.builder().code("lookup1").label("Lookup 1").build(),
+                LookupItem.builder().code("lookup2").label("Lookup 2").build()
+        ));
+        final Config config = Config.builder()
+                .attributes(Set.of(
+                        Attribute.builder()
+                                .code("code")
+                                .label("label")
+                                .type(Type.LOOKUP)
+                                .lookupCode("lookupCode")
+                                .list(true)
+                                .build()
+                ))
+                .lookupConfigs(Set.of(
+                        LookupConfig.builder()
+                                .code("lookupCode")
+                                .dictionary(dictionary.toString())
+                                .build()
+                ))
+                .build();
+
+        assertTrue(formService.validateFormWithConfig(config, Form.builder()
+                .data(Map.of("code", List.of("lookup1", "lookup2")))
+                .build()).isEmpty());
+
+        final Set<ConstraintViolation<Object>> violations = formService.validateFormWithConfig(config, Form.builder()
+                .data(Map.of("code", List.of("lookup2", "not_lookup")))
+                .build());
+        assertEquals(1, violations.size());
+        final ConstraintViolation<Object> violation = violations.iterator().next();
+        assertEquals("data.code[1]", violation.getPropertyPath().toString());
+        assertEquals("data value ('not_lookup') doesn't match any known lookup item code", violation.getMessage());
+    }
+
+    @Test
+    @DisplayName("Lookup Dictionary Confined To Directory")
+    public void lookupDictionaryConfinedToDirectory(@TempDir Path directory) throws IOException {
+        final Path dictionaries = Files.createDirectory(directory.resolve("dictionaries"));
+        LookupDictionary.write(directory.resolve("outside.dict"), List.of(
+                LookupItem.builder().code("lookup1").label("Lookup 1").build()
+        ));
+        final Config config = Config.builder()
+                .attributes(Set.of(
+                        Attribute.builder()
+                                .code("code")
+                                .label("label")
+                                .type(Type.LOOKUP)
+                                .lookupCode("lookupCode")
+                                .build()
+                ))
+                .lookupConfigs(Set.of(
+                        LookupConfig.builder()
+                                .code("lookupCode")
+                                .dictionary("../outside.dict")
+                                .build()
+                ))
+                .build();
+
+        final FormService confinedFormService = new FormService(null, false, dictionaries);
+        assertThrows(IllegalArgumentException.class, () -> confinedFormService.validateFormWithConfig(config, Form.builder()
+                .data(Map.of("code", "lookup1"))
+                .build()));
+    }
+
     @Test
     @DisplayName("Valid Min Value")
     public void validMinValue() {
@@ -668,4 +753,727 @@ public class FormServiceTest {
         assertEquals("data item in list is invalid by validator 'GreaterThan' (>10)", oGreaterThanViolation.get().getMessage());
     }
 
+    @Test
+    @DisplayName("Invalid Pattern Value")
+    public void invalidPatternValue() {
+        final Config config = Config.builder()
+                .attributes(Set.of(
+                        Attribute.builder()
+                                .code("code")
+                                .label("label")
+                                .type(Type.STRING)
+                                .validators(List.of(
+                                        Validator.builder()
+                                                .type(ValidatorType.Pattern)
+                                                .pattern("[A-Z]{3}")
+                                                .build()
+                                ))
+                                .build()
+                ))
+                .build();
+
+        final Form validForm = Form.builder()
+                .data(Map.of("code", "ABC"))
+                .build();
+
+        assertEquals(0, formService.validateFormWithConfig(config, validForm).size());
+
+        final Form form = Form.builder()
+                .data(Map.of("code", "ABCD"))
+                .build();
+
+        final Set<ConstraintViolation<Object>> violations = formService.validateFormWithConfig(config, form);
+
+        assertEquals(1, violations.size());
+        final ConstraintViolation<Object> violation = violations.iterator().next();
+        assertEquals("data.code", violation.getPropertyPath().toString());
+        assertEquals("data is invalid by validator 'Pattern' (Pattern=[A-Z]{3})", violation.getMessage());
+    }
+
+    @Test
+    @DisplayName("Valid Compiled Config Reuse")
+    public void validCompiledConfigReuse() {
+        final Config config = Config.builder()
+                .attributes(Set.of(
+                        Attribute.builder()
+                                .code("code")
+                                .label("label")
+                                .type(Type.INTEGER)
+                                .validators(List.of(
+                                        Validator.builder()
+                                                .type(ValidatorType.Min)
+                                                .value(BigDecimal.ONE)
+                                                .build(),
+                                        Validator.builder()
+                                                .type(ValidatorType.Max)
+                                                .value(BigDecimal.TEN)
+                                                .build()
+                                ))
+                                .build()
+                ))
+                .build();
+
+        final CompiledConfig compiledConfig = formService.compileConfig(config);
+
+        assertEquals(0, formService.validateFormWithConfig(compiledConfig, Form.builder().data(Map.of("code", 5)).build()).size());
+
+        final Set<ConstraintViolation<Object>> violations = formService.validateFormWithConfig(
+                compiledConfig,
+                Form.builder().data(Map.of("code", 11)).build()
+        );
+
+        assertEquals(1, violations.size());
+        final ConstraintViolation<Object> violation = violations.iterator().next();
+        assertEquals("data.code", violation.getPropertyPath().toString());
+        assertEquals("data is invalid by validator 'Max' (<=10)", violation.getMessage());
+    }
+
+    @Test
+    @DisplayName("Invalid Compile Config")
+    public void invalidCompileConfig() {
+        final Config config = Config.builder().build();
+
+        assertThrows(ConstraintViolationException.class, () -> formService.compileConfig(config));
+    }
+
+    @Test
+    @DisplayName("Invalid Composite List Values")
+    public void invalidCompositeListValues() {
+        final Config config = Config.builder()
+                .attributes(Set.of(
+                        Attribute.builder()
+                                .code("code")
+                                .label("label")
+                                .type(Type.COMPOSITE)
+                                .compositeCode("compositeCode")
+                                .list(true)
+                                .validators(List.of(
+                                        Validator.builder()
+                                                .type(ValidatorType.MaxSize)
+                                                .value(BigDecimal.TWO)
+                                                .build()
+                                ))
+                                .validateItems(List.of(
+                                        Validator.builder()
+                                                .type(ValidatorType.MinSize)
+                                                .value(BigDecimal.TWO)
+                                                .build()
+                                ))
+                                .build()
+                ))
+                .compositeTypeConfigs(Set.of(
+                        CompositeTypeConfig.builder()
+                                .code("compositeCode")
+                                .attributes(Set.of(
+                                        Attribute.builder()
+                                                .code("c1")
+                                                .label("c1")
+                                                .type(Type.LOOKUP)
+                                                .lookupCode("lookupCode")
+                                                .list(true)
+                                                .build(),
+                                        Attribute.builder()
+                                                .code("c2")
+                                                .label("c2")
+                                                .type(Type.INTEGER)
+                                                .build()
+                                ))
+                                .build()
+                ))
+                .lookupConfigs(Set.of(
+                        LookupConfig.builder()
+                                .code("lookupCode")
+                                .lookupItems(Set.of(
+                                        LookupItem.builder()
+                                                .code("l1")
+                                                .label("l1")
+                                                .build()
+                                ))
+                                .build()
+                ))
+                .build();
+
+        final Form form = Form.builder()
+                .data(Map.of(
+                        "code", List.of(
+                                Map.of("c1", List.of("l1"), "c2", 1),
+                                Map.of("c1", List.of("l1", "unknown"), "c2", "two"),
+                                Map.of("c2", 3)
+                        )
+                ))
+                .build();
+
+        final Set<ConstraintViolation<Object>> violations = formService.validateFormWithConfig(config, form);
+
+        assertEquals(4, violations.size());
+
+        final Optional<ConstraintViolation<Object>> oMaxSizeViolation = violations.stream()
+                .filter(v -> v.getPropertyPath().toString().equals("data.code")).findAny();
+        assertTrue(oMaxSizeViolation.isPresent());
+        assertEquals("data is invalid by validator 'MaxSize' (MaxSize=2)", oMaxSizeViolation.get().getMessage());
+
+        final Optional<ConstraintViolation<Object>> oMinSizeViolation = violations.stream()
+                .filter(v -> v.getPropertyPath().toString().equals("data.code[2]")).findAny();
+        assertTrue(oMinSizeViolation.isPresent());
+        assertEquals("data item in list is invalid by validator 'MinSize' (MinSize=2)", oMinSizeViolation.get().getMessage());
+
+        final Optional<ConstraintViolation<Object>> oLookupViolation = violations.stream()
+                .filter(v -> v.getPropertyPath().toString().equals("data.code[1].c1[1]")).findAny();
+        assertTrue(oLookupViolation.isPresent());
+        assertEquals("data value ('unknown') doesn't match any known lookup item code", oLookupViolation.get().getMessage());
+
+        final Optional<ConstraintViolation<Object>> oCoercionViolation = violations.stream()
+                .filter(v -> v.getPropertyPath().toString().equals("data.code[1].c2")).findAny();
+        assertTrue(oCoercionViolation.isPresent());
+        assertEquals("data type is invalid and not coercible to type 'INTEGER'", oCoercionViolation.get().getMessage());
+    }
+
+    @Test
+    @DisplayName("Invalid Large Numeric List Values")
+    public void invalidLargeNumericListValues() {
+        final Config config = Config.builder()
+                .attributes(Set.of(
+                        Attribute.builder()
+                                .code("code")
+                                .label("label")
+                                .type(Type.DECIMAL)
+                                .list(true)
+                                .validateItems(List.of(
+                                        Validator.builder()
+                                                .type(ValidatorType.Min)
+                                                .value(BigDecimal.ZERO)
+                                                .build(),
+                                        Validator.builder()
+                                                .type(ValidatorType.LessThan)
+                                                .value(new BigDecimal("100.5"))
+                                                .build()
+                                ))
+                                .build()
+                ))
+                .build();
+
+        final List<Object> readings = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            readings.add(i % 100);
+        }
+        readings.set(17, -0.01);
+        readings.set(9_998, 100.5);
+        readings.set(9_999, "101");
+
+        final Form form = Form.builder()
+                .data(Map.of("code", readings))
+                .build();
+
+        final Set<ConstraintViolation<Object>> violations = formService.validateFormWithConfig(config, form);
+
+        assertEquals(3, violations.size());
+
+        final Optional<ConstraintViolation<Object>> oMinViolation = violations.stream()
+                .filter(v -> v.getPropertyPath().toString().equals("data.code[17]")).findAny();
+        assertTrue(oMinViolation.isPresent());
+        assertEquals("data item in list is invalid by validator 'Min' (>=0)", oMinViolation.get().getMessage());
+
+        final Optional<ConstraintViolation<Object>> oLessThanViolation = violations.stream()
+                .filter(v -> v.getPropertyPath().toString().equals("data.code[9998]")).findAny();
+        assertTrue(oLessThanViolation.isPresent());
+        assertEquals("data item in list is invalid by validator 'LessThan' (<100.5)", oLessThanViolation.get().getMessage());
+
+        assertTrue(violations.stream().anyMatch(v -> v.getPropertyPath().toString().equals("data.code[9999]")));
+    }
+
+    @Test
+    @DisplayName("Invalid Duplicate List Values")
+    public void invalidDuplicateListValues() {
+        final Config config = Config.builder()
+                .attributes(Set.of(
+                        Attribute.builder()
+                                .code("code")
+                                .label("label")
+                                .type(Type.INTEGER)
+                                .list(true)
+                                .validators(List.of(
+                                        Validator.builder()
+                                                .type(ValidatorType.UniqueItems)
+                                                .build()
+                                ))
+                                .validateItems(List.of(
+                                        Validator.builder()
+                                                .type(ValidatorType.Min)
+                                                .value(BigDecimal.ZERO)
+                                                .build()
+                                ))
+                                .build()
+                ))
+                .build();
+
+        final List<Object> values = new ArrayList<>();
+        for (int i = 0; i < 200_000; i++) {
+            values.add(i);
+        }
+        values.set(150_000, "5");
+        values.set(199_999, 150_000);
+
+        final Form form = Form.builder()
+                .data(Map.of("code", values))
+                .build();
+
+        final Set<ConstraintViolation<Object>> violations = formService.validateFormWithConfig(config, form);
+
+        assertEquals(1, violations.size());
+        final ConstraintViolation<Object> violation = violations.iterator().next();
+        assertEquals("data.code[150000]", violation.getPropertyPath().toString());
+        assertEquals("data item in list is a duplicate of an earlier item by validator 'UniqueItems'", violation.getMessage());
+    }
+
+    @Test
+    @DisplayName("Invalid Duplicate Composite Field Values")
+    public void invalidDuplicateCompositeFieldValues() {
+        final Config config = Config.builder()
+                .attributes(Set.of(
+                        Attribute.builder()
+                                .code("code")
+                                .label("label")
+                                .type(Type.COMPOSITE)
+                                .compositeCode("compositeCode")
+                                .list(true)
+                                .validators(List.of(
+                                        Validator.builder()
+                                                .type(ValidatorType.UniqueItems)
+                                                .field("c1")
+                                                .build()
+                                ))
+                                .build()
+                ))
+                .compositeTypeConfigs(Set.of(
+                        CompositeTypeConfig.builder()
+                                .code("compositeCode")
+                                .attributes(Set.of(
+                                        Attribute.builder()
+                                                .code("c1")
+                                                .label("c1")
+                                                .type(Type.STRING)
+                                                .build(),
+                                        Attribute.builder()
+                                                .code("c2")
+                                                .label("c2")
+                                                .type(Type.INTEGER)
+                                                .build()
+                                ))
+                                .build()
+                ))
+                .build();
+
+        final Form form = Form.builder()
+                .data(Map.of(
+                        "code", List.of(
+                                Map.of("c1", "a", "c2", 1),
+                                Map.of("c1", "b", "c2", 1),
+                                Map.of("c1", "a", "c2", 2)
+                        )
+                ))
+                .build();
+
+        final Set<ConstraintViolation<Object>> violations = formService.validateFormWithConfig(config, form);
+
+        assertEquals(1, violations.size());
+        final ConstraintViolation<Object> violation = violations.iterator().next();
+        assertEquals("data.code[2]", violation.getPropertyPath().toString());
+        assertEquals("data item in list is a duplicate of an earlier item by validator 'UniqueItems' (field=c1)", violation.getMessage());
+    }
+
+    private static Config treeConfig() {
+        return Config.builder()
+                .attributes(Set.of(
+                        Attribute.builder()
+                                .code("node")
+                                .label("node")
+                                .type(Type.COMPOSITE)
+                                .compositeCode("tree")
+                                .build()
+                ))
+                .compositeTypeConfigs(Set.of(
+                        CompositeTypeConfig.builder()
+                                .code("tree")
+                                .attributes(Set.of(
+                                        Attribute.builder()
+                                                .code("value")
+                                                .label("value")
+                                                .type(Type.INTEGER)
+                                                .build(),
+                                        Attribute.builder()
+                                                .code("child")
+                                                .label("child")
+                                                .type(Type.COMPOSITE)
+                                                .compositeCode("tree")
+                                                .build()
+                                ))
+                                .build()
+                ))
+                .build();
+    }
+
+    private static Map<String, Object> treeData(int depth, Object leafValue) {
+        Map<String, Object> node = Map.of("value", leafValue);
+        for (int i = 1; i < depth; i++) {
+            node = Map.of("value", i, "child", node);
+        }
+        return node;
+    }
+
+    @Test
+    @DisplayName("Valid Self Referencing Composite")
+    public void validSelfReferencingComposite() {
+        final Form form = Form.builder()
+                .data(Map.of("node", treeData(30, 0)))
+                .build();
+
+        final Set<ConstraintViolation<Object>> violations = formService.validateFormWithConfig(treeConfig(), form);
+
+        assertEquals(0, violations.size());
+    }
+
+    @Test
+    @DisplayName("Invalid Deep Self Referencing Composite")
+    public void invalidDeepSelfReferencingComposite() {
+        final CompiledConfig compiledConfig = formService.compileConfig(treeConfig());
+        final Form form = Form.builder()
+                .data(Map.of("node", treeData(3, "x")))
+                .build();
+
+        final Set<ConstraintViolation<Object>> violations = formService.validateFormWithConfig(compiledConfig, form);
+
+        assertEquals(1, violations.size());
+        assertEquals("data.node.child.child.value", violations.iterator().next().getPropertyPath().toString());
+
+        // far deeper than the thread stack could recurse
+        final Form deepForm = Form.builder()
+                .data(Map.of("node", treeData(100_000, 0)))
+                .build();
+        final ValidationOptions options = ValidationOptions.builder().maxDepth(200_000).build();
+
+        assertEquals(0, formService.validateFormWithConfig(compiledConfig, deepForm, options).size());
+    }
+
+    @Test
+    @DisplayName("Invalid Max Depth Exceeded")
+    public void invalidMaxDepthExceeded() {
+        final CompiledConfig compiledConfig = formService.compileConfig(treeConfig());
+        final Form form = Form.builder()
+                .data(Map.of("node", treeData(5, 0)))
+                .build();
+        final ValidationOptions options = ValidationOptions.builder().maxDepth(3).build();
+
+        final Set<ConstraintViolation<Object>> violations = formService.validateFormWithConfig(compiledConfig, form, options);
+
+        assertEquals(1, violations.size());
+        final ConstraintViolation<Object> violation = violations.iterator().next();
+        assertEquals("data.node.child.child.child", violation.getPropertyPath().toString());
+        assertEquals("data is nested deeper than the maximum depth of 3", violation.getMessage());
+    }
+
+    @Test
+    @DisplayName("Invalid Max Nodes Exceeded")
+    public void invalidMaxNodesExceeded() {
+        final CompiledConfig compiledConfig = formService.compileConfig(treeConfig());
+        final Form form = Form.builder()
+                .data(Map.of("node", treeData(20, 0)))
+                .build();
+        final ValidationOptions options = ValidationOptions.builder().maxNodes(10).build();
+
+        final Set<ConstraintViolation<Object>> violations = formService.validateFormWithConfig(compiledConfig, form, options);
+
+        assertEquals(1, violations.size());
+        final ConstraintViolation<Object> violation = violations.iterator().next();
+        assertEquals("data", violation.getPropertyPath().toString());
+        assertEquals("data has more values than the maximum of 10, validation stopped", violation.getMessage());
+    }
+
+    @Test
+    @DisplayName("Invalid Max List Size Exceeded")
+    public void invalidMaxListSizeExceeded() {
+        final Config config = Config.builder()
+                .attributes(Set.of(
+                        Attribute.builder()
+                                .code("code")
+                                .label("label")
+                                .type(Type.INTEGER)
+                                .list(true)
+                                .build()
+                ))
+                .build();
+        final Form form = Form.builder()
+                .data(Map.of("code", List.of(1, 2, 3, 4)))
+                .build();
+        final ValidationOptions options = ValidationOptions.builder().maxListSize(3).build();
+
+        final Set<ConstraintViolation<Object>> violations = formService.validateFormWithConfig(
+                formService.compileConfig(config), form, options);
+
+        assertEquals(1, violations.size());
+        final ConstraintViolation<Object> violation = violations.iterator().next();
+        assertEquals("data.code", violation.getPropertyPath().toString());
+        assertEquals("list has more items than the maximum of 3", violation.getMessage());
+    }
+
+    @Test
+    @DisplayName("Invalid Admission Oversized Values")
+    public void invalidAdmissionOversizedValues() {
+        final Config config = Config.builder()
+                .attributes(Set.of(
+                        Attribute.builder()
+                                .code("name")
+                                .label("name")
+                                .type(Type.STRING)
+                                .validators(List.of(
+                                        Validator.builder()
+                                                .type(ValidatorType.MaxSize)
+                                                .value(BigDecimal.TEN)
+                                                .build()
+                                ))
+                                .build(),
+                        Attribute.builder()
+                                .code("tags")
+                                .label("tags")
+                                .type(Type.STRING)
+                                .list(true)
+                                .validators(List.of(
+                                        Validator.builder()
+                                                .type(ValidatorType.MaxSize)
+                                                .value(BigDecimal.valueOf(2))
+                                                .build()
+                                ))
+                                .build(),
+                        Attribute.builder()
+                                .code("amount")
+                                .label("amount")
+                                .type(Type.DECIMAL)
+                                .build()
+                ))
+                .build();
+        final CompiledConfig compiledConfig = formService.compileConfig(config);
+
+        // a little over the bound is still reported by the validator
+        Set<ConstraintViolation<Object>> violations = formService.validateFormWithConfig(compiledConfig, Form.builder()
+                .data(Map.of("name", "a".repeat(11), "tags", List.of("a", "b", "c")))
+                .build());
+        assertEquals(2, violations.size());
+        assertTrue(violations.stream().allMatch(v -> v.getMessage().startsWith("data is invalid by validator 'MaxSize'")));
+
+        // far over the bound is rejected before coercion
+        violations = formService.validateFormWithConfig(compiledConfig, Form.builder()
+                .data(Map.of("name", "a".repeat(41)))
+                .build());
+        assertEquals(1, violations.size());
+        assertEquals("data.name", violations.iterator().next().getPropertyPath().toString());
+        assertEquals("data is longer than the maximum length of 40", violations.iterator().next().getMessage());
+
+        violations = formService.validateFormWithConfig(compiledConfig, Form.builder()
+                .data(Map.of("tags", List.of("a", "b", "c", "d", "e", "f", "g", "h", "i")))
+                .build());
+        assertEquals(1, violations.size());
+        assertEquals("data.tags", violations.iterator().next().getPropertyPath().toString());
+        assertEquals("list has more items than the maximum of 8", violations.iterator().next().getMessage());
+
+        violations = formService.validateFormWithConfig(compiledConfig, Form.builder()
+                .data(Map.of("amount", new BigDecimal("1e-100000")))
+                .build());
+        assertEquals(1, violations.size());
+        assertEquals("data.amount", violations.iterator().next().getPropertyPath().toString());
+        assertEquals("number has more digits than the maximum of 1000", violations.iterator().next().getMessage());
+    }
+
+    @Test
+    @DisplayName("Invalid Admission Unknown Data Shape")
+    public void invalidAdmissionUnknownDataShape() {
+        final Config config = Config.builder()
+                .attributes(Set.of(
+                        Attribute.builder()
+                                .code("code")
+                                .label("label")
+                                .type(Type.STRING)
+                                .build()
+                ))
+                .build();
+        final CompiledConfig compiledConfig = formService.compileConfig(config);
+
+        final Map<String, Object> keys = new HashMap<>();
+        for (int i = 0; i < 5; i++) {
+            keys.put("key" + i, i);
+        }
+        Set<ConstraintViolation<Object>> violations = formService.validateFormWithConfig(compiledConfig, Form.builder()
+                .data(keys)
+                .build());
+        assertEquals(1, violations.size());
+        assertEquals("data", violations.iterator().next().getPropertyPath().toString());
+        assertEquals("data has more keys than the maximum of 4", violations.iterator().next().getMessage());
+
+        // deeply nested lists given for a string are rejected without being walked recursively
+        Object nested = List.of();
+        for (int i = 0; i < 100_000; i++) {
+            nested = List.of(nested);
+        }
+        violations = formService.validateFormWithConfig(compiledConfig, Form.builder()
+                .data(Map.of("code", nested))
+                .build());
+        assertEquals(1, violations.size());
+        assertEquals("data is nested deeper than the maximum depth of 32", violations.iterator().next().getMessage());
+    }
+
+    @Test
+    @DisplayName("Incomplete Deadline Exceeded")
+    public void incompleteDeadlineExceeded() {
+        final CompiledConfig compiledConfig = formService.compileConfig(treeConfig());
+        final Form form = Form.builder()
+                .data(Map.of("node", treeData(10, "x")))
+                .build();
+        final ValidationOptions options = ValidationOptions.builder()
+                .deadline(Instant.now().minusMillis(1))
+                .build();
+
+        final ValidationResult result = formService.validate(compiledConfig, form, options);
+
+        assertFalse(result.complete());
+        assertFalse(result.isValid());
+        assertEquals(1, result.violations().size());
+        final ConstraintViolation<Object> violation = result.violations().iterator().next();
+        assertEquals("data", violation.getPropertyPath().toString());
+        assertEquals("validation did not complete before its deadline", violation.getMessage());
+
+        // a far deadline doesn't affect the result
+        final ValidationResult completeResult = formService.validate(compiledConfig, form, ValidationOptions.builder()
+                .deadline(Instant.MAX)
+                .build());
+        assertTrue(completeResult.complete());
+        assertEquals(1, completeResult.violations().size());
+    }
+
+    @Test
+    @DisplayName("Incomplete Cancelled")
+    public void incompleteCancelled() {
+        final Config config = Config.builder()
+                .attributes(Set.of(
+                        Attribute.builder()
+                                .code("code")
+                                .label("label")
+                                .type(Type.STRING)
+                                .list(true)
+                                .validateItems(List.of(
+                                        Validator.builder()
+                                                .type(ValidatorType.NotBlank)
+                                                .build()
+                                ))
+                                .build()
+                ))
+                .build();
+        final List<String> values = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            values.add(" ");
+        }
+        final CancellationToken cancellationToken = new CancellationToken();
+        final ValidationOptions options = ValidationOptions.builder()
+                .cancellationToken(cancellationToken)
+                .build();
+        final Form form = Form.builder()
+                .data(Map.of("code", values))
+                .build();
+
+        final ValidationResult result = formService.validate(formService.compileConfig(config), form, options);
+        assertTrue(result.complete());
+        assertEquals(1_000, result.violations().size());
+
+        cancellationToken.cancel();
+        final ValidationResult cancelledResult = formService.validate(formService.compileConfig(config), form, options);
+        assertFalse(cancelledResult.complete());
+        assertEquals(1, cancelledResult.violations().size());
+        assertEquals("validation was cancelled before completing", cancelledResult.violations().iterator().next().getMessage());
+    }
+
+    @Test
+    @DisplayName("Valid Cached Result")
+    public void validCachedResult() {
+        final ValidationResultCache resultCache = new ValidationResultCache(1 << 20);
+        final FormService cachingFormService = new FormService(resultCache);
+        final CompiledConfig compiledConfig = cachingFormService.compileConfig(treeConfig());
+
+        final Set<ConstraintViolation<Object>> first = cachingFormService.validateFormWithConfig(compiledConfig, Form.builder()
+                .data(Map.of("node", treeData(3, "x")))
+                .build());
+        // a recompiled config with equal content, and equal data, hits the cache
+        final Set<ConstraintViolation<Object>> second = cachingFormService.validateFormWithConfig(
+                cachingFormService.compileConfig(treeConfig()),
+                Form.builder()
+                        .data(Map.of("node", treeData(3, "x")))
+                        .build()
+        );
+
+        assertEquals(1, first.size());
+        assertEquals(first, second);
+        assertEquals(1, resultCache.stats().hitCount());
+        assertEquals(1, resultCache.stats().missCount());
+
+        // different limits are a different result
+        cachingFormService.validateFormWithConfig(compiledConfig, Form.builder()
+                .data(Map.of("node", treeData(3, "x")))
+                .build(), ValidationOptions.builder().maxDepth(16).build());
+        assertEquals(2, resultCache.stats().missCount());
+
+        // incomplete results aren't cached
+        final ValidationOptions expired = ValidationOptions.builder().deadline(Instant.now().minusMillis(1)).build();
+        final Form otherForm = Form.builder()
+                .data(Map.of("node", treeData(4, 1)))
+                .build();
+        assertFalse(cachingFormService.validate(compiledConfig, otherForm, expired).complete());
+        assertTrue(cachingFormService.validate(compiledConfig, otherForm, ValidationOptions.DEFAULT).complete());
+        assertEquals(1, resultCache.stats().hitCount());
+    }
+
+    @Test
+    @DisplayName("Invalid Cached Result Not Admitted")
+    public void invalidCachedResultNotAdmitted() {
+        final ValidationResultCache resultCache = new ValidationResultCache(1 << 20);
+        final FormService cachingFormService = new FormService(resultCache, true);
+        final CompiledConfig compiledConfig = cachingFormService.compileConfig(treeConfig());
+        final ValidationOptions options = ValidationOptions.builder().maxNodes(10).build();
+
+        final Set<ConstraintViolation<Object>> violations = cachingFormService.validateFormWithConfig(compiledConfig, Form.builder()
+                .data(Map.of("node", treeData(20, 0)))
+                .build(), options);
+
+        // data rejected by admission is reported without being hashed into a key, so the cache is never consulted
+        assertEquals(1, violations.size());
+        assertEquals("data has more values than the maximum of 10, validation stopped", violations.iterator().next().getMessage());
+        assertEquals(0, resultCache.stats().missCount());
+        assertEquals(0, resultCache.stats().size());
+    }
+
+    @Test
+    @DisplayName("Valid Coalesced Result")
+    public void validCoalescedResult() throws Exception {
+        final FormService coalescingFormService = new FormService(null, true);
+        final CompiledConfig compiledConfig = coalescingFormService.compileConfig(treeConfig());
+        final Set<ConstraintViolation<Object>> expected = formService.validateFormWithConfig(compiledConfig, Form.builder()
+                .data(Map.of("node", treeData(3, "x")))
+                .build());
+
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<Set<ConstraintViolation<Object>>>> futures = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                futures.add(executor.submit(() -> coalescingFormService.validateFormWithConfig(compiledConfig, Form.builder()
+                        .data(Map.of("node", treeData(3, "x")))
+                        .build())));
+            }
+            for (final Future<Set<ConstraintViolation<Object>>> future : futures) {
+                final Set<ConstraintViolation<Object>> violations = future.get(10, TimeUnit.SECONDS);
+                assertEquals(1, violations.size());
+                assertEquals(
+                        expected.iterator().next().getPropertyPath().toString(),
+                        violations.iterator().next().getPropertyPath().toString()
+                );
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
 }
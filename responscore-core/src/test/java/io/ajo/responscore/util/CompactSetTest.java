@@ -0,0 +1,54 @@
+package io.ajo.responscore.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Compact Set Test")
+public class CompactSetTest {
+
+    @Test
+    @DisplayName("Test Keeps Order And Drops Duplicates")
+    public void testKeepsOrderAndDropsDuplicates() {
+        final Set<String> small = CompactSet.copyOf(Arrays.asList("c", "a", null, "c", "b"));
+        assertEquals(Arrays.asList("c", "a", null, "b"), new ArrayList<>(small));
+        assertTrue(small.contains(null));
+        assertFalse(small.contains("d"));
+
+        final List<Integer> values = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            values.add((i * 7919) % 500);
+        }
+        final Set<Integer> large = CompactSet.copyOf(values);
+        assertEquals(new ArrayList<>(new LinkedHashSet<>(values)), new ArrayList<>(large));
+        assertEquals(new HashSet<>(values), large);
+        assertEquals(new HashSet<>(values).hashCode(), large.hashCode());
+        for (int i = -10; i < 510; i++) {
+            assertEquals(i >= 0 && i < 500, large.contains(i));
+        }
+    }
+
+    @Test
+    @DisplayName("Test Immutable")
+    public void testImmutable() {
+        final Set<String> set = CompactSet.copyOf(List.of("a", "b"));
+        assertThrows(UnsupportedOperationException.class, () -> set.add("c"));
+        assertThrows(UnsupportedOperationException.class, () -> set.remove("a"));
+        assertThrows(UnsupportedOperationException.class, () -> set.iterator().remove());
+        assertSame(set, CompactSet.copyOf(set));
+        assertSame(Set.of(), CompactSet.copyOf(List.of()));
+    }
+
+}
@@ -0,0 +1,101 @@
+package io.ajo.responscore.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+@DisplayName("Content Hasher Test")
+public class ContentHasherTest {
+
+    private static Fingerprint hash(Object data) {
+        final ContentHasher hasher = new ContentHasher();
+        if (!hasher.putData(data)) {
+            return null;
+        }
+        return hasher.finish();
+    }
+
+    @Test
+    @DisplayName("Test Map Order Independent")
+    public void testMapOrderIndependent() {
+        final Map<String, Object> a = new LinkedHashMap<>();
+        a.put("x", 1);
+        a.put("y", List.of("a", "b"));
+        a.put("z", Map.of("n", new BigDecimal("1.50")));
+        final Map<String, Object> b = new LinkedHashMap<>();
+        b.put("z", Map.of("n", new BigDecimal("1.50")));
+        b.put("y", List.of("a", "b"));
+        b.put("x", 1);
+
+        assertEquals(hash(a), hash(b));
+        assertEquals(hash(Set.of(1, 2, 3)), hash(new HashSet<>(List.of(3, 2, 1))));
+    }
+
+    @Test
+    @DisplayName("Test Distinct Content Hashes Differ")
+    public void testDistinctContentHashesDiffer() {
+        assertNotEquals(hash(List.of("a", "b")), hash(List.of("b", "a")));
+        assertNotEquals(hash(Map.of("x", 1)), hash(Map.of("x", 1L)));
+        assertNotEquals(hash(new BigDecimal("1.5")), hash(new BigDecimal("1.50")));
+        assertNotEquals(hash(List.of("ab", "c")), hash(List.of("a", "bc")));
+        assertNotEquals(hash(Map.of("x", "1")), hash(Map.of("x", 1)));
+        assertNotEquals(hash(Map.of("a", 1, "b", 2)), hash(Map.of("a", 2, "b", 1)));
+        final Map<String, Object> nullValue = new LinkedHashMap<>();
+        nullValue.put("x", null);
+        assertNotEquals(hash(nullValue), hash(Map.of()));
+    }
+
+    @Test
+    @DisplayName("Test Unsupported Data")
+    public void testUnsupportedData() {
+        assertFalse(new ContentHasher().putData(Map.of("x", new Object())));
+        Object nested = "leaf";
+        for (int i = 0; i <= ContentHasher.MAX_DEPTH; i++) {
+            nested = List.of(nested);
+        }
+        assertFalse(new ContentHasher().putData(nested));
+    }
+
+    @Test
+    @DisplayName("Test Bytes Hash By Length And Content")
+    public void testBytesHashByLengthAndContent() {
+        final byte[] bytes = "0123456789abcdef!".getBytes();
+        assertEquals(new ContentHasher().putBytes(bytes).finish(), new ContentHasher().putBytes(bytes.clone()).finish());
+        // a trailing zero byte changes the length, if not the last lane
+        assertNotEquals(new ContentHasher().putBytes(new byte[]{1}).finish(), new ContentHasher().putBytes(new byte[]{1, 0}).finish());
+        final byte[] changed = bytes.clone();
+        changed[3] ^= 1;
+        assertNotEquals(new ContentHasher().putBytes(bytes).finish(), new ContentHasher().putBytes(changed).finish());
+    }
+
+    @Test
+    @DisplayName("Test Seeded Hashes")
+    public void testSeededHashes() {
+        final Map<String, Object> data = Map.of("x", 1, "y", Set.of("a", "b"));
+        final ContentHasher first = new ContentHasher(42);
+        final ContentHasher second = new ContentHasher(42);
+        final ContentHasher other = new ContentHasher(43);
+        first.putData(data);
+        second.putData(new LinkedHashMap<>(data));
+        other.putData(data);
+
+        // equal for a seed, order independent still, but different for another seed or none
+        assertEquals(first.finish(), second.finish());
+        assertNotEquals(first.finish(), other.finish());
+        assertNotEquals(first.finish(), hash(data));
+        final ContentHasher unseeded = new ContentHasher(0);
+        unseeded.putData(data);
+        assertEquals(hash(data), unseeded.finish());
+    }
+
+}
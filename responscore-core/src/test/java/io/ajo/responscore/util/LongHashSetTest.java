@@ -0,0 +1,44 @@
+package io.ajo.responscore.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTimeout;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Long Hash Set Test")
+public class LongHashSetTest {
+
+    @Test
+    @DisplayName("Test Detects Duplicates")
+    public void testDetectsDuplicates() {
+        final LongHashSet set = new LongHashSet(2);
+        for (long i = -100; i < 100; i++) {
+            assertTrue(set.add(i * 31));
+        }
+        for (long i = -100; i < 100; i++) {
+            assertFalse(set.add(i * 31));
+        }
+        assertTrue(set.add(Long.MIN_VALUE));
+        assertFalse(set.add(Long.MIN_VALUE));
+    }
+
+    @Test
+    @DisplayName("Test Keys Differing In High Word Don't Cluster")
+    public void testKeysDifferingInHighWordDontCluster() {
+        // were all in one probe chain when only the low word was hashed, taking minutes rather than milliseconds
+        assertTimeout(Duration.ofSeconds(2), () -> {
+            final LongHashSet set = new LongHashSet(16);
+            for (long i = 1; i <= 200_000; i++) {
+                assertTrue(set.add(i << 32));
+            }
+            for (long i = 1; i <= 200_000; i++) {
+                assertFalse(set.add(i << 32));
+            }
+        });
+    }
+
+}
@@ -0,0 +1,62 @@
+package io.ajo.responscore.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTimeout;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Object Hash Set Test")
+public class ObjectHashSetTest {
+
+    /**
+     * @return every string of {@code blocks} blocks each "Aa" or "BB", which all have the same hash code
+     */
+    private static List<String> collidingStrings(int blocks) {
+        final List<String> strings = new ArrayList<>(1 << blocks);
+        for (int i = 0; i < 1 << blocks; i++) {
+            final StringBuilder string = new StringBuilder(blocks * 2);
+            for (int block = 0; block < blocks; block++) {
+                string.append((i >>> block & 1) == 0 ? "Aa" : "BB");
+            }
+            strings.add(string.toString());
+        }
+        return strings;
+    }
+
+    @Test
+    @DisplayName("Test Detects Duplicates")
+    public void testDetectsDuplicates() {
+        final ObjectHashSet set = new ObjectHashSet(2);
+        for (int i = 0; i < 200; i++) {
+            assertTrue(set.add("value" + i));
+        }
+        for (int i = 0; i < 200; i++) {
+            assertFalse(set.add("value" + i));
+        }
+    }
+
+    @Test
+    @DisplayName("Test Colliding Hash Codes Stay Bounded")
+    public void testCollidingHashCodesStayBounded() {
+        final List<String> strings = collidingStrings(17);
+        assertEquals(1, strings.stream().map(String::hashCode).distinct().count());
+        // all in one probe run without the fallback, taking minutes rather than milliseconds
+        assertTimeout(Duration.ofSeconds(2), () -> {
+            final ObjectHashSet set = new ObjectHashSet(strings.size());
+            for (final String string : strings) {
+                assertTrue(set.add(string));
+            }
+            for (final String string : strings) {
+                assertFalse(set.add(string));
+            }
+        });
+    }
+
+}
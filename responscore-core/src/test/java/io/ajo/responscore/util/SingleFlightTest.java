@@ -0,0 +1,123 @@
+package io.ajo.responscore.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Single Flight Test")
+public class SingleFlightTest {
+
+    @Test
+    @DisplayName("Test Concurrent Calls Share Computation")
+    public void testConcurrentCallsShareComputation() throws Exception {
+        final SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+        final AtomicInteger computations = new AtomicInteger();
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final Future<SingleFlight.Result<Integer>> leader = executor.submit(() -> singleFlight.execute("key", () -> {
+                started.countDown();
+                await(release);
+                return computations.incrementAndGet();
+            }));
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+
+            final List<Future<SingleFlight.Result<Integer>>> followers = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                followers.add(executor.submit(() -> singleFlight.execute("key", computations::incrementAndGet)));
+            }
+            // followers join the computation in flight before it is released
+            while (singleFlight.getShares() < 3) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+
+            assertFalse(leader.get(10, TimeUnit.SECONDS).shared());
+            for (final Future<SingleFlight.Result<Integer>> follower : followers) {
+                final SingleFlight.Result<Integer> result = follower.get(10, TimeUnit.SECONDS);
+                assertTrue(result.shared());
+                assertEquals(1, result.value());
+            }
+            assertEquals(1, computations.get());
+            assertEquals(1, singleFlight.getExecutions());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // nothing is retained once complete
+        assertEquals(2, singleFlight.execute("key", computations::incrementAndGet).value());
+    }
+
+    @Test
+    @DisplayName("Test Follower Waits Only Until Its Own Limits")
+    public void testFollowerWaitsOnlyUntilItsOwnLimits() throws Exception {
+        final SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<SingleFlight.Result<Integer>> leader = executor.submit(() -> singleFlight.execute("key", () -> {
+                started.countDown();
+                await(release);
+                return 1;
+            }));
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+
+            // gives up on the leader at its deadline, and computes itself rather than waiting for the leader
+            final long start = System.nanoTime();
+            final SingleFlight.Result<Integer> late = singleFlight.execute("key", () -> 2, Instant.now().plusMillis(50), null);
+            assertFalse(late.shared());
+            assertEquals(2, late.value());
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+
+            final AtomicBoolean cancelled = new AtomicBoolean(true);
+            final SingleFlight.Result<Integer> cancelledResult = singleFlight.execute("key", () -> 3, null, cancelled::get);
+            assertFalse(cancelledResult.shared());
+            assertEquals(3, cancelledResult.value());
+            assertEquals(0, singleFlight.getShares());
+
+            release.countDown();
+            assertEquals(1, leader.get(10, TimeUnit.SECONDS).value());
+            assertEquals(3, singleFlight.getExecutions());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Test Failure Is Not Retained")
+    public void testFailureIsNotRetained() {
+        final SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+        assertThrows(IllegalStateException.class, () -> singleFlight.execute("key", () -> {
+            throw new IllegalStateException();
+        }));
+        assertEquals(1, singleFlight.execute("key", () -> 1).value());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -0,0 +1,74 @@
+package io.ajo.responscore.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Tiny LFU Cache Test")
+public class TinyLfuCacheTest {
+
+    @Test
+    @DisplayName("Test Weight Bound")
+    public void testWeightBound() {
+        final TinyLfuCache<Integer, String> cache = new TinyLfuCache<>(1_000, 100, (k, v) -> v.length());
+        for (int i = 0; i < 1_000; i++) {
+            cache.put(i, "x".repeat(1 + i % 20));
+        }
+        final CacheStats stats = cache.stats();
+        assertTrue(stats.weight() <= 1_000);
+        assertTrue(stats.evictionCount() > 0);
+
+        // heavier than the whole cache is never cached
+        cache.put(-1, "x".repeat(1_001));
+        assertNull(cache.get(-1));
+    }
+
+    @Test
+    @DisplayName("Test Frequent Entries Survive Scan")
+    public void testFrequentEntriesSurviveScan() {
+        final TinyLfuCache<Integer, Integer> cache = new TinyLfuCache<>(100, 100, (k, v) -> 1);
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 50; i++) {
+                if (cache.get(i) == null) {
+                    cache.put(i, i);
+                }
+            }
+        }
+        // a scan of one-off keys doesn't flush out the popular ones
+        for (int i = 1_000; i < 11_000; i++) {
+            cache.get(i);
+            cache.put(i, i);
+        }
+        int retained = 0;
+        for (int i = 0; i < 50; i++) {
+            if (cache.get(i) != null) {
+                retained++;
+            }
+        }
+        assertTrue(retained >= 45, "retained " + retained);
+    }
+
+    @Test
+    @DisplayName("Test Stats")
+    public void testStats() {
+        final TinyLfuCache<String, String> cache = new TinyLfuCache<>(10, 10, (k, v) -> 1);
+        assertNull(cache.get("a"));
+        cache.put("a", "1");
+        assertNotNull(cache.get("a"));
+        assertNotNull(cache.get("a"));
+
+        final CacheStats stats = cache.stats();
+        assertEquals(2, stats.hitCount());
+        assertEquals(1, stats.missCount());
+        assertEquals(1, stats.size());
+        assertEquals(2.0 / 3, stats.hitRate(), 1e-9);
+
+        cache.invalidateAll();
+        assertEquals(0, cache.stats().size());
+    }
+
+}